@@ -50,29 +50,7 @@ public class PlatformLwjgl extends FlounderPlatform {
 
 	@Override
 	public Platform getPlatform() {
-		final String OS = System.getProperty("os.name").toLowerCase();
-		final String ARCH = System.getProperty("os.arch").toLowerCase();
-
-		boolean isWindows = OS.contains("windows");
-		boolean isLinux = OS.contains("linux");
-		boolean isMac = OS.contains("mac");
-		boolean is64Bit = ARCH.equals("amd64") || ARCH.equals("x86_64");
-
-		Platform platform = Platform.UNKNOWN;
-
-		if (isWindows) {
-			platform = is64Bit ? Platform.WINDOWS_64 : Platform.WINDOWS_32;
-		}
-
-		if (isLinux) {
-			platform = is64Bit ? Platform.LINUX_64 : Platform.UNKNOWN;
-		}
-
-		if (isMac) {
-			platform = Platform.MACOS;
-		}
-
-		return platform;
+		return Platform.getDesktopPlatform();
 	}
 
 	@Override
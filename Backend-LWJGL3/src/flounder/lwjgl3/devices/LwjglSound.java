@@ -5,6 +5,7 @@ import flounder.framework.*;
 import flounder.logger.*;
 import flounder.lwjgl3.sounds.*;
 import flounder.maths.vectors.*;
+import flounder.resources.*;
 import flounder.sounds.*;
 import org.lwjgl.openal.*;
 
@@ -67,6 +68,11 @@ public class LwjglSound extends FlounderSound {
 		return new LwjglSoundSource();
 	}
 
+	@Override
+	public IAudioStream openVorbisStream(MyFile file, int chunkSize) throws Exception {
+		return new LwjglVorbisStream(file, chunkSize);
+	}
+
 	@Override
 	public int getOpenAlFormat(int channels, int bitsPerSample) {
 		if (channels == 1) {
@@ -236,6 +236,13 @@ public class LwjglOpenGL extends FlounderOpenGL {
 		//}
 	}
 
+	@Override
+	public void renderElementsInstanced(int glMode, int glType, int glLength, int glPrimCount) {
+		if (isModern()) {
+			glDrawElementsInstanced(glMode, glLength, glType, 0, glPrimCount);
+		}
+	}
+
 	@Handler.Function(Handler.FLAG_DISPOSE)
 	public void dispose() {
 		super.dispose();
@@ -13,6 +13,7 @@ import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
 import static org.lwjgl.opengl.GL33.*;
 
 @Module.ModuleOverride
@@ -252,6 +253,33 @@ public class LwjglLoaders extends FlounderLoader {
 		glBindBuffer(GL_ARRAY_BUFFER, 0);
 	}
 
+	@Override
+	public void updateVBO(int vbo, float[] data, int length, FloatBuffer buffer) {
+		buffer.clear();
+		buffer.put(data, 0, length);
+		buffer.flip();
+
+		glBindBuffer(GL_ARRAY_BUFFER, vbo);
+		glBufferData(GL_ARRAY_BUFFER, buffer.capacity() * ByteWork.FLOAT_LENGTH, GL_STREAM_DRAW);
+		glBufferSubData(GL_ARRAY_BUFFER, 0, buffer);
+		glBindBuffer(GL_ARRAY_BUFFER, 0);
+	}
+
+	@Override
+	public int createBufferTexture(int vbo, int glFormat) {
+		int textureID = glGenTextures();
+		glBindTexture(GL_TEXTURE_BUFFER, textureID);
+		glTexBuffer(GL_TEXTURE_BUFFER, glFormat, vbo);
+		glBindTexture(GL_TEXTURE_BUFFER, 0);
+		return textureID;
+	}
+
+	@Override
+	public void deleteBufferTexture(int textureID, int vbo) {
+		glDeleteTextures(textureID);
+		glDeleteBuffers(vbo);
+	}
+
 	@Override
 	public void refillVBOWithData(int vbo, FloatBuffer buffer, float[] data) {
 		buffer.clear();
@@ -5,6 +5,7 @@ import flounder.maths.vectors.*;
 import flounder.sounds.*;
 
 import static org.lwjgl.openal.AL10.*;
+import static org.lwjgl.openal.AL11.*;
 
 public class LwjglSoundSource extends SoundSource {
 	private int sourceID;
@@ -80,6 +81,16 @@ public class LwjglSoundSource extends SoundSource {
 		}
 	}
 
+	@Override
+	protected float getPlaybackOffset() {
+		return alGetSourcef(sourceID, AL_SEC_OFFSET);
+	}
+
+	@Override
+	protected void setPlaybackOffset(float seconds) {
+		alSourcef(sourceID, AL_SEC_OFFSET, seconds);
+	}
+
 	@Override
 	protected void setPosition(Vector3f position) {
 		alSource3f(sourceID, AL_POSITION, position.x, position.y, position.z);
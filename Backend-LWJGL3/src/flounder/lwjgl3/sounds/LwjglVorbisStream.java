@@ -0,0 +1,132 @@
+package flounder.lwjgl3.sounds;
+
+import flounder.devices.*;
+import flounder.logger.*;
+import flounder.resources.*;
+import flounder.sounds.*;
+import org.lwjgl.*;
+import org.lwjgl.stb.*;
+
+import java.io.*;
+import java.nio.*;
+
+import static org.lwjgl.stb.STBVorbis.*;
+
+/**
+ * Decodes an Ogg Vorbis file into 16 bit PCM chunks using stb_vorbis. The compressed file is kept in memory and decoded as it is read.
+ */
+public class LwjglVorbisStream implements IAudioStream {
+	private ByteBuffer encoded;
+	private long handle;
+
+	private int channels;
+	private int alFormat;
+	private int sampleRate;
+	private int totalSamples;
+
+	private ByteBuffer buffer;
+	private ShortBuffer samples;
+
+	private int samplesRead;
+
+	public LwjglVorbisStream(MyFile file, int chunkSize) throws Exception {
+		this.encoded = readFile(file);
+
+		int[] error = new int[1];
+		this.handle = stb_vorbis_open_memory(encoded, error, null);
+
+		if (handle == 0L) {
+			throw new IOException("Failed to open Ogg Vorbis file " + file + ", error " + error[0]);
+		}
+
+		try (STBVorbisInfo info = STBVorbisInfo.malloc()) {
+			stb_vorbis_get_info(handle, info);
+			this.channels = info.channels();
+			this.sampleRate = info.sample_rate();
+		}
+
+		this.alFormat = FlounderSound.get().getOpenAlFormat(channels, 16);
+		this.totalSamples = stb_vorbis_stream_length_in_samples(handle);
+
+		// Rounds the chunk down to a whole number of frames.
+		int bytesPerFrame = channels * 2;
+		this.buffer = BufferUtils.createByteBuffer(chunkSize - (chunkSize % bytesPerFrame));
+		this.samples = buffer.asShortBuffer();
+
+		this.samplesRead = 0;
+	}
+
+	private static ByteBuffer readFile(MyFile file) throws IOException {
+		try (InputStream in = file.getInputStream()) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] data = new byte[8192];
+			int read;
+
+			while ((read = in.read(data)) != -1) {
+				out.write(data, 0, read);
+			}
+
+			byte[] bytes = out.toByteArray();
+			ByteBuffer encoded = BufferUtils.createByteBuffer(bytes.length);
+			encoded.put(bytes);
+			encoded.flip();
+			return encoded;
+		}
+	}
+
+	@Override
+	public ByteBuffer loadNextData() {
+		samples.clear();
+		int frames = stb_vorbis_get_samples_short_interleaved(handle, channels, samples);
+		samplesRead = frames == 0 ? totalSamples : samplesRead + frames;
+
+		buffer.clear();
+		buffer.limit(frames * channels * 2);
+		return buffer;
+	}
+
+	@Override
+	public void setStartPoint(int bytesRead) {
+		int sample = bytesRead / getBytesPerFrame();
+
+		if (!stb_vorbis_seek(handle, sample)) {
+			FlounderLogger.get().error("Could not seek Ogg Vorbis stream to sample " + sample + "!");
+			return;
+		}
+
+		samplesRead = sample;
+	}
+
+	@Override
+	public boolean hasEnded() {
+		return samplesRead >= totalSamples;
+	}
+
+	@Override
+	public int getAlFormat() {
+		return alFormat;
+	}
+
+	@Override
+	public int getSampleRate() {
+		return sampleRate;
+	}
+
+	@Override
+	public int getTotalBytes() {
+		return totalSamples * getBytesPerFrame();
+	}
+
+	@Override
+	public int getBytesPerFrame() {
+		return channels * 2;
+	}
+
+	@Override
+	public void close() {
+		if (handle != 0L) {
+			stb_vorbis_close(handle);
+			handle = 0L;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package benchmarks;
+
+import flounder.maths.vectors.*;
+import flounder.sounds.*;
+
+import java.util.*;
+
+/**
+ * Compares updating 10,000 audio nodes through the {@link AudioScene} grid with checking the distance of every node to the listener each frame, as the
+ * emitters did before the scene. The listener walks across the nodes, so nodes are woken and put to sleep as it goes.
+ */
+public class AudioSceneBenchmark {
+	private static final int NODES = 10000;
+	private static final int FRAMES = 100;
+	private static final float WORLD_SIZE = 2000.0f;
+	private static final float RANGE = 40.0f;
+
+	public static void main(String[] args) {
+		Random random = new Random(0L);
+		List<Node> nodes = new ArrayList<>();
+		AudioScene scene = new AudioScene();
+
+		for (int i = 0; i < NODES; i++) {
+			Node node = new Node(new Vector3f(random.nextFloat() * WORLD_SIZE, 0.0f, random.nextFloat() * WORLD_SIZE));
+			nodes.add(node);
+			scene.add(node);
+		}
+
+		Vector3f listener = new Vector3f();
+		Benchmark benchmark = new Benchmark("Audio scene, " + NODES + " nodes, ns per frame", 20, 50);
+
+		benchmark.run("every node", FRAMES, () -> {
+			for (int frame = 0; frame < FRAMES; frame++) {
+				moveListener(listener, frame);
+
+				for (Node node : nodes) {
+					Vector3f position = node.getPosition();
+					float dx = position.x - listener.x;
+					float dy = position.y - listener.y;
+					float dz = position.z - listener.z;
+					float range = node.getAudibleRange();
+
+					if (dx * dx + dy * dy + dz * dz < range * range) {
+						node.update(0.016f);
+					}
+				}
+			}
+
+			Benchmark.consume(nodes.get(0));
+		});
+
+		benchmark.run("audio scene", FRAMES, () -> {
+			for (int frame = 0; frame < FRAMES; frame++) {
+				moveListener(listener, frame);
+				scene.update(0.016f, listener);
+			}
+
+			Benchmark.consume(scene.getAwakeCount());
+		});
+
+		benchmark.print();
+	}
+
+	private static void moveListener(Vector3f listener, int frame) {
+		float t = (float) frame / FRAMES;
+		listener.set(t * WORLD_SIZE, 0.0f, WORLD_SIZE * 0.5f);
+	}
+
+	/**
+	 * A node that always has something to play, so it stays in the scene.
+	 */
+	private static class Node implements IAudioNode {
+		private final Vector3f position;
+		private int updates;
+
+		private Node(Vector3f position) {
+			this.position = position;
+			this.updates = 0;
+		}
+
+		@Override
+		public Vector3f getPosition() {
+			return position;
+		}
+
+		@Override
+		public float getAudibleRange() {
+			return RANGE;
+		}
+
+		@Override
+		public void update(float delta) {
+			updates++;
+		}
+
+		@Override
+		public void sleep() {
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package benchmarks;
+
+import java.util.*;
+
+/**
+ * A small timing harness for the engines benchmarks. Each case is run for a number of warm up rounds so the JIT has compiled it, then timed over
+ * measured rounds, and the fastest and mean time per operation are printed. Results a case works out should be passed to {@link #consume(Object)} or
+ * {@link #consume(float)} so the JIT can not remove the work.
+ */
+public class Benchmark {
+	private static volatile Object objectSink;
+	private static volatile float floatSink;
+
+	private final String name;
+	private final int warmupRounds;
+	private final int measuredRounds;
+	private final Map<String, double[]> results;
+
+	/**
+	 * Creates a new benchmark.
+	 *
+	 * @param name The name printed before the results.
+	 * @param warmupRounds The amount of untimed rounds to run each case for first.
+	 * @param measuredRounds The amount of timed rounds to run each case for.
+	 */
+	public Benchmark(String name, int warmupRounds, int measuredRounds) {
+		this.name = name;
+		this.warmupRounds = warmupRounds;
+		this.measuredRounds = measuredRounds;
+		this.results = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Runs and times a case.
+	 *
+	 * @param caseName The name of the case.
+	 * @param operations The amount of operations one round of the case does, used to get the time per operation.
+	 * @param round The work done in one round.
+	 */
+	public void run(String caseName, int operations, Runnable round) {
+		for (int i = 0; i < warmupRounds; i++) {
+			round.run();
+		}
+
+		long best = Long.MAX_VALUE;
+		long total = 0L;
+
+		for (int i = 0; i < measuredRounds; i++) {
+			long start = System.nanoTime();
+			round.run();
+			long time = System.nanoTime() - start;
+			best = Math.min(best, time);
+			total += time;
+		}
+
+		results.put(caseName, new double[]{(double) best / operations, (double) total / measuredRounds / operations});
+	}
+
+	/**
+	 * Prints the time per operation of every case that has been run, and how much faster each case is than the first.
+	 */
+	public void print() {
+		System.out.println(name + " (" + warmupRounds + " warm up rounds, " + measuredRounds + " measured rounds)");
+		double baseline = -1.0;
+
+		for (Map.Entry<String, double[]> result : results.entrySet()) {
+			double best = result.getValue()[0];
+			double mean = result.getValue()[1];
+
+			if (baseline < 0.0) {
+				baseline = mean;
+			}
+
+			System.out.println(String.format("  %-32s best %12.2f ns/op   mean %12.2f ns/op   %6.2fx", result.getKey(), best, mean, baseline / mean));
+		}
+	}
+
+	/**
+	 * Keeps a result alive so the work that made it is not removed.
+	 *
+	 * @param value The result.
+	 */
+	public static void consume(Object value) {
+		objectSink = value;
+	}
+
+	/**
+	 * Keeps a result alive so the work that made it is not removed.
+	 *
+	 * @param value The result.
+	 */
+	public static void consume(float value) {
+		floatSink = value;
+	}
+}
@@ -0,0 +1,116 @@
+package benchmarks;
+
+import flounder.noise.*;
+
+/**
+ * Compares filling grids of octave noise with a {@link NoiseField} against the scalar path it replaced, looping over the points and calling the noise
+ * once for each octave. The field is timed sampling one point at a time and filling whole grids, small grids are filled on the calling thread and large
+ * ones across the fork-join pool.
+ */
+public class NoiseFieldBenchmark {
+	private static final int SEED = 420;
+	private static final int OCTAVES = 6;
+	private static final float FREQUENCY = 0.01f;
+	private static final float LACUNARITY = 2.0f;
+	private static final float GAIN = 0.5f;
+	private static final float STEP = 1.0f;
+
+	public static void main(String[] args) {
+		SimplexNoise noise = new SimplexNoise(SEED);
+		NoiseField field = new NoiseField(noise, NoiseField.Type.FBM, OCTAVES, FREQUENCY, LACUNARITY, GAIN);
+
+		run2D(noise, field, 64);
+		run2D(noise, field, 512);
+		run3D(noise, field, 48);
+	}
+
+	private static void run2D(SimplexNoise noise, NoiseField field, int size) {
+		float[] grid = new float[size * size];
+		int points = size * size;
+		Benchmark benchmark = new Benchmark("Noise field, 2D " + size + "x" + size + " fBm, " + OCTAVES + " octaves, ns per point", 10, 30);
+
+		benchmark.run("scalar octaves", points, () -> {
+			for (int y = 0; y < size; y++) {
+				for (int x = 0; x < size; x++) {
+					float value = 0.0f;
+					float frequency = FREQUENCY;
+					float amplitude = 1.0f;
+
+					for (int octave = 0; octave < OCTAVES; octave++) {
+						value += noise.noise(x * STEP * frequency, y * STEP * frequency) * amplitude;
+						frequency *= LACUNARITY;
+						amplitude *= GAIN;
+					}
+
+					grid[y * size + x] = value;
+				}
+			}
+
+			Benchmark.consume(grid[points - 1]);
+		});
+
+		benchmark.run("field sample", points, () -> {
+			for (int y = 0; y < size; y++) {
+				for (int x = 0; x < size; x++) {
+					grid[y * size + x] = field.sample(x * STEP, y * STEP);
+				}
+			}
+
+			Benchmark.consume(grid[points - 1]);
+		});
+
+		benchmark.run("field fill", points, () -> {
+			field.fill(grid, 0.0f, 0.0f, STEP, size, size);
+			Benchmark.consume(grid[points - 1]);
+		});
+
+		benchmark.print();
+	}
+
+	private static void run3D(SimplexNoise noise, NoiseField field, int size) {
+		float[] grid = new float[size * size * size];
+		int points = size * size * size;
+		Benchmark benchmark = new Benchmark("Noise field, 3D " + size + "x" + size + "x" + size + " fBm, " + OCTAVES + " octaves, ns per point", 5, 15);
+
+		benchmark.run("scalar octaves", points, () -> {
+			for (int z = 0; z < size; z++) {
+				for (int y = 0; y < size; y++) {
+					for (int x = 0; x < size; x++) {
+						float value = 0.0f;
+						float frequency = FREQUENCY;
+						float amplitude = 1.0f;
+
+						for (int octave = 0; octave < OCTAVES; octave++) {
+							value += noise.noise(x * STEP * frequency, y * STEP * frequency, z * STEP * frequency) * amplitude;
+							frequency *= LACUNARITY;
+							amplitude *= GAIN;
+						}
+
+						grid[(z * size + y) * size + x] = value;
+					}
+				}
+			}
+
+			Benchmark.consume(grid[points - 1]);
+		});
+
+		benchmark.run("field sample", points, () -> {
+			for (int z = 0; z < size; z++) {
+				for (int y = 0; y < size; y++) {
+					for (int x = 0; x < size; x++) {
+						grid[(z * size + y) * size + x] = field.sample(x * STEP, y * STEP, z * STEP);
+					}
+				}
+			}
+
+			Benchmark.consume(grid[points - 1]);
+		});
+
+		benchmark.run("field fill", points, () -> {
+			field.fill(grid, 0.0f, 0.0f, 0.0f, STEP, size, size, size);
+			Benchmark.consume(grid[points - 1]);
+		});
+
+		benchmark.print();
+	}
+}
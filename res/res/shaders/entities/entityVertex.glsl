@@ -1,7 +1,6 @@
 #version
 
 //---------CONSTANT------------
-const int MAX_JOINTS = 50;
 const int MAX_WEIGHTS = 3;
 
 //---------IN------------
@@ -14,6 +13,7 @@ layout(location = 5) in vec3 in_weights;
 
 //---------UNIFORM------------
 layout(binding = 2) uniform sampler2D swayMap;
+layout(binding = 3) uniform samplerBuffer jointPalette;
 
 uniform mat4 projectionMatrix;
 uniform mat4 viewMatrix;
@@ -24,7 +24,9 @@ uniform float atlasRows;
 uniform vec2 atlasOffset;
 
 uniform bool animated;
-uniform mat4 jointTransforms[MAX_JOINTS];
+uniform bool instanced;
+uniform int jointOffset;
+uniform int jointStride;
 
 uniform bool swaying;
 uniform float swayHeight;
@@ -34,14 +36,30 @@ uniform vec2 swayOffset;
 out vec2 pass_textureCoords;
 out vec3 pass_surfaceNormal;
 
+//---------JOINTS------------
+mat4 getPaletteMatrix(int index) {
+    // Each matrix is four texels in the palette.
+    int texel = index * 4;
+    return mat4(texelFetch(jointPalette, texel), texelFetch(jointPalette, texel + 1), texelFetch(jointPalette, texel + 2), texelFetch(jointPalette, texel + 3));
+}
+
 //---------MAIN------------
 void main(void) {
 	vec4 totalLocalPos = vec4(0.0);
 	vec4 totalNormal = vec4(0.0);
+	int firstJoint = jointOffset;
+	mat4 instanceMatrix = modelMatrix;
+
+	if (instanced) {
+	    // Each instance is its model matrix followed by its joints.
+	    int instanceOffset = jointOffset + gl_InstanceID * jointStride;
+	    instanceMatrix = getPaletteMatrix(instanceOffset);
+	    firstJoint = instanceOffset + 1;
+	}
 
     if (animated) {
         for (int i = 0; i < MAX_WEIGHTS; i++){
-		    mat4 jointTransform = jointTransforms[in_jointIndices[i]];
+		    mat4 jointTransform = getPaletteMatrix(firstJoint + in_jointIndices[i]);
             vec4 posePosition = jointTransform * vec4(in_position, 1.0);
             totalLocalPos += posePosition * in_weights[i];
 
@@ -62,10 +80,10 @@ void main(void) {
 	    totalLocalPos.z += swayPower * swayOffset.y;
 	}
 
-	vec4 worldPosition = modelMatrix * totalLocalPos;
+	vec4 worldPosition = instanceMatrix * totalLocalPos;
 
 	gl_ClipDistance[0] = dot(worldPosition, clipPlane);
 	gl_Position = projectionMatrix * viewMatrix * worldPosition;
 
-	pass_surfaceNormal = normalize((modelMatrix * totalNormal).xyz);
+	pass_surfaceNormal = normalize((instanceMatrix * totalNormal).xyz);
 }
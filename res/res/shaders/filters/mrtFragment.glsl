@@ -3,9 +3,6 @@
 //---------INCLUDES------------
 #include "maths.glsl"
 
-//---------CONSTANT------------
-const int LIGHTS = 64;
-
 //---------IN------------
 in vec2 pass_textureCoords;
 
@@ -15,14 +12,18 @@ layout(binding = 1) uniform sampler2D originalNormals;
 layout(binding = 2) uniform sampler2D originalExtras;
 layout(binding = 3) uniform sampler2D originalDepth;
 layout(binding = 4) uniform sampler2D shadowMap;
+layout(binding = 5) uniform samplerBuffer lightData;
+layout(binding = 6) uniform samplerBuffer lightClusters;
+layout(binding = 7) uniform samplerBuffer lightIndices;
 
 uniform mat4 projectionMatrix;
 uniform mat4 viewMatrix;
 
-uniform bool lightActive[LIGHTS];
-uniform vec3 lightColour[LIGHTS];
-uniform vec3 lightPosition[LIGHTS];
-uniform vec3 lightAttenuation[LIGHTS];
+uniform int clusterCountX;
+uniform int clusterCountY;
+uniform int clusterCountZ;
+uniform float clusterNear;
+uniform float clusterScale;
 
 uniform mat4 shadowSpaceMatrix;
 uniform float shadowDistance;
@@ -48,6 +49,14 @@ vec3 decodeLocation() {
     return vec3(finverse(viewMatrix) * vec4(p.xyz / p.w, 1.0));
 }
 
+//---------LIGHT CLUSTER------------
+int clusterIndex(vec2 textureCoords, float depth) {
+    int x = clamp(int(textureCoords.x * clusterCountX), 0, clusterCountX - 1);
+    int y = clamp(int(textureCoords.y * clusterCountY), 0, clusterCountY - 1);
+    int z = clamp(int(floor(log(max(depth, clusterNear) / clusterNear) * clusterScale)), 0, clusterCountZ - 1);
+    return x + clusterCountX * (y + clusterCountY * z);
+}
+
 //---------SHADOW------------
 float shadow(sampler2D shadowMap, vec4 shadowCoords, float shadowMapSize) {
     float totalTextels = (shadowPCF * 2.0 + 1.0) * (shadowPCF * 2.0 + 1.0);
@@ -122,22 +131,30 @@ void main(void) {
         vec3 totalDiffuse = vec3(0.0);
         vec3 totalSpecular = vec3(0.0);
 
-        for (int i = 0; i < LIGHTS; i++) {
-            if (lightActive[i]) {
-                vec3 toLightVector = lightPosition[i] - worldPosition.xyz;
-                vec3 unitLightVector = normalize(toLightVector);
-                float distance = length(toLightVector);
+        // Only the lights listed in the cluster of this fragment can reach it.
+        vec2 cluster = texelFetch(lightClusters, clusterIndex(pass_textureCoords, -positionRelativeToCam.z)).rg;
+        int lightOffset = int(cluster.x);
+        int lightCount = int(cluster.y);
 
-                float attinuationFactor = lightAttenuation[i].x + (lightAttenuation[i].y * distance) + (lightAttenuation[i].z * distance * distance);
+        for (int i = 0; i < lightCount; i++) {
+            int light = int(texelFetch(lightIndices, lightOffset + i).r) * 3;
+            vec3 lightPosition = texelFetch(lightData, light).xyz;
+            vec3 lightColour = texelFetch(lightData, light + 1).rgb;
+            vec3 lightAttenuation = texelFetch(lightData, light + 2).xyz;
 
-                float brightness = max(dot(normal, unitLightVector), 0.0);
-                totalDiffuse = totalDiffuse + (brightness * lightColour[i]) / attinuationFactor;
+            vec3 toLightVector = lightPosition - worldPosition.xyz;
+            vec3 unitLightVector = normalize(toLightVector);
+            float distance = length(toLightVector);
 
-             //   vec3 reflectedLightDirection = reflect(-unitLightVector, normal);
-             //   float specularFactor = max(dot(reflectedLightDirection, normalize(toCameraVector)), 0.0);
-             //   float dampedFactor = pow(specularFactor, shineDamper);
-             //   totalSpecular = totalSpecular + (dampedFactor * glow * lightColour[i]) / attinuationFactor;
-            }
+            float attinuationFactor = lightAttenuation.x + (lightAttenuation.y * distance) + (lightAttenuation.z * distance * distance);
+
+            float brightness = max(dot(normal, unitLightVector), 0.0);
+            totalDiffuse = totalDiffuse + (brightness * lightColour) / attinuationFactor;
+
+         //   vec3 reflectedLightDirection = reflect(-unitLightVector, normal);
+         //   float specularFactor = max(dot(reflectedLightDirection, normalize(toCameraVector)), 0.0);
+         //   float dampedFactor = pow(specularFactor, shineDamper);
+         //   totalSpecular = totalSpecular + (dampedFactor * glow * lightColour) / attinuationFactor;
         }
 
         out_colour = (vec4(max(totalDiffuse, boost), 1.0) * out_colour) + vec4(totalSpecular, 0.0);
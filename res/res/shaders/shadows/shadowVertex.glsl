@@ -1,11 +1,11 @@
 #version
 
 //---------CONSTANT------------
-const int MAX_JOINTS = 50;
 const int MAX_WEIGHTS = 3;
 
 //---------IN------------
 layout(binding = 1) uniform sampler2D swayMap;
+layout(binding = 2) uniform samplerBuffer jointPalette;
 
 layout(location = 0) in vec3 in_position;
 layout(location = 1) in vec2 in_textureCoords;
@@ -16,19 +16,37 @@ layout(location = 5) in vec3 in_weights;
 uniform mat4 mvpMatrix;
 
 uniform bool animated;
-uniform mat4 jointTransforms[MAX_JOINTS];
+uniform bool instanced;
+uniform int jointOffset;
+uniform int jointStride;
 
 uniform bool swaying;
 uniform float swayHeight;
 uniform vec2 swayOffset;
 
+//---------JOINTS------------
+mat4 getPaletteMatrix(int index) {
+    // Each matrix is four texels in the palette.
+    int texel = index * 4;
+    return mat4(texelFetch(jointPalette, texel), texelFetch(jointPalette, texel + 1), texelFetch(jointPalette, texel + 2), texelFetch(jointPalette, texel + 3));
+}
+
 //---------MAIN------------
 void main(void) {
 	vec4 totalLocalPos = vec4(0.0);
+	int firstJoint = jointOffset;
+	mat4 instanceMatrix = mat4(1.0);
+
+	if (instanced) {
+	    // Each instance is its model matrix followed by its joints, the mvp matrix is then only the projection view.
+	    int instanceOffset = jointOffset + gl_InstanceID * jointStride;
+	    instanceMatrix = getPaletteMatrix(instanceOffset);
+	    firstJoint = instanceOffset + 1;
+	}
 
     if (animated) {
         for (int i = 0; i < MAX_WEIGHTS; i++){
-		    mat4 jointTransform = jointTransforms[in_jointIndices[i]];
+		    mat4 jointTransform = getPaletteMatrix(firstJoint + in_jointIndices[i]);
             vec4 posePosition = jointTransform * vec4(in_position, 1.0);
             totalLocalPos += posePosition * in_weights[i];
         }
@@ -43,5 +61,5 @@ void main(void) {
 	    totalLocalPos.z += swayPower * swayOffset.y;
 	}
 
-	gl_Position = mvpMatrix * totalLocalPos;
+	gl_Position = mvpMatrix * instanceMatrix * totalLocalPos;
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ package flounder.animation;
 public class Animation {
 	private final float length;
 	private final KeyFrames[] keyFrames;
+	private AnimationTracks tracks;
 
 	/**
 	 * Creates a new animation.
@@ -37,4 +38,17 @@ public class Animation {
 	public KeyFrames[] getKeyFrames() {
 		return keyFrames;
 	}
+
+	/**
+	 * Gets the keyframes laid out as primitive tracks for sampling, the tracks are created the first time they are needed.
+	 *
+	 * @return The animation tracks.
+	 */
+	public synchronized AnimationTracks getTracks() {
+		if (tracks == null) {
+			tracks = new AnimationTracks(this);
+		}
+
+		return tracks;
+	}
 }
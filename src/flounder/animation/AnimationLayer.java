@@ -0,0 +1,258 @@
+package flounder.animation;
+
+import java.util.*;
+
+/**
+ * A layer of animations in an {@link Animator}. The playbacks in a layer are blended together by their weights, which is used both for timed cross-fades
+ * and for blend-tree style mixing (such as walk and run by speed). Layers above the base layer are applied over the layers below, either overriding the
+ * pose or adding to it, and can be masked to a part of the skeleton.
+ */
+public class AnimationLayer {
+	private final Animator animator;
+	private final List<AnimationPlayback> playbacks;
+	private AnimationPlayback current;
+
+	private float weight;
+	private boolean additive;
+	private float[] mask;
+
+	/**
+	 * Creates a new animation layer.
+	 *
+	 * @param animator The animator the layer belongs to.
+	 * @param additive If the layer adds to the layers below it (relative to the bind pose) instead of overriding them.
+	 */
+	protected AnimationLayer(Animator animator, boolean additive) {
+		this.animator = animator;
+		this.playbacks = new ArrayList<>();
+		this.current = null;
+
+		this.weight = 1.0f;
+		this.additive = additive;
+		this.mask = null;
+	}
+
+	/**
+	 * Cross-fades to a animation, every other animation in the layer fades out over the same time. If the animation is already in the layer it fades back
+	 * in from where it is, otherwise it starts from the beginning.
+	 *
+	 * @param animation The animation to play.
+	 * @param fadeTime The time in seconds to cross-fade over, 0 switches straight away.
+	 *
+	 * @return The playback of the animation.
+	 */
+	public AnimationPlayback play(Animation animation, float fadeTime) {
+		AnimationPlayback playback = null;
+
+		for (AnimationPlayback other : playbacks) {
+			if (other.getAnimation() == animation) {
+				playback = other;
+			} else {
+				other.stop(fadeTime);
+			}
+		}
+
+		if (playback == null) {
+			playback = new AnimationPlayback(animation, animator.getJoints(), playbacks.isEmpty() || fadeTime <= 0.0f ? 1.0f : 0.0f);
+			playbacks.add(playback);
+		}
+
+		playback.fadeTo(1.0f, fadeTime);
+		current = playback;
+		return playback;
+	}
+
+	/**
+	 * Sets the weight of a animation in the layer, adding it if it is not playing. Weights are relative to each other, so a layer can be used like a blend
+	 * tree by setting the weight of each animation every frame.
+	 *
+	 * @param animation The animation to weight.
+	 * @param weight The blend weight of the animation.
+	 *
+	 * @return The playback of the animation.
+	 */
+	public AnimationPlayback setBlendWeight(Animation animation, float weight) {
+		for (AnimationPlayback playback : playbacks) {
+			if (playback.getAnimation() == animation) {
+				playback.fadeTo(weight, 0.0f);
+				return playback;
+			}
+		}
+
+		AnimationPlayback playback = new AnimationPlayback(animation, animator.getJoints(), weight);
+		playbacks.add(playback);
+
+		if (current == null) {
+			current = playback;
+		}
+
+		return playback;
+	}
+
+	/**
+	 * Fades out every animation in the layer.
+	 *
+	 * @param fadeTime The time in seconds to fade out over.
+	 */
+	public void stop(float fadeTime) {
+		for (AnimationPlayback playback : playbacks) {
+			playback.stop(fadeTime);
+		}
+
+		current = null;
+	}
+
+	/**
+	 * Removes every animation from the layer straight away.
+	 */
+	public void clear() {
+		playbacks.clear();
+		current = null;
+	}
+
+	/**
+	 * Advances every playback in the layer, removing playbacks that have faded out.
+	 *
+	 * @param delta The time in seconds since the last update.
+	 */
+	protected void advance(float delta) {
+		for (int i = playbacks.size() - 1; i >= 0; i--) {
+			AnimationPlayback playback = playbacks.get(i);
+			playback.advance(delta);
+
+			if (playback.isStopped()) {
+				playbacks.remove(i);
+
+				if (current == playback) {
+					current = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Samples and blends every weighted playback in the layer into a pose.
+	 *
+	 * @param ahead The seconds ahead of the current time to sample.
+	 * @param bindPose The bind pose of the skeleton.
+	 * @param scratch A pose used to sample each playback into before it is blended.
+	 * @param destination The pose to write the blended result into.
+	 *
+	 * @return If any playback contributed to the pose, if not the destination is left untouched.
+	 */
+	protected boolean evaluate(float ahead, AnimationPose bindPose, AnimationPose scratch, AnimationPose destination) {
+		AnimationPlayback single = null;
+		float totalWeight = 0.0f;
+		int count = 0;
+
+		for (AnimationPlayback playback : playbacks) {
+			if (playback.getWeight() > 0.0f) {
+				single = playback;
+				totalWeight += playback.getWeight();
+				count++;
+			}
+		}
+
+		if (count == 0) {
+			return false;
+		} else if (count == 1) {
+			single.sample(ahead, bindPose, destination);
+			return true;
+		}
+
+		destination.clear();
+
+		for (AnimationPlayback playback : playbacks) {
+			if (playback.getWeight() > 0.0f) {
+				playback.sample(ahead, bindPose, scratch);
+				destination.accumulate(scratch, playback.getWeight());
+			}
+		}
+
+		destination.normalize(totalWeight);
+		return true;
+	}
+
+	/**
+	 * Masks the layer to some joints and every joint below them in the skeleton, other joints are not affected by the layer.
+	 *
+	 * @param jointNames The names of the joints to include, or nothing to remove the mask.
+	 */
+	public void setMask(String... jointNames) {
+		if (jointNames == null || jointNames.length == 0) {
+			this.mask = null;
+			return;
+		}
+
+		Joint[] joints = animator.getJoints();
+		float[] mask = new float[joints.length];
+
+		for (String jointName : jointNames) {
+			int joint = animator.getJointIndex(jointName);
+
+			if (joint != -1) {
+				mask[joint] = 1.0f;
+			}
+		}
+
+		// Parents are before their children, so one pass carries the mask down the skeleton.
+		for (int i = 0; i < joints.length; i++) {
+			int parent = animator.getParent(i);
+
+			if (parent != -1 && mask[parent] > mask[i]) {
+				mask[i] = mask[parent];
+			}
+		}
+
+		this.mask = mask;
+	}
+
+	/**
+	 * Gets how much the layer affects a joint, the weight of the layer multiplied by the mask.
+	 *
+	 * @param joint The joint, in the animators joint order.
+	 *
+	 * @return The weight of the joint.
+	 */
+	public float getJointWeight(int joint) {
+		return mask == null ? weight : weight * mask[joint];
+	}
+
+	/**
+	 * Gets if the layer has any playbacks.
+	 *
+	 * @return If the layer has playbacks.
+	 */
+	public boolean hasPlaybacks() {
+		return !playbacks.isEmpty();
+	}
+
+	/**
+	 * Gets the animation last played in the layer.
+	 *
+	 * @return The current animation, or null if nothing is playing.
+	 */
+	public Animation getCurrentAnimation() {
+		return current == null ? null : current.getAnimation();
+	}
+
+	public List<AnimationPlayback> getPlaybacks() {
+		return playbacks;
+	}
+
+	public float getWeight() {
+		return weight;
+	}
+
+	public void setWeight(float weight) {
+		this.weight = weight;
+	}
+
+	public boolean isAdditive() {
+		return additive;
+	}
+
+	public void setAdditive(boolean additive) {
+		this.additive = additive;
+	}
+}
@@ -0,0 +1,186 @@
+package flounder.animation;
+
+/**
+ * One animation playing in an {@link AnimationLayer}. A playback has its own time, speed and blend weight, and fades its weight towards a target so
+ * layers can cross-fade between animations.
+ */
+public class AnimationPlayback {
+	private final Animation animation;
+	private final AnimationTracks tracks;
+	private final int[] jointTracks;
+
+	private float time;
+	private int frameCursor;
+	private float speed;
+	private boolean looping;
+
+	private float weight;
+	private float targetWeight;
+	private float fadeRate;
+	private boolean stopping;
+
+	/**
+	 * Creates a new playback of an animation, bound to the joints of an animator.
+	 *
+	 * @param animation The animation to play.
+	 * @param joints The joints of the animator, in the animators joint order.
+	 * @param weight The starting blend weight.
+	 */
+	protected AnimationPlayback(Animation animation, Joint[] joints, float weight) {
+		this.animation = animation;
+		this.tracks = animation.getTracks();
+		this.jointTracks = new int[joints.length];
+
+		for (int i = 0; i < joints.length; i++) {
+			jointTracks[i] = tracks.getTrack(joints[i].getName());
+		}
+
+		this.time = 0.0f;
+		this.frameCursor = 0;
+		this.speed = 1.0f;
+		this.looping = true;
+
+		this.weight = weight;
+		this.targetWeight = weight;
+		this.fadeRate = 0.0f;
+		this.stopping = false;
+	}
+
+	/**
+	 * Advances the time and fades the weight of the playback.
+	 *
+	 * @param delta The time in seconds since the last update.
+	 */
+	protected void advance(float delta) {
+		time = getTime(delta * speed);
+
+		if (weight != targetWeight) {
+			if (fadeRate <= 0.0f) {
+				weight = targetWeight;
+			} else if (weight < targetWeight) {
+				weight = Math.min(weight + fadeRate * delta, targetWeight);
+			} else {
+				weight = Math.max(weight - fadeRate * delta, targetWeight);
+			}
+		}
+	}
+
+	/**
+	 * Gets the time of the playback a amount of seconds ahead, looping or clamping to the length of the animation.
+	 *
+	 * @param ahead The seconds ahead of the current time.
+	 *
+	 * @return The time in the animation.
+	 */
+	private float getTime(float ahead) {
+		float length = animation.getLength();
+		float result = time + ahead;
+
+		if (length <= 0.0f) {
+			return 0.0f;
+		} else if (looping) {
+			result %= length;
+			return result < 0.0f ? result + length : result;
+		}
+
+		return Math.max(0.0f, Math.min(result, length));
+	}
+
+	/**
+	 * Samples the playback into a pose, joints the animation does not move are copied from the bind pose.
+	 *
+	 * @param ahead The seconds ahead of the current time to sample.
+	 * @param bindPose The bind pose of the skeleton.
+	 * @param destination The pose to write into.
+	 */
+	protected void sample(float ahead, AnimationPose bindPose, AnimationPose destination) {
+		if (tracks.getFrameCount() == 0) {
+			destination.set(bindPose);
+			return;
+		}
+
+		float sampleTime = getTime(ahead * speed);
+		frameCursor = tracks.findFrame(sampleTime, frameCursor);
+		float progression = tracks.getProgression(sampleTime, frameCursor);
+
+		for (int i = 0; i < jointTracks.length; i++) {
+			if (jointTracks[i] != -1) {
+				tracks.sample(jointTracks[i], frameCursor, progression, destination, i);
+			} else {
+				destination.set(i, bindPose);
+			}
+		}
+	}
+
+	/**
+	 * Fades the weight of the playback to a target over a time.
+	 *
+	 * @param targetWeight The weight to fade to.
+	 * @param fadeTime The time in seconds to fade over, 0 sets the weight straight away.
+	 */
+	public void fadeTo(float targetWeight, float fadeTime) {
+		this.targetWeight = targetWeight;
+		this.stopping = false;
+		this.fadeRate = fadeTime <= 0.0f ? 0.0f : Math.abs(targetWeight - weight) / fadeTime;
+
+		if (fadeTime <= 0.0f) {
+			this.weight = targetWeight;
+		}
+	}
+
+	/**
+	 * Fades the playback out, once the weight reaches 0 the playback is removed from its layer.
+	 *
+	 * @param fadeTime The time in seconds to fade out over.
+	 */
+	public void stop(float fadeTime) {
+		fadeTo(0.0f, fadeTime);
+		this.stopping = true;
+	}
+
+	/**
+	 * Gets if the playback was stopped and has faded out completely, so it can be removed.
+	 *
+	 * @return If the playback is finished.
+	 */
+	protected boolean isStopped() {
+		return stopping && weight <= 0.0f;
+	}
+
+	public Animation getAnimation() {
+		return animation;
+	}
+
+	public float getTime() {
+		return time;
+	}
+
+	public void setTime(float time) {
+		this.time = time;
+		this.frameCursor = 0;
+	}
+
+	public float getSpeed() {
+		return speed;
+	}
+
+	public void setSpeed(float speed) {
+		this.speed = speed;
+	}
+
+	public boolean isLooping() {
+		return looping;
+	}
+
+	public void setLooping(boolean looping) {
+		this.looping = looping;
+	}
+
+	public float getWeight() {
+		return weight;
+	}
+
+	public float getTargetWeight() {
+		return targetWeight;
+	}
+}
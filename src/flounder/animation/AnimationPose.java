@@ -0,0 +1,298 @@
+package flounder.animation;
+
+import flounder.maths.matrices.*;
+
+/**
+ * A pre-allocated buffer holding the local-space translation and rotation quaternion of every joint in a skeleton, in the joint order of the {@link Animator}.
+ * Poses are sampled from {@link AnimationTracks}, blended together by {@link AnimationLayer}s, and only turned into matrices once the final pose is known.
+ */
+public class AnimationPose {
+	private final int jointCount;
+	protected final float[] translations;
+	protected final float[] rotations;
+
+	/**
+	 * Creates a new pose with every joint at the origin with no rotation.
+	 *
+	 * @param jointCount The amount of joints in the pose.
+	 */
+	public AnimationPose(int jointCount) {
+		this.jointCount = jointCount;
+		this.translations = new float[jointCount * 3];
+		this.rotations = new float[jointCount * 4];
+
+		for (int i = 0; i < jointCount; i++) {
+			rotations[i * 4 + 3] = 1.0f;
+		}
+	}
+
+	/**
+	 * Sets a joint from a local-space transform matrix without scale.
+	 *
+	 * @param joint The joint to set.
+	 * @param matrix The local-space transform.
+	 */
+	public void set(int joint, Matrix4f matrix) {
+		int t = joint * 3;
+		int r = joint * 4;
+		translations[t] = matrix.m30;
+		translations[t + 1] = matrix.m31;
+		translations[t + 2] = matrix.m32;
+
+		float x;
+		float y;
+		float z;
+		float w;
+		float trace = matrix.m00 + matrix.m11 + matrix.m22;
+
+		if (trace > 0.0f) {
+			float s = (float) Math.sqrt(trace + 1.0f) * 2.0f;
+			w = 0.25f * s;
+			x = (matrix.m21 - matrix.m12) / s;
+			y = (matrix.m02 - matrix.m20) / s;
+			z = (matrix.m10 - matrix.m01) / s;
+		} else if (matrix.m00 > matrix.m11 && matrix.m00 > matrix.m22) {
+			float s = (float) Math.sqrt(1.0f + matrix.m00 - matrix.m11 - matrix.m22) * 2.0f;
+			w = (matrix.m21 - matrix.m12) / s;
+			x = 0.25f * s;
+			y = (matrix.m01 + matrix.m10) / s;
+			z = (matrix.m02 + matrix.m20) / s;
+		} else if (matrix.m11 > matrix.m22) {
+			float s = (float) Math.sqrt(1.0f + matrix.m11 - matrix.m00 - matrix.m22) * 2.0f;
+			w = (matrix.m02 - matrix.m20) / s;
+			x = (matrix.m01 + matrix.m10) / s;
+			y = 0.25f * s;
+			z = (matrix.m12 + matrix.m21) / s;
+		} else {
+			float s = (float) Math.sqrt(1.0f + matrix.m22 - matrix.m00 - matrix.m11) * 2.0f;
+			w = (matrix.m10 - matrix.m01) / s;
+			x = (matrix.m02 + matrix.m20) / s;
+			y = (matrix.m12 + matrix.m21) / s;
+			z = 0.25f * s;
+		}
+
+		rotations[r] = x;
+		rotations[r + 1] = y;
+		rotations[r + 2] = z;
+		rotations[r + 3] = w;
+	}
+
+	/**
+	 * Copies every joint from another pose.
+	 *
+	 * @param source The pose to copy.
+	 */
+	public void set(AnimationPose source) {
+		System.arraycopy(source.translations, 0, translations, 0, translations.length);
+		System.arraycopy(source.rotations, 0, rotations, 0, rotations.length);
+	}
+
+	/**
+	 * Copies one joint from another pose.
+	 *
+	 * @param joint The joint to copy.
+	 * @param source The pose to copy from.
+	 */
+	public void set(int joint, AnimationPose source) {
+		System.arraycopy(source.translations, joint * 3, translations, joint * 3, 3);
+		System.arraycopy(source.rotations, joint * 4, rotations, joint * 4, 4);
+	}
+
+	/**
+	 * Clears every joint to zero, ready to accumulate weighted poses into.
+	 */
+	public void clear() {
+		for (int i = 0; i < translations.length; i++) {
+			translations[i] = 0.0f;
+		}
+
+		for (int i = 0; i < rotations.length; i++) {
+			rotations[i] = 0.0f;
+		}
+	}
+
+	/**
+	 * Adds a weighted pose onto this pose. Rotations are flipped onto the same hemisphere as the rotation already accumulated, so they blend along the shortest path.
+	 * Call {@link #normalize(float)} once every pose has been accumulated.
+	 *
+	 * @param source The pose to add.
+	 * @param weight The weight of the pose.
+	 */
+	public void accumulate(AnimationPose source, float weight) {
+		for (int i = 0; i < jointCount; i++) {
+			int t = i * 3;
+			int r = i * 4;
+			translations[t] += source.translations[t] * weight;
+			translations[t + 1] += source.translations[t + 1] * weight;
+			translations[t + 2] += source.translations[t + 2] * weight;
+
+			float dot = rotations[r] * source.rotations[r] + rotations[r + 1] * source.rotations[r + 1] + rotations[r + 2] * source.rotations[r + 2] + rotations[r + 3] * source.rotations[r + 3];
+			float signedWeight = dot < 0.0f ? -weight : weight;
+			rotations[r] += source.rotations[r] * signedWeight;
+			rotations[r + 1] += source.rotations[r + 1] * signedWeight;
+			rotations[r + 2] += source.rotations[r + 2] * signedWeight;
+			rotations[r + 3] += source.rotations[r + 3] * signedWeight;
+		}
+	}
+
+	/**
+	 * Finishes accumulating poses, dividing translations by the total weight and normalizing the rotations.
+	 *
+	 * @param totalWeight The sum of the weights accumulated.
+	 */
+	public void normalize(float totalWeight) {
+		for (int i = 0; i < translations.length; i++) {
+			translations[i] /= totalWeight;
+		}
+
+		for (int i = 0; i < jointCount; i++) {
+			normalizeRotation(i * 4);
+		}
+	}
+
+	/**
+	 * Blends a joint towards the same joint of another pose.
+	 *
+	 * @param joint The joint to blend.
+	 * @param target The pose to blend towards.
+	 * @param weight How far to blend, 0 leaves the joint and 1 copies the target.
+	 */
+	public void blend(int joint, AnimationPose target, float weight) {
+		int t = joint * 3;
+		int r = joint * 4;
+		translations[t] += (target.translations[t] - translations[t]) * weight;
+		translations[t + 1] += (target.translations[t + 1] - translations[t + 1]) * weight;
+		translations[t + 2] += (target.translations[t + 2] - translations[t + 2]) * weight;
+
+		float dot = rotations[r] * target.rotations[r] + rotations[r + 1] * target.rotations[r + 1] + rotations[r + 2] * target.rotations[r + 2] + rotations[r + 3] * target.rotations[r + 3];
+		float signedWeight = dot < 0.0f ? -weight : weight;
+		float inverse = 1.0f - weight;
+		rotations[r] = rotations[r] * inverse + target.rotations[r] * signedWeight;
+		rotations[r + 1] = rotations[r + 1] * inverse + target.rotations[r + 1] * signedWeight;
+		rotations[r + 2] = rotations[r + 2] * inverse + target.rotations[r + 2] * signedWeight;
+		rotations[r + 3] = rotations[r + 3] * inverse + target.rotations[r + 3] * signedWeight;
+		normalizeRotation(r);
+	}
+
+	/**
+	 * Adds the difference between a additive pose and a reference pose onto a joint, scaled by a weight.
+	 * The rotation applied is {@code inverse(reference) * additive}, blended from no rotation by the weight.
+	 *
+	 * @param joint The joint to add to.
+	 * @param additive The pose holding the additive animation.
+	 * @param reference The pose the additive animation is relative to.
+	 * @param weight The weight of the additive animation.
+	 */
+	public void add(int joint, AnimationPose additive, AnimationPose reference, float weight) {
+		int t = joint * 3;
+		int r = joint * 4;
+		translations[t] += (additive.translations[t] - reference.translations[t]) * weight;
+		translations[t + 1] += (additive.translations[t + 1] - reference.translations[t + 1]) * weight;
+		translations[t + 2] += (additive.translations[t + 2] - reference.translations[t + 2]) * weight;
+
+		// The delta rotation is the conjugate of the reference multiplied by the additive rotation.
+		float rx = -reference.rotations[r];
+		float ry = -reference.rotations[r + 1];
+		float rz = -reference.rotations[r + 2];
+		float rw = reference.rotations[r + 3];
+		float ax = additive.rotations[r];
+		float ay = additive.rotations[r + 1];
+		float az = additive.rotations[r + 2];
+		float aw = additive.rotations[r + 3];
+		float dx = rw * ax + rx * aw + ry * az - rz * ay;
+		float dy = rw * ay - rx * az + ry * aw + rz * ax;
+		float dz = rw * az + rx * ay - ry * ax + rz * aw;
+		float dw = rw * aw - rx * ax - ry * ay - rz * az;
+
+		if (dw < 0.0f) {
+			dx = -dx;
+			dy = -dy;
+			dz = -dz;
+			dw = -dw;
+		}
+
+		// Blends the delta from no rotation and normalizes it.
+		dx *= weight;
+		dy *= weight;
+		dz *= weight;
+		dw = 1.0f - weight + dw * weight;
+		float length = (float) Math.sqrt(dx * dx + dy * dy + dz * dz + dw * dw);
+		dx /= length;
+		dy /= length;
+		dz /= length;
+		dw /= length;
+
+		float bx = rotations[r];
+		float by = rotations[r + 1];
+		float bz = rotations[r + 2];
+		float bw = rotations[r + 3];
+		rotations[r] = bw * dx + bx * dw + by * dz - bz * dy;
+		rotations[r + 1] = bw * dy - bx * dz + by * dw + bz * dx;
+		rotations[r + 2] = bw * dz + bx * dy - by * dx + bz * dw;
+		rotations[r + 3] = bw * dw - bx * dx - by * dy - bz * dz;
+		normalizeRotation(r);
+	}
+
+	private void normalizeRotation(int r) {
+		float length = (float) Math.sqrt(rotations[r] * rotations[r] + rotations[r + 1] * rotations[r + 1] + rotations[r + 2] * rotations[r + 2] + rotations[r + 3] * rotations[r + 3]);
+
+		if (length > 0.0f) {
+			rotations[r] /= length;
+			rotations[r + 1] /= length;
+			rotations[r + 2] /= length;
+			rotations[r + 3] /= length;
+		} else {
+			rotations[r + 3] = 1.0f;
+		}
+	}
+
+	/**
+	 * Writes the local-space transform of a joint into a matrix, the same as translating an identity matrix and multiplying by the rotation matrix of the quaternion.
+	 *
+	 * @param joint The joint to write.
+	 * @param destination The matrix to write into.
+	 */
+	public void toMatrix(int joint, Matrix4f destination) {
+		int t = joint * 3;
+		int r = joint * 4;
+		float x = rotations[r];
+		float y = rotations[r + 1];
+		float z = rotations[r + 2];
+		float w = rotations[r + 3];
+		float xy = x * y;
+		float xz = x * z;
+		float xw = x * w;
+		float yz = y * z;
+		float yw = y * w;
+		float zw = z * w;
+		float xSquared = x * x;
+		float ySquared = y * y;
+		float zSquared = z * z;
+
+		destination.m00 = 1.0f - 2.0f * (ySquared + zSquared);
+		destination.m01 = 2.0f * (xy - zw);
+		destination.m02 = 2.0f * (xz + yw);
+		destination.m03 = 0.0f;
+		destination.m10 = 2.0f * (xy + zw);
+		destination.m11 = 1.0f - 2.0f * (xSquared + zSquared);
+		destination.m12 = 2.0f * (yz - xw);
+		destination.m13 = 0.0f;
+		destination.m20 = 2.0f * (xz - yw);
+		destination.m21 = 2.0f * (yz + xw);
+		destination.m22 = 1.0f - 2.0f * (xSquared + ySquared);
+		destination.m23 = 0.0f;
+		destination.m30 = translations[t];
+		destination.m31 = translations[t + 1];
+		destination.m32 = translations[t + 2];
+		destination.m33 = 1.0f;
+	}
+
+	/**
+	 * Gets the amount of joints in the pose.
+	 *
+	 * @return The amount of joints.
+	 */
+	public int getJointCount() {
+		return jointCount;
+	}
+}
@@ -0,0 +1,197 @@
+package flounder.animation;
+
+import java.util.*;
+
+/**
+ * The keyframes of an {@link Animation} laid out as flat primitive arrays for sampling. Each joint has a track, and the translation and rotation of every
+ * track at every keyframe are stored frame by frame, so sampling only reads floats and writes into a pre-allocated {@link AnimationPose}.
+ */
+public class AnimationTracks {
+	private final float[] times;
+	private final String[] jointNames;
+	private final Map<String, Integer> trackIndices;
+
+	private final float[] translations;
+	private final float[] rotations;
+
+	/**
+	 * Creates the tracks for an animation.
+	 *
+	 * @param animation The animation to lay out.
+	 */
+	protected AnimationTracks(Animation animation) {
+		KeyFrames[] keyFrames = animation.getKeyFrames();
+		this.times = new float[keyFrames.length];
+		this.trackIndices = new LinkedHashMap<>();
+
+		for (KeyFrames keyFrame : keyFrames) {
+			for (String jointName : keyFrame.getPose().keySet()) {
+				if (!trackIndices.containsKey(jointName)) {
+					trackIndices.put(jointName, trackIndices.size());
+				}
+			}
+		}
+
+		this.jointNames = trackIndices.keySet().toArray(new String[trackIndices.size()]);
+		this.translations = new float[keyFrames.length * jointNames.length * 3];
+		this.rotations = new float[keyFrames.length * jointNames.length * 4];
+
+		for (int frame = 0; frame < keyFrames.length; frame++) {
+			times[frame] = keyFrames[frame].getTimeStamp();
+
+			for (int track = 0; track < jointNames.length; track++) {
+				JointTransform transform = keyFrames[frame].getPose().get(jointNames[track]);
+				int t = (frame * jointNames.length + track) * 3;
+				int r = (frame * jointNames.length + track) * 4;
+
+				if (transform == null) {
+					// Joints missing from a keyframe hold the pose from the frame before.
+					if (frame > 0) {
+						System.arraycopy(translations, t - jointNames.length * 3, translations, t, 3);
+						System.arraycopy(rotations, r - jointNames.length * 4, rotations, r, 4);
+					} else {
+						rotations[r + 3] = 1.0f;
+					}
+
+					continue;
+				}
+
+				translations[t] = transform.getPosition().x;
+				translations[t + 1] = transform.getPosition().y;
+				translations[t + 2] = transform.getPosition().z;
+				rotations[r] = transform.getRotation().x;
+				rotations[r + 1] = transform.getRotation().y;
+				rotations[r + 2] = transform.getRotation().z;
+				rotations[r + 3] = transform.getRotation().w;
+			}
+		}
+	}
+
+	/**
+	 * Finds the keyframe at or before a time, starting the search from a previous result so playing forwards is constant time.
+	 *
+	 * @param time The time in the animation.
+	 * @param cursor The keyframe found for the last time sampled.
+	 *
+	 * @return The last keyframe at or before the time, or 0 if the time is before the first keyframe.
+	 */
+	public int findFrame(float time, int cursor) {
+		if (cursor < 0 || cursor >= times.length || times[cursor] > time) {
+			cursor = 0;
+		}
+
+		while (cursor + 1 < times.length && times[cursor + 1] <= time) {
+			cursor++;
+		}
+
+		return cursor;
+	}
+
+	/**
+	 * Gets how far between a keyframe and the next keyframe a time is.
+	 *
+	 * @param time The time in the animation.
+	 * @param frame The keyframe at or before the time.
+	 *
+	 * @return A value between 0 and 1.
+	 */
+	public float getProgression(float time, int frame) {
+		if (frame + 1 >= times.length) {
+			return 0.0f;
+		}
+
+		float totalTime = times[frame + 1] - times[frame];
+
+		if (totalTime <= 0.0f) {
+			return 0.0f;
+		}
+
+		return Math.max(0.0f, Math.min((time - times[frame]) / totalTime, 1.0f));
+	}
+
+	/**
+	 * Samples the local-space transform of a track into a joint of a pose, interpolating between a keyframe and the next keyframe.
+	 * The translation is interpolated linearly, and the rotation is interpolated along the shortest path and normalized.
+	 *
+	 * @param track The track to sample.
+	 * @param frame The keyframe at or before the time being sampled.
+	 * @param progression How far between the keyframe and the next keyframe to sample.
+	 * @param destination The pose to write into.
+	 * @param joint The joint in the pose to write.
+	 */
+	public void sample(int track, int frame, float progression, AnimationPose destination, int joint) {
+		int next = Math.min(frame + 1, times.length - 1);
+		int t0 = (frame * jointNames.length + track) * 3;
+		int t1 = (next * jointNames.length + track) * 3;
+		int r0 = (frame * jointNames.length + track) * 4;
+		int r1 = (next * jointNames.length + track) * 4;
+		int t = joint * 3;
+		int r = joint * 4;
+
+		destination.translations[t] = translations[t0] + (translations[t1] - translations[t0]) * progression;
+		destination.translations[t + 1] = translations[t0 + 1] + (translations[t1 + 1] - translations[t0 + 1]) * progression;
+		destination.translations[t + 2] = translations[t0 + 2] + (translations[t1 + 2] - translations[t0 + 2]) * progression;
+
+		float ax = rotations[r0];
+		float ay = rotations[r0 + 1];
+		float az = rotations[r0 + 2];
+		float aw = rotations[r0 + 3];
+		float bx = rotations[r1];
+		float by = rotations[r1 + 1];
+		float bz = rotations[r1 + 2];
+		float bw = rotations[r1 + 3];
+
+		// Takes the shortest path between the two rotations.
+		float blend = (ax * bx + ay * by + az * bz + aw * bw) < 0.0f ? -progression : progression;
+		float inverse = 1.0f - progression;
+		float x = inverse * ax + blend * bx;
+		float y = inverse * ay + blend * by;
+		float z = inverse * az + blend * bz;
+		float w = inverse * aw + blend * bw;
+		float length = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+
+		if (length > 0.0f) {
+			x /= length;
+			y /= length;
+			z /= length;
+			w /= length;
+		} else {
+			w = 1.0f;
+		}
+
+		destination.rotations[r] = x;
+		destination.rotations[r + 1] = y;
+		destination.rotations[r + 2] = z;
+		destination.rotations[r + 3] = w;
+	}
+
+	/**
+	 * Gets the track for a joint.
+	 *
+	 * @param jointName The name of the joint.
+	 *
+	 * @return The track index, or -1 if the animation does not move the joint.
+	 */
+	public int getTrack(String jointName) {
+		Integer track = trackIndices.get(jointName);
+		return track == null ? -1 : track;
+	}
+
+	/**
+	 * Gets the amount of keyframes in the tracks.
+	 *
+	 * @return The amount of keyframes.
+	 */
+	public int getFrameCount() {
+		return times.length;
+	}
+
+	/**
+	 * Gets the amount of joint tracks.
+	 *
+	 * @return The amount of tracks.
+	 */
+	public int getTrackCount() {
+		return jointNames.length;
+	}
+}
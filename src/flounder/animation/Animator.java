@@ -8,22 +8,36 @@ import java.util.*;
 /**
  * This class contains all the functionality to apply an animation to an animated entity.
  * An Animator instance is associated with just one animated entity.
- * It also keeps track of the running time (in seconds) of the current animation,
- * along with a reference to the currently playing animation for the corresponding entity.
+ * It keeps a stack of {@link AnimationLayer}s, the base layer plays the main animation of the entity and layers above it override or add to the pose,
+ * optionally masked to a part of the skeleton (such as an upper body aiming layer).
  * <p>
  * An Animator instance needs to be updated every frame, in order for it to keep updating the animation pose of the associated entity.
- * The currently playing animation can be changed at any time using the doAnimation() method.
- * The Animator will keep looping the current animation until a new animation is chosen.
+ * The currently playing animation can be changed at any time using the doAnimation() method, or cross-faded to with the crossFade() method.
+ * Animations keep looping until a new animation is chosen.
  * <p>
- * The Animator calculates the desired current animation pose by interpolating between the previous and next keyframes of the animation
- * (based on the current animation time). The Animator then updates the transforms all of the joints each frame to match the current desired animation pose.
+ * The Animator samples every weighted animation into pre-allocated {@link AnimationPose}s, blends the layers together as translations and quaternions,
+ * and only then converts the final pose into the joint transforms. Joints are flattened into an array with parents before children,
+ * so updating an animator does not allocate.
  */
 public class Animator {
 	private final Joint rootJoint;
+	private final Joint[] joints;
+	private final int[] parents;
+	private final Map<String, Integer> jointIndices;
+	private final Matrix4f[] modelTransforms;
+	private final Matrix4f localTransform;
+	private final Matrix4f animatorTransformation;
 
-	private float animationTime;
-	private Animation currentAnimation;
-	private Matrix4f animatorTransformation;
+	private final List<AnimationLayer> layers;
+	private final AnimationPose bindPose;
+	private final AnimationPose samplePose;
+	private final AnimationPose layerPose;
+	private final AnimationPose finalPose;
+
+	private Matrix4f[] previousPose;
+	private Matrix4f[] nextPose;
+	private int sampleInterval;
+	private int framesSinceSample;
 
 	/**
 	 * Creates a new animator.
@@ -33,9 +47,40 @@ public class Animator {
 	public Animator(Joint rootJoint) {
 		this.rootJoint = rootJoint;
 
-		this.animationTime = 0;
-		this.currentAnimation = null;
+		List<Joint> jointList = new ArrayList<>();
+		rootJoint.addSelfAndChildren(jointList);
+		this.joints = jointList.toArray(new Joint[jointList.size()]);
+		this.parents = new int[joints.length];
+		this.jointIndices = new HashMap<>();
+		this.modelTransforms = new Matrix4f[joints.length];
+		this.localTransform = new Matrix4f();
 		this.animatorTransformation = new Matrix4f();
+
+		this.layers = new ArrayList<>();
+		this.bindPose = new AnimationPose(joints.length);
+		this.samplePose = new AnimationPose(joints.length);
+		this.layerPose = new AnimationPose(joints.length);
+		this.finalPose = new AnimationPose(joints.length);
+
+		// Joints are added depth first, so every parent is before its children.
+		Arrays.fill(parents, -1);
+
+		for (int i = 0; i < joints.length; i++) {
+			modelTransforms[i] = new Matrix4f();
+			jointIndices.put(joints[i].getName(), i);
+			bindPose.set(i, joints[i].getLocalBindTransform());
+
+			for (Joint child : joints[i].children) {
+				parents[jointList.indexOf(child)] = i;
+			}
+		}
+
+		layers.add(new AnimationLayer(this, false));
+
+		this.previousPose = null;
+		this.nextPose = null;
+		this.sampleInterval = 1;
+		this.framesSinceSample = 1;
 	}
 
 	/**
@@ -43,160 +88,264 @@ public class Animator {
 	 * finds the pose that the entity should be in at that time of the animation, and then applied that pose to all the entity's joints.
 	 */
 	public void update() {
-		if (currentAnimation == null) {
+		update(Framework.get().getDelta(), 1);
+	}
+
+	/**
+	 * Updates the animation with a reduced update rate. Every {@code updateInterval} frames a pose is sampled one interval ahead of the current time,
+	 * and the frames in between blend from the pose that was showing towards it, which is much cheaper than sampling the animation.
+	 *
+	 * @param delta The time in seconds since the last update.
+	 * @param updateInterval The amount of frames between sampling the animation, 1 samples every frame.
+	 */
+	public void update(float delta, int updateInterval) {
+		if (!hasPlaybacks()) {
 			return;
 		}
 
-		increaseAnimationTime();
-		Map<String, Matrix4f> currentPose = calculateCurrentAnimationPose();
-		applyPoseToJoints(currentPose, rootJoint, animatorTransformation.setIdentity());
+		advance(delta);
+
+		if (updateInterval <= 1) {
+			samplePose(0.0f, null);
+			sampleInterval = 1;
+			framesSinceSample = 1;
+			return;
+		}
+
+		if (previousPose == null) {
+			previousPose = new Matrix4f[joints.length];
+			nextPose = new Matrix4f[joints.length];
+
+			for (int i = 0; i < joints.length; i++) {
+				previousPose[i] = new Matrix4f();
+				nextPose[i] = new Matrix4f();
+			}
+		}
+
+		if (framesSinceSample >= sampleInterval) {
+			sampleInterval = updateInterval;
+			framesSinceSample = 0;
+
+			for (int i = 0; i < joints.length; i++) {
+				blend(joints[i].getAnimatedTransform(), joints[i].getAnimatedTransform(), 0.0f, previousPose[i]);
+			}
+
+			samplePose(delta * (sampleInterval - 1), nextPose);
+		}
+
+		framesSinceSample++;
+		float progression = (float) framesSinceSample / (float) sampleInterval;
+
+		for (int i = 0; i < joints.length; i++) {
+			blend(previousPose[i], nextPose[i], progression, joints[i].getAnimatedTransform());
+		}
 	}
 
 	/**
-	 * Increases the current animation time which allows the animation to progress. If the current animation has reached the end then the timer is reset, causing the animation to loop.
+	 * Advances the animation time without touching the pose, used when the entity is not visible at all. The next update samples a new pose.
+	 *
+	 * @param delta The time in seconds since the last update.
 	 */
-	private void increaseAnimationTime() {
-		animationTime += Framework.get().getDelta();
-
-		if (animationTime > currentAnimation.getLength()) {
-			this.animationTime %= currentAnimation.getLength();
+	public void skip(float delta) {
+		if (!hasPlaybacks()) {
+			return;
 		}
+
+		advance(delta);
+		framesSinceSample = sampleInterval;
 	}
 
 	/**
-	 * This method returns the current animation pose of the entity. It returns
-	 * the desired local-space transforms for all the joints in a map, indexed
-	 * by the name of the joint that they correspond to.
-	 * <p>
-	 * The pose is calculated based on the previous and next keyframes in the
-	 * current animation. Each keyframe provides the desired pose at a certain
-	 * time in the animation, so the animated pose for the current time can be
-	 * calculated by interpolating between the previous and next keyframe.
-	 * <p>
-	 * This method first finds the preious and next keyframe, calculates how far
-	 * between the two the current animation is, and then calculated the pose
-	 * for the current animation time by interpolating between the transforms at
-	 * those keyframes.
+	 * Advances the time and cross-fades of every layer, animations loop back to zero when they reach the end.
 	 *
-	 * @return The current pose as a map of the desired local-space transforms for all the joints.
-	 * The transforms are indexed by the name ID of the joint that they should be applied to.
+	 * @param delta The time in seconds to progress by.
+	 */
+	private void advance(float delta) {
+		for (AnimationLayer layer : layers) {
+			layer.advance(delta);
+		}
+	}
+
+	private boolean hasPlaybacks() {
+		for (AnimationLayer layer : layers) {
+			if (layer.hasPlaybacks()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Linearly blends every element of two matrices, the transforms being blended are close together in time so this stays close to a rigid transform.
 	 */
-	private Map<String, Matrix4f> calculateCurrentAnimationPose() {
-		KeyFrames[] frames = getPreviousAndNextFrames();
-		float progression = calculateProgression(frames[0], frames[1]);
-		return interpolatePoses(frames[0], frames[1], progression);
+	private static void blend(Matrix4f a, Matrix4f b, float progression, Matrix4f destination) {
+		float inverse = 1.0f - progression;
+		destination.m00 = a.m00 * inverse + b.m00 * progression;
+		destination.m01 = a.m01 * inverse + b.m01 * progression;
+		destination.m02 = a.m02 * inverse + b.m02 * progression;
+		destination.m03 = a.m03 * inverse + b.m03 * progression;
+		destination.m10 = a.m10 * inverse + b.m10 * progression;
+		destination.m11 = a.m11 * inverse + b.m11 * progression;
+		destination.m12 = a.m12 * inverse + b.m12 * progression;
+		destination.m13 = a.m13 * inverse + b.m13 * progression;
+		destination.m20 = a.m20 * inverse + b.m20 * progression;
+		destination.m21 = a.m21 * inverse + b.m21 * progression;
+		destination.m22 = a.m22 * inverse + b.m22 * progression;
+		destination.m23 = a.m23 * inverse + b.m23 * progression;
+		destination.m30 = a.m30 * inverse + b.m30 * progression;
+		destination.m31 = a.m31 * inverse + b.m31 * progression;
+		destination.m32 = a.m32 * inverse + b.m32 * progression;
+		destination.m33 = a.m33 * inverse + b.m33 * progression;
 	}
 
 	/**
-	 * Finds the previous keyframe in the animation and the next keyframe in the animation, and returns them in an array of length 2.
-	 * If there is no previous frame (perhaps current animation time is 0.5 and the first keyframe is at time 1.5) then the first keyframe is used as both the previous and next keyframe.
-	 * The last keyframe is used for both next and previous if there is no next keyframe.
+	 * Samples the pose a amount of time ahead. The base layer is evaluated first (the bind pose is used if it has nothing playing),
+	 * then each layer above it with weight is evaluated and either blended over the pose or added to it, per joint by the layers mask.
+	 * Each joints local-space transform is then converted into model-space by multiplying with the parents model-space transform.
+	 * <p>
+	 * Finally the inverse of the joint's bind transform is multiplied with the model-space transform of the joint. This basically "subtracts" the
+	 * joint's original bind (no animation applied) transform from the desired pose transform. This is the transform that needs to be
+	 * loaded up to the vertex shader and used to transform the vertices into the current pose.
 	 *
-	 * @return The previous and next keyframes, in an array which therefore will always have a length of 2.
+	 * @param ahead The seconds ahead of the current animation times to sample.
+	 * @param destination The matrices to write the joint transforms into, or null to write into the joints animated transforms.
 	 */
-	private KeyFrames[] getPreviousAndNextFrames() {
-		KeyFrames[] allFrames = currentAnimation.getKeyFrames();
-		KeyFrames previousFrame = allFrames[0];
-		KeyFrames nextFrame = allFrames[0];
+	private void samplePose(float ahead, Matrix4f[] destination) {
+		if (!layers.get(0).evaluate(ahead, bindPose, samplePose, finalPose)) {
+			finalPose.set(bindPose);
+		}
 
-		for (int i = 1; i < allFrames.length; i++) {
-			nextFrame = allFrames[i];
+		for (int l = 1; l < layers.size(); l++) {
+			AnimationLayer layer = layers.get(l);
 
-			if (nextFrame.getTimeStamp() > animationTime) {
-				break;
+			if (layer.getWeight() <= 0.0f || !layer.evaluate(ahead, bindPose, samplePose, layerPose)) {
+				continue;
 			}
 
-			previousFrame = allFrames[i];
+			for (int i = 0; i < joints.length; i++) {
+				float weight = layer.getJointWeight(i);
+
+				if (weight <= 0.0f) {
+					continue;
+				}
+
+				if (layer.isAdditive()) {
+					finalPose.add(i, layerPose, bindPose, weight);
+				} else {
+					finalPose.blend(i, layerPose, weight);
+				}
+			}
 		}
 
-		return new KeyFrames[]{previousFrame, nextFrame};
+		for (int i = 0; i < joints.length; i++) {
+			finalPose.toMatrix(i, localTransform);
+
+			Matrix4f parentTransform = parents[i] == -1 ? animatorTransformation : modelTransforms[parents[i]];
+			Matrix4f.multiply(parentTransform, localTransform, modelTransforms[i]);
+
+			Matrix4f.multiply(modelTransforms[i], joints[i].getInverseBindTransform(), destination == null ? joints[i].getAnimatedTransform() : destination[i]);
+		}
+	}
+
+	/**
+	 * Indicates that the entity should carry out the given animation. Resets the animation time so that the new animation starts from the beginning.
+	 *
+	 * @param animation The new animation to carry out.
+	 */
+	public void doAnimation(Animation animation) {
+		AnimationLayer base = layers.get(0);
+		base.clear();
+		framesSinceSample = sampleInterval;
+
+		if (animation != null) {
+			base.play(animation, 0.0f);
+		}
 	}
 
 	/**
-	 * Calculates how far between the previous and next keyframe the current animation time is, and returns it as a value between 0 and 1.
+	 * Cross-fades the base layer to a animation.
 	 *
-	 * @param previousFrame The previous keyframe in the animation.
-	 * @param nextFrame The next keyframe in the animation.
+	 * @param animation The animation to fade to.
+	 * @param fadeTime The time in seconds to fade over.
 	 *
-	 * @return A number between 0 and 1 indicating how far between the two keyframes the current animation time is.
+	 * @return The playback of the animation.
 	 */
-	private float calculateProgression(KeyFrames previousFrame, KeyFrames nextFrame) {
-		float totalTime = nextFrame.getTimeStamp() - previousFrame.getTimeStamp();
-		float currentTime = animationTime - previousFrame.getTimeStamp();
-		return currentTime / totalTime;
+	public AnimationPlayback crossFade(Animation animation, float fadeTime) {
+		return layers.get(0).play(animation, fadeTime);
 	}
 
 	/**
-	 * Calculates all the local-space joint transforms for the desired current pose by interpolating between
-	 * the transforms at the previous and next keyframes.
+	 * Adds a new layer on top of the existing layers.
 	 *
-	 * @param previousFrame The previous keyframe in the animation.
-	 * @param nextFrame The next keyframe in the animation.
-	 * @param progression A number between 0 and 1 indicating how far between the previous and next keyframes the current animation time is.
+	 * @param additive If the layer adds to the layers below it (relative to the bind pose) instead of overriding them.
 	 *
-	 * @return The local-space transforms for all the joints for the desired current pose.
-	 * They are returned in a map, indexed by the name of the joint to which they should be applied.
+	 * @return The new layer.
 	 */
-	private Map<String, Matrix4f> interpolatePoses(KeyFrames previousFrame, KeyFrames nextFrame, float progression) {
-		Map<String, Matrix4f> currentPose = new HashMap<>();
-
-		for (String jointName : previousFrame.getPose().keySet()) {
-			JointTransform previousTransform = previousFrame.getPose().get(jointName);
-			JointTransform nextTransform = nextFrame.getPose().get(jointName);
-			JointTransform currentTransform = JointTransform.interpolate(previousTransform, nextTransform, progression);
-			currentPose.put(jointName, currentTransform.getLocalTransform());
-		}
+	public AnimationLayer addLayer(boolean additive) {
+		AnimationLayer layer = new AnimationLayer(this, additive);
+		layers.add(layer);
+		return layer;
+	}
 
-		return currentPose;
+	/**
+	 * Removes a layer, the base layer can not be removed.
+	 *
+	 * @param layer The layer to remove.
+	 */
+	public void removeLayer(AnimationLayer layer) {
+		if (layer != layers.get(0)) {
+			layers.remove(layer);
+		}
 	}
 
 	/**
-	 * This method applies the current pose to a given joint, and all of its descendants.
-	 * It does this by getting the desired local-transform for the
-	 * current joint, before applying it to the joint. Before applying the
-	 * transformations it needs to be converted from local-space to model-space
-	 * (so that they are relative to the model's origin, rather than relative to
-	 * the parent joint). This can be done by multiplying the local-transform of
-	 * the joint with the model-space transform of the parent joint.
-	 * <p>
-	 * The same thing is then done to all the child joints.
-	 * <p>
-	 * Finally the inverse of the joint's bind transform is multiplied with the
-	 * model-space transform of the joint. This basically "subtracts" the
-	 * joint's original bind (no animation applied) transform from the desired
-	 * pose transform. The result of this is then the transform required to verifyMove
-	 * the joint from its original model-space transform to it's desired
-	 * model-space posed transform. This is the transform that needs to be
-	 * loaded up to the vertex shader and used to transform the vertices into
-	 * the current pose.
-	 *
-	 * @param currentPose A map of the local-space transforms for all the joints for the desired pose. The map is indexed by the name of the joint which the transform corresponds to.
-	 * @param joint The current joint which the pose should be applied to.
-	 * @param parentTransform The desired model-space transform of the parent joint for the pose.
+	 * Gets a layer, layer 0 is the base layer.
+	 *
+	 * @param index The index of the layer.
+	 *
+	 * @return The layer.
 	 */
-	private void applyPoseToJoints(Map<String, Matrix4f> currentPose, Joint joint, Matrix4f parentTransform) {
-		Matrix4f currentLocalTransform = currentPose.get(joint.name);
-		Matrix4f currentTransform = Matrix4f.multiply(parentTransform, currentLocalTransform, null);
+	public AnimationLayer getLayer(int index) {
+		return layers.get(index);
+	}
 
-		for (Joint childJoint : joint.children) {
-			applyPoseToJoints(currentPose, childJoint, currentTransform);
-		}
+	public int getLayerCount() {
+		return layers.size();
+	}
 
-		Matrix4f.multiply(currentTransform, joint.getInverseBindTransform(), currentTransform);
-		joint.setAnimationTransform(currentTransform);
+	/**
+	 * Gets the index of a joint in the animators joint order.
+	 *
+	 * @param jointName The name of the joint.
+	 *
+	 * @return The joint index, or -1 if the skeleton has no joint with the name.
+	 */
+	public int getJointIndex(String jointName) {
+		Integer index = jointIndices.get(jointName);
+		return index == null ? -1 : index;
 	}
 
 	/**
-	 * Indicates that the entity should carry out the given animation. Resets the animation time so that the new animation starts from the beginning.
+	 * Gets the parent of a joint in the animators joint order.
 	 *
-	 * @param animation The new animation to carry out.
+	 * @param joint The joint index.
+	 *
+	 * @return The parent joint index, or -1 for the root joint.
 	 */
-	public void doAnimation(Animation animation) {
-		this.animationTime = 0;
-		this.currentAnimation = animation;
+	public int getParent(int joint) {
+		return parents[joint];
+	}
+
+	protected Joint[] getJoints() {
+		return joints;
 	}
 
 	public Animation getCurrentAnimation() {
-		return currentAnimation;
+		return layers.get(0).getCurrentAnimation();
+	}
+
+	public Joint getRootJoint() {
+		return rootJoint;
 	}
 }
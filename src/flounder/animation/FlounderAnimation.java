@@ -2,10 +2,12 @@ package flounder.animation;
 
 import flounder.collada.*;
 import flounder.collada.animation.*;
+import flounder.devices.*;
 import flounder.framework.*;
 import flounder.loaders.*;
 import flounder.maths.matrices.*;
 import flounder.maths.vectors.*;
+import flounder.platform.*;
 import flounder.processing.*;
 
 import java.util.*;
@@ -14,19 +16,25 @@ import java.util.*;
  * A module used for loading the information from a collada, and then creates an animation from the extracted data.
  */
 public class FlounderAnimation extends Module {
+	private Map<AnimationData, Animation> loaded;
+	private JointPalette jointPalette;
+
 	/**
 	 * Creates a new animation loader class.
 	 */
 	public FlounderAnimation() {
-		super(FlounderProcessors.class, FlounderLoader.class, FlounderCollada.class);
+		super(FlounderDisplay.class, FlounderPlatform.class, FlounderProcessors.class, FlounderLoader.class, FlounderCollada.class);
 	}
 
 	@Handler.Function(Handler.FLAG_INIT)
 	public void init() {
+		this.loaded = new WeakHashMap<>();
+		this.jointPalette = new JointPalette(1024);
 	}
 
 	@Handler.Function(Handler.FLAG_UPDATE_PRE)
 	public void update() {
+		jointPalette.reset();
 	}
 
 	/**
@@ -37,6 +45,24 @@ public class FlounderAnimation extends Module {
 	 * @return The animation made from the data in the file.
 	 */
 	public Animation loadAnimation(AnimationData animationData) {
+		if (animationData == null) {
+			return null;
+		}
+
+		// Animations are shared by everything using the same data, so their sampling tracks are only built once.
+		synchronized (loaded) {
+			Animation animation = loaded.get(animationData);
+
+			if (animation == null) {
+				animation = createAnimation(animationData);
+				loaded.put(animationData, animation);
+			}
+
+			return animation;
+		}
+	}
+
+	private Animation createAnimation(AnimationData animationData) {
 		KeyFrames[] frames = new KeyFrames[animationData.getKeyFrames().length];
 		int pointer = 0;
 
@@ -65,9 +91,18 @@ public class FlounderAnimation extends Module {
 		return new JointTransform(translation, rotation);
 	}
 
+	/**
+	 * Gets the palette the joint matrices of rendered skinned entities are packed into each frame.
+	 *
+	 * @return The joint palette.
+	 */
+	public JointPalette getJointPalette() {
+		return jointPalette;
+	}
+
 	@Handler.Function(Handler.FLAG_DISPOSE)
 	public void dispose() {
-
+		jointPalette.dispose();
 	}
 
 	@Module.Instance
@@ -0,0 +1,180 @@
+package flounder.animation;
+
+import flounder.helpers.*;
+import flounder.loaders.*;
+import flounder.maths.matrices.*;
+import flounder.platform.*;
+
+import java.nio.*;
+import java.util.*;
+
+import static flounder.platform.Constants.*;
+
+/**
+ * A palette of joint matrices for every skinned entity rendered in a frame, packed into one texture buffer. Each matrix takes four {@code RGBA32F} texels
+ * in column major order, and shaders fetch joints with {@code texelFetch} from the offset of their entity, so skinned meshes no longer upload one
+ * uniform per joint per draw.
+ * <p>
+ * Renderers store the joints of the entities they are about to draw, call {@link #upload()} and bind the palette once per pass. Joints stored earlier in
+ * the frame, such as by the shadow pass, are reused by later passes. Instances stored with {@link #addInstance(Matrix4f, Matrix4f[])} also carry their
+ * model matrix, so a renderer can draw many entities with the same skinned model in one instanced draw.
+ */
+public class JointPalette {
+	private static final int MATRIX_SIZE = 16;
+
+	private float[] data;
+	private FloatBuffer buffer;
+	private final int vbo;
+	private final int texture;
+
+	private int count;
+	private int frame;
+	private boolean dirty;
+
+	/**
+	 * Creates a new joint palette.
+	 *
+	 * @param capacity The amount of matrices the palette starts with room for, it grows as needed.
+	 */
+	public JointPalette(int capacity) {
+		this.data = new float[capacity * MATRIX_SIZE];
+		this.buffer = FlounderPlatform.get().createFloatBuffer(data.length);
+		this.vbo = FlounderLoader.get().createEmptyVBO(data.length);
+		this.texture = FlounderLoader.get().createBufferTexture(vbo, GL_RGBA32F);
+
+		this.count = 0;
+		this.frame = 0;
+		this.dirty = false;
+	}
+
+	/**
+	 * Clears the palette for a new frame.
+	 */
+	public void reset() {
+		count = 0;
+		frame++;
+		dirty = false;
+	}
+
+	/**
+	 * Adds a set of joint matrices to the palette.
+	 *
+	 * @param joints The joint matrices, in joint index order.
+	 *
+	 * @return The offset in matrices of the first joint.
+	 */
+	public int add(Matrix4f[] joints) {
+		int offset = count;
+		ensureCapacity(count + joints.length);
+
+		for (Matrix4f joint : joints) {
+			store(joint);
+		}
+
+		dirty = true;
+		return offset;
+	}
+
+	/**
+	 * Adds a instance of a skinned model to the palette, its model matrix followed by its joint matrices. Instances of the same model added one after
+	 * another can be drawn in one instanced draw, shaders find each instance at the offset of the first plus {@code gl_InstanceID} times the joint count
+	 * plus one.
+	 *
+	 * @param modelMatrix The model matrix of the instance.
+	 * @param joints The joint matrices, in joint index order.
+	 *
+	 * @return The offset in matrices of the model matrix.
+	 */
+	public int addInstance(Matrix4f modelMatrix, Matrix4f[] joints) {
+		int offset = count;
+		ensureCapacity(count + 1 + joints.length);
+		store(modelMatrix);
+
+		for (Matrix4f joint : joints) {
+			store(joint);
+		}
+
+		dirty = true;
+		return offset;
+	}
+
+	private void ensureCapacity(int matrices) {
+		if (matrices * MATRIX_SIZE > data.length) {
+			int capacity = data.length / MATRIX_SIZE;
+
+			while (capacity < matrices) {
+				capacity *= 2;
+			}
+
+			data = Arrays.copyOf(data, capacity * MATRIX_SIZE);
+			buffer = FlounderPlatform.get().createFloatBuffer(data.length);
+		}
+	}
+
+	private void store(Matrix4f matrix) {
+		int i = count * MATRIX_SIZE;
+		data[i] = matrix.m00;
+		data[i + 1] = matrix.m01;
+		data[i + 2] = matrix.m02;
+		data[i + 3] = matrix.m03;
+		data[i + 4] = matrix.m10;
+		data[i + 5] = matrix.m11;
+		data[i + 6] = matrix.m12;
+		data[i + 7] = matrix.m13;
+		data[i + 8] = matrix.m20;
+		data[i + 9] = matrix.m21;
+		data[i + 10] = matrix.m22;
+		data[i + 11] = matrix.m23;
+		data[i + 12] = matrix.m30;
+		data[i + 13] = matrix.m31;
+		data[i + 14] = matrix.m32;
+		data[i + 15] = matrix.m33;
+		count++;
+	}
+
+	/**
+	 * Uploads the palette if any matrices were added since the last upload.
+	 */
+	public void upload() {
+		if (!dirty) {
+			return;
+		}
+
+		FlounderLoader.get().updateVBO(vbo, data, count * MATRIX_SIZE, buffer);
+		dirty = false;
+	}
+
+	/**
+	 * Binds the palette texture to a bank.
+	 *
+	 * @param bankID The shaders bank ID to bind to.
+	 */
+	public void bind(int bankID) {
+		FlounderOpenGL.get().bindTexture(texture, GL_TEXTURE_BUFFER, bankID);
+	}
+
+	/**
+	 * Gets the frame the palette was last reset on, used by components to know if their joints are already in the palette.
+	 *
+	 * @return The palette frame.
+	 */
+	public int getFrame() {
+		return frame;
+	}
+
+	/**
+	 * Gets the amount of matrices in the palette this frame.
+	 *
+	 * @return The amount of matrices.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Deletes the palette texture and buffer.
+	 */
+	public void dispose() {
+		FlounderLoader.get().deleteBufferTexture(texture, vbo);
+	}
+}
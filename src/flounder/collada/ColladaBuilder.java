@@ -0,0 +1,53 @@
+package flounder.collada;
+
+import flounder.factory.*;
+import flounder.resources.*;
+
+/**
+ * A builder used to set animated model parameters for loading.
+ */
+public class ColladaBuilder extends FactoryBuilder {
+	private MyFile file;
+
+	protected ColladaBuilder(Factory factory) {
+		super(factory);
+		this.file = null;
+	}
+
+	/**
+	 * Sets the collada source file.
+	 *
+	 * @param file The source file.
+	 *
+	 * @return this.
+	 */
+	public ColladaBuilder setFile(MyFile file) {
+		this.file = file;
+		return this;
+	}
+
+	/**
+	 * Gets the source file.
+	 *
+	 * @return The source file.
+	 */
+	public MyFile getFile() {
+		return file;
+	}
+
+	@Override
+	public ModelAnimated create() {
+		if (file != null) {
+			return (ModelAnimated) builderCreate(file.getPath());
+		}
+
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return "ColladaBuilder{" +
+				"file=" + file +
+				'}';
+	}
+}
@@ -0,0 +1,334 @@
+package flounder.collada;
+
+import flounder.collada.animation.*;
+import flounder.collada.geometry.*;
+import flounder.collada.skeleton.*;
+import flounder.logger.*;
+import flounder.maths.matrices.*;
+import flounder.maths.vectors.*;
+import flounder.physics.*;
+import flounder.resources.*;
+
+import java.io.*;
+import java.net.*;
+import java.util.zip.*;
+
+/**
+ * A binary cache of compiled collada files, so the XML of a file only has to be parsed once. Cache files are stamped with the size, modified time and
+ * checksum of the collada file they were compiled from, and are ignored if the collada file has changed since. The checksum is only read again when the
+ * size or modified time do not match, so cache hits do not read the whole collada file. Meshes and skeletons are stored as raw arrays,
+ * animations are compressed by the {@link AnimationCompressor}.
+ */
+public class ColladaCache {
+	public static final File CACHE_FOLDER = new File("cache", "collada");
+
+	private static final int MAGIC = 0x464C4341;
+	private static final int VERSION = 2;
+
+	private ColladaCache() {
+	}
+
+	/**
+	 * Reads a compiled collada file from the cache.
+	 *
+	 * @param file The collada file.
+	 *
+	 * @return The compiled data, or null if the file is not cached or the cache is out of date.
+	 */
+	public static ColladaData read(MyFile file) {
+		File cacheFile = getCacheFile(file);
+
+		if (!cacheFile.exists()) {
+			return null;
+		}
+
+		ColladaData data;
+		long[] stamp = getStamp(file);
+		boolean restamp;
+
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+				return null;
+			}
+
+			long size = input.readLong();
+			long modified = input.readLong();
+			long checksum = input.readLong();
+
+			// A unchanged size and modified time means the file is the same, otherwise the checksum decides as files can be touched without changing.
+			restamp = stamp[1] == 0L || size != stamp[0] || modified != stamp[1];
+
+			if (restamp && checksum != getChecksum(file)) {
+				return null;
+			}
+
+			MeshData meshData = readMesh(input);
+			SkeletonData skeletonData = new SkeletonData(input.readInt(), readJoint(input));
+			AnimationData animationData = input.readBoolean() ? AnimationCompressor.read(input) : null;
+			data = new ColladaData(meshData, skeletonData, animationData);
+		} catch (IOException e) {
+			FlounderLogger.get().error("Could not read the collada cache for " + file);
+			FlounderLogger.get().exception(e);
+			return null;
+		}
+
+		// The file was touched without changing, so the new stamp is written to save reading the checksum next time.
+		if (restamp && stamp[1] != 0L) {
+			try (RandomAccessFile output = new RandomAccessFile(cacheFile, "rw")) {
+				output.seek(8);
+				output.writeLong(stamp[0]);
+				output.writeLong(stamp[1]);
+			} catch (IOException e) {
+				FlounderLogger.get().exception(e);
+			}
+		}
+
+		return data;
+	}
+
+	/**
+	 * Writes a compiled collada file to the cache.
+	 *
+	 * @param file The collada file.
+	 * @param data The compiled data.
+	 */
+	public static void write(MyFile file, ColladaData data) {
+		File cacheFile = getCacheFile(file);
+		File tempFile;
+
+		if (!CACHE_FOLDER.exists() && !CACHE_FOLDER.mkdirs()) {
+			FlounderLogger.get().warning("Could not create the collada cache folder " + CACHE_FOLDER);
+			return;
+		}
+
+		try {
+			// Each write gets its own temporary file, so two loaders caching the same file at once do not write over each other.
+			tempFile = File.createTempFile(cacheFile.getName(), ".tmp", CACHE_FOLDER);
+		} catch (IOException e) {
+			FlounderLogger.get().error("Could not write the collada cache for " + file);
+			FlounderLogger.get().exception(e);
+			return;
+		}
+
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+
+			long[] stamp = getStamp(file);
+			output.writeLong(stamp[0]);
+			output.writeLong(stamp[1]);
+			output.writeLong(getChecksum(file));
+
+			writeMesh(data.getMeshData(), output);
+			output.writeInt(data.getSkeletonData().getJointCount());
+			writeJoint(data.getSkeletonData().getHeadJoint(), output);
+			output.writeBoolean(data.getAnimationData() != null);
+
+			if (data.getAnimationData() != null) {
+				AnimationCompressor.write(data.getAnimationData(), output);
+			}
+		} catch (IOException e) {
+			FlounderLogger.get().error("Could not write the collada cache for " + file);
+			FlounderLogger.get().exception(e);
+			tempFile.delete();
+			return;
+		}
+
+		// Written to a temporary file first, so a loader on another thread never reads a half written cache.
+		cacheFile.delete();
+
+		if (!tempFile.renameTo(cacheFile)) {
+			tempFile.delete();
+		}
+	}
+
+	private static File getCacheFile(MyFile file) {
+		return new File(CACHE_FOLDER, file.getPath().replaceAll("[^a-zA-Z0-9.]", "_") + ".bin");
+	}
+
+	/**
+	 * Gets the size and modified time of a collada file without reading it, both are 0 if the resource can not tell them.
+	 */
+	private static long[] getStamp(MyFile file) {
+		try {
+			URL url = ColladaCache.class.getResource(file.getPath());
+
+			if (url != null) {
+				URLConnection connection = url.openConnection();
+				long[] stamp = new long[]{connection.getContentLengthLong(), connection.getLastModified()};
+				connection.getInputStream().close();
+				return stamp;
+			}
+		} catch (IOException e) {
+			// Falls back to checking the checksum.
+		}
+
+		return new long[]{0L, 0L};
+	}
+
+	/**
+	 * Gets the checksum of a collada file, the size of the file is stored in the top bits.
+	 */
+	private static long getChecksum(MyFile file) throws IOException {
+		CRC32 crc = new CRC32();
+		long size = 0;
+
+		try (InputStream input = file.getInputStream()) {
+			byte[] buffer = new byte[8192];
+			int read;
+
+			while ((read = input.read(buffer)) > 0) {
+				crc.update(buffer, 0, read);
+				size += read;
+			}
+		}
+
+		return (size << 32) ^ crc.getValue();
+	}
+
+	private static void writeMesh(MeshData mesh, DataOutputStream output) throws IOException {
+		writeFloats(mesh.getVertices(), output);
+		writeFloats(mesh.getTextures(), output);
+		writeFloats(mesh.getNormals(), output);
+		writeFloats(mesh.getTangents(), output);
+		writeInts(mesh.getIndices(), output);
+		writeInts(mesh.getJointIds(), output);
+		writeFloats(mesh.getVertexWeights(), output);
+
+		Vector3f min = mesh.getAABB().getMinExtents();
+		Vector3f max = mesh.getAABB().getMaxExtents();
+		output.writeFloat(min.x);
+		output.writeFloat(min.y);
+		output.writeFloat(min.z);
+		output.writeFloat(max.x);
+		output.writeFloat(max.y);
+		output.writeFloat(max.z);
+	}
+
+	private static MeshData readMesh(DataInputStream input) throws IOException {
+		float[] vertices = readFloats(input);
+		float[] textures = readFloats(input);
+		float[] normals = readFloats(input);
+		float[] tangents = readFloats(input);
+		int[] indices = readInts(input);
+		int[] jointIds = readInts(input);
+		float[] weights = readFloats(input);
+		Vector3f min = new Vector3f(input.readFloat(), input.readFloat(), input.readFloat());
+		Vector3f max = new Vector3f(input.readFloat(), input.readFloat(), input.readFloat());
+		return new MeshData(vertices, textures, normals, tangents, indices, jointIds, weights, new AABB(min, max));
+	}
+
+	private static void writeJoint(JointData joint, DataOutputStream output) throws IOException {
+		output.writeInt(joint.getIndex());
+		output.writeUTF(joint.getNameId());
+		writeMatrix(joint.getBindLocalTransform(), output);
+		output.writeInt(joint.getChildren().size());
+
+		for (JointData child : joint.getChildren()) {
+			writeJoint(child, output);
+		}
+	}
+
+	private static JointData readJoint(DataInputStream input) throws IOException {
+		JointData joint = new JointData(input.readInt(), input.readUTF(), readMatrix(input));
+		int children = input.readInt();
+
+		for (int i = 0; i < children; i++) {
+			joint.addChild(readJoint(input));
+		}
+
+		return joint;
+	}
+
+	private static void writeMatrix(Matrix4f matrix, DataOutputStream output) throws IOException {
+		output.writeFloat(matrix.m00);
+		output.writeFloat(matrix.m01);
+		output.writeFloat(matrix.m02);
+		output.writeFloat(matrix.m03);
+		output.writeFloat(matrix.m10);
+		output.writeFloat(matrix.m11);
+		output.writeFloat(matrix.m12);
+		output.writeFloat(matrix.m13);
+		output.writeFloat(matrix.m20);
+		output.writeFloat(matrix.m21);
+		output.writeFloat(matrix.m22);
+		output.writeFloat(matrix.m23);
+		output.writeFloat(matrix.m30);
+		output.writeFloat(matrix.m31);
+		output.writeFloat(matrix.m32);
+		output.writeFloat(matrix.m33);
+	}
+
+	private static Matrix4f readMatrix(DataInputStream input) throws IOException {
+		Matrix4f matrix = new Matrix4f();
+		matrix.m00 = input.readFloat();
+		matrix.m01 = input.readFloat();
+		matrix.m02 = input.readFloat();
+		matrix.m03 = input.readFloat();
+		matrix.m10 = input.readFloat();
+		matrix.m11 = input.readFloat();
+		matrix.m12 = input.readFloat();
+		matrix.m13 = input.readFloat();
+		matrix.m20 = input.readFloat();
+		matrix.m21 = input.readFloat();
+		matrix.m22 = input.readFloat();
+		matrix.m23 = input.readFloat();
+		matrix.m30 = input.readFloat();
+		matrix.m31 = input.readFloat();
+		matrix.m32 = input.readFloat();
+		matrix.m33 = input.readFloat();
+		return matrix;
+	}
+
+	private static void writeFloats(float[] data, DataOutputStream output) throws IOException {
+		output.writeInt(data == null ? -1 : data.length);
+
+		if (data != null) {
+			for (float value : data) {
+				output.writeFloat(value);
+			}
+		}
+	}
+
+	private static float[] readFloats(DataInputStream input) throws IOException {
+		int length = input.readInt();
+
+		if (length == -1) {
+			return null;
+		}
+
+		float[] data = new float[length];
+
+		for (int i = 0; i < length; i++) {
+			data[i] = input.readFloat();
+		}
+
+		return data;
+	}
+
+	private static void writeInts(int[] data, DataOutputStream output) throws IOException {
+		output.writeInt(data == null ? -1 : data.length);
+
+		if (data != null) {
+			for (int value : data) {
+				output.writeInt(value);
+			}
+		}
+	}
+
+	private static int[] readInts(DataInputStream input) throws IOException {
+		int length = input.readInt();
+
+		if (length == -1) {
+			return null;
+		}
+
+		int[] data = new int[length];
+
+		for (int i = 0; i < length; i++) {
+			data[i] = input.readInt();
+		}
+
+		return data;
+	}
+}
@@ -0,0 +1,32 @@
+package flounder.collada;
+
+import flounder.collada.animation.*;
+import flounder.collada.geometry.*;
+import flounder.collada.skeleton.*;
+
+/**
+ * Everything loaded from one collada file, the mesh, the skeleton and the animation (if the file has one).
+ */
+public class ColladaData {
+	private final MeshData meshData;
+	private final SkeletonData skeletonData;
+	private final AnimationData animationData;
+
+	public ColladaData(MeshData meshData, SkeletonData skeletonData, AnimationData animationData) {
+		this.meshData = meshData;
+		this.skeletonData = skeletonData;
+		this.animationData = animationData;
+	}
+
+	public MeshData getMeshData() {
+		return meshData;
+	}
+
+	public SkeletonData getSkeletonData() {
+		return skeletonData;
+	}
+
+	public AnimationData getAnimationData() {
+		return animationData;
+	}
+}
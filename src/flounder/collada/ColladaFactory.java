@@ -0,0 +1,60 @@
+package flounder.collada;
+
+import flounder.factory.*;
+import flounder.physics.*;
+
+import java.lang.ref.*;
+import java.util.*;
+
+/**
+ * A class that represents a factory for loading animated collada models. The file is read from the binary cache when it is up to date, and only parsed
+ * as XML (and then cached) otherwise.
+ */
+public class ColladaFactory extends Factory {
+	private static final ColladaFactory INSTANCE = new ColladaFactory();
+
+	private ColladaFactory() {
+		super("collada");
+	}
+
+	/**
+	 * Gets a new builder to be used to create information for build a object from.
+	 *
+	 * @return A new factory builder.
+	 */
+	public static ColladaBuilder newBuilder() {
+		return new ColladaBuilder(INSTANCE);
+	}
+
+	@Override
+	protected FactoryObject newObject() {
+		return new ModelAnimated();
+	}
+
+	@Override
+	protected void loadData(FactoryObject object, FactoryBuilder builder, String name) {
+		ColladaBuilder b = (ColladaBuilder) builder;
+		ModelAnimated o = (ModelAnimated) object;
+
+		if (b.getFile() != null) {
+			ColladaData data = FlounderCollada.get().loadColladaData(b.getFile());
+			o.loadData(data, data.getMeshData() == null ? 0.0f : QuickHullBuilder.getModelVoxelSize(data.getMeshData().getAABB()), name, b.getFile());
+		}
+	}
+
+	@Override
+	protected void create(FactoryObject object, FactoryBuilder builder) {
+		ModelAnimated o = (ModelAnimated) object;
+
+		if (o.getMeshData() == null) {
+			return;
+		}
+
+		FlounderCollada.get().loadModelToOpenGL(o);
+	}
+
+	@Override
+	protected Map<String, SoftReference<FactoryObject>> getLoaded() {
+		return FlounderCollada.get().getLoaded();
+	}
+}
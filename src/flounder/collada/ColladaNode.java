@@ -0,0 +1,158 @@
+package flounder.collada;
+
+import java.util.*;
+
+/**
+ * A element read from a collada file by the {@link ColladaReader}. Numeric arrays ({@code float_array}, {@code matrix}, {@code p}, {@code v} and
+ * {@code vcount}) are stored as primitive arrays instead of text, other elements keep their text data.
+ */
+public class ColladaNode {
+	private final String name;
+	private final Map<String, String> attributes;
+	private final List<ColladaNode> children;
+
+	private String data;
+	private float[] floats;
+	private int[] ints;
+
+	/**
+	 * Creates a new collada node.
+	 *
+	 * @param name The name of the element.
+	 */
+	protected ColladaNode(String name) {
+		this.name = name;
+		this.attributes = new HashMap<>();
+		this.children = new ArrayList<>();
+
+		this.data = null;
+		this.floats = null;
+		this.ints = null;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the value of a attribute.
+	 *
+	 * @param attribute The name of the attribute.
+	 *
+	 * @return The value, or null if the element does not have the attribute.
+	 */
+	public String getAttribute(String attribute) {
+		return attributes.get(attribute);
+	}
+
+	protected void addAttribute(String attribute, String value) {
+		attributes.put(attribute, value);
+	}
+
+	/**
+	 * Gets the first child element with a name.
+	 *
+	 * @param childName The name of the child.
+	 *
+	 * @return The child, or null if there is none.
+	 */
+	public ColladaNode getChild(String childName) {
+		for (ColladaNode child : children) {
+			if (child.name.equals(childName)) {
+				return child;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets the first child element with a name and a attribute value.
+	 *
+	 * @param childName The name of the child.
+	 * @param attribute The name of the attribute.
+	 * @param value The value the attribute must have.
+	 *
+	 * @return The child, or null if there is none.
+	 */
+	public ColladaNode getChildWithAttribute(String childName, String attribute, String value) {
+		for (ColladaNode child : children) {
+			if (child.name.equals(childName) && value.equals(child.getAttribute(attribute))) {
+				return child;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets every child element with a name.
+	 *
+	 * @param childName The name of the children.
+	 *
+	 * @return The children.
+	 */
+	public List<ColladaNode> getChildren(String childName) {
+		List<ColladaNode> result = new ArrayList<>();
+
+		for (ColladaNode child : children) {
+			if (child.name.equals(childName)) {
+				result.add(child);
+			}
+		}
+
+		return result;
+	}
+
+	protected void addChild(ColladaNode child) {
+		children.add(child);
+	}
+
+	/**
+	 * Gets the text data of the element, numeric arrays have no text data.
+	 *
+	 * @return The text data, or null.
+	 */
+	public String getData() {
+		return data;
+	}
+
+	protected void setData(String data) {
+		this.data = data;
+	}
+
+	/**
+	 * Gets the values of a float array element.
+	 *
+	 * @return The values, or a empty array if the element is not a float array.
+	 */
+	public float[] getFloats() {
+		return floats == null ? new float[0] : floats;
+	}
+
+	protected void setFloats(float[] floats) {
+		this.floats = floats;
+	}
+
+	/**
+	 * Gets the values of a integer array element.
+	 *
+	 * @return The values, or a empty array if the element is not a integer array.
+	 */
+	public int[] getInts() {
+		return ints == null ? new int[0] : ints;
+	}
+
+	protected void setInts(int[] ints) {
+		this.ints = ints;
+	}
+
+	@Override
+	public String toString() {
+		return "ColladaNode{" +
+				"name='" + name + '\'' +
+				", attributes=" + attributes +
+				", children=" + children.size() +
+				'}';
+	}
+}
@@ -0,0 +1,323 @@
+package flounder.collada;
+
+import flounder.logger.*;
+import flounder.resources.*;
+
+import javax.xml.stream.*;
+import java.io.*;
+import java.util.*;
+
+/**
+ * Reads collada files with a streaming XML parser. Numeric arrays are parsed straight from the character stream into primitive arrays, so the text of large
+ * arrays is never held as a string or split, and libraries that the collada loaders do not use are skipped without being stored.
+ */
+public class ColladaReader {
+	private static final Set<String> LIBRARIES = new HashSet<>(Arrays.asList("library_geometries", "library_controllers", "library_visual_scenes", "library_animations"));
+	private static final Set<String> FLOAT_ARRAYS = new HashSet<>(Arrays.asList("float_array", "matrix"));
+	private static final Set<String> INT_ARRAYS = new HashSet<>(Arrays.asList("int_array", "p", "v", "vcount"));
+
+	private final Deque<ColladaNode> stack;
+	private final StringBuilder text;
+	private final char[] token;
+	private int tokenLength;
+
+	private float[] floats;
+	private int[] ints;
+	private int count;
+
+	private ColladaReader() {
+		this.stack = new ArrayDeque<>();
+		this.text = new StringBuilder();
+		this.token = new char[64];
+		this.tokenLength = 0;
+
+		this.floats = null;
+		this.ints = null;
+		this.count = 0;
+	}
+
+	/**
+	 * Reads a collada file.
+	 *
+	 * @param file The collada file.
+	 *
+	 * @return The root {@code COLLADA} node, or null if the file could not be read.
+	 */
+	public static ColladaNode read(MyFile file) {
+		try (InputStream input = new BufferedInputStream(file.getInputStream())) {
+			return new ColladaReader().read(input);
+		} catch (IOException | XMLStreamException | NumberFormatException e) {
+			FlounderLogger.get().error("Could not read the collada file " + file);
+			FlounderLogger.get().exception(e);
+			return null;
+		}
+	}
+
+	private ColladaNode read(InputStream input) throws XMLStreamException {
+		XMLStreamReader reader = createInputFactory().createXMLStreamReader(input);
+		ColladaNode root = null;
+		int skipDepth = 0;
+
+		try {
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+					case XMLStreamConstants.START_ELEMENT:
+						if (skipDepth > 0 || (stack.size() == 1 && !LIBRARIES.contains(reader.getLocalName()))) {
+							skipDepth++;
+							break;
+						}
+
+						ColladaNode node = startElement(reader);
+
+						if (root == null) {
+							root = node;
+						} else {
+							stack.peek().addChild(node);
+						}
+
+						stack.push(node);
+						break;
+					case XMLStreamConstants.CHARACTERS:
+					case XMLStreamConstants.CDATA:
+						if (skipDepth == 0 && !stack.isEmpty()) {
+							characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+						}
+
+						break;
+					case XMLStreamConstants.END_ELEMENT:
+						if (skipDepth > 0) {
+							skipDepth--;
+							break;
+						}
+
+						endElement(stack.pop());
+						break;
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+		return root;
+	}
+
+	private ColladaNode startElement(XMLStreamReader reader) {
+		ColladaNode node = new ColladaNode(reader.getLocalName());
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			node.addAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+		}
+
+		text.setLength(0);
+		tokenLength = 0;
+		count = 0;
+		floats = null;
+		ints = null;
+
+		// The count attribute sizes the array up front, so it does not have to grow while parsing.
+		String countAttribute = node.getAttribute("count");
+		int capacity = parseCapacity(countAttribute);
+
+		if (FLOAT_ARRAYS.contains(node.getName())) {
+			floats = new float[capacity];
+		} else if (INT_ARRAYS.contains(node.getName())) {
+			ints = new int[capacity];
+		}
+
+		return node;
+	}
+
+	private static int parseCapacity(String countAttribute) {
+		if (countAttribute == null) {
+			return 16;
+		}
+
+		try {
+			return Math.max(16, Integer.parseInt(countAttribute.trim()));
+		} catch (NumberFormatException e) {
+			return 16;
+		}
+	}
+
+	private void characters(char[] chars, int start, int length) {
+		if (floats == null && ints == null) {
+			text.append(chars, start, length);
+			return;
+		}
+
+		for (int i = start; i < start + length; i++) {
+			char c = chars[i];
+
+			if (Character.isWhitespace(c)) {
+				endToken();
+			} else if (tokenLength < token.length) {
+				token[tokenLength++] = c;
+			} else {
+				throw new NumberFormatException("Number too long in collada array: " + new String(token, 0, tokenLength));
+			}
+		}
+	}
+
+	private void endElement(ColladaNode node) {
+		endToken();
+
+		if (floats != null) {
+			node.setFloats(count == floats.length ? floats : Arrays.copyOf(floats, count));
+		} else if (ints != null) {
+			node.setInts(count == ints.length ? ints : Arrays.copyOf(ints, count));
+		} else {
+			String data = text.toString().trim();
+
+			if (!data.isEmpty()) {
+				node.setData(data);
+			}
+		}
+
+		// The parent's own text is not needed once it has child elements.
+		text.setLength(0);
+		floats = null;
+		ints = null;
+		count = 0;
+	}
+
+	private void endToken() {
+		if (tokenLength == 0) {
+			return;
+		}
+
+		if (floats != null) {
+			if (count == floats.length) {
+				floats = Arrays.copyOf(floats, floats.length * 2);
+			}
+
+			floats[count++] = parseFloat(token, tokenLength);
+		} else if (ints != null) {
+			if (count == ints.length) {
+				ints = Arrays.copyOf(ints, ints.length * 2);
+			}
+
+			ints[count++] = parseInt(token, tokenLength);
+		}
+
+		tokenLength = 0;
+	}
+
+	/**
+	 * Parses a integer from characters without creating a string.
+	 */
+	private static int parseInt(char[] chars, int length) {
+		int i = 0;
+		boolean negative = false;
+
+		if (chars[0] == '-' || chars[0] == '+') {
+			negative = chars[0] == '-';
+			i++;
+		}
+
+		if (i == length) {
+			throw new NumberFormatException(new String(chars, 0, length));
+		}
+
+		int value = 0;
+
+		for (; i < length; i++) {
+			int digit = chars[i] - '0';
+
+			if (digit < 0 || digit > 9) {
+				throw new NumberFormatException(new String(chars, 0, length));
+			}
+
+			value = value * 10 + digit;
+		}
+
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parses a decimal float from characters without creating a string. Digits past the 18th significant digit are dropped, and values that are not plain
+	 * decimals (like {@code NaN}) fall back to {@link Float#parseFloat(String)}.
+	 */
+	private static float parseFloat(char[] chars, int length) {
+		int i = 0;
+		boolean negative = false;
+
+		if (chars[0] == '-' || chars[0] == '+') {
+			negative = chars[0] == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean point = false;
+		boolean any = false;
+
+		for (; i < length; i++) {
+			char c = chars[i];
+
+			if (c >= '0' && c <= '9') {
+				any = true;
+
+				if (digits < 18) {
+					mantissa = mantissa * 10 + (c - '0');
+
+					if (mantissa != 0) {
+						digits++;
+					}
+
+					if (point) {
+						exponent--;
+					}
+				} else if (!point) {
+					exponent++;
+				}
+			} else if (c == '.' && !point) {
+				point = true;
+			} else {
+				break;
+			}
+		}
+
+		if (i < length && any && (chars[i] == 'e' || chars[i] == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+
+			if (i < length && (chars[i] == '-' || chars[i] == '+')) {
+				negativeExponent = chars[i] == '-';
+				i++;
+			}
+
+			int e = 0;
+			boolean anyExponent = false;
+
+			for (; i < length && chars[i] >= '0' && chars[i] <= '9'; i++) {
+				e = Math.min(e * 10 + (chars[i] - '0'), 1000);
+				anyExponent = true;
+			}
+
+			if (!anyExponent) {
+				return Float.parseFloat(new String(chars, 0, length));
+			}
+
+			exponent += negativeExponent ? -e : e;
+		}
+
+		if (!any || i != length || exponent < -300 || exponent > 300) {
+			return Float.parseFloat(new String(chars, 0, length));
+		}
+
+		double value = exponent < 0 ? mantissa / Math.pow(10.0, -exponent) : mantissa * Math.pow(10.0, exponent);
+		return (float) (negative ? -value : value);
+	}
+
+	/**
+	 * Creates a new input factory for each file, as input factories are not safe to share between the loader threads.
+	 */
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+		return factory;
+	}
+}
@@ -4,11 +4,11 @@ import flounder.collada.animation.*;
 import flounder.collada.geometry.*;
 import flounder.collada.skeleton.*;
 import flounder.collada.skin.*;
+import flounder.factory.*;
 import flounder.framework.*;
 import flounder.loaders.*;
 import flounder.maths.matrices.*;
 import flounder.maths.vectors.*;
-import flounder.parsing.xml.*;
 import flounder.processing.*;
 import flounder.resources.*;
 
@@ -22,7 +22,7 @@ public class FlounderCollada extends Module {
 	public static final Matrix4f CORRECTION = Matrix4f.rotate(new Matrix4f(), new Vector3f(1.0f, 0.0f, 0.0f), (float) Math.toRadians(-90.0f), null);
 	public static final int MAX_WEIGHTS = 3;
 
-	private Map<String, SoftReference<ModelAnimated>> loaded;
+	private Map<String, SoftReference<FactoryObject>> loaded;
 
 	/**
 	 * Creates a new collada loader class.
@@ -33,7 +33,7 @@ public class FlounderCollada extends Module {
 
 	@Handler.Function(Handler.FLAG_INIT)
 	public void init() {
-		loaded = new HashMap<>();
+		this.loaded = new HashMap<>();
 	}
 
 	@Handler.Function(Handler.FLAG_UPDATE_PRE)
@@ -41,59 +41,113 @@ public class FlounderCollada extends Module {
 	}
 
 	/**
-	 * Loads a collada file into a model object.
+	 * Gets a list of loaded animated models.
+	 *
+	 * @return A list of loaded animated models.
+	 */
+	public Map<String, SoftReference<FactoryObject>> getLoaded() {
+		return this.loaded;
+	}
+
+	/**
+	 * Loads a collada file into a model object, models are loaded in the background and shared between every caller loading the same file.
 	 *
 	 * @param file The collada file to be loaded.
 	 *
 	 * @return The loaded model.
 	 */
 	public ModelAnimated loadCollada(MyFile file) {
-		XmlNode node = XmlParser.loadXmlFile(file);
-
-		SkinLoader skinLoader = new SkinLoader(node.getChild("library_controllers"), FlounderCollada.MAX_WEIGHTS);
-		SkinningData skinningData = skinLoader.extractSkinData();
+		return ColladaFactory.newBuilder().setFile(file).create();
+	}
 
-		SkeletonLoader skeletonLoader = new SkeletonLoader(node.getChild("library_visual_scenes"), skinningData.getJointOrder());
-		SkeletonData skeletonData = skeletonLoader.extractBoneData();
+	/**
+	 * Loads a collada file into a animation object. The animation is taken from the loaded model of the file if there is one.
+	 *
+	 * @param file The collada file to be loaded.
+	 *
+	 * @return The loaded animation.
+	 */
+	public AnimationData loadAnimation(MyFile file) {
+		SoftReference<FactoryObject> reference = loaded.get(file.getPath());
+		ModelAnimated model = reference == null ? null : (ModelAnimated) reference.get();
 
-		GeometryLoader g = new GeometryLoader(node.getChild("library_geometries"), skinningData.getVerticesSkinData());
-		MeshData meshData = g.extractModelData();
+		if (model != null && model.getAnimationData() != null) {
+			return model.getAnimationData();
+		}
 
-		return new ModelAnimated(meshData, skeletonData, file);
+		return loadColladaData(file).getAnimationData();
 	}
 
 	/**
-	 * Loads a collada file into a animation object.
+	 * Loads the mesh, skeleton and animation from a collada file. The binary cache is used if it is up to date, otherwise the XML is parsed and the
+	 * result is cached for next time.
 	 *
 	 * @param file The collada file to be loaded.
 	 *
-	 * @return The loaded animation.
+	 * @return The loaded data.
 	 */
-	public AnimationData loadAnimation(MyFile file) {
-		XmlNode node = XmlParser.loadXmlFile(file);
+	public ColladaData loadColladaData(MyFile file) {
+		ColladaData data = ColladaCache.read(file);
+
+		if (data == null) {
+			data = parseCollada(file);
 
-		AnimationLoader animationLoader = new AnimationLoader(node.getChild("library_animations"), node.getChild("library_visual_scenes"));
-		AnimationData animationData = animationLoader.extractAnimation();
+			if (data.getMeshData() != null) {
+				ColladaCache.write(file, data);
+			}
+		}
 
-		return animationData;
+		return data;
 	}
 
-	public void loadModelToOpenGL(ModelAnimated model) {
-		model.setVaoID(FlounderLoader.get().createVAO());
-		model.setVaoLength(model.getMeshData().getIndices() != null ? model.getMeshData().getIndices().length : (model.getMeshData().getVertices().length / 3));
-		FlounderLoader.get().createIndicesVBO(model.getVaoID(), model.getMeshData().getIndices());
-		FlounderLoader.get().storeDataInVBO(model.getVaoID(), model.getMeshData().getVertices(), 0, 3);
-		FlounderLoader.get().storeDataInVBO(model.getVaoID(), model.getMeshData().getTextures(), 1, 2);
-		FlounderLoader.get().storeDataInVBO(model.getVaoID(), model.getMeshData().getNormals(), 2, 3);
-		FlounderLoader.get().storeDataInVBO(model.getVaoID(), model.getMeshData().getTangents(), 3, 3);
-		FlounderLoader.get().storeDataInVBO(model.getVaoID(), model.getMeshData().getJointIds(), 4, 3);
-		FlounderLoader.get().storeDataInVBO(model.getVaoID(), model.getMeshData().getVertexWeights(), 5, 3);
+	private ColladaData parseCollada(MyFile file) {
+		ColladaNode node = ColladaReader.read(file);
+
+		if (node == null) {
+			return new ColladaData(null, null, null);
+		}
+
+		SkinLoader skinLoader = new SkinLoader(node.getChild("library_controllers"), FlounderCollada.MAX_WEIGHTS);
+		SkinningData skinningData = skinLoader.extractSkinData();
+
+		SkeletonLoader skeletonLoader = new SkeletonLoader(node.getChild("library_visual_scenes"), skinningData.getJointOrder());
+		SkeletonData skeletonData = skeletonLoader.extractBoneData();
+
+		GeometryLoader g = new GeometryLoader(node.getChild("library_geometries"), skinningData.getVerticesSkinData());
+		MeshData meshData = g.extractModelData();
+
+		AnimationData animationData = null;
+
+		if (node.getChild("library_animations") != null) {
+			AnimationLoader animationLoader = new AnimationLoader(node.getChild("library_animations"), node.getChild("library_visual_scenes"));
+			animationData = animationLoader.extractAnimation();
+		}
+
+		return new ColladaData(meshData, skeletonData, animationData);
 	}
 
+	public void loadModelToOpenGL(ModelAnimated model) {
+		int vaoID = FlounderLoader.get().createVAO();
+		int vaoLength = model.getMeshData().getIndices() != null ? model.getMeshData().getIndices().length : (model.getMeshData().getVertices().length / 3);
+		FlounderLoader.get().createIndicesVBO(vaoID, model.getMeshData().getIndices());
+		FlounderLoader.get().storeDataInVBO(vaoID, model.getMeshData().getVertices(), 0, 3);
+		FlounderLoader.get().storeDataInVBO(vaoID, model.getMeshData().getTextures(), 1, 2);
+		FlounderLoader.get().storeDataInVBO(vaoID, model.getMeshData().getNormals(), 2, 3);
+		FlounderLoader.get().storeDataInVBO(vaoID, model.getMeshData().getTangents(), 3, 3);
+		FlounderLoader.get().storeDataInVBO(vaoID, model.getMeshData().getJointIds(), 4, 3);
+		FlounderLoader.get().storeDataInVBO(vaoID, model.getMeshData().getVertexWeights(), 5, 3);
+		model.loadGL(vaoID, vaoLength);
+	}
 
 	@Handler.Function(Handler.FLAG_DISPOSE)
 	public void dispose() {
-		loaded.keySet().forEach(key -> loaded.get(key).get().delete());
+		loaded.keySet().forEach(key -> {
+			ModelAnimated model = (ModelAnimated) loaded.get(key).get();
+
+			if (model != null) {
+				model.delete();
+			}
+		});
 		loaded.clear();
 	}
 
@@ -1,17 +1,23 @@
 package flounder.collada;
 
 import flounder.animation.*;
+import flounder.collada.animation.*;
 import flounder.collada.geometry.*;
 import flounder.collada.skeleton.*;
+import flounder.factory.*;
 import flounder.physics.*;
 import flounder.resources.*;
 
-public class ModelAnimated {
-	private final MeshData meshData;
-
-	private final SkeletonData skeletonData;
-	private final Joint headJoint;
+/**
+ * Class that represents a loaded animated model. Animated models are shared between every entity using the same file, so the joint hierarchy is not
+ * stored here, each animator creates its own joints with {@link #createJoints()}.
+ */
+public class ModelAnimated extends FactoryObject {
+	private MeshData meshData;
+	private SkeletonData skeletonData;
+	private AnimationData animationData;
 
+	private String name;
 	private MyFile file;
 
 	private Collider collider;
@@ -20,23 +26,59 @@ public class ModelAnimated {
 	private int vaoID;
 	private int vaoLength;
 
-	public ModelAnimated(MeshData meshData, SkeletonData skeletonData, MyFile file) {
-		this.meshData = meshData;
+	/**
+	 * A new OpenGL animated model object.
+	 */
+	protected ModelAnimated() {
+		super();
+		this.meshData = null;
+		this.skeletonData = null;
+		this.animationData = null;
 
-		this.file = file;
+		this.name = null;
+		this.file = null;
 
-		this.collider = meshData.getAABB();
+		this.collider = null;
 		this.quickHull = new QuickHull();
 
-		this.quickHull.loadData(meshData.getVertices());
-
-		this.skeletonData = skeletonData;
-		this.headJoint = createJoints(skeletonData.getHeadJoint());
-
 		this.vaoID = -1;
 		this.vaoLength = -1;
+	}
+
+	protected void loadData(ColladaData data, float hullVoxelSize, String name, MyFile file) {
+		this.meshData = data.getMeshData();
+		this.skeletonData = data.getSkeletonData();
+		this.animationData = data.getAnimationData();
+
+		this.name = name;
+		this.file = file;
+
+		if (meshData != null) {
+			this.collider = meshData.getAABB();
+			this.quickHull.loadData(meshData.getVertices(), hullVoxelSize);
+		}
 
-		FlounderCollada.get().loadModelToOpenGL(this);
+		setDataLoaded(true);
+	}
+
+	protected void loadGL(int vaoID, int vaoLength) {
+		this.vaoID = vaoID;
+		this.vaoLength = vaoLength;
+
+		setFullyLoaded(true);
+	}
+
+	/**
+	 * Creates a new joint hierarchy from the skeleton of this model, in the bind pose.
+	 *
+	 * @return The new head joint, or null if the model has not loaded.
+	 */
+	public Joint createJoints() {
+		if (skeletonData == null) {
+			return null;
+		}
+
+		return createJoints(skeletonData.getHeadJoint());
 	}
 
 	private static Joint createJoints(JointData data) {
@@ -57,8 +99,22 @@ public class ModelAnimated {
 		return skeletonData;
 	}
 
-	public Joint getHeadJoint() {
-		return headJoint;
+	/**
+	 * Gets the animation stored in the same file as this model.
+	 *
+	 * @return The animation data, or null if the file has no animation.
+	 */
+	public AnimationData getAnimationData() {
+		return animationData;
+	}
+
+	/**
+	 * Gets the loaded name for the model.
+	 *
+	 * @return The models name.
+	 */
+	public String getName() {
+		return name;
 	}
 
 	public MyFile getFile() {
@@ -77,20 +133,13 @@ public class ModelAnimated {
 		return vaoID;
 	}
 
-	public void setVaoID(int vaoID) {
-		this.vaoID = vaoID;
-	}
-
 	public int getVaoLength() {
 		return vaoLength;
 	}
 
-	public void setVaoLength(int vaoLength) {
-		this.vaoLength = vaoLength;
-	}
-
+	@Override
 	public boolean isLoaded() {
-		return vaoID != -1 && vaoLength != -1;
+		return super.isLoaded() && vaoID != -1 && vaoLength != -1;
 	}
 
 	/**
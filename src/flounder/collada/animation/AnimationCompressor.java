@@ -0,0 +1,326 @@
+package flounder.collada.animation;
+
+import flounder.maths.*;
+import flounder.maths.matrices.*;
+import flounder.maths.vectors.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Writes and reads animations in a compressed binary form. Each joint becomes a track of translations and rotations, keyframes that can be rebuilt by
+ * interpolating the keyframes either side of them (within a tolerance) are dropped, and rotations are quantised to the three smallest quaternion components
+ * in 16 bits each. Reading rebuilds every original keyframe, so the result can be used the same as an animation parsed from a collada file.
+ */
+public class AnimationCompressor {
+	private static final float TRANSLATION_TOLERANCE = 0.0001f;
+	private static final float ROTATION_TOLERANCE = 0.000001f;
+	private static final float QUANTISE_RANGE = (float) (1.0 / Math.sqrt(2.0));
+
+	private AnimationCompressor() {
+	}
+
+	/**
+	 * Writes a animation to a stream.
+	 *
+	 * @param animation The animation to write.
+	 * @param output The stream to write to.
+	 *
+	 * @throws IOException If the stream could not be written to.
+	 */
+	public static void write(AnimationData animation, DataOutputStream output) throws IOException {
+		KeyFrameData[] keyFrames = animation.getKeyFrames();
+		List<String> trackNames = new ArrayList<>();
+
+		for (KeyFrameData keyFrame : keyFrames) {
+			for (JointTransformData transform : keyFrame.getJointTransforms()) {
+				if (!trackNames.contains(transform.getJointNameId())) {
+					trackNames.add(transform.getJointNameId());
+				}
+			}
+		}
+
+		output.writeFloat(animation.getLengthSeconds());
+		output.writeInt(keyFrames.length);
+
+		for (KeyFrameData keyFrame : keyFrames) {
+			output.writeFloat(keyFrame.getTime());
+		}
+
+		output.writeInt(trackNames.size());
+		float[] translations = new float[keyFrames.length * 3];
+		float[] rotations = new float[keyFrames.length * 4];
+		boolean[] keep = new boolean[keyFrames.length];
+
+		for (String trackName : trackNames) {
+			loadTrack(trackName, keyFrames, translations, rotations);
+			fitTrack(keyFrames, translations, rotations, keep);
+
+			int kept = 0;
+
+			for (boolean k : keep) {
+				kept += k ? 1 : 0;
+			}
+
+			output.writeUTF(trackName);
+			output.writeInt(kept);
+
+			for (int i = 0; i < keep.length; i++) {
+				if (keep[i]) {
+					output.writeInt(i);
+					output.writeFloat(translations[i * 3]);
+					output.writeFloat(translations[i * 3 + 1]);
+					output.writeFloat(translations[i * 3 + 2]);
+					writeRotation(rotations, i * 4, output);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads a animation from a stream.
+	 *
+	 * @param input The stream to read from.
+	 *
+	 * @return The animation that was read.
+	 *
+	 * @throws IOException If the stream could not be read from.
+	 */
+	public static AnimationData read(DataInputStream input) throws IOException {
+		float lengthSeconds = input.readFloat();
+		KeyFrameData[] keyFrames = new KeyFrameData[input.readInt()];
+
+		for (int i = 0; i < keyFrames.length; i++) {
+			keyFrames[i] = new KeyFrameData(input.readFloat());
+		}
+
+		int trackCount = input.readInt();
+		float[] translation = new float[3];
+		float[] rotation = new float[4];
+
+		for (int track = 0; track < trackCount; track++) {
+			String trackName = input.readUTF();
+			int kept = input.readInt();
+			int[] frames = new int[kept];
+			float[] translations = new float[kept * 3];
+			float[] rotations = new float[kept * 4];
+
+			for (int k = 0; k < kept; k++) {
+				frames[k] = input.readInt();
+				translations[k * 3] = input.readFloat();
+				translations[k * 3 + 1] = input.readFloat();
+				translations[k * 3 + 2] = input.readFloat();
+				readRotation(input, rotations, k * 4);
+			}
+
+			// Rebuilds every keyframe from the keyframes either side of it.
+			int k = 0;
+
+			for (int i = 0; i < keyFrames.length && kept > 0; i++) {
+				while (k + 1 < kept && frames[k + 1] <= i) {
+					k++;
+				}
+
+				int next = Math.min(k + 1, kept - 1);
+				float progression = 0.0f;
+
+				if (next != k) {
+					progression = getProgression(keyFrames, frames[k], frames[next], i);
+				}
+
+				interpolate(translations, rotations, k, next, progression, translation, rotation);
+				keyFrames[i].addJointTransform(new JointTransformData(trackName, toMatrix(translation, rotation)));
+			}
+		}
+
+		return new AnimationData(lengthSeconds, keyFrames);
+	}
+
+	/**
+	 * Loads the translation and rotation of a joint at every keyframe, keyframes missing the joint hold the value from the keyframe before.
+	 */
+	private static void loadTrack(String trackName, KeyFrameData[] keyFrames, float[] translations, float[] rotations) {
+		for (int i = 0; i < keyFrames.length; i++) {
+			Matrix4f matrix = null;
+
+			for (JointTransformData transform : keyFrames[i].getJointTransforms()) {
+				if (transform.getJointNameId().equals(trackName)) {
+					matrix = transform.getJointLocalTransform();
+					break;
+				}
+			}
+
+			if (matrix == null) {
+				if (i > 0) {
+					System.arraycopy(translations, (i - 1) * 3, translations, i * 3, 3);
+					System.arraycopy(rotations, (i - 1) * 4, rotations, i * 4, 4);
+				} else {
+					translations[0] = translations[1] = translations[2] = 0.0f;
+					rotations[0] = rotations[1] = rotations[2] = 0.0f;
+					rotations[3] = 1.0f;
+				}
+
+				continue;
+			}
+
+			Quaternion quaternion = new Quaternion(matrix);
+			translations[i * 3] = matrix.m30;
+			translations[i * 3 + 1] = matrix.m31;
+			translations[i * 3 + 2] = matrix.m32;
+			rotations[i * 4] = quaternion.x;
+			rotations[i * 4 + 1] = quaternion.y;
+			rotations[i * 4 + 2] = quaternion.z;
+			rotations[i * 4 + 3] = quaternion.w;
+		}
+	}
+
+	/**
+	 * Picks the keyframes to keep, growing each span between kept keyframes until a keyframe inside it can no longer be rebuilt within the tolerances.
+	 */
+	private static void fitTrack(KeyFrameData[] keyFrames, float[] translations, float[] rotations, boolean[] keep) {
+		Arrays.fill(keep, false);
+
+		if (keep.length == 0) {
+			return;
+		}
+
+		float[] translation = new float[3];
+		float[] rotation = new float[4];
+		int start = 0;
+		keep[0] = true;
+
+		for (int end = 2; end < keep.length; end++) {
+			boolean fits = true;
+
+			for (int i = start + 1; i < end && fits; i++) {
+				interpolate(translations, rotations, start, end, getProgression(keyFrames, start, end, i), translation, rotation);
+				fits = withinTolerance(translations, rotations, i, translation, rotation);
+			}
+
+			if (!fits) {
+				start = end - 1;
+				keep[start] = true;
+			}
+		}
+
+		keep[keep.length - 1] = true;
+	}
+
+	/**
+	 * Gets how far a keyframe is in time between two other keyframes.
+	 */
+	private static float getProgression(KeyFrameData[] keyFrames, int start, int end, int frame) {
+		float totalTime = keyFrames[end].getTime() - keyFrames[start].getTime();
+
+		if (totalTime <= 0.0f) {
+			return 0.0f;
+		}
+
+		return Maths.clamp((keyFrames[frame].getTime() - keyFrames[start].getTime()) / totalTime, 0.0f, 1.0f);
+	}
+
+	private static boolean withinTolerance(float[] translations, float[] rotations, int frame, float[] translation, float[] rotation) {
+		float dx = translations[frame * 3] - translation[0];
+		float dy = translations[frame * 3 + 1] - translation[1];
+		float dz = translations[frame * 3 + 2] - translation[2];
+
+		if (dx * dx + dy * dy + dz * dz > TRANSLATION_TOLERANCE * TRANSLATION_TOLERANCE) {
+			return false;
+		}
+
+		float dot = rotations[frame * 4] * rotation[0] + rotations[frame * 4 + 1] * rotation[1] + rotations[frame * 4 + 2] * rotation[2] + rotations[frame * 4 + 3] * rotation[3];
+		return 1.0f - Math.abs(dot) <= ROTATION_TOLERANCE;
+	}
+
+	/**
+	 * Interpolates between two keyframes of a track, the translation linearly and the rotation along the shortest path.
+	 */
+	private static void interpolate(float[] translations, float[] rotations, int a, int b, float progression, float[] translation, float[] rotation) {
+		for (int i = 0; i < 3; i++) {
+			translation[i] = translations[a * 3 + i] + (translations[b * 3 + i] - translations[a * 3 + i]) * progression;
+		}
+
+		float dot = 0.0f;
+
+		for (int i = 0; i < 4; i++) {
+			dot += rotations[a * 4 + i] * rotations[b * 4 + i];
+		}
+
+		float blend = dot < 0.0f ? -progression : progression;
+		float length = 0.0f;
+
+		for (int i = 0; i < 4; i++) {
+			rotation[i] = rotations[a * 4 + i] * (1.0f - progression) + rotations[b * 4 + i] * blend;
+			length += rotation[i] * rotation[i];
+		}
+
+		length = (float) Math.sqrt(length);
+
+		for (int i = 0; i < 4 && length > 0.0f; i++) {
+			rotation[i] /= length;
+		}
+	}
+
+	/**
+	 * Writes a rotation as the index of its largest component and the other three components in 16 bits each. The largest component is rebuilt from the
+	 * others when reading, as the rotation has a length of one and is flipped so the largest component is positive.
+	 */
+	private static void writeRotation(float[] rotations, int offset, DataOutputStream output) throws IOException {
+		int largest = 0;
+
+		for (int i = 1; i < 4; i++) {
+			if (Math.abs(rotations[offset + i]) > Math.abs(rotations[offset + largest])) {
+				largest = i;
+			}
+		}
+
+		float sign = rotations[offset + largest] < 0.0f ? -1.0f : 1.0f;
+		output.writeByte(largest);
+
+		for (int i = 0; i < 4; i++) {
+			if (i != largest) {
+				float value = Maths.clamp(rotations[offset + i] * sign / QUANTISE_RANGE, -1.0f, 1.0f);
+				output.writeShort(Math.round(value * Short.MAX_VALUE));
+			}
+		}
+	}
+
+	private static void readRotation(DataInputStream input, float[] rotations, int offset) throws IOException {
+		int largest = input.readByte();
+		float sum = 0.0f;
+
+		for (int i = 0; i < 4; i++) {
+			if (i != largest) {
+				float value = input.readShort() / (float) Short.MAX_VALUE * QUANTISE_RANGE;
+				rotations[offset + i] = value;
+				sum += value * value;
+			}
+		}
+
+		rotations[offset + largest] = (float) Math.sqrt(Math.max(0.0f, 1.0f - sum));
+	}
+
+	/**
+	 * Creates a local transform matrix from a translation and a rotation quaternion.
+	 */
+	private static Matrix4f toMatrix(float[] translation, float[] rotation) {
+		float x = rotation[0];
+		float y = rotation[1];
+		float z = rotation[2];
+		float w = rotation[3];
+		Matrix4f matrix = new Matrix4f();
+		matrix.m00 = 1.0f - 2.0f * (y * y + z * z);
+		matrix.m01 = 2.0f * (x * y - z * w);
+		matrix.m02 = 2.0f * (x * z + y * w);
+		matrix.m10 = 2.0f * (x * y + z * w);
+		matrix.m11 = 1.0f - 2.0f * (x * x + z * z);
+		matrix.m12 = 2.0f * (y * z - x * w);
+		matrix.m20 = 2.0f * (x * z - y * w);
+		matrix.m21 = 2.0f * (y * z + x * w);
+		matrix.m22 = 1.0f - 2.0f * (x * x + y * y);
+		matrix.m30 = translation[0];
+		matrix.m31 = translation[1];
+		matrix.m32 = translation[2];
+		return matrix;
+	}
+}
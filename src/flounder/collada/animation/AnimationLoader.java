@@ -2,17 +2,16 @@ package flounder.collada.animation;
 
 import flounder.collada.*;
 import flounder.maths.matrices.*;
-import flounder.parsing.xml.*;
 import flounder.platform.*;
 
 import java.nio.*;
 import java.util.*;
 
 public class AnimationLoader {
-	private XmlNode animationData;
-	private XmlNode jointHierarchy;
+	private ColladaNode animationData;
+	private ColladaNode jointHierarchy;
 
-	public AnimationLoader(XmlNode animationData, XmlNode jointHierarchy) {
+	public AnimationLoader(ColladaNode animationData, ColladaNode jointHierarchy) {
 		this.animationData = animationData;
 		this.jointHierarchy = jointHierarchy;
 	}
@@ -22,9 +21,9 @@ public class AnimationLoader {
 		float[] times = getKeyTimes();
 		float duration = times[times.length - 1];
 		KeyFrameData[] keyFrames = initKeyFrames(times);
-		List<XmlNode> animationNodes = animationData.getChildren("animation");
+		List<ColladaNode> animationNodes = animationData.getChildren("animation");
 
-		for (XmlNode jointNode : animationNodes) {
+		for (ColladaNode jointNode : animationNodes) {
 			loadJointTransforms(keyFrames, jointNode, rootNode);
 		}
 
@@ -32,20 +31,12 @@ public class AnimationLoader {
 	}
 
 	private String findRootJointName() {
-		XmlNode skeleton = jointHierarchy.getChild("visual_scene").getChildWithAttribute("node", "id", "Armature");
+		ColladaNode skeleton = jointHierarchy.getChild("visual_scene").getChildWithAttribute("node", "id", "Armature");
 		return skeleton.getChild("node").getAttribute("id");
 	}
 
 	private float[] getKeyTimes() {
-		XmlNode timeData = animationData.getChild("animation").getChild("source").getChild("float_array");
-		String[] rawTimes = timeData.getData().split(" ");
-		float[] times = new float[rawTimes.length];
-
-		for (int i = 0; i < times.length; i++) {
-			times[i] = Float.parseFloat(rawTimes[i]);
-		}
-
-		return times;
+		return animationData.getChild("animation").getChild("source").getChild("float_array").getFloats();
 	}
 
 	private KeyFrameData[] initKeyFrames(float[] times) {
@@ -58,36 +49,31 @@ public class AnimationLoader {
 		return frames;
 	}
 
-	private void loadJointTransforms(KeyFrameData[] frames, XmlNode jointData, String rootNodeId) {
+	private void loadJointTransforms(KeyFrameData[] frames, ColladaNode jointData, String rootNodeId) {
 		String jointNameId = getJointName(jointData);
 		String dataId = getDataId(jointData);
-		XmlNode transformData = jointData.getChildWithAttribute("source", "id", dataId);
-		String[] rawData = transformData.getChild("float_array").getData().split(" ");
+		ColladaNode transformData = jointData.getChildWithAttribute("source", "id", dataId);
+		float[] rawData = transformData.getChild("float_array").getFloats();
 		processTransforms(jointNameId, rawData, frames, jointNameId.equals(rootNodeId));
 	}
 
-	private String getDataId(XmlNode jointData) {
-		XmlNode node = jointData.getChild("sampler").getChildWithAttribute("input", "semantic", "OUTPUT");
+	private String getDataId(ColladaNode jointData) {
+		ColladaNode node = jointData.getChild("sampler").getChildWithAttribute("input", "semantic", "OUTPUT");
 		return node.getAttribute("source").substring(1);
 	}
 
-	private String getJointName(XmlNode jointData) {
-		XmlNode channelNode = jointData.getChild("channel");
+	private String getJointName(ColladaNode jointData) {
+		ColladaNode channelNode = jointData.getChild("channel");
 		String data = channelNode.getAttribute("target");
 		return data.split("/")[0];
 	}
 
-	private void processTransforms(String jointName, String[] rawData, KeyFrameData[] keyFrames, boolean root) {
+	private void processTransforms(String jointName, float[] rawData, KeyFrameData[] keyFrames, boolean root) {
 		FloatBuffer buffer = FlounderPlatform.get().createFloatBuffer(16);
-		float[] matrixData = new float[16];
 
 		for (int i = 0; i < keyFrames.length; i++) {
-			for (int j = 0; j < 16; j++) {
-				matrixData[j] = Float.parseFloat(rawData[i * 16 + j]);
-			}
-
 			buffer.clear();
-			buffer.put(matrixData);
+			buffer.put(rawData, i * 16, 16);
 			buffer.flip();
 			Matrix4f transform = new Matrix4f();
 			transform.load(buffer);
@@ -4,7 +4,6 @@ import flounder.collada.*;
 import flounder.collada.skin.*;
 import flounder.maths.matrices.*;
 import flounder.maths.vectors.*;
-import flounder.parsing.xml.*;
 import flounder.physics.*;
 
 import java.util.*;
@@ -13,7 +12,7 @@ import java.util.*;
  * Loads the mesh data for a model from a collada XML file.
  */
 public class GeometryLoader {
-	private final XmlNode meshData;
+	private final ColladaNode meshData;
 
 	private final List<VertexSkinData> vertexWeights;
 
@@ -31,7 +30,7 @@ public class GeometryLoader {
 	private List<Integer> indices;
 	private AABB aabb;
 
-	public GeometryLoader(XmlNode geometryNode, List<VertexSkinData> vertexWeights) {
+	public GeometryLoader(ColladaNode geometryNode, List<VertexSkinData> vertexWeights) {
 		this.meshData = geometryNode.getChild("geometry").getChild("mesh");
 
 		this.vertexWeights = vertexWeights;
@@ -61,14 +60,12 @@ public class GeometryLoader {
 
 	private void readPositions() {
 		String positionsId = meshData.getChild("vertices").getChild("input").getAttribute("source").substring(1);
-		XmlNode positionsData = meshData.getChildWithAttribute("source", "id", positionsId).getChild("float_array");
-		int count = Integer.parseInt(positionsData.getAttribute("count"));
-		String[] posData = positionsData.getData().split(" ");
-
-		for (int i = 0; i < count / 3; i++) {
-			float x = Float.parseFloat(posData[i * 3]);
-			float y = Float.parseFloat(posData[i * 3 + 1]);
-			float z = Float.parseFloat(posData[i * 3 + 2]);
+		float[] posData = meshData.getChildWithAttribute("source", "id", positionsId).getChild("float_array").getFloats();
+
+		for (int i = 0; i < posData.length / 3; i++) {
+			float x = posData[i * 3];
+			float y = posData[i * 3 + 1];
+			float z = posData[i * 3 + 2];
 			Vector4f position = new Vector4f(x, y, z, 1.0f);
 			Matrix4f.transform(FlounderCollada.CORRECTION, position, position);
 			expandAABB(position);
@@ -106,14 +103,12 @@ public class GeometryLoader {
 
 	private void readNormals() {
 		String normalsId = meshData.getChild("polylist").getChildWithAttribute("input", "semantic", "NORMAL").getAttribute("source").substring(1);
-		XmlNode normalsData = meshData.getChildWithAttribute("source", "id", normalsId).getChild("float_array");
-		int count = Integer.parseInt(normalsData.getAttribute("count"));
-		String[] normData = normalsData.getData().split(" ");
-
-		for (int i = 0; i < count / 3; i++) {
-			float x = Float.parseFloat(normData[i * 3]);
-			float y = Float.parseFloat(normData[i * 3 + 1]);
-			float z = Float.parseFloat(normData[i * 3 + 2]);
+		float[] normData = meshData.getChildWithAttribute("source", "id", normalsId).getChild("float_array").getFloats();
+
+		for (int i = 0; i < normData.length / 3; i++) {
+			float x = normData[i * 3];
+			float y = normData[i * 3 + 1];
+			float z = normData[i * 3 + 2];
 			Vector4f normal = new Vector4f(x, y, z, 0.0f);
 			Matrix4f.transform(FlounderCollada.CORRECTION, normal, normal);
 			normals.add(new Vector3f(normal.x, normal.y, normal.z));
@@ -122,27 +117,20 @@ public class GeometryLoader {
 
 	private void readTextureCoords() {
 		String texCoordsId = meshData.getChild("polylist").getChildWithAttribute("input", "semantic", "TEXCOORD").getAttribute("source").substring(1);
-		XmlNode texCoordsData = meshData.getChildWithAttribute("source", "id", texCoordsId).getChild("float_array");
-		int count = Integer.parseInt(texCoordsData.getAttribute("count"));
-		String[] texData = texCoordsData.getData().split(" ");
-
-		for (int i = 0; i < count / 2; i++) {
-			float s = Float.parseFloat(texData[i * 2]);
-			float t = Float.parseFloat(texData[i * 2 + 1]);
-			textures.add(new Vector2f(s, t));
+		float[] texData = meshData.getChildWithAttribute("source", "id", texCoordsId).getChild("float_array").getFloats();
+
+		for (int i = 0; i < texData.length / 2; i++) {
+			textures.add(new Vector2f(texData[i * 2], texData[i * 2 + 1]));
 		}
 	}
 
 	private void assembleVertices() {
-		XmlNode poly = meshData.getChild("polylist");
+		ColladaNode poly = meshData.getChild("polylist");
 		int typeCount = poly.getChildren("input").size();
-		String[] indexData = poly.getChild("p").getData().split(" ");
+		int[] indexData = poly.getChild("p").getInts();
 
 		for (int i = 0; i < indexData.length / typeCount; i++) {
-			int positionIndex = Integer.parseInt(indexData[i * typeCount]);
-			int normalIndex = Integer.parseInt(indexData[i * typeCount + 1]);
-			int texCoordIndex = Integer.parseInt(indexData[i * typeCount + 2]);
-			processVertex(positionIndex, normalIndex, texCoordIndex);
+			processVertex(indexData[i * typeCount], indexData[i * typeCount + 1], indexData[i * typeCount + 2]);
 		}
 	}
 
@@ -2,19 +2,18 @@ package flounder.collada.skeleton;
 
 import flounder.collada.*;
 import flounder.maths.matrices.*;
-import flounder.parsing.xml.*;
 import flounder.platform.*;
 
 import java.nio.*;
 import java.util.*;
 
 public class SkeletonLoader {
-	private XmlNode armatureData;
+	private ColladaNode armatureData;
 
 	private List<String> boneOrder;
 	private int jointCount;
 
-	public SkeletonLoader(XmlNode visualSceneNode, List<String> boneOrder) {
+	public SkeletonLoader(ColladaNode visualSceneNode, List<String> boneOrder) {
 		this.armatureData = visualSceneNode.getChild("visual_scene").getChildWithAttribute("node", "id", "Armature");
 
 		this.boneOrder = boneOrder;
@@ -22,25 +21,25 @@ public class SkeletonLoader {
 	}
 
 	public SkeletonData extractBoneData() {
-		XmlNode headNode = armatureData.getChild("node");
+		ColladaNode headNode = armatureData.getChild("node");
 		JointData headJoint = loadJointData(headNode, true);
 		return new SkeletonData(jointCount, headJoint);
 	}
 
-	private JointData loadJointData(XmlNode jointNode, boolean isRoot) {
+	private JointData loadJointData(ColladaNode jointNode, boolean isRoot) {
 		JointData joint = extractMainJointData(jointNode, isRoot);
 
-		for (XmlNode childNode : jointNode.getChildren("node")) {
+		for (ColladaNode childNode : jointNode.getChildren("node")) {
 			joint.addChild(loadJointData(childNode, false));
 		}
 
 		return joint;
 	}
 
-	private JointData extractMainJointData(XmlNode jointNode, boolean isRoot) {
+	private JointData extractMainJointData(ColladaNode jointNode, boolean isRoot) {
 		String nameId = jointNode.getAttribute("id");
 		int index = boneOrder.indexOf(nameId);
-		String[] matrixData = jointNode.getChild("matrix").getData().split(" ");
+		float[] matrixData = jointNode.getChild("matrix").getFloats();
 		Matrix4f matrix = new Matrix4f();
 		matrix.load(convertData(matrixData));
 		matrix.transpose();
@@ -54,15 +53,9 @@ public class SkeletonLoader {
 		return new JointData(index, nameId, matrix);
 	}
 
-	private FloatBuffer convertData(String[] rawData) {
-		float[] matrixData = new float[16];
-
-		for (int i = 0; i < matrixData.length; i++) {
-			matrixData[i] = Float.parseFloat(rawData[i]);
-		}
-
+	private FloatBuffer convertData(float[] matrixData) {
 		FloatBuffer buffer = FlounderPlatform.get().createFloatBuffer(16);
-		buffer.put(matrixData);
+		buffer.put(matrixData, 0, 16);
 		buffer.flip();
 		return buffer;
 	}
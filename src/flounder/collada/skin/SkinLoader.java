@@ -1,15 +1,15 @@
 package flounder.collada.skin;
 
-import flounder.parsing.xml.*;
+import flounder.collada.*;
 
 import java.util.*;
 
 public class SkinLoader {
-	private final XmlNode skinningData;
+	private final ColladaNode skinningData;
 
 	private final int maxWeights;
 
-	public SkinLoader(XmlNode controllersNode, int maxWeights) {
+	public SkinLoader(ColladaNode controllersNode, int maxWeights) {
 		this.skinningData = controllersNode.getChild("controller").getChild("skin");
 
 		this.maxWeights = maxWeights;
@@ -18,17 +18,17 @@ public class SkinLoader {
 	public SkinningData extractSkinData() {
 		List<String> jointsList = loadJointsList();
 		float[] weights = loadWeights();
-		XmlNode weightsDataNode = skinningData.getChild("vertex_weights");
+		ColladaNode weightsDataNode = skinningData.getChild("vertex_weights");
 		int[] effectorJointCounts = getEffectiveJointsCounts(weightsDataNode);
 		List<VertexSkinData> vertexWeights = getSkinData(weightsDataNode, effectorJointCounts, weights);
 		return new SkinningData(jointsList, vertexWeights);
 	}
 
 	private List<String> loadJointsList() {
-		XmlNode inputNode = skinningData.getChild("vertex_weights");
+		ColladaNode inputNode = skinningData.getChild("vertex_weights");
 		String jointDataId = inputNode.getChildWithAttribute("input", "semantic", "JOINT").getAttribute("source").substring(1);
-		XmlNode jointsNode = skinningData.getChildWithAttribute("source", "id", jointDataId).getChild("Name_array");
-		String[] names = jointsNode.getData().split(" ");
+		ColladaNode jointsNode = skinningData.getChildWithAttribute("source", "id", jointDataId).getChild("Name_array");
+		String[] names = jointsNode.getData().split("\\s+");
 		List<String> jointsList = new ArrayList<>();
 
 		Collections.addAll(jointsList, names);
@@ -37,32 +37,17 @@ public class SkinLoader {
 	}
 
 	private float[] loadWeights() {
-		XmlNode inputNode = skinningData.getChild("vertex_weights");
+		ColladaNode inputNode = skinningData.getChild("vertex_weights");
 		String weightsDataId = inputNode.getChildWithAttribute("input", "semantic", "WEIGHT").getAttribute("source").substring(1);
-		XmlNode weightsNode = skinningData.getChildWithAttribute("source", "id", weightsDataId).getChild("float_array");
-		String[] rawData = weightsNode.getData().split(" ");
-		float[] weights = new float[rawData.length];
-
-		for (int i = 0; i < weights.length; i++) {
-			weights[i] = Float.parseFloat(rawData[i]);
-		}
-
-		return weights;
+		return skinningData.getChildWithAttribute("source", "id", weightsDataId).getChild("float_array").getFloats();
 	}
 
-	private int[] getEffectiveJointsCounts(XmlNode weightsDataNode) {
-		String[] rawData = weightsDataNode.getChild("vcount").getData().split(" ");
-		int[] counts = new int[rawData.length];
-
-		for (int i = 0; i < rawData.length; i++) {
-			counts[i] = Integer.parseInt(rawData[i]);
-		}
-
-		return counts;
+	private int[] getEffectiveJointsCounts(ColladaNode weightsDataNode) {
+		return weightsDataNode.getChild("vcount").getInts();
 	}
 
-	private List<VertexSkinData> getSkinData(XmlNode weightsDataNode, int[] counts, float[] weights) {
-		String[] rawData = weightsDataNode.getChild("v").getData().split(" ");
+	private List<VertexSkinData> getSkinData(ColladaNode weightsDataNode, int[] counts, float[] weights) {
+		int[] rawData = weightsDataNode.getChild("v").getInts();
 		List<VertexSkinData> skinningData = new ArrayList<>();
 		int pointer = 0;
 
@@ -70,8 +55,8 @@ public class SkinLoader {
 			VertexSkinData skinData = new VertexSkinData();
 
 			for (int i = 0; i < count; i++) {
-				int jointId = Integer.parseInt(rawData[pointer++]);
-				int weightId = Integer.parseInt(rawData[pointer++]);
+				int jointId = rawData[pointer++];
+				int weightId = rawData[pointer++];
 				skinData.addJointEffect(jointId, weights[weightId]);
 			}
 
@@ -18,8 +18,10 @@ public class FlounderSound extends Module {
 	public static final MyFile SOUND_FOLDER = new MyFile(MyFile.RES_FOLDER, "sounds");
 
 	private Vector3f cameraPosition;
+	private AudioScene audioScene;
 	private SourcePoolManager sourcePool;
 	private StreamManager streamManager;
+	private StreamDecoder streamDecoder;
 	private MusicPlayer musicPlayer;
 
 	/**
@@ -34,9 +36,12 @@ public class FlounderSound extends Module {
 		update();
 
 		this.cameraPosition = new Vector3f();
+		this.audioScene = new AudioScene();
 		this.sourcePool = new SourcePoolManager();
 		this.streamManager = new StreamManager();
 		streamManager.start();
+		this.streamDecoder = new StreamDecoder();
+		streamDecoder.start();
 		this.musicPlayer = new MusicPlayer();
 		musicPlayer.setVolume(MusicPlayer.SOUND_VOLUME);
 	}
@@ -48,7 +53,8 @@ public class FlounderSound extends Module {
 		if (camera != null && camera.getPosition() != null) {
 			cameraPosition.set(camera.getPosition());
 			musicPlayer.update(Framework.get().getDelta());
-			sourcePool.update();
+			audioScene.update(Framework.get().getDelta(), cameraPosition);
+			sourcePool.update(Framework.get().getDelta());
 		}
 	}
 
@@ -73,8 +79,9 @@ public class FlounderSound extends Module {
 				FlounderLogger.get().log("Loading sound " + sound.getSoundFile().getPath());
 			}
 
-			WavDataStream stream = WavDataStream.openWavStream(sound.getSoundFile(), StreamManager.SOUND_CHUNK_MAX_SIZE);
+			IAudioStream stream = openStream(sound.getSoundFile(), StreamManager.SOUND_CHUNK_MAX_SIZE);
 			sound.setTotalBytes(stream.getTotalBytes());
+			sound.setDuration(stream.getTotalBytes() / (float) (stream.getBytesPerFrame() * stream.getSampleRate()));
 			ByteBuffer byteBuffer = stream.loadNextData();
 			int bufferID = generateBuffer();
 			loadSoundDataIntoBuffer(bufferID, byteBuffer, stream.getAlFormat(), stream.getSampleRate());
@@ -86,6 +93,30 @@ public class FlounderSound extends Module {
 		}
 	}
 
+	/**
+	 * Opens a stream of decoded PCM data from a sound file, Ogg Vorbis files are decoded by the platform and anything else is read as a wav.
+	 *
+	 * @param file The sound file to open.
+	 * @param chunkSize The maximum amount of data in bytes to read from the stream at a time.
+	 *
+	 * @return The open stream.
+	 *
+	 * @throws Exception If the file could not be opened.
+	 */
+	public IAudioStream openStream(MyFile file, int chunkSize) throws Exception {
+		if (file.getPath().toLowerCase().endsWith(".ogg")) {
+			IAudioStream stream = openVorbisStream(file, chunkSize);
+
+			if (stream == null) {
+				throw new IllegalStateException("This platform can not decode Ogg Vorbis file " + file);
+			}
+
+			return stream;
+		}
+
+		return WavDataStream.openWavStream(file, chunkSize);
+	}
+
 	/**
 	 * Plays a sound that should be emitted from somewhere in the 3D world.
 	 *
@@ -116,6 +147,15 @@ public class FlounderSound extends Module {
 		return this.sourcePool.play(PlayRequest.newSystemPlayRequest(sound));
 	}
 
+	/**
+	 * Gets the scene of emitters and ambient nodes that are woken when the camera comes into their range.
+	 *
+	 * @return The audio scene.
+	 */
+	public AudioScene getAudioScene() {
+		return this.audioScene;
+	}
+
 	public SourcePoolManager getSourcePool() {
 		return this.sourcePool;
 	}
@@ -129,6 +169,15 @@ public class FlounderSound extends Module {
 		return this.streamManager;
 	}
 
+	/**
+	 * Gets the thread decoding streamed sounds ahead of time.
+	 *
+	 * @return The sound stream decoder.
+	 */
+	public StreamDecoder getStreamDecoder() {
+		return this.streamDecoder;
+	}
+
 	/**
 	 * Gets the background music player.
 	 *
@@ -148,6 +197,21 @@ public class FlounderSound extends Module {
 		return null;
 	}
 
+	/**
+	 * Opens a platform specific decoder for an Ogg Vorbis file.
+	 *
+	 * @param file The Ogg Vorbis file.
+	 * @param chunkSize The maximum amount of data in bytes to read from the stream at a time.
+	 *
+	 * @return The decoding stream, or {@code null} if this platform can not decode Ogg Vorbis.
+	 *
+	 * @throws Exception If the file could not be opened.
+	 */
+	@Module.MethodReplace
+	public IAudioStream openVorbisStream(MyFile file, int chunkSize) throws Exception {
+		return null;
+	}
+
 	/**
 	 * Determines the OpenAL ID of the sound data format.
 	 *
@@ -196,7 +260,9 @@ public class FlounderSound extends Module {
 
 	@Handler.Function(Handler.FLAG_DISPOSE)
 	public void dispose() {
+		audioScene.clear();
 		streamManager.kill();
+		streamDecoder.kill();
 		sourcePool.dispose();
 		musicPlayer.dispose();
 	}
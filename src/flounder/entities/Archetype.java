@@ -0,0 +1,352 @@
+package flounder.entities;
+
+import java.util.*;
+
+/**
+ * An archetype stores every entity that has the same set of component types. Components are kept in one contiguous column per type, so systems can walk
+ * all components of a type without chasing entity lists, and a component can be found by its dense type id in constant time.
+ * <p>
+ * Archetypes are shared and created on demand, entities move between them as components are added and removed. Entities without components are not
+ * stored in any archetype. Structural changes and the registry are guarded by {@link #LOCK}, as components may be made and disposed from systems
+ * running in parallel, callers making several changes in a row should hold the lock around all of them.
+ */
+public class Archetype {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final List<Class<?>> TYPES = new ArrayList<>();
+	private static final ClassValue<Integer> TYPE_IDS = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			// Two threads may compute the value for the same class at once, only the first adds it so both get the same id.
+			synchronized (TYPES) {
+				int typeID = TYPES.indexOf(type);
+
+				if (typeID == -1) {
+					TYPES.add(type);
+					typeID = TYPES.size() - 1;
+				}
+
+				return typeID;
+			}
+		}
+	};
+	private static final Map<BitSet, Archetype> ARCHETYPES = new HashMap<>();
+	private static final List<Archetype> ARCHETYPE_LIST = new ArrayList<>();
+
+	/**
+	 * The lock held while archetypes are created or entities are moved between them.
+	 */
+	protected static final Object LOCK = new Object();
+
+	/**
+	 * The archetype without any components, entities are never stored in it but it is where archetypes are built up from.
+	 */
+	public static final Archetype EMPTY = getArchetype(new BitSet());
+
+	private final BitSet types;
+	private final int[] typeIDs;
+	private final int[] columnOf;
+	private final Map<Integer, Archetype> addEdges;
+	private final Map<Integer, Archetype> removeEdges;
+
+	private IComponentEntity[][] columns;
+	private Entity[] entities;
+	private int size;
+
+	private Archetype(BitSet types) {
+		this.types = types;
+		this.typeIDs = types.stream().toArray();
+		this.columnOf = new int[types.length()];
+		this.addEdges = new HashMap<>();
+		this.removeEdges = new HashMap<>();
+
+		this.columns = new IComponentEntity[typeIDs.length][INITIAL_CAPACITY];
+		this.entities = new Entity[INITIAL_CAPACITY];
+		this.size = 0;
+
+		Arrays.fill(columnOf, -1);
+
+		for (int i = 0; i < typeIDs.length; i++) {
+			columnOf[typeIDs[i]] = i;
+		}
+	}
+
+	/**
+	 * Gets the dense id of a component type, ids are handed out in the order types are first seen and never change.
+	 *
+	 * @param type The class of the component.
+	 *
+	 * @return The id of the component type.
+	 */
+	public static int getTypeID(Class<?> type) {
+		return TYPE_IDS.get(type);
+	}
+
+	/**
+	 * Gets the archetype for a set of component types, creating it if it does not exist.
+	 *
+	 * @param types The ids of the component types.
+	 *
+	 * @return The archetype.
+	 */
+	private static Archetype getArchetype(BitSet types) {
+		synchronized (LOCK) {
+			Archetype archetype = ARCHETYPES.get(types);
+
+			if (archetype == null) {
+				archetype = new Archetype(types);
+				ARCHETYPES.put(types, archetype);
+				ARCHETYPE_LIST.add(archetype);
+			}
+
+			return archetype;
+		}
+	}
+
+	/**
+	 * Gets every archetype that contains all of the given component types.
+	 *
+	 * @param types The classes of the components.
+	 * @param destination The list to store the archetypes into.
+	 *
+	 * @return The destination list.
+	 */
+	public static List<Archetype> query(Class<?>[] types, List<Archetype> destination) {
+		destination.clear();
+		BitSet required = new BitSet();
+
+		for (Class<?> type : types) {
+			required.set(getTypeID(type));
+		}
+
+		synchronized (LOCK) {
+			for (Archetype archetype : ARCHETYPE_LIST) {
+				if (archetype.size > 0 && archetype.containsAll(required)) {
+					destination.add(archetype);
+				}
+			}
+		}
+
+		return destination;
+	}
+
+	private boolean containsAll(BitSet required) {
+		for (int i = required.nextSetBit(0); i >= 0; i = required.nextSetBit(i + 1)) {
+			if (!types.get(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets the archetype with one more component type than this one.
+	 *
+	 * @param typeID The id of the type to add.
+	 *
+	 * @return The archetype with the type added.
+	 */
+	protected Archetype with(int typeID) {
+		synchronized (LOCK) {
+			Archetype archetype = addEdges.get(typeID);
+
+			if (archetype == null) {
+				BitSet next = (BitSet) types.clone();
+				next.set(typeID);
+				archetype = getArchetype(next);
+				addEdges.put(typeID, archetype);
+			}
+
+			return archetype;
+		}
+	}
+
+	/**
+	 * Gets the archetype with one less component type than this one.
+	 *
+	 * @param typeID The id of the type to remove.
+	 *
+	 * @return The archetype with the type removed.
+	 */
+	protected Archetype without(int typeID) {
+		synchronized (LOCK) {
+			Archetype archetype = removeEdges.get(typeID);
+
+			if (archetype == null) {
+				BitSet next = (BitSet) types.clone();
+				next.clear(typeID);
+				archetype = getArchetype(next);
+				removeEdges.put(typeID, archetype);
+			}
+
+			return archetype;
+		}
+	}
+
+	/**
+	 * Adds a entity to the end of the archetypes arrays, the entities components must be written with {@link #set(int, int, IComponentEntity)}.
+	 *
+	 * @param entity The entity to add.
+	 *
+	 * @return The row the entity was stored at.
+	 */
+	protected int add(Entity entity) {
+		synchronized (LOCK) {
+			if (size == entities.length) {
+				int capacity = entities.length * 2;
+				entities = Arrays.copyOf(entities, capacity);
+
+				for (int i = 0; i < columns.length; i++) {
+					columns[i] = Arrays.copyOf(columns[i], capacity);
+				}
+			}
+
+			entities[size] = entity;
+			return size++;
+		}
+	}
+
+	/**
+	 * Removes a row by moving the last row into its place, keeping the arrays packed.
+	 *
+	 * @param row The row to remove.
+	 */
+	protected void remove(int row) {
+		synchronized (LOCK) {
+			int last = --size;
+
+			if (row != last) {
+				entities[row] = entities[last];
+				entities[row].setArchetypeRow(row);
+
+				for (IComponentEntity[] column : columns) {
+					column[row] = column[last];
+				}
+			}
+
+			entities[last] = null;
+
+			for (IComponentEntity[] column : columns) {
+				column[last] = null;
+			}
+		}
+	}
+
+	/**
+	 * Moves a entity from this archetype into another, copying over every component type the two have in common.
+	 *
+	 * @param row The row of the entity in this archetype.
+	 * @param destination The archetype to move into.
+	 *
+	 * @return The row of the entity in the destination archetype.
+	 */
+	protected int moveTo(int row, Archetype destination) {
+		synchronized (LOCK) {
+			Entity entity = entities[row];
+			int newRow = destination.add(entity);
+
+			for (int i = 0; i < typeIDs.length; i++) {
+				int column = destination.getColumn(typeIDs[i]);
+
+				if (column != -1) {
+					destination.columns[column][newRow] = columns[i][row];
+				}
+			}
+
+			remove(row);
+			return newRow;
+		}
+	}
+
+	/**
+	 * Gets the column a component type is stored in.
+	 *
+	 * @param typeID The id of the component type.
+	 *
+	 * @return The column index, or -1 if this archetype does not have the type.
+	 */
+	public int getColumn(int typeID) {
+		return typeID >= 0 && typeID < columnOf.length ? columnOf[typeID] : -1;
+	}
+
+	/**
+	 * Gets a component from the archetype.
+	 *
+	 * @param row The row of the entity.
+	 * @param typeID The id of the component type.
+	 *
+	 * @return The component, or null if this archetype does not have the type.
+	 */
+	public IComponentEntity get(int row, int typeID) {
+		int column = getColumn(typeID);
+		return column == -1 ? null : columns[column][row];
+	}
+
+	/**
+	 * Sets a component in the archetype, the archetype must have the components type.
+	 *
+	 * @param row The row of the entity.
+	 * @param typeID The id of the component type.
+	 * @param component The component to store.
+	 */
+	protected void set(int row, int typeID, IComponentEntity component) {
+		synchronized (LOCK) {
+			columns[columnOf[typeID]][row] = component;
+		}
+	}
+
+	/**
+	 * Gets a packed column of components, only the first {@link #getSize()} elements are valid.
+	 *
+	 * @param type The class of the component.
+	 *
+	 * @return The column, or null if this archetype does not have the type.
+	 */
+	public IComponentEntity[] getComponents(Class<?> type) {
+		int column = getColumn(getTypeID(type));
+		return column == -1 ? null : columns[column];
+	}
+
+	/**
+	 * Gets the packed array of entities, only the first {@link #getSize()} elements are valid.
+	 *
+	 * @return The entities in this archetype.
+	 */
+	public Entity[] getEntities() {
+		return entities;
+	}
+
+	/**
+	 * Gets the amount of entities stored in this archetype.
+	 *
+	 * @return The amount of entities.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Gets if this archetype has a component type.
+	 *
+	 * @param type The class of the component.
+	 *
+	 * @return If this archetype has the component type.
+	 */
+	public boolean hasType(Class<?> type) {
+		return getColumn(getTypeID(type)) != -1;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("Archetype{types=[");
+
+		synchronized (TYPES) {
+			for (int i = 0; i < typeIDs.length; i++) {
+				result.append(i == 0 ? "" : ", ").append(TYPES.get(typeIDs[i]).getSimpleName());
+			}
+		}
+
+		return result.append("], size=").append(size).append('}').toString();
+	}
+}
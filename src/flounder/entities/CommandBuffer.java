@@ -0,0 +1,101 @@
+package flounder.entities;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * A thread safe queue of structural changes to entities. Systems running in parallel record changes here, and the {@link SystemScheduler} applies them
+ * in the order they were recorded once every system has finished.
+ */
+public class CommandBuffer {
+	private final Queue<Runnable> commands;
+
+	/**
+	 * Creates a new empty command buffer.
+	 */
+	public CommandBuffer() {
+		this.commands = new ConcurrentLinkedQueue<>();
+	}
+
+	/**
+	 * Records a change to be applied at the next sync point.
+	 *
+	 * @param command The change to apply.
+	 */
+	public void add(Runnable command) {
+		commands.add(command);
+	}
+
+	/**
+	 * Records a component to be created and attached to a entity.
+	 *
+	 * @param entity The entity to attach to.
+	 * @param constructor The components constructor, for example {@code ComponentGlow::new}.
+	 */
+	public void addComponent(Entity entity, Function<Entity, ? extends IComponentEntity> constructor) {
+		add(() -> {
+			if (!entity.isRemoved()) {
+				constructor.apply(entity);
+			}
+		});
+	}
+
+	/**
+	 * Records a component to be removed from a entity.
+	 *
+	 * @param entity The entity to remove from.
+	 * @param component The component to remove.
+	 */
+	public void removeComponent(Entity entity, IComponentEntity component) {
+		add(() -> entity.removeComponent(component));
+	}
+
+	/**
+	 * Records the first component of a type to be removed from a entity.
+	 *
+	 * @param entity The entity to remove from.
+	 * @param object The class of the component.
+	 */
+	public void removeComponent(Entity entity, Class object) {
+		add(() -> entity.removeComponent(object));
+	}
+
+	/**
+	 * Records a entity to be removed, triggering its remove actions.
+	 *
+	 * @param entity The entity to remove.
+	 */
+	public void remove(Entity entity) {
+		add(entity::remove);
+	}
+
+	/**
+	 * Records a entity to be removed without triggering its remove actions.
+	 *
+	 * @param entity The entity to remove.
+	 */
+	public void forceRemove(Entity entity) {
+		add(entity::forceRemove);
+	}
+
+	/**
+	 * Applies every recorded change, including changes recorded by the changes being applied.
+	 */
+	public void apply() {
+		Runnable command;
+
+		while ((command = commands.poll()) != null) {
+			command.run();
+		}
+	}
+
+	/**
+	 * Gets if there are no changes waiting to be applied.
+	 *
+	 * @return If the buffer is empty.
+	 */
+	public boolean isEmpty() {
+		return commands.isEmpty();
+	}
+}
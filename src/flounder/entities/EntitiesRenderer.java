@@ -1,7 +1,10 @@
 package flounder.entities;
 
+import flounder.animation.*;
 import flounder.camera.*;
+import flounder.collada.*;
 import flounder.devices.*;
+import flounder.entities.components.*;
 import flounder.helpers.*;
 import flounder.maths.vectors.*;
 import flounder.renderer.*;
@@ -20,9 +23,26 @@ public class EntitiesRenderer extends Renderer {
 	private static final MyFile VERTEX_SHADER = new MyFile(FlounderShaders.SHADERS_LOC, "entities", "entityVertex.glsl");
 	private static final MyFile FRAGMENT_SHADER = new MyFile(FlounderShaders.SHADERS_LOC, "entities", "entityFragment.glsl");
 
+	private static final Comparator<ComponentAnimation> BATCH_ORDER = (a, b) -> {
+		int compare = Integer.compare(System.identityHashCode(a.getModel()), System.identityHashCode(b.getModel()));
+
+		if (compare == 0) {
+			compare = Integer.compare(System.identityHashCode(a.getTexture()), System.identityHashCode(b.getTexture()));
+		}
+
+		if (compare == 0) {
+			compare = Integer.compare(a.getTextureIndex(), b.getTextureIndex());
+		}
+
+		return compare;
+	};
+
 	private ShaderObject shader;
 	private TextureObject textureUndefined;
 	private List<Entity> objects;
+	private List<Entity> singles;
+	private List<ComponentAnimation> instances;
+	private int instancesOffset;
 
 	/**
 	 * Creates a new entity renderer.
@@ -31,6 +51,9 @@ public class EntitiesRenderer extends Renderer {
 		this.shader = ShaderFactory.newBuilder().setName("entities").addType(new ShaderType(GL_VERTEX_SHADER, VERTEX_SHADER)).addType(new ShaderType(GL_FRAGMENT_SHADER, FRAGMENT_SHADER)).create();
 		this.textureUndefined = TextureFactory.newBuilder().setFile(new MyFile(MyFile.RES_FOLDER, "undefined.png")).create();
 		this.objects = new ArrayList<>();
+		this.singles = new ArrayList<>();
+		this.instances = new ArrayList<>();
+		this.instancesOffset = 0;
 	}
 
 	@Override
@@ -42,7 +65,11 @@ public class EntitiesRenderer extends Renderer {
 		prepareRendering(clipPlane, camera);
 
 		if (FlounderEntities.get().getEntities() != null) {
-			for (Entity entity : FlounderEntities.get().getEntities().queryInFrustum(camera.getViewFrustum(), objects)) {
+			FlounderEntities.get().getEntities().queryInFrustum(camera.getViewFrustum(), objects);
+			storeJoints();
+			renderInstances();
+
+			for (Entity entity : singles) {
 				renderEntity(entity);
 			}
 		}
@@ -61,6 +88,100 @@ public class EntitiesRenderer extends Renderer {
 		FlounderOpenGL.get().enableDepthTesting();
 	}
 
+	/**
+	 * Packs the joints of every animated entity being rendered into the joint palette, and uploads and binds it once for the whole pass. Entities only
+	 * rendered by a skinned model are sorted so ones sharing a model and texture are stored one after another, and drawn together by
+	 * {@link #renderInstances()}.
+	 */
+	private void storeJoints() {
+		JointPalette palette = FlounderAnimation.get().getJointPalette();
+
+		for (Entity entity : objects) {
+			IComponentRender[] renderComponents = entity.getRenderComponents();
+
+			if (renderComponents.length == 1 && renderComponents[0] instanceof ComponentAnimation && canInstance((ComponentAnimation) renderComponents[0])) {
+				instances.add((ComponentAnimation) renderComponents[0]);
+				continue;
+			}
+
+			ComponentAnimation componentAnimation = entity.getComponent(ComponentAnimation.class);
+
+			if (componentAnimation != null) {
+				componentAnimation.storeJoints(palette);
+			}
+
+			singles.add(entity);
+		}
+
+		instances.sort(BATCH_ORDER);
+		instancesOffset = palette.getCount();
+
+		for (ComponentAnimation instance : instances) {
+			palette.addInstance(instance.getModelMatrix(), instance.getJointTransforms());
+		}
+
+		palette.upload();
+		palette.bind(3);
+	}
+
+	private static boolean canInstance(ComponentAnimation componentAnimation) {
+		return componentAnimation.getModel() != null && componentAnimation.getModel().isLoaded() && componentAnimation.getTexture() != null &&
+				componentAnimation.getTexture().isLoaded() && componentAnimation.getJointTransforms() != null && componentAnimation.getModelMatrix() != null;
+	}
+
+	private static boolean sameBatch(ComponentAnimation a, ComponentAnimation b) {
+		return a.getModel() == b.getModel() && a.getTexture() == b.getTexture() && a.getTextureIndex() == b.getTextureIndex() &&
+				a.getJointTransforms().length == b.getJointTransforms().length && a.getColourOffset().r == b.getColourOffset().r &&
+				a.getColourOffset().g == b.getColourOffset().g && a.getColourOffset().b == b.getColourOffset().b;
+	}
+
+	/**
+	 * Draws the skinned entities stored by {@link #storeJoints()}, each run of entities with the same model, texture and colour is one instanced draw.
+	 */
+	private void renderInstances() {
+		int offset = instancesOffset;
+		int start = 0;
+
+		while (start < instances.size()) {
+			ComponentAnimation first = instances.get(start);
+			int end = start + 1;
+
+			while (end < instances.size() && sameBatch(first, instances.get(end))) {
+				end++;
+			}
+
+			int stride = first.getJointTransforms().length + 1;
+			renderBatch(first, offset, stride, end - start);
+			offset += stride * (end - start);
+			start = end;
+		}
+	}
+
+	private void renderBatch(ComponentAnimation first, int offset, int stride, int count) {
+		ModelAnimated model = first.getModel();
+		TextureObject texture = first.getTexture();
+
+		FlounderOpenGL.get().bindVAO(model.getVaoID(), 0, 1, 2, 3, 4, 5);
+		shader.getUniformBool("animated").loadBoolean(true);
+		shader.getUniformBool("instanced").loadBoolean(true);
+		shader.getUniformInt("jointOffset").loadInt(offset);
+		shader.getUniformInt("jointStride").loadInt(stride);
+		shader.getUniformBool("swaying").loadBoolean(false);
+		shader.getUniformFloat("swayHeight").loadFloat(0.0f);
+
+		shader.getUniformFloat("atlasRows").loadFloat(texture.getNumberOfRows());
+		shader.getUniformVec2("atlasOffset").loadVec2(first.getTextureOffset());
+		shader.getUniformVec3("colourOffset").loadVec3(first.getColourOffset());
+		FlounderOpenGL.get().cullBackFaces(!texture.hasAlpha());
+		FlounderOpenGL.get().bindTexture(texture, 0);
+
+		FlounderOpenGL.get().renderElementsInstanced(GL_TRIANGLES, GL_UNSIGNED_INT, model.getVaoLength(), count);
+
+		first.renderClear(shader);
+		shader.getUniformBool("instanced").loadBoolean(false);
+		FlounderOpenGL.get().unbindVAO(0, 1, 2, 3, 4, 5);
+	}
+
 	private void renderEntity(Entity entity) {
 		if (entity == null) {
 			return;
@@ -69,20 +190,16 @@ public class EntitiesRenderer extends Renderer {
 		FlounderOpenGL.get().bindTexture(textureUndefined, 0);
 		Single<Integer> vaoLength = new Single<>(0);
 
-		for (IComponentEntity component : entity.getComponents()) {
-			if (component instanceof IComponentRender) {
-				((IComponentRender) component).render(shader, vaoLength);
-			}
+		for (IComponentRender component : entity.getRenderComponents()) {
+			component.render(shader, vaoLength);
 		}
 
 		if (vaoLength.getSingle() > 0) {
 			FlounderOpenGL.get().renderElements(GL_TRIANGLES, GL_UNSIGNED_INT, vaoLength.getSingle());
 		}
 
-		for (IComponentEntity component : entity.getComponents()) {
-			if (component instanceof IComponentRender) {
-				((IComponentRender) component).renderClear(shader);
-			}
+		for (IComponentRender component : entity.getRenderComponents()) {
+			component.renderClear(shader);
 		}
 
 		FlounderOpenGL.get().unbindVAO(0, 1, 2, 3, 4, 5);
@@ -91,6 +208,8 @@ public class EntitiesRenderer extends Renderer {
 	private void endRendering() {
 		shader.stop();
 		objects.clear();
+		singles.clear();
+		instances.clear();
 	}
 
 	@Override
@@ -10,15 +10,28 @@ import flounder.space.*;
 import java.util.*;
 
 /**
- * A generic object in the game.
+ * A generic object in the game. Components are stored by type in the entities {@link Archetype}, so typed lookups do not search the component list.
  */
 public class Entity implements ISpatialObject {
+	private static final IComponentCollider[] NO_COLLIDERS = new IComponentCollider[0];
+	private static final IComponentRender[] NO_RENDERS = new IComponentRender[0];
+	private static final IComponentMove[] NO_MOVES = new IComponentMove[0];
+
 	private ISpatialStructure<Entity> structure;
 
 	private List<IComponentEntity> components;
+	private Archetype archetype;
+	private int archetypeRow;
+
+	private IComponentAlpha alphaComponent;
+	private IComponentScale scaleComponent;
+	private IComponentCollider[] colliderComponents;
+	private IComponentRender[] renderComponents;
+	private IComponentMove[] moveComponents;
 
 	private Vector3f position;
 	private Vector3f rotation;
+	private Transform transform;
 	private boolean hasMoved;
 
 	private boolean removed;
@@ -34,9 +47,18 @@ public class Entity implements ISpatialObject {
 		this.structure = structure;
 
 		this.components = new ArrayList<>();
+		this.archetype = null;
+		this.archetypeRow = -1;
+
+		this.alphaComponent = null;
+		this.scaleComponent = null;
+		this.colliderComponents = NO_COLLIDERS;
+		this.renderComponents = NO_RENDERS;
+		this.moveComponents = NO_MOVES;
 
 		this.position = position;
 		this.rotation = rotation;
+		this.transform = new Transform(this);
 		this.hasMoved = true;
 
 		this.removed = false;
@@ -62,6 +84,26 @@ public class Entity implements ISpatialObject {
 	 */
 	public void addComponent(IComponentEntity component) {
 		components.add(component);
+
+		if (!removed) {
+			int typeID = Archetype.getTypeID(component.getClass());
+
+			synchronized (Archetype.LOCK) {
+				// Only the first component of each type is stored in the archetype, extra components of the same type are kept in the list only.
+				if (archetype == null) {
+					archetype = Archetype.EMPTY.with(typeID);
+					archetypeRow = archetype.add(this);
+					archetype.set(archetypeRow, typeID, component);
+				} else if (archetype.getColumn(typeID) == -1) {
+					Archetype next = archetype.with(typeID);
+					archetypeRow = archetype.moveTo(archetypeRow, next);
+					archetype = next;
+					archetype.set(archetypeRow, typeID, component);
+				}
+			}
+		}
+
+		updateViews();
 		setMoved();
 	}
 
@@ -72,7 +114,36 @@ public class Entity implements ISpatialObject {
 	 */
 	public void removeComponent(IComponentEntity component) {
 		component.dispose();
-		components.remove(component);
+
+		if (!components.remove(component)) {
+			return;
+		}
+
+		int typeID = Archetype.getTypeID(component.getClass());
+
+		synchronized (Archetype.LOCK) {
+			if (archetype != null && archetype.get(archetypeRow, typeID) == component) {
+				IComponentEntity replacement = findComponent(component.getClass());
+
+				if (replacement != null) {
+					archetype.set(archetypeRow, typeID, replacement);
+				} else {
+					Archetype next = archetype.without(typeID);
+
+					// Entities without components are not stored in any archetype.
+					if (next == Archetype.EMPTY) {
+						archetype.remove(archetypeRow);
+						archetype = null;
+						archetypeRow = -1;
+					} else {
+						archetypeRow = archetype.moveTo(archetypeRow, next);
+						archetype = next;
+					}
+				}
+			}
+		}
+
+		updateViews();
 		setMoved();
 	}
 
@@ -82,13 +153,48 @@ public class Entity implements ISpatialObject {
 	 * @param object The class of the component.
 	 */
 	public void removeComponent(Class object) {
+		IComponentEntity component = getComponent(object);
+
+		if (component != null) {
+			removeComponent(component);
+		}
+	}
+
+	/**
+	 * Rebuilds the cached component views after the components of this entity have changed.
+	 */
+	private void updateViews() {
+		List<IComponentCollider> colliders = new ArrayList<>();
+		List<IComponentRender> renders = new ArrayList<>();
+		List<IComponentMove> moves = new ArrayList<>();
+		alphaComponent = null;
+		scaleComponent = null;
+
 		for (IComponentEntity component : components) {
-			if (component.getClass() == object) {
-				component.dispose();
-				components.remove(component);
-				setMoved();
+			if (alphaComponent == null && component instanceof IComponentAlpha) {
+				alphaComponent = (IComponentAlpha) component;
+			}
+
+			if (scaleComponent == null && component instanceof IComponentScale) {
+				scaleComponent = (IComponentScale) component;
+			}
+
+			if (component instanceof IComponentCollider) {
+				colliders.add((IComponentCollider) component);
+			}
+
+			if (component instanceof IComponentRender) {
+				renders.add((IComponentRender) component);
+			}
+
+			if (component instanceof IComponentMove) {
+				moves.add((IComponentMove) component);
 			}
 		}
+
+		colliderComponents = colliders.isEmpty() ? NO_COLLIDERS : colliders.toArray(new IComponentCollider[colliders.size()]);
+		renderComponents = renders.isEmpty() ? NO_RENDERS : renders.toArray(new IComponentRender[renders.size()]);
+		moveComponents = moves.isEmpty() ? NO_MOVES : moves.toArray(new IComponentMove[moves.size()]);
 	}
 
 	/**
@@ -116,10 +222,24 @@ public class Entity implements ISpatialObject {
 	 * Finds and returns a component attached to this entity by id. If more than one is found, the first component in the list is returned. If none are found, returns null.
 	 *
 	 * @param object The class of the component.
+	 * @param <T> The type of the component.
 	 *
 	 * @return The first component found with the given id, or null if none are found.
 	 */
-	public IComponentEntity getComponent(Class object) {
+	public <T extends IComponentEntity> T getComponent(Class<T> object) {
+		int typeID = Archetype.getTypeID(object);
+
+		// The archetype and row are changed together under the lock when components are added or removed, so they are read together under it too.
+		synchronized (Archetype.LOCK) {
+			if (archetype != null) {
+				return object.cast(archetype.get(archetypeRow, typeID));
+			}
+		}
+
+		return object.cast(findComponent(object));
+	}
+
+	private IComponentEntity findComponent(Class object) {
 		for (IComponentEntity component : components) {
 			if (component.getClass() == object) {
 				return component;
@@ -129,6 +249,42 @@ public class Entity implements ISpatialObject {
 		return null;
 	}
 
+	/**
+	 * Gets the archetype this entity is stored in.
+	 *
+	 * @return The archetype, or null if the entity has no components or has been removed.
+	 */
+	public Archetype getArchetype() {
+		return archetype;
+	}
+
+	/**
+	 * Gets the row of this entity in its archetypes arrays.
+	 *
+	 * @return The row in the archetype.
+	 */
+	public int getArchetypeRow() {
+		return archetypeRow;
+	}
+
+	/**
+	 * Sets the row of this entity, used when a archetype repacks its arrays.
+	 *
+	 * @param archetypeRow The new row in the archetype.
+	 */
+	void setArchetypeRow(int archetypeRow) {
+		this.archetypeRow = archetypeRow;
+	}
+
+	/**
+	 * Gets the components attached to this entity that render, in the order they were added.
+	 *
+	 * @return The render components.
+	 */
+	public IComponentRender[] getRenderComponents() {
+		return renderComponents;
+	}
+
 	/**
 	 * Updates all the components attached to this entity.
 	 */
@@ -142,6 +298,31 @@ public class Entity implements ISpatialObject {
 		hasMoved = false;
 	}
 
+	/**
+	 * Updates the components attached to this entity that are not updated by a system, the moved flag is left to be cleared by the scheduler. Systems only
+	 * see the first component of each type that is stored in the archetype, so extra components of a type with a system are updated here.
+	 *
+	 * @param scheduler The scheduler running the entity systems.
+	 */
+	void update(SystemScheduler scheduler) {
+		try {
+			for (IComponentEntity component : components) {
+				if (!scheduler.hasSystem(component.getClass()) || findComponent(component.getClass()) != component) {
+					component.update();
+				}
+			}
+		} catch (ConcurrentModificationException e) {
+			FlounderLogger.get().exception(e);
+		}
+	}
+
+	/**
+	 * Clears the moved flag once every component and system has been updated.
+	 */
+	void clearMoved() {
+		hasMoved = false;
+	}
+
 	/**
 	 * Moves this entity by a certain amount. If this entity is a colliding entity and it hits another colliding entity when it moves, then this will only verifyMove the entity as far as it can without intersecting a colliding entity.
 	 *
@@ -153,11 +334,9 @@ public class Entity implements ISpatialObject {
 			return;
 		}
 
-		for (IComponentEntity component : components) {
-			if (IComponentMove.class.isInstance(component)) {
-				((IComponentMove) component).verifyMove(this, moveAmount, rotateAmount);
-				hasMoved = true;
-			}
+		for (IComponentMove component : moveComponents) {
+			component.verifyMove(this, moveAmount, rotateAmount);
+			hasMoved = true;
 		}
 
 		if (hasMoved) {
@@ -171,6 +350,7 @@ public class Entity implements ISpatialObject {
 					Maths.normalizeAngle(rotation.y + rotateAmount.y),
 					Maths.normalizeAngle(rotation.z + rotateAmount.z)
 			);
+			transform.markDirty();
 		}
 	}
 
@@ -179,6 +359,7 @@ public class Entity implements ISpatialObject {
 	 */
 	public void setMoved() {
 		this.hasMoved = true;
+		this.transform.markDirty();
 	}
 
 	/**
@@ -197,7 +378,7 @@ public class Entity implements ISpatialObject {
 	}
 
 	public void remove() {
-		ComponentRemoveFade remove = (ComponentRemoveFade) getComponent(ComponentRemoveFade.class);
+		ComponentRemoveFade remove = getComponent(ComponentRemoveFade.class);
 
 		if (remove != null) {
 			remove.trigger();
@@ -205,7 +386,7 @@ public class Entity implements ISpatialObject {
 			forceRemove();
 		}
 
-		ComponentModel model = (ComponentModel) getComponent(ComponentModel.class);
+		ComponentModel model = getComponent(ComponentModel.class);
 
 		if (model != null) {
 			model.setCreateCollider(false);
@@ -221,6 +402,17 @@ public class Entity implements ISpatialObject {
 		for (IComponentEntity component : components) {
 			component.dispose();
 		}
+
+		transform.dispose();
+
+		// Takes the entity out of the archetype arrays so it is no longer referenced by them, components are still found through the component list.
+		synchronized (Archetype.LOCK) {
+			if (archetype != null) {
+				archetype.remove(archetypeRow);
+				archetype = null;
+				archetypeRow = -1;
+			}
+		}
 	}
 
 	/**
@@ -238,6 +430,7 @@ public class Entity implements ISpatialObject {
 
 	public void setPosition(Vector3f position) {
 		this.position = position;
+		this.transform.markDirty();
 	}
 
 	public Vector3f getRotation() {
@@ -246,6 +439,16 @@ public class Entity implements ISpatialObject {
 
 	public void setRotation(Vector3f rotation) {
 		this.rotation = rotation;
+		this.transform.markDirty();
+	}
+
+	/**
+	 * Gets the transform of this entity in the scene graph, the position and rotation of the entity are local to the parent transform.
+	 *
+	 * @return The entities transform.
+	 */
+	public Transform getTransform() {
+		return transform;
 	}
 
 	public boolean hasMoved() {
@@ -258,13 +461,7 @@ public class Entity implements ISpatialObject {
 	 * @return The alpha of the entity.
 	 */
 	public float getAlpha() {
-		for (IComponentEntity component : components) {
-			if (component instanceof IComponentAlpha) {
-				return ((IComponentAlpha) component).getAlpha();
-			}
-		}
-
-		return 1.0f;
+		return alphaComponent == null ? 1.0f : alphaComponent.getAlpha();
 	}
 
 	/**
@@ -273,24 +470,16 @@ public class Entity implements ISpatialObject {
 	 * @return The scale of the entity.
 	 */
 	public float getScale() {
-		for (IComponentEntity component : components) {
-			if (component instanceof IComponentScale) {
-				return ((IComponentScale) component).getScale();
-			}
-		}
-
-		return 1.0f;
+		return scaleComponent == null ? 1.0f : scaleComponent.getScale();
 	}
 
 	@Override
 	public Collider getCollider() {
-		for (IComponentEntity component : components) {
-			if (component instanceof IComponentCollider) {
-				Collider bounding = ((IComponentCollider) component).getCollider();
+		for (IComponentCollider component : colliderComponents) {
+			Collider bounding = component.getCollider();
 
-				if (bounding != null) {
-					return bounding;
-				}
+			if (bounding != null) {
+				return bounding;
 			}
 		}
 
@@ -0,0 +1,315 @@
+package flounder.entities;
+
+import flounder.entities.components.*;
+import flounder.maths.matrices.*;
+import flounder.maths.vectors.*;
+import flounder.models.*;
+import flounder.physics.*;
+import flounder.space.*;
+
+import java.util.*;
+
+/**
+ * Casts rays through the entities in a spatial structure. The colliders of the entities are packed once for each cast or batch of casts, the colliders a
+ * ray hits are then visited front to back and refined against the triangles of the entities model, stopping once the next collider is further than the
+ * closest hit. Entities without a loaded model are hit on their collider.
+ * <p>
+ * A raycaster keeps its working data between casts, so it should only be used from one thread at a time.
+ */
+public class EntityRaycaster {
+	private static final float NO_MESH = -2.0f;
+
+	private final ISpatialStructure<Entity> structure;
+	private final List<Entity> snapshot;
+
+	private Entity[] entities;
+	private float[] shapes;
+	private boolean[] spheres;
+	private int count;
+
+	private long[] order;
+	private final IntersectData intersect;
+	private final Matrix4f inverse;
+
+	/**
+	 * Creates a new entity raycaster.
+	 *
+	 * @param structure The structure of entities to cast rays through.
+	 */
+	public EntityRaycaster(ISpatialStructure<Entity> structure) {
+		this.structure = structure;
+		this.snapshot = new ArrayList<>();
+
+		this.entities = new Entity[0];
+		this.shapes = new float[0];
+		this.spheres = new boolean[0];
+		this.count = 0;
+
+		this.order = new long[0];
+		this.intersect = new IntersectData();
+		this.inverse = new Matrix4f();
+	}
+
+	/**
+	 * Casts a ray, such as the mouse ray, through the entities.
+	 *
+	 * @param ray The ray to cast.
+	 * @param maxDistance The furthest distance a hit is found at.
+	 * @param destination The hit to set, or null if a new hit is to be created.
+	 *
+	 * @return The destination.
+	 */
+	public RaycastHit raycast(Ray ray, float maxDistance, RaycastHit destination) {
+		return raycast(ray.getOrigin(), ray.getCurrentRay(), maxDistance, null, destination);
+	}
+
+	/**
+	 * Casts a ray through the entities.
+	 *
+	 * @param origin The ray origin.
+	 * @param direction The ray direction, it does not have to be normalized.
+	 * @param maxDistance The furthest distance a hit is found at.
+	 * @param ignore A entity the ray can not hit, such as the entity casting it, or null.
+	 * @param destination The hit to set, or null if a new hit is to be created.
+	 *
+	 * @return The destination.
+	 */
+	public RaycastHit raycast(Vector3f origin, Vector3f direction, float maxDistance, Entity ignore, RaycastHit destination) {
+		if (destination == null) {
+			destination = new RaycastHit();
+		}
+
+		gather();
+		cast(origin.x, origin.y, origin.z, direction.x, direction.y, direction.z, maxDistance, ignore, null, false, destination);
+		return destination;
+	}
+
+	/**
+	 * Casts a batch of rays through the entities, the entities are only gathered once for the whole batch.
+	 *
+	 * @param origins The ray origins, three values for each ray.
+	 * @param directions The ray directions, three values for each ray. They do not have to be normalized.
+	 * @param maxDistances The furthest distance a hit is found at for each ray, or null if there is no limit.
+	 * @param count The number of rays.
+	 * @param destination The hits to set, null hits are created.
+	 */
+	public void raycast(float[] origins, float[] directions, float[] maxDistances, int count, RaycastHit[] destination) {
+		gather();
+
+		for (int i = 0; i < count; i++) {
+			if (destination[i] == null) {
+				destination[i] = new RaycastHit();
+			}
+
+			float maxDistance = maxDistances == null ? Float.POSITIVE_INFINITY : maxDistances[i];
+			cast(origins[i * 3], origins[i * 3 + 1], origins[i * 3 + 2], directions[i * 3], directions[i * 3 + 1], directions[i * 3 + 2], maxDistance, null, null, false, destination[i]);
+		}
+	}
+
+	/**
+	 * Gets if there are no entities between two points.
+	 *
+	 * @param from The point looked from.
+	 * @param to The point looked at.
+	 * @param viewer The entity looking, it does not block the view, or null.
+	 * @param target The entity looked at, it does not block the view, or null.
+	 *
+	 * @return If the line of sight is clear.
+	 */
+	public boolean hasLineOfSight(Vector3f from, Vector3f to, Entity viewer, Entity target) {
+		gather();
+		return lineOfSight(from.x, from.y, from.z, to.x, to.y, to.z, viewer, target);
+	}
+
+	/**
+	 * Tests a batch of lines of sight, such as from many AI agents to their targets. The entities are only gathered once for the whole batch, and each line
+	 * stops at the first entity found blocking it.
+	 *
+	 * @param from The points looked from, three values for each line.
+	 * @param to The points looked at, three values for each line.
+	 * @param viewers The entities looking, or null.
+	 * @param targets The entities looked at, or null.
+	 * @param count The number of lines.
+	 * @param destination If each line of sight is clear.
+	 */
+	public void hasLineOfSight(float[] from, float[] to, Entity[] viewers, Entity[] targets, int count, boolean[] destination) {
+		gather();
+
+		for (int i = 0; i < count; i++) {
+			destination[i] = lineOfSight(
+					from[i * 3], from[i * 3 + 1], from[i * 3 + 2], to[i * 3], to[i * 3 + 1], to[i * 3 + 2],
+					viewers == null ? null : viewers[i], targets == null ? null : targets[i]
+			);
+		}
+	}
+
+	private boolean lineOfSight(float fromX, float fromY, float fromZ, float toX, float toY, float toZ, Entity viewer, Entity target) {
+		float dx = toX - fromX;
+		float dy = toY - fromY;
+		float dz = toZ - fromZ;
+		float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+		if (distance == 0.0f) {
+			return true;
+		}
+
+		return cast(fromX, fromY, fromZ, dx, dy, dz, distance, viewer, target, true, null) < 0.0f;
+	}
+
+	/**
+	 * Packs the colliders of the entities in the structure.
+	 */
+	private void gather() {
+		snapshot.clear();
+		structure.getAll(snapshot);
+		count = 0;
+
+		if (entities.length < snapshot.size()) {
+			int capacity = Math.max(16, snapshot.size());
+			entities = new Entity[capacity];
+			shapes = new float[capacity * 6];
+			spheres = new boolean[capacity];
+			order = new long[capacity];
+		}
+
+		for (Entity entity : snapshot) {
+			if (entity == null || entity.isRemoved()) {
+				continue;
+			}
+
+			Collider collider = entity.getCollider();
+
+			if (collider instanceof AABB) {
+				Vector3f min = ((AABB) collider).getMinExtents();
+				Vector3f max = ((AABB) collider).getMaxExtents();
+				pack(entity, false, min.x, min.y, min.z, max.x, max.y, max.z);
+			} else if (collider instanceof Sphere) {
+				Vector3f position = ((Sphere) collider).getPosition();
+				pack(entity, true, position.x, position.y, position.z, ((Sphere) collider).getRadius(), 0.0f, 0.0f);
+			}
+		}
+
+		Arrays.fill(entities, count, entities.length, null);
+		snapshot.clear();
+	}
+
+	private void pack(Entity entity, boolean sphere, float a, float b, float c, float d, float e, float f) {
+		entities[count] = entity;
+		spheres[count] = sphere;
+		shapes[count * 6] = a;
+		shapes[count * 6 + 1] = b;
+		shapes[count * 6 + 2] = c;
+		shapes[count * 6 + 3] = d;
+		shapes[count * 6 + 4] = e;
+		shapes[count * 6 + 5] = f;
+		count++;
+	}
+
+	/**
+	 * Casts a ray through the packed colliders.
+	 *
+	 * @return The distance of the hit, or -1 if nothing was hit.
+	 */
+	private float cast(float originX, float originY, float originZ, float directionX, float directionY, float directionZ, float maxDistance,
+	                   Entity ignore1, Entity ignore2, boolean anyHit, RaycastHit destination) {
+		float length = (float) Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+
+		if (length == 0.0f) {
+			if (destination != null) {
+				destination.set(null, -1.0f, false, originX, originY, originZ, 0.0f, 0.0f, 0.0f);
+			}
+
+			return -1.0f;
+		}
+
+		directionX /= length;
+		directionY /= length;
+		directionZ /= length;
+
+		// Sort keys of the distance each collider is entered at and its index, distances are positive so their bits sort in order.
+		int hits = 0;
+
+		for (int i = 0; i < count; i++) {
+			if (entities[i] == ignore1 || entities[i] == ignore2) {
+				continue;
+			}
+
+			int s = i * 6;
+
+			if (spheres[i]) {
+				// Rays starting inside a sphere enter it straight away, like rays starting inside a box.
+				if (ColliderKernels.sphereContainsPoint(shapes[s], shapes[s + 1], shapes[s + 2], shapes[s + 3], originX, originY, originZ)) {
+					intersect.set(true, 0.0f);
+				} else {
+					ColliderKernels.raySphere(originX, originY, originZ, directionX, directionY, directionZ, shapes[s], shapes[s + 1], shapes[s + 2], shapes[s + 3], intersect);
+				}
+			} else {
+				ColliderKernels.rayAabb(originX, originY, originZ, directionX, directionY, directionZ, shapes[s], shapes[s + 1], shapes[s + 2], shapes[s + 3], shapes[s + 4], shapes[s + 5], intersect);
+			}
+
+			if (intersect.isIntersection() && intersect.getDistance() <= maxDistance) {
+				order[hits++] = ((long) Float.floatToIntBits(intersect.getDistance()) << 32) | i;
+			}
+		}
+
+		Arrays.sort(order, 0, hits);
+
+		Entity closestEntity = null;
+		float closest = maxDistance;
+		boolean precise = false;
+
+		for (int j = 0; j < hits; j++) {
+			if (Float.intBitsToFloat((int) (order[j] >>> 32)) > closest) {
+				break;
+			}
+
+			int i = (int) order[j];
+			float distance = refine(entities[i], originX, originY, originZ, directionX, directionY, directionZ, closest, anyHit);
+
+			if (distance == NO_MESH) {
+				closest = Float.intBitsToFloat((int) (order[j] >>> 32));
+				closestEntity = entities[i];
+				precise = false;
+			} else if (distance >= 0.0f && distance <= closest) {
+				closest = distance;
+				closestEntity = entities[i];
+				precise = true;
+			}
+
+			if (anyHit && closestEntity != null) {
+				break;
+			}
+		}
+
+		if (destination != null) {
+			destination.set(closestEntity, closest, precise, originX, originY, originZ, directionX, directionY, directionZ);
+		}
+
+		return closestEntity == null ? -1.0f : closest;
+	}
+
+	/**
+	 * Casts a ray against the triangles of a entities model, the ray is moved into the space of the model so the hierarchy is never transformed.
+	 *
+	 * @return The distance of the hit, -1 if the ray misses the model, or {@link #NO_MESH} if the entity has no model to test.
+	 */
+	private float refine(Entity entity, float originX, float originY, float originZ, float directionX, float directionY, float directionZ, float maxDistance, boolean anyHit) {
+		ComponentModel component = entity.getComponent(ComponentModel.class);
+		ModelObject model = component == null ? null : component.getModel();
+		TriangleBVH tree = model == null || !model.isLoaded() ? null : model.getTriangleTree();
+
+		if (tree == null || Matrix4f.invert(component.getModelMatrix(), inverse) == null) {
+			return NO_MESH;
+		}
+
+		float localOriginX = inverse.m00 * originX + inverse.m10 * originY + inverse.m20 * originZ + inverse.m30;
+		float localOriginY = inverse.m01 * originX + inverse.m11 * originY + inverse.m21 * originZ + inverse.m31;
+		float localOriginZ = inverse.m02 * originX + inverse.m12 * originY + inverse.m22 * originZ + inverse.m32;
+		float localDirectionX = inverse.m00 * directionX + inverse.m10 * directionY + inverse.m20 * directionZ;
+		float localDirectionY = inverse.m01 * directionX + inverse.m11 * directionY + inverse.m21 * directionZ;
+		float localDirectionZ = inverse.m02 * directionX + inverse.m12 * directionY + inverse.m22 * directionZ;
+
+		// The direction is not renormalized, so distances in the space of the model are the same as world distances.
+		return tree.raycast(localOriginX, localOriginY, localOriginZ, localDirectionX, localDirectionY, localDirectionZ, maxDistance, anyHit);
+	}
+}
@@ -0,0 +1,110 @@
+package flounder.entities;
+
+import java.util.*;
+
+/**
+ * A system updates every component of one type. Systems declare the component types and resources they read and write, and the {@link SystemScheduler}
+ * runs systems that do not conflict at the same time.
+ * <p>
+ * Updates for different entities may run at the same time, so a system must only write to the component it is given, that components entity, and the
+ * types it declares as written. Modules a system writes to, such as {@code FlounderBounding} or {@code FlounderLights}, must be declared by their class
+ * and the methods called must be thread safe, as updates for different entities call them at the same time. Structural changes (adding or removing
+ * components and entities) must be pushed to the schedulers {@link CommandBuffer}.
+ *
+ * @param <T> The type of component the system updates.
+ */
+public abstract class EntitySystem<T extends IComponentEntity> {
+	private final Class<T> type;
+	private final Set<Class<?>> reads;
+	private final Set<Class<?>> writes;
+	private final boolean parallel;
+
+	/**
+	 * Creates a new entity system.
+	 *
+	 * @param type The type of component the system updates, this type is always written.
+	 * @param reads The component types and resources read by the system.
+	 * @param writes The component types and resources written by the system.
+	 * @param parallel If updates for different entities can run at the same time.
+	 */
+	public EntitySystem(Class<T> type, Class<?>[] reads, Class<?>[] writes, boolean parallel) {
+		this.type = type;
+		this.reads = new HashSet<>(Arrays.asList(reads));
+		this.writes = new HashSet<>(Arrays.asList(writes));
+		this.parallel = parallel;
+
+		this.writes.add(type);
+	}
+
+	/**
+	 * Creates a system that calls {@link IComponentEntity#update()} for every component of a type, used to move existing components onto the scheduler.
+	 *
+	 * @param type The type of component to update.
+	 * @param reads The component types and resources read by the components update.
+	 * @param writes The component types and resources written by the components update.
+	 * @param <T> The type of component to update.
+	 *
+	 * @return The new system.
+	 */
+	public static <T extends IComponentEntity> EntitySystem<T> forComponent(Class<T> type, Class<?>[] reads, Class<?>[] writes) {
+		return new EntitySystem<T>(type, reads, writes, true) {
+			@Override
+			public void update(Entity entity, T component) {
+				component.update();
+			}
+		};
+	}
+
+	/**
+	 * Called once on the update thread before the system runs each frame, used to read shared state the updates need.
+	 */
+	public void begin() {
+	}
+
+	/**
+	 * Updates a component.
+	 *
+	 * @param entity The entity the component is attached to.
+	 * @param component The component to update.
+	 */
+	public abstract void update(Entity entity, T component);
+
+	/**
+	 * Gets if this system can not run at the same time as another system, this is the case when either system writes something the other uses.
+	 *
+	 * @param other The other system.
+	 *
+	 * @return If the systems conflict.
+	 */
+	public boolean conflicts(EntitySystem<?> other) {
+		return intersects(writes, other.writes) || intersects(writes, other.reads) || intersects(reads, other.writes);
+	}
+
+	private static boolean intersects(Set<Class<?>> a, Set<Class<?>> b) {
+		for (Class<?> type : a) {
+			if (b.contains(type)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Gets the type of component this system updates.
+	 *
+	 * @return The component type.
+	 */
+	public Class<T> getType() {
+		return type;
+	}
+
+	/**
+	 * Gets if updates for different entities can run at the same time.
+	 *
+	 * @return If the system is parallel.
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+}
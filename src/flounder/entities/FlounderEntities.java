@@ -1,12 +1,16 @@
 package flounder.entities;
 
 import flounder.animation.*;
+import flounder.entities.components.*;
 import flounder.events.*;
 import flounder.framework.*;
 import flounder.helpers.*;
 import flounder.logger.*;
+import flounder.lights.*;
 import flounder.models.*;
+import flounder.physics.*;
 import flounder.physics.bounding.*;
+import flounder.physics.broadphase.*;
 import flounder.resources.*;
 import flounder.space.*;
 import flounder.tasks.*;
@@ -22,34 +26,70 @@ public class FlounderEntities extends Module {
 	public static final MyFile ENTITIES_FOLDER = new MyFile(MyFile.RES_FOLDER, "entities");
 
 	private ISpatialStructure<Entity> entityStructure;
+	private SystemScheduler scheduler;
+	private EntityRaycaster raycaster;
+	private List<Entity> updating;
 
 	/**
 	 * Creates a new game manager for entities.
 	 */
 	public FlounderEntities() {
-		super(FlounderEvents.class, FlounderTasks.class, FlounderBounding.class, FlounderAnimation.class, FlounderModels.class, FlounderTextures.class);
+		super(FlounderEvents.class, FlounderTasks.class, FlounderBounding.class, FlounderBroadphase.class, FlounderAnimation.class, FlounderModels.class, FlounderTextures.class);
 	}
 
 	@Handler.Function(Handler.FLAG_INIT)
 	public void init() {
 		this.entityStructure = new StructureBasic<>();
+		this.scheduler = new SystemScheduler();
+		this.raycaster = new EntityRaycaster(entityStructure);
+		this.updating = new ArrayList<>();
+
+		// Components that only change themselves, their entity and thread safe module sinks, others are updated by their entities one at a time.
+		Class<?>[] none = new Class<?>[]{};
+		Class<?>[] entity = new Class<?>[]{Entity.class};
+		scheduler.addSystem(EntitySystem.forComponent(ComponentModel.class, none, new Class<?>[]{Entity.class, FlounderBounding.class}));
+		scheduler.addSystem(EntitySystem.forComponent(ComponentLight.class, new Class<?>[]{Entity.class, ComponentAlpha.class}, new Class<?>[]{FlounderLights.class, FlounderBounding.class}));
+		scheduler.addSystem(EntitySystem.forComponent(ComponentParticles.class, entity, none));
+		scheduler.addSystem(EntitySystem.forComponent(ComponentSelect.class, none, none));
+		scheduler.addSystem(EntitySystem.forComponent(ComponentAlpha.class, none, none));
+		scheduler.addSystem(EntitySystem.forComponent(ComponentCollision.class, none, none));
+		scheduler.addSystem(EntitySystem.forComponent(ComponentGlow.class, none, none));
+		scheduler.addSystem(EntitySystem.forComponent(ComponentNormals.class, none, none));
+		scheduler.addSystem(EntitySystem.forComponent(ComponentSurface.class, none, none));
+		scheduler.addSystem(EntitySystem.forComponent(ComponentSway.class, none, none));
+		scheduler.addSystem(new AnimationSystem());
+
+		// Colliders are added after the model and animation systems, so they read the models and transforms from this update.
+		scheduler.addSystem(EntitySystem.forComponent(ComponentCollider.class, new Class<?>[]{Entity.class, ComponentModel.class, ComponentAnimation.class}, none));
+		scheduler.addSystem(EntitySystem.forComponent(ComponentHeightfield.class, entity, none));
+		scheduler.addSystem(EntitySystem.forComponent(ComponentRigidBody.class, new Class<?>[]{Entity.class, ComponentModel.class}, none));
 	}
 
 	@Handler.Function(Handler.FLAG_UPDATE_PRE)
 	public void update() {
 		if (entityStructure != null) {
-			Iterator<Entity> iterator = entityStructure.getAll(null).iterator();
+			updating.clear();
+			entityStructure.getAll(updating);
+
+			// Updates components without a system, these may still change entities directly.
+			for (Entity entity : updating) {
+				if (entity != null && !entity.isRemoved()) {
+					entity.update(scheduler);
+				}
+			}
 
-			while (iterator.hasNext()) {
-				Entity entity = iterator.next();
+			scheduler.update(entityStructure);
 
+			for (Entity entity : updating) {
 				if (entity != null && !entity.isRemoved()) {
-					entity.update();
+					entity.clearMoved();
 				} else {
-					iterator.remove();
 					entityStructure.remove(entity);
 				}
 			}
+
+			// Gathered once the systems are done, so parallel systems never write to the shared array.
+			Transform.storeWorldMatrices();
 		}
 	}
 
@@ -166,6 +206,46 @@ public class FlounderEntities extends Module {
 		return this.entityStructure;
 	}
 
+	/**
+	 * Gets the scheduler that runs entity systems, add systems to it to update components in parallel.
+	 *
+	 * @return The system scheduler.
+	 */
+	public SystemScheduler getScheduler() {
+		return this.scheduler;
+	}
+
+	/**
+	 * Gets the raycaster used to pick entities and test lines of sight, it should only be used from one thread at a time.
+	 *
+	 * @return The entity raycaster.
+	 */
+	public EntityRaycaster getRaycaster() {
+		return this.raycaster;
+	}
+
+	/**
+	 * Finds the first entity hit by a ray, such as the mouse ray when picking entities.
+	 *
+	 * @param ray The ray to cast.
+	 * @param maxDistance The furthest distance a hit is found at.
+	 * @param destination The hit to set, or null if a new hit is to be created.
+	 *
+	 * @return The destination.
+	 */
+	public RaycastHit raycast(Ray ray, float maxDistance, RaycastHit destination) {
+		return this.raycaster.raycast(ray, maxDistance, destination);
+	}
+
+	/**
+	 * Gets the command buffer structural changes should be recorded to from entity systems.
+	 *
+	 * @return The command buffer.
+	 */
+	public CommandBuffer getCommands() {
+		return this.scheduler.getCommands();
+	}
+
 	/**
 	 * Clears the world of all entities.
 	 */
@@ -177,9 +257,17 @@ public class FlounderEntities extends Module {
 	@Handler.Function(Handler.FLAG_DISPOSE)
 	public void dispose() {
 		if (entityStructure != null) {
-			entityStructure.clear();
+			// Removing the entities also takes them out of the shared archetypes, which would otherwise keep them referenced.
+			clear();
 			entityStructure = null;
 		}
+
+		if (scheduler != null) {
+			scheduler.dispose();
+			scheduler = null;
+		}
+
+		raycaster = null;
 	}
 
 	@Module.Instance
@@ -0,0 +1,100 @@
+package flounder.entities;
+
+import flounder.maths.vectors.*;
+
+/**
+ * Where a ray cast through the entities first hit one. The hit can be set again, so one hit can be reused for many casts.
+ */
+public class RaycastHit {
+	private Entity entity;
+	private float distance;
+	private Vector3f point;
+	private boolean precise;
+
+	/**
+	 * Creates a new raycast hit that has not hit anything.
+	 */
+	public RaycastHit() {
+		this.entity = null;
+		this.distance = -1.0f;
+		this.point = new Vector3f();
+		this.precise = false;
+	}
+
+	/**
+	 * Sets the raycast hit.
+	 *
+	 * @param entity The entity hit, or null if nothing was hit.
+	 * @param distance The distance along the ray the hit is at.
+	 * @param precise If the hit was found on the triangles of the entities model, not only its collider.
+	 * @param originX The ray origin on the x.
+	 * @param originY The ray origin on the y.
+	 * @param originZ The ray origin on the z.
+	 * @param directionX The normalized ray direction on the x.
+	 * @param directionY The normalized ray direction on the y.
+	 * @param directionZ The normalized ray direction on the z.
+	 *
+	 * @return This.
+	 */
+	public RaycastHit set(Entity entity, float distance, boolean precise, float originX, float originY, float originZ, float directionX, float directionY, float directionZ) {
+		this.entity = entity;
+		this.distance = entity == null ? -1.0f : distance;
+		this.precise = entity != null && precise;
+
+		if (entity != null) {
+			this.point.set(originX + directionX * distance, originY + directionY * distance, originZ + directionZ * distance);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Gets if the ray hit a entity.
+	 *
+	 * @return If there is a hit.
+	 */
+	public boolean isHit() {
+		return entity != null;
+	}
+
+	/**
+	 * Gets the entity that was hit.
+	 *
+	 * @return The entity, or null if nothing was hit.
+	 */
+	public Entity getEntity() {
+		return entity;
+	}
+
+	/**
+	 * Gets the world distance along the ray the hit is at.
+	 *
+	 * @return The distance, or -1 if nothing was hit.
+	 */
+	public float getDistance() {
+		return distance;
+	}
+
+	/**
+	 * Gets the world point of the hit.
+	 *
+	 * @return The point of the hit.
+	 */
+	public Vector3f getPoint() {
+		return point;
+	}
+
+	/**
+	 * Gets if the hit was found on the triangles of the entities model, otherwise it is on the entities collider.
+	 *
+	 * @return If the hit is precise.
+	 */
+	public boolean isPrecise() {
+		return precise;
+	}
+
+	@Override
+	public String toString() {
+		return "RaycastHit{" + "entity=" + entity + ", distance=" + distance + ", point=" + point + ", precise=" + precise + "}";
+	}
+}
@@ -0,0 +1,225 @@
+package flounder.entities;
+
+import flounder.logger.*;
+import flounder.space.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs {@link EntitySystem}s over the entities in a structure. Systems are split into phases where no two systems in a phase conflict, each phase runs
+ * its systems at the same time on a fork-join pool, and large systems are split further across entities. Systems in conflict keep the order they were
+ * added in. Structural changes recorded in the {@link CommandBuffer} are applied once all phases are done.
+ * <p>
+ * Components without a system are updated by the entity itself before any system runs, one entity at a time. Components that read the results of
+ * scheduled components, such as colliders reading models, should be given systems declaring those reads so they are placed after them.
+ */
+public class SystemScheduler {
+	private static final int SPLIT_THRESHOLD = 64;
+
+	private final ForkJoinPool pool;
+	private final CommandBuffer commands;
+
+	private final List<EntitySystem<?>> systems;
+	private final Map<Class<?>, EntitySystem<?>> systemTypes;
+	private final List<List<EntitySystem<?>>> phases;
+	private boolean phasesDirty;
+
+	/**
+	 * Creates a new scheduler with one worker per processor.
+	 */
+	public SystemScheduler() {
+		this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		this.commands = new CommandBuffer();
+
+		this.systems = new ArrayList<>();
+		this.systemTypes = new HashMap<>();
+		this.phases = new ArrayList<>();
+		this.phasesDirty = true;
+	}
+
+	/**
+	 * Adds a system to the scheduler, replacing any system already updating the same component type.
+	 *
+	 * @param system The system to add.
+	 */
+	public void addSystem(EntitySystem<?> system) {
+		EntitySystem<?> replaced = systemTypes.put(system.getType(), system);
+
+		if (replaced != null) {
+			systems.remove(replaced);
+		}
+
+		systems.add(system);
+		phasesDirty = true;
+	}
+
+	/**
+	 * Removes a system from the scheduler, its components will be updated by their entities again.
+	 *
+	 * @param system The system to remove.
+	 */
+	public void removeSystem(EntitySystem<?> system) {
+		if (systems.remove(system)) {
+			systemTypes.remove(system.getType());
+			phasesDirty = true;
+		}
+	}
+
+	/**
+	 * Gets if a component type is updated by a system.
+	 *
+	 * @param type The class of the component.
+	 *
+	 * @return If the type has a system.
+	 */
+	public boolean hasSystem(Class<?> type) {
+		return systemTypes.containsKey(type);
+	}
+
+	/**
+	 * Runs every phase of systems over the entities in a structure, then applies the recorded structural changes.
+	 *
+	 * @param structure The structure the updated entities must be in.
+	 */
+	public void update(ISpatialStructure<Entity> structure) {
+		if (phasesDirty) {
+			buildPhases();
+		}
+
+		for (List<EntitySystem<?>> phase : phases) {
+			List<SystemTask> tasks = new ArrayList<>();
+
+			for (EntitySystem<?> system : phase) {
+				system.begin();
+
+				for (Archetype archetype : Archetype.query(new Class<?>[]{system.getType()}, new ArrayList<>())) {
+					tasks.add(new SystemTask(system, structure, archetype, 0, archetype.getSize()));
+				}
+			}
+
+			try {
+				if (tasks.size() == 1 && !tasks.get(0).isSplit()) {
+					tasks.get(0).compute();
+				} else if (!tasks.isEmpty()) {
+					pool.invoke(new PhaseTask(tasks));
+				}
+			} catch (RuntimeException e) {
+				FlounderLogger.get().exception(e);
+			}
+		}
+
+		commands.apply();
+	}
+
+	/**
+	 * Places each system in the first phase after every earlier system it conflicts with.
+	 */
+	private void buildPhases() {
+		phases.clear();
+		int[] phaseOf = new int[systems.size()];
+
+		for (int i = 0; i < systems.size(); i++) {
+			int phase = 0;
+
+			for (int j = 0; j < i; j++) {
+				if (systems.get(i).conflicts(systems.get(j))) {
+					phase = Math.max(phase, phaseOf[j] + 1);
+				}
+			}
+
+			phaseOf[i] = phase;
+
+			while (phases.size() <= phase) {
+				phases.add(new ArrayList<>());
+			}
+
+			phases.get(phase).add(systems.get(i));
+		}
+
+		phasesDirty = false;
+	}
+
+	/**
+	 * Gets the command buffer structural changes should be recorded to while systems are running.
+	 *
+	 * @return The command buffer.
+	 */
+	public CommandBuffer getCommands() {
+		return commands;
+	}
+
+	/**
+	 * Stops the worker threads.
+	 */
+	public void dispose() {
+		pool.shutdown();
+		systems.clear();
+		systemTypes.clear();
+		phases.clear();
+	}
+
+	private static class PhaseTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final List<SystemTask> tasks;
+
+		private PhaseTask(List<SystemTask> tasks) {
+			this.tasks = tasks;
+		}
+
+		@Override
+		protected void compute() {
+			invokeAll(tasks);
+		}
+	}
+
+	private static class SystemTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final EntitySystem<?> system;
+		private final ISpatialStructure<Entity> structure;
+		private final Archetype archetype;
+		private final int start;
+		private final int end;
+
+		private SystemTask(EntitySystem<?> system, ISpatialStructure<Entity> structure, Archetype archetype, int start, int end) {
+			this.system = system;
+			this.structure = structure;
+			this.archetype = archetype;
+			this.start = start;
+			this.end = end;
+		}
+
+		private boolean isSplit() {
+			return system.isParallel() && end - start > SPLIT_THRESHOLD;
+		}
+
+		@Override
+		protected void compute() {
+			if (isSplit()) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new SystemTask(system, structure, archetype, start, middle), new SystemTask(system, structure, archetype, middle, end));
+				return;
+			}
+
+			Entity[] entities = archetype.getEntities();
+			IComponentEntity[] components = archetype.getComponents(system.getType());
+
+			for (int i = start; i < end; i++) {
+				Entity entity = entities[i];
+
+				if (entity.getStructure() == structure && !entity.isRemoved()) {
+					update(system, entity, components[i]);
+				}
+			}
+		}
+
+		/**
+		 * Updates a component with a system, the component is always of the systems type as it came from that types column of the archetype.
+		 */
+		private static <T extends IComponentEntity> void update(EntitySystem<T> system, Entity entity, IComponentEntity component) {
+			system.update(entity, system.getType().cast(component));
+		}
+	}
+}
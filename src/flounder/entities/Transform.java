@@ -0,0 +1,350 @@
+package flounder.entities;
+
+import flounder.logger.*;
+import flounder.maths.matrices.*;
+import flounder.maths.vectors.*;
+
+import java.util.*;
+
+/**
+ * The transform of a entity in the scene graph. The entities position and rotation are local to the parent transform, the world transform is worked out
+ * lazily when something asks for it after the transform has been marked dirty or the parents world transform has changed.
+ * <p>
+ * The version of a transform only changes when its world matrix actually changes, so dependent data such as colliders can skip work when a entity was
+ * marked as moved without really moving. Children compare the version of their parent instead of being marked by it, so moving a entity never writes to
+ * its child entities.
+ * <p>
+ * Every transform has a slot in one shared float array of world matrices, 16 floats per transform in column major order, so they can be uploaded for
+ * instancing without gathering. The array is filled by {@link #storeWorldMatrices()} once the entity systems have finished, so transforms updated from
+ * parallel systems never write to it.
+ */
+public class Transform {
+	private static final int MATRIX_SIZE = 16;
+
+	private static Transform[] transforms = new Transform[64];
+	private static float[] worldMatrices = new float[MATRIX_SIZE * 64];
+	private static int matrixCount = 0;
+	private static final Deque<Integer> FREE_SLOTS = new ArrayDeque<>();
+
+	private final Entity entity;
+	private Transform parent;
+	private final List<Transform> children;
+
+	private Matrix4f worldMatrix;
+	private Matrix4f computedMatrix;
+	private final Matrix4f localMatrix;
+	private final Vector3f worldPosition;
+	private final Vector3f worldRotation;
+
+	private int slot;
+	private int version;
+	private int parentVersion;
+	private int storedVersion;
+	private boolean dirty;
+
+	/**
+	 * Creates a new root transform for a entity.
+	 *
+	 * @param entity The entity the transform belongs to.
+	 */
+	protected Transform(Entity entity) {
+		this.entity = entity;
+		this.parent = null;
+		this.children = new ArrayList<>();
+
+		this.worldMatrix = new Matrix4f();
+		this.computedMatrix = new Matrix4f();
+		this.localMatrix = new Matrix4f();
+		this.worldPosition = new Vector3f();
+		this.worldRotation = new Vector3f();
+
+		this.slot = allocateSlot(this);
+		this.version = 0;
+		this.parentVersion = -1;
+		this.storedVersion = -1;
+		this.dirty = true;
+	}
+
+	private static synchronized int allocateSlot(Transform transform) {
+		int slot;
+
+		if (!FREE_SLOTS.isEmpty()) {
+			slot = FREE_SLOTS.pop();
+		} else {
+			if (matrixCount == transforms.length) {
+				transforms = Arrays.copyOf(transforms, transforms.length * 2);
+				worldMatrices = Arrays.copyOf(worldMatrices, worldMatrices.length * 2);
+			}
+
+			slot = matrixCount++;
+		}
+
+		transforms[slot] = transform;
+		return slot;
+	}
+
+	private static synchronized void releaseSlot(int slot) {
+		transforms[slot] = null;
+		Arrays.fill(worldMatrices, slot * MATRIX_SIZE, (slot + 1) * MATRIX_SIZE, 0.0f);
+		FREE_SLOTS.push(slot);
+	}
+
+	/**
+	 * Copies the world matrix of every transform that has changed since the last call into the shared array. This should be called from one thread once
+	 * the transforms have been updated for the frame, such as after the entity systems have run.
+	 */
+	public static synchronized void storeWorldMatrices() {
+		for (int slot = 0; slot < matrixCount; slot++) {
+			Transform transform = transforms[slot];
+
+			if (transform == null || transform.storedVersion == transform.getVersion()) {
+				continue;
+			}
+
+			Matrix4f matrix = transform.worldMatrix;
+			int i = slot * MATRIX_SIZE;
+			worldMatrices[i] = matrix.m00;
+			worldMatrices[i + 1] = matrix.m01;
+			worldMatrices[i + 2] = matrix.m02;
+			worldMatrices[i + 3] = matrix.m03;
+			worldMatrices[i + 4] = matrix.m10;
+			worldMatrices[i + 5] = matrix.m11;
+			worldMatrices[i + 6] = matrix.m12;
+			worldMatrices[i + 7] = matrix.m13;
+			worldMatrices[i + 8] = matrix.m20;
+			worldMatrices[i + 9] = matrix.m21;
+			worldMatrices[i + 10] = matrix.m22;
+			worldMatrices[i + 11] = matrix.m23;
+			worldMatrices[i + 12] = matrix.m30;
+			worldMatrices[i + 13] = matrix.m31;
+			worldMatrices[i + 14] = matrix.m32;
+			worldMatrices[i + 15] = matrix.m33;
+			transform.storedVersion = transform.version;
+		}
+	}
+
+	/**
+	 * Gets the shared array of world matrices, 16 floats per transform. The array is replaced when it grows, so it should be fetched again each frame.
+	 *
+	 * @return The world matrices.
+	 */
+	public static float[] getWorldMatrices() {
+		return worldMatrices;
+	}
+
+	/**
+	 * Gets the amount of slots used in the shared array, including released slots waiting to be reused.
+	 *
+	 * @return The amount of matrices in the array.
+	 */
+	public static int getMatrixCount() {
+		return matrixCount;
+	}
+
+	/**
+	 * Marks the world transform as needing to be worked out again, children notice the change through the version when they are next read.
+	 */
+	public void markDirty() {
+		dirty = true;
+	}
+
+	/**
+	 * Works out the world transform if it is dirty or the parent has changed, updating the parent first.
+	 */
+	private synchronized void update() {
+		int currentParent = parent == null ? -1 : parent.getVersion();
+
+		if (!dirty && currentParent == parentVersion) {
+			return;
+		}
+
+		dirty = false;
+		parentVersion = currentParent;
+
+		if (parent == null) {
+			Matrix4f.transformationMatrix(entity.getPosition(), entity.getRotation(), 1.0f, computedMatrix);
+		} else {
+			Matrix4f.transformationMatrix(entity.getPosition(), entity.getRotation(), 1.0f, localMatrix);
+			Matrix4f.multiply(parent.getWorldMatrix(), localMatrix, computedMatrix);
+		}
+
+		if (version != 0 && equal(worldMatrix, computedMatrix)) {
+			return;
+		}
+
+		Matrix4f swap = worldMatrix;
+		worldMatrix = computedMatrix;
+		computedMatrix = swap;
+
+		if (parent == null) {
+			worldPosition.set(entity.getPosition());
+			worldRotation.set(entity.getRotation());
+		} else {
+			worldPosition.set(worldMatrix.m30, worldMatrix.m31, worldMatrix.m32);
+			getEulerAngles(worldMatrix, worldRotation);
+		}
+
+		version++;
+	}
+
+	/**
+	 * Gets the rotation in degrees that {@link Matrix4f#transformationMatrix} turns into the rotation of a matrix, so colliders built from the world
+	 * rotation match the composed world matrix. The rotation is applied around the x, then y, then z axis.
+	 *
+	 * @param matrix The matrix, without any scale.
+	 * @param destination The vector to store the rotation into.
+	 */
+	private static void getEulerAngles(Matrix4f matrix, Vector3f destination) {
+		float sinY = Math.min(Math.max(matrix.m20, -1.0f), 1.0f);
+		float x;
+		float z;
+
+		if (Math.abs(sinY) < 0.99999f) {
+			x = (float) Math.atan2(-matrix.m21, matrix.m22);
+			z = (float) Math.atan2(-matrix.m10, matrix.m00);
+		} else {
+			// The x and z axes line up, so the whole rotation around them is given to the x.
+			x = (float) Math.atan2(matrix.m01 * sinY, matrix.m11);
+			z = 0.0f;
+		}
+
+		destination.set((float) Math.toDegrees(x), (float) Math.toDegrees(Math.asin(sinY)), (float) Math.toDegrees(z));
+	}
+
+	private static boolean equal(Matrix4f a, Matrix4f b) {
+		return a.m00 == b.m00 && a.m01 == b.m01 && a.m02 == b.m02 && a.m03 == b.m03 &&
+				a.m10 == b.m10 && a.m11 == b.m11 && a.m12 == b.m12 && a.m13 == b.m13 &&
+				a.m20 == b.m20 && a.m21 == b.m21 && a.m22 == b.m22 && a.m23 == b.m23 &&
+				a.m30 == b.m30 && a.m31 == b.m31 && a.m32 == b.m32 && a.m33 == b.m33;
+	}
+
+	/**
+	 * Gets a model matrix for this transform with a uniform scale applied in local space.
+	 *
+	 * @param scale The scale of the model.
+	 * @param destination The matrix to store the result into.
+	 *
+	 * @return The destination matrix.
+	 */
+	public synchronized Matrix4f getModelMatrix(float scale, Matrix4f destination) {
+		if (parent == null) {
+			return Matrix4f.transformationMatrix(entity.getPosition(), entity.getRotation(), scale, destination);
+		}
+
+		Matrix4f.transformationMatrix(entity.getPosition(), entity.getRotation(), scale, localMatrix);
+		return Matrix4f.multiply(parent.getWorldMatrix(), localMatrix, destination);
+	}
+
+	/**
+	 * Sets the parent of this transform, the entities position and rotation become relative to the parent.
+	 *
+	 * @param parent The new parent, or null to make this a root transform.
+	 */
+	public void setParent(Transform parent) {
+		if (this.parent == parent) {
+			return;
+		}
+
+		for (Transform check = parent; check != null; check = check.parent) {
+			if (check == this) {
+				FlounderLogger.get().error("A transform can not be parented to itself or one of its children!");
+				return;
+			}
+		}
+
+		if (this.parent != null) {
+			this.parent.children.remove(this);
+		}
+
+		this.parent = parent;
+
+		if (parent != null) {
+			parent.children.add(this);
+		}
+
+		entity.setMoved();
+	}
+
+	/**
+	 * Gets the parent transform.
+	 *
+	 * @return The parent, or null if this is a root transform.
+	 */
+	public Transform getParent() {
+		return parent;
+	}
+
+	/**
+	 * Gets the child transforms.
+	 *
+	 * @return The children.
+	 */
+	public List<Transform> getChildren() {
+		return children;
+	}
+
+	/**
+	 * Gets the world matrix of this transform, without any model scale.
+	 *
+	 * @return The world matrix.
+	 */
+	public Matrix4f getWorldMatrix() {
+		update();
+		return worldMatrix;
+	}
+
+	/**
+	 * Gets the position of this transform in world space.
+	 *
+	 * @return The world position.
+	 */
+	public Vector3f getWorldPosition() {
+		update();
+		return worldPosition;
+	}
+
+	/**
+	 * Gets the rotation of this transform in world space.
+	 *
+	 * @return The world rotation.
+	 */
+	public Vector3f getWorldRotation() {
+		update();
+		return worldRotation;
+	}
+
+	/**
+	 * Gets the version of the world transform, this only changes when the world matrix actually changes.
+	 *
+	 * @return The world transform version.
+	 */
+	public int getVersion() {
+		update();
+		return version;
+	}
+
+	/**
+	 * Gets the slot of this transform in the shared world matrix array.
+	 *
+	 * @return The slot index, or -1 if the transform has been disposed.
+	 */
+	public int getSlot() {
+		return slot;
+	}
+
+	/**
+	 * Detaches this transform from the scene graph and releases its slot in the shared array.
+	 */
+	protected void dispose() {
+		setParent(null);
+
+		for (Transform child : new ArrayList<>(children)) {
+			child.setParent(null);
+		}
+
+		if (slot != -1) {
+			releaseSlot(slot);
+			slot = -1;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package flounder.entities.components;
+
+import flounder.camera.*;
+import flounder.entities.*;
+import flounder.framework.*;
+import flounder.maths.vectors.*;
+import flounder.physics.*;
+import flounder.physics.bounding.*;
+
+/**
+ * A system that updates every {@link ComponentAnimation} in parallel with an update-rate level of detail. Animations near the camera are sampled every frame,
+ * the interval between samples doubles with every doubling of distance past the full rate distance, entities outside of the view frustum are sampled at
+ * the largest interval, and entities past the cull distance only advance their animation time.
+ */
+public class AnimationSystem extends EntitySystem<ComponentAnimation> {
+	public static final int MAX_UPDATE_INTERVAL = 8;
+
+	private float fullRateDistance;
+	private float cullDistance;
+
+	private final Vector3f cameraPosition;
+	private Frustum frustum;
+	private boolean hasCamera;
+	private float delta;
+
+	/**
+	 * Creates a new animation system with the default level of detail distances.
+	 */
+	public AnimationSystem() {
+		this(25.0f, 250.0f);
+	}
+
+	/**
+	 * Creates a new animation system.
+	 *
+	 * @param fullRateDistance The distance from the camera animations are sampled every frame within.
+	 * @param cullDistance The distance from the camera past which animations are not sampled at all.
+	 */
+	public AnimationSystem(float fullRateDistance, float cullDistance) {
+		super(ComponentAnimation.class, new Class<?>[]{}, new Class<?>[]{Entity.class, FlounderBounding.class}, true);
+		this.fullRateDistance = fullRateDistance;
+		this.cullDistance = cullDistance;
+
+		this.cameraPosition = new Vector3f();
+		this.frustum = null;
+		this.hasCamera = false;
+		this.delta = 0.0f;
+	}
+
+	@Override
+	public void begin() {
+		delta = Framework.get().getDelta();
+		Camera camera = FlounderCamera.get() == null ? null : FlounderCamera.get().getCamera();
+		hasCamera = camera != null && camera.getPosition() != null;
+
+		if (hasCamera) {
+			cameraPosition.set(camera.getPosition());
+			frustum = camera.getViewFrustum();
+		}
+	}
+
+	@Override
+	public void update(Entity entity, ComponentAnimation component) {
+		component.update(delta, getUpdateInterval(entity, component));
+	}
+
+	/**
+	 * Gets how many frames apart a entities animation should be sampled.
+	 *
+	 * @param entity The entity being animated.
+	 * @param component The animation component.
+	 *
+	 * @return The update interval, or 0 if the animation should not be sampled this frame.
+	 */
+	public int getUpdateInterval(Entity entity, ComponentAnimation component) {
+		if (!hasCamera) {
+			return 1;
+		}
+
+		Vector3f position = entity.getTransform().getWorldPosition();
+		float dx = position.x - cameraPosition.x;
+		float dy = position.y - cameraPosition.y;
+		float dz = position.z - cameraPosition.z;
+		float distanceSquared = dx * dx + dy * dy + dz * dz;
+
+		if (distanceSquared > cullDistance * cullDistance) {
+			return 0;
+		}
+
+		if (frustum != null && component.getCollider() != null && !component.getCollider().inFrustum(frustum)) {
+			return MAX_UPDATE_INTERVAL;
+		}
+
+		int interval = 1;
+
+		for (float band = fullRateDistance; distanceSquared > band * band && interval < MAX_UPDATE_INTERVAL; band *= 2.0f) {
+			interval *= 2;
+		}
+
+		return interval;
+	}
+
+	public float getFullRateDistance() {
+		return fullRateDistance;
+	}
+
+	public void setFullRateDistance(float fullRateDistance) {
+		this.fullRateDistance = fullRateDistance;
+	}
+
+	public float getCullDistance() {
+		return cullDistance;
+	}
+
+	public void setCullDistance(float cullDistance) {
+		this.cullDistance = cullDistance;
+	}
+}
@@ -2,8 +2,8 @@ package flounder.entities.components;
 
 import flounder.animation.*;
 import flounder.collada.*;
-import flounder.collada.animation.*;
 import flounder.entities.*;
+import flounder.framework.*;
 import flounder.helpers.*;
 import flounder.logger.*;
 import flounder.maths.*;
@@ -19,6 +19,7 @@ import javax.swing.*;
 import javax.swing.event.*;
 import java.awt.event.*;
 import java.io.*;
+import java.util.*;
 
 /**
  * Creates a animation used to set animation properties.
@@ -36,13 +37,26 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 	private Colour colourOffset;
 
 	private Animator animator;
+	private ModelAnimated animatorModel;
+	private Animation pendingAnimation;
+	private Map<Animation, Float> pendingWeights;
+	private boolean playModelAnimation;
 	private Matrix4f[] jointMatrices;
+	private int paletteOffset;
+	private int paletteFrame;
+
+	private Map<String, Animation> states;
+	private String state;
 
 	private MyFile editorPathCollada;
 	private MyFile editorPathTexture;
 
 	private boolean wasLoaded;
 
+	private int transformVersion;
+	private float transformScale;
+	private ModelAnimated transformModel;
+
 	/**
 	 * Creates a new ComponentAnimation.
 	 *
@@ -64,13 +78,8 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 	public ComponentAnimation(Entity entity, float scale, MyFile file, TextureObject texture, int textureIndex) {
 		super(entity);
 
-		ModelAnimated modelAnimated = FlounderCollada.get().loadCollada(file);
-
-		AnimationData animationData = FlounderCollada.get().loadAnimation(file);
-		Animation animation = FlounderAnimation.get().loadAnimation(animationData);
-
 		this.scale = scale;
-		this.model = modelAnimated;
+		this.model = FlounderCollada.get().loadCollada(file);
 		this.modelMatrix = new Matrix4f();
 
 		this.collider = null;
@@ -78,18 +87,24 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 		this.texture = texture;
 		this.textureIndex = textureIndex;
 
+		this.animator = null;
+		this.animatorModel = null;
+		this.pendingAnimation = null;
+		this.pendingWeights = new LinkedHashMap<>();
+		this.playModelAnimation = true;
 		this.jointMatrices = null;
 
 		this.colourOffset = new Colour();
 
-		this.wasLoaded = false;
+		this.paletteOffset = -1;
+		this.paletteFrame = -1;
 
-		if (model != null) {
-			model.getHeadJoint().calculateInverseBindTransform(new Matrix4f());
-			this.animator = new Animator(model.getHeadJoint());
-		}
+		this.states = new HashMap<>();
+		this.state = null;
 
-		doAnimation(animation);
+		this.transformVersion = -1;
+
+		this.wasLoaded = false;
 	}
 
 	/**
@@ -113,55 +128,211 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 		this.texture = texture;
 		this.textureIndex = textureIndex;
 
+		this.animator = null;
+		this.animatorModel = null;
+		this.pendingAnimation = null;
+		this.pendingWeights = new LinkedHashMap<>();
+		this.playModelAnimation = false;
+		this.jointMatrices = null;
+
 		this.colourOffset = new Colour();
 
-		if (model != null) {
-			model.getHeadJoint().calculateInverseBindTransform(new Matrix4f());
-			this.animator = new Animator(model.getHeadJoint());
-		}
+		this.paletteOffset = -1;
+		this.paletteFrame = -1;
+
+		this.states = new HashMap<>();
+		this.state = null;
+
+		this.transformVersion = -1;
+
+		this.wasLoaded = false;
 	}
 
 	@Override
 	public void update() {
+		update(Framework.get().getDelta(), 1);
+	}
+
+	/**
+	 * Updates the component with a reduced animation update rate, used by the {@link AnimationSystem} for distant and hidden entities.
+	 *
+	 * @param delta The time in seconds since the last update.
+	 * @param updateInterval The amount of frames between sampling the animation, 1 samples every frame and 0 only advances the animation time.
+	 */
+	public void update(float delta, int updateInterval) {
 		if (model != null && model.isLoaded() != wasLoaded) {
 			getEntity().setMoved();
 			wasLoaded = model.isLoaded();
+			transformVersion = -1;
+		}
+
+		// Models load in the background, so the animator is created once the model has loaded.
+		if (model != null && model.isLoaded() && animatorModel != model) {
+			createAnimator();
 		}
 
 		if (animator != null) {
-			animator.update();
+			if (updateInterval > 0) {
+				animator.update(delta, updateInterval);
+			} else {
+				animator.skip(delta);
+			}
 		}
 
-		if (getEntity().hasMoved()) {
-			Matrix4f.transformationMatrix(super.getEntity().getPosition(), super.getEntity().getRotation(), scale, modelMatrix);
+		Transform transform = getEntity().getTransform();
+		int version = transform.getVersion();
+
+		// Only rebuilds the model matrix and collider when the world transform, scale or model has actually changed.
+		if (version != transformVersion || scale != transformScale || model != transformModel) {
+			transform.getModelMatrix(scale, modelMatrix);
 
 			if (model != null && model.getCollider() != null) {
 				if (collider == null || !model.getCollider().getClass().isInstance(collider)) {
 					collider = model.getCollider().clone();
 				}
 
-				model.getCollider().update(super.getEntity().getPosition(), super.getEntity().getRotation(), scale, collider);
+				model.getCollider().update(transform.getWorldPosition(), transform.getWorldRotation(), scale, collider);
 			}
-		}
 
-		// Update matrices.
-		if (jointMatrices == null || jointMatrices.length != model.getSkeletonData().getJointCount()) {
-			jointMatrices = new Matrix4f[model.getSkeletonData().getJointCount()];
+			transformVersion = version;
+			transformScale = scale;
+			transformModel = model;
 		}
 
-		addJointsToArray(model.getHeadJoint(), jointMatrices);
-
 		// Render collada shape.
 		FlounderBounding.get().addShapeRender(collider);
 	}
 
 	/**
-	 * Instructs this entity to carry out a given animation.
+	 * Creates a animator with its own joints for the model, the model is shared with other entities so its skeleton data is never animated directly.
+	 * Plays the animation and sets the blend weights requested before the model loaded, or plays the animation from the models file if none were.
+	 */
+	private void createAnimator() {
+		Joint headJoint = model.createJoints();
+		headJoint.calculateInverseBindTransform(new Matrix4f());
+
+		this.animator = new Animator(headJoint);
+		this.animatorModel = model;
+
+		// The animator updates the joint matrices in place, so the array only needs filling when the animator is created.
+		this.jointMatrices = new Matrix4f[model.getSkeletonData().getJointCount()];
+		addJointsToArray(headJoint, jointMatrices);
+
+		if (pendingAnimation != null) {
+			animator.doAnimation(pendingAnimation);
+			pendingAnimation = null;
+		} else if (playModelAnimation && pendingWeights.isEmpty()) {
+			animator.doAnimation(FlounderAnimation.get().loadAnimation(model.getAnimationData()));
+		}
+
+		for (Map.Entry<Animation, Float> weight : pendingWeights.entrySet()) {
+			animator.getLayer(0).setBlendWeight(weight.getKey(), weight.getValue());
+		}
+
+		pendingWeights.clear();
+	}
+
+	/**
+	 * Instructs this entity to carry out a given animation. If the model has not loaded yet the animation starts once it has.
 	 *
 	 * @param animation The animation to be carried out.
 	 */
 	public void doAnimation(Animation animation) {
-		animator.doAnimation(animation);
+		if (animator == null) {
+			pendingAnimation = animation;
+			pendingWeights.clear();
+		} else {
+			animator.doAnimation(animation);
+		}
+
+		state = null;
+	}
+
+	/**
+	 * Cross-fades this entity from the animations it is playing to a new animation.
+	 *
+	 * @param animation The animation to fade to.
+	 * @param fadeTime The time in seconds to fade over.
+	 */
+	public void crossFade(Animation animation, float fadeTime) {
+		if (animator == null) {
+			pendingAnimation = animation;
+			pendingWeights.clear();
+			return;
+		}
+
+		animator.crossFade(animation, fadeTime);
+	}
+
+	/**
+	 * Sets the blend weight of a animation in the base layer, used to mix animations such as walking and running by speed. If the model has not loaded
+	 * yet the weight is set once it has.
+	 *
+	 * @param animation The animation to weight.
+	 * @param weight The blend weight of the animation.
+	 */
+	public void setBlendWeight(Animation animation, float weight) {
+		if (animator == null) {
+			pendingWeights.put(animation, weight);
+		} else {
+			animator.getLayer(0).setBlendWeight(animation, weight);
+		}
+	}
+
+	/**
+	 * Adds a animation layer over the base layer, masked to some joints and their children.
+	 *
+	 * @param additive If the layer adds to the pose (relative to the bind pose) instead of overriding it.
+	 * @param jointNames The joints the layer affects, or nothing for the whole skeleton.
+	 *
+	 * @return The new layer, or null if the model has not loaded yet. Layers need the joints of the model, so they should be added once
+	 * {@link #getAnimator()} is not null.
+	 */
+	public AnimationLayer addLayer(boolean additive, String... jointNames) {
+		if (animator == null) {
+			FlounderLogger.get().warning("Animation layer added to " + getEntity() + " before its model loaded, no layer was added!");
+			return null;
+		}
+
+		AnimationLayer layer = animator.addLayer(additive);
+		layer.setMask(jointNames);
+		return layer;
+	}
+
+	/**
+	 * Adds a named animation state that can be cross-faded to with {@link #setState(String, float)}.
+	 *
+	 * @param name The name of the state.
+	 * @param animation The animation played in the state.
+	 */
+	public void addState(String name, Animation animation) {
+		states.put(name, animation);
+	}
+
+	/**
+	 * Cross-fades to a named animation state, nothing happens if the state is already active.
+	 *
+	 * @param name The name of the state.
+	 * @param fadeTime The time in seconds to fade over.
+	 */
+	public void setState(String name, float fadeTime) {
+		if (name.equals(state)) {
+			return;
+		}
+
+		Animation animation = states.get(name);
+
+		if (animation == null) {
+			FlounderLogger.get().error("Animation state " + name + " does not exist!");
+			return;
+		}
+
+		state = name;
+		crossFade(animation, fadeTime);
+	}
+
+	public String getState() {
+		return state;
 	}
 
 	/**
@@ -185,8 +356,9 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 	public void setModel(ModelAnimated model) {
 		if (this.model != model) {
 			this.model = model;
-			this.model.getHeadJoint().calculateInverseBindTransform(new Matrix4f());
-			this.animator = new Animator(this.model.getHeadJoint());
+			this.animator = null;
+			this.animatorModel = null;
+			this.jointMatrices = null;
 			getEntity().setMoved();
 		}
 	}
@@ -202,6 +374,26 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 		return jointMatrices;
 	}
 
+	/**
+	 * Stores the joint transforms into a joint palette, once per palette frame. The palette is not uploaded, that is left to the renderer.
+	 *
+	 * @param palette The palette to store into.
+	 *
+	 * @return The offset of the joints in the palette, or -1 if there are no joints to store.
+	 */
+	public int storeJoints(JointPalette palette) {
+		if (jointMatrices == null) {
+			return -1;
+		}
+
+		if (paletteFrame != palette.getFrame()) {
+			paletteOffset = palette.add(jointMatrices);
+			paletteFrame = palette.getFrame();
+		}
+
+		return paletteOffset;
+	}
+
 	/**
 	 * This adds the current model-space transform of a joint (and all of its descendants) into an array of transforms.
 	 * The joint's transform is added into the array at the position equal to the joint's index.
@@ -259,12 +451,23 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 		this.colourOffset.set(colourOffset);
 	}
 
+	/**
+	 * Gets the animator for this entity.
+	 *
+	 * @return The animator, or null if the model has not loaded yet.
+	 */
 	public Animator getAnimator() {
 		return animator;
 	}
 
 	public void setAnimator(Animator animator) {
 		this.animator = animator;
+		this.animatorModel = model;
+
+		if (animator != null && model != null && model.getSkeletonData() != null) {
+			this.jointMatrices = new Matrix4f[model.getSkeletonData().getJointCount()];
+			addJointsToArray(animator.getRootJoint(), jointMatrices);
+		}
 	}
 
 	@Override
@@ -295,7 +498,13 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 
 		if (model != null && model.isLoaded()) {
 			FlounderOpenGL.get().bindVAO(model.getVaoID(), 0, 1, 2, 3, 4, 5);
-			shader.getUniformBool("animated").loadBoolean(true);
+
+			// Joints are normally stored and uploaded by the renderer before drawing, this only uploads if they were not.
+			JointPalette palette = FlounderAnimation.get().getJointPalette();
+			int jointOffset = storeJoints(palette);
+			palette.upload();
+			shader.getUniformBool("animated").loadBoolean(jointOffset != -1);
+			shader.getUniformInt("jointOffset").loadInt(Math.max(jointOffset, 0));
 
 			if (modelMatrix != null) {
 				shader.getUniformMat4("modelMatrix").loadMat4(modelMatrix);
@@ -304,15 +513,6 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 			// Just stop if you are trying to apply a sway to a animated object, rethink life.
 			shader.getUniformFloat("swayHeight").loadFloat(0.0f);
 			vaoLength.setSingle(model.getVaoLength());
-
-			// Loads joint transforms.
-			Matrix4f[] jointMatrices = getJointTransforms();
-
-			if (jointMatrices != null) {
-				for (int i = 0; i < jointMatrices.length; i++) {
-					shader.getUniformMat4("jointTransforms[" + i + "]").loadMat4(jointMatrices[i]);
-				}
-			}
 		}
 
 		if (texture != null && texture.isLoaded()) {
@@ -385,11 +585,13 @@ public class ComponentAnimation extends IComponentEntity implements IComponentCo
 	public void editorUpdate() {
 		if (editorPathCollada != null/*  && (model == null|| !model.getFile().equals(editorPathCollada.getPath()))*/) {
 			if (editorPathCollada.getPath().contains(".dae")) {
+				// The animation is taken from the model once it has loaded, so the file is only read once.
 				ModelAnimated modelAnimated = FlounderCollada.get().loadCollada(new MyFile(editorPathCollada));
-				AnimationData animationData = FlounderCollada.get().loadAnimation(new MyFile(editorPathCollada));
-				Animation animation = FlounderAnimation.get().loadAnimation(animationData);
 				setModel(modelAnimated);
-				doAnimation(animation);
+				pendingAnimation = null;
+				pendingWeights.clear();
+				playModelAnimation = true;
+				state = null;
 			}
 
 			editorPathCollada = null;
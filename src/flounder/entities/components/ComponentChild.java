@@ -8,6 +8,7 @@ import javax.swing.*;
 public class ComponentChild extends IComponentEntity implements IComponentEditor {
 	private Entity parent;
 	private ChildRemoved childRemoved;
+	private boolean inheritTransform;
 
 	/**
 	 * Creates a new ComponentChild.
@@ -25,10 +26,7 @@ public class ComponentChild extends IComponentEntity implements IComponentEditor
 	 * @param parent The parent to this child.
 	 */
 	public ComponentChild(Entity entity, Entity parent) {
-		super(entity);
-
-		this.parent = parent;
-		this.childRemoved = null;
+		this(entity, parent, null, false);
 	}
 
 	/**
@@ -39,10 +37,27 @@ public class ComponentChild extends IComponentEntity implements IComponentEditor
 	 * @param childRemoved A function called when the child has been removed.
 	 */
 	public ComponentChild(Entity entity, Entity parent, ChildRemoved childRemoved) {
+		this(entity, parent, childRemoved, false);
+	}
+
+	/**
+	 * Creates a new ComponentChild.
+	 *
+	 * @param entity The entity this component is attached to.
+	 * @param parent The parent to this child.
+	 * @param childRemoved A function called when the child has been removed.
+	 * @param inheritTransform If the childs position and rotation should be relative to the parents transform.
+	 */
+	public ComponentChild(Entity entity, Entity parent, ChildRemoved childRemoved, boolean inheritTransform) {
 		super(entity);
 
 		this.parent = parent;
 		this.childRemoved = childRemoved;
+		this.inheritTransform = inheritTransform;
+
+		if (inheritTransform && parent != null) {
+			entity.getTransform().setParent(parent.getTransform());
+		}
 	}
 
 	@Override
@@ -73,8 +88,16 @@ public class ComponentChild extends IComponentEntity implements IComponentEditor
 		return parent;
 	}
 
+	public boolean isInheritTransform() {
+		return inheritTransform;
+	}
+
 	@Override
 	public void dispose() {
+		if (inheritTransform) {
+			getEntity().getTransform().setParent(null);
+		}
+
 		if (childRemoved != null) {
 			childRemoved.remove();
 		}
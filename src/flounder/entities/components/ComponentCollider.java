@@ -8,6 +8,8 @@ import javax.swing.*;
 
 public class ComponentCollider extends IComponentEntity implements IComponentEditor {
 	private QuickHull quickHull;
+	private int transformVersion;
+	private float transformScale;
 
 	public ComponentCollider(Entity entity) {
 		this(entity, new QuickHull());
@@ -16,6 +18,7 @@ public class ComponentCollider extends IComponentEntity implements IComponentEdi
 	public ComponentCollider(Entity entity, QuickHull quickHull) {
 		super(entity);
 		this.quickHull = quickHull;
+		this.transformVersion = -1;
 	}
 
 	@Override
@@ -24,29 +27,33 @@ public class ComponentCollider extends IComponentEntity implements IComponentEdi
 			return;
 		}
 
-		if (getEntity().getComponent(ComponentAnimation.class) != null) {
-			ComponentAnimation componentAnimation = (ComponentAnimation) getEntity().getComponent(ComponentAnimation.class);
+		Transform transform = getEntity().getTransform();
+		ComponentAnimation componentAnimation = getEntity().getComponent(ComponentAnimation.class);
+		ComponentModel componentModel = getEntity().getComponent(ComponentModel.class);
 
-			// Loads convex hull data from entity models.
+		if (componentAnimation != null) {
+			// Shares the convex hull the model built when it loaded.
 			if (!quickHull.isLoaded() && componentAnimation.getModel().isLoaded()) {
-				float[] vertices = componentAnimation.getModel().getMeshData().getVertices();
-				quickHull.loadData(vertices);
+				transformVersion = -1;
 			}
 
-			if (getEntity().hasMoved()) {
-				componentAnimation.getModel().getQuickHull().update(getEntity().getPosition(), getEntity().getRotation(), getEntity().getScale(), quickHull);
+			// Only transforms the hull when the world transform or scale has actually changed.
+			if (transform.getVersion() != transformVersion || getEntity().getScale() != transformScale) {
+				componentAnimation.getModel().getQuickHull().update(transform.getWorldPosition(), transform.getWorldRotation(), getEntity().getScale(), quickHull);
+				transformVersion = transform.getVersion();
+				transformScale = getEntity().getScale();
 			}
-		} else if (getEntity().getComponent(ComponentModel.class) != null) {
-			ComponentModel componentModel = (ComponentModel) getEntity().getComponent(ComponentModel.class);
-
-			// Loads convex hull data from entity models.
+		} else if (componentModel != null) {
+			// Shares the convex hull the model built when it loaded.
 			if (!quickHull.isLoaded() && componentModel.getModel().isLoaded()) {
-				float[] vertices = componentModel.getModel().getVertices();
-				quickHull.loadData(vertices);
+				transformVersion = -1;
 			}
 
-			if (getEntity().hasMoved()) {
-				componentModel.getModel().getQuickHull().update(getEntity().getPosition(), getEntity().getRotation(), getEntity().getScale(), quickHull);
+			// Only transforms the hull when the world transform or scale has actually changed.
+			if (transform.getVersion() != transformVersion || getEntity().getScale() != transformScale) {
+				componentModel.getModel().getQuickHull().update(transform.getWorldPosition(), transform.getWorldRotation(), getEntity().getScale(), quickHull);
+				transformVersion = transform.getVersion();
+				transformScale = getEntity().getScale();
 			}
 		}
 	}
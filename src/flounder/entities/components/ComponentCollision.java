@@ -4,22 +4,63 @@ import flounder.entities.*;
 import flounder.helpers.*;
 import flounder.maths.vectors.*;
 import flounder.physics.*;
+import flounder.physics.broadphase.*;
 
 import javax.swing.*;
+import java.util.*;
 
 /**
  * Component that detects collision between two engine.entities.
  * <p>
  * Note: this component requires that both engine.entities have a ComponentCollider. Should one entity not have a ComponentCollider, then no collisions will be detected, because there is no collider to detect collisions against.
+ * <p>
+ * Fast entities (like projectiles) can be made continuous, they are swept along their move and stop where they first touch another collider instead of
+ * being tested only where the move ends, so they can not pass through thin colliders.
  */
 public class ComponentCollision extends IComponentEntity implements IComponentMove, IComponentEditor {
+	private static final int MAX_SWEEPS = 4;
+	private static final float SWEEP_SKIN = 0.001f;
+	private static final float SWEEP_TOLERANCE = 0.001f;
+
+	private boolean continuous;
+
+	private final AABB bounds;
+	private final AABB collisionRange;
+	private final IntersectData intersect;
+	private final List<Entity> candidates;
+	private final IComponentVisitor candidateVisitor;
+	private final ImpactData impact;
+	private final ImpactData earliest;
+
 	/**
 	 * Creates a new ComponentCollision.
 	 *
 	 * @param entity The entity this component is attached to.
 	 */
 	public ComponentCollision(Entity entity) {
+		this(entity, false);
+	}
+
+	/**
+	 * Creates a new ComponentCollision.
+	 *
+	 * @param entity The entity this component is attached to.
+	 * @param continuous If the entity is swept along its moves.
+	 */
+	public ComponentCollision(Entity entity, boolean continuous) {
 		super(entity);
+
+		this.continuous = continuous;
+
+		this.bounds = new AABB();
+		this.collisionRange = new AABB();
+		this.intersect = new IntersectData();
+		this.candidates = new ArrayList<>();
+		this.candidateVisitor = (Entity other, IComponentEntity component) -> candidates.add(other);
+		this.impact = new ImpactData();
+		this.earliest = new ImpactData();
+
+		FlounderBroadphase.get().addEntity(entity);
 	}
 
 	@Override
@@ -27,47 +68,62 @@ public class ComponentCollision extends IComponentEntity implements IComponentMo
 	}
 
 	/**
-	 * Resolves collisions with any other collision components encountered.
+	 * Resolves collisions with any other collision components encountered. The entities checked come from the broadphase pairs found this update, the
+	 * spatial structure is only queried if the swept bounds of the move leave the fat bounds of this entity.
 	 *
 	 * @param amount The amount attempting to be moved.
+	 * @param destination The move vector to set, or null if a new vector is to be created. May be the same as the amount.
 	 *
-	 * @return A new move vector that will not cause collisions after movement.
+	 * @return A move vector that will not cause collisions after movement.
 	 */
-	public Vector3f resolveCollisions(Vector3f amount) {
+	public Vector3f resolveCollisions(Vector3f amount, Vector3f destination) {
 		// Sets the resulting resolved collisions.
-		Vector3f result = new Vector3f(amount);
+		Vector3f result = destination == null ? new Vector3f() : destination;
+		result.set(amount);
 
 		// Gets this entities collider.
 		Collider collider1 = getEntity().getCollider();
 
-		// Verifies that this entities main collider will work.
-		if (collider1 == null) {
+		// Verifies that this entities main collider will work, and gets it as a AABB.
+		if (collider1 == null || FlounderBroadphase.getBounds(collider1, bounds) == null) {
 			return result;
 		}
 
-		AABB aabb1 = null;
+		// Calculates the range in where there can be collisions.
+		AABB.stretch(bounds, collisionRange, amount);
 
-		if (collider1 instanceof AABB) {
-			aabb1 = (AABB) collider1;
-		} else if (collider1 instanceof Sphere) {
-			float radius = ((Sphere) collider1).getRadius();
-			Vector3f pos = ((Sphere) collider1).getPosition();
-			aabb1 = new AABB(new Vector3f(-radius + pos.x, -radius + pos.y, -radius + pos.z), new Vector3f(radius + pos.x, radius + pos.y, radius + pos.z));
-		} else {
+		// Gets the entities that may be in the collision range.
+		candidates.clear();
+
+		if (!FlounderBroadphase.get().getCandidates(getEntity(), collisionRange, candidates)) {
+			getEntity().visitInRange(ComponentCollision.class, collisionRange, candidateVisitor);
+		}
+
+		if (continuous) {
+			sweepCollisions(collider1, amount, result);
+			candidates.clear();
 			return result;
 		}
 
-		// Gets a collider that may contain more colliders.
-		ComponentCollider componentCollider1 = (ComponentCollider) getEntity().getComponent(ComponentCollider.class);
+		resolveDiscrete(collider1, result);
+		candidates.clear();
 
-		// Calculates the range in where there can be collisions.
-		final AABB collisionRange = AABB.stretch(aabb1, null, amount);
+		// The final resulting move amount.
+		return result;
+	}
 
+	/**
+	 * Resolves the move against each candidate where it ends, using the convex hulls when both entities have them loaded.
+	 *
+	 * @param collider1 The collider of this entity.
+	 * @param destination The move vector to resolve.
+	 */
+	private void resolveDiscrete(Collider collider1, Vector3f destination) {
 		// Goes though all entities in the collision range.
-		getEntity().visitInRange(ComponentCollision.class, collisionRange, (Entity entity, IComponentEntity component) -> {
+		for (Entity entity : candidates) {
 			// Ignores the original entity.
 			if (entity.equals(getEntity())) {
-				return;
+				continue;
 			}
 
 			// Gets the checked entities collider.
@@ -75,37 +131,192 @@ public class ComponentCollision extends IComponentEntity implements IComponentMo
 
 			// Verifies that the checked entities main collider will work.
 			if (collider2 == null) {
-				return;
+				continue;
 			}
 
-			// Gets a collider that may contain more colliders.
-			ComponentCollider componentCollider2 = (ComponentCollider) entity.getComponent(ComponentCollider.class);
-
 			// If the main collider intersects with the other entities general collider.
-			if (collider2.intersects(collisionRange).isIntersection()) {
-				// If the main colliders are the only ones use them.
-				boolean hullLeft = componentCollider1 != null && componentCollider1.getQuickHull() != null && componentCollider1.getQuickHull().isLoaded();
-				boolean hullRight = componentCollider1 != null && componentCollider1.getQuickHull() != null && componentCollider1.getQuickHull().isLoaded();
-
-				//Collider colliderLeft = hullLeft ? componentCollider1.getQuickHull() : collider1;
-				//Collider colliderRight = hullRight ? componentCollider2.getQuickHull() : collider2;
-				//colliderLeft.resolveCollision(colliderRight, result, result);
-
-				//if (hullLeft && hullRight) { // TODO: Make Quick Hull collisions work!
-				//	componentCollider1.getQuickHull().resolveCollision(componentCollider2.getQuickHull(), result, result);
-				//} else {
-				collider1.resolveCollision(collider2, result, result);
-				//}
+			if (collider2.intersects(collisionRange, intersect).isIntersection()) {
+				// Uses the convex hulls when both entities have them loaded, otherwise the main colliders.
+				QuickHull hull1 = getHull(getEntity());
+				QuickHull hull2 = hull1 == null ? null : getHull(entity);
+
+				if (hull1 != null && hull2 != null) {
+					hull1.resolveCollision(hull2, destination, destination);
+				} else {
+					collider1.resolveCollision(collider2, destination, destination);
+				}
 			}
-		});
+		}
+	}
 
-		// The final resulting move amount.
-		return result;
+	/**
+	 * Sweeps this entities collider along the move, stopping at the first candidate it touches and sliding the rest of the move along the surface hit.
+	 * The swept move is then resolved discretely against every candidate, which covers colliders without a sweep test and ones touched at the start.
+	 *
+	 * @param collider1 The collider of this entity.
+	 * @param amount The amount attempting to be moved.
+	 * @param destination The move vector to set.
+	 */
+	private void sweepCollisions(Collider collider1, Vector3f amount, Vector3f destination) {
+		QuickHull hull1 = getHull(getEntity());
+		float travelledX = 0.0f;
+		float travelledY = 0.0f;
+		float travelledZ = 0.0f;
+		float remainingX = amount.x;
+		float remainingY = amount.y;
+		float remainingZ = amount.z;
+
+		for (int i = 0; i < MAX_SWEEPS; i++) {
+			float length = (float) Math.sqrt(remainingX * remainingX + remainingY * remainingY + remainingZ * remainingZ);
+
+			if (length <= SWEEP_SKIN) {
+				break;
+			}
+
+			// Finds the first candidate touched along what is left of the move.
+			earliest.set(false, 1.0f, 0.0f, 0.0f, 0.0f);
+
+			for (Entity entity : candidates) {
+				Collider collider2 = entity.equals(getEntity()) ? null : entity.getCollider();
+
+				if (collider2 == null || !sweep(collider1, hull1, entity, collider2, travelledX, travelledY, travelledZ, remainingX, remainingY, remainingZ) ||
+						!impact.isImpact()) {
+					continue;
+				}
+
+				// Colliders already touching or overlapping are left to the discrete pass, else they would stop every move including ones away from them.
+				if (impact.getTime() <= 0.0f) {
+					continue;
+				}
+
+				if (!earliest.isImpact() || impact.getTime() < earliest.getTime()) {
+					earliest.set(impact);
+				}
+			}
+
+			if (!earliest.isImpact()) {
+				travelledX += remainingX;
+				travelledY += remainingY;
+				travelledZ += remainingZ;
+				remainingX = remainingY = remainingZ = 0.0f;
+				break;
+			}
+
+			// Moves up to the impact, kept a small skin away so the next sweep does not start touching.
+			float time = Math.max(0.0f, earliest.getTime() - SWEEP_SKIN / length);
+			travelledX += remainingX * time;
+			travelledY += remainingY * time;
+			travelledZ += remainingZ * time;
+			remainingX *= 1.0f - time;
+			remainingY *= 1.0f - time;
+			remainingZ *= 1.0f - time;
+
+			// Only the part of the move into the surface is taken back, so entities slide along what they hit and can move away from what they touch.
+			Vector3f normal = earliest.getNormal();
+			float into = remainingX * normal.x + remainingY * normal.y + remainingZ * normal.z;
+
+			if (into < 0.0f) {
+				remainingX -= normal.x * into;
+				remainingY -= normal.y * into;
+				remainingZ -= normal.z * into;
+			}
+		}
+
+		destination.set(travelledX, travelledY, travelledZ);
+		resolveDiscrete(collider1, destination);
+	}
+
+	/**
+	 * Sweeps this entities collider against another into {@link #impact}, using the convex hulls when both entities have them loaded.
+	 *
+	 * @return If there is a sweep test for the pair of colliders.
+	 */
+	private boolean sweep(Collider collider1, QuickHull hull1, Entity other, Collider collider2, float offsetX, float offsetY, float offsetZ,
+	                      float motionX, float motionY, float motionZ) {
+		QuickHull hull2 = hull1 == null ? null : getHull(other);
+
+		if (hull1 != null && hull2 != null) {
+			if (motionX == 0.0f && motionY == 0.0f && motionZ == 0.0f) {
+				return true;
+			}
+
+			GjkEpa solver = hull1.getSolver();
+			float time = solver.timeOfImpact(hull1, hull2, offsetX, offsetY, offsetZ, motionX, motionY, motionZ, SWEEP_TOLERANCE);
+			impact.set(time >= 0.0f, Math.max(time, 0.0f), -solver.getNormal(0), -solver.getNormal(1), -solver.getNormal(2));
+			return true;
+		}
+
+		if (collider1 instanceof AABB) {
+			Vector3f min = ((AABB) collider1).getMinExtents();
+			Vector3f max = ((AABB) collider1).getMaxExtents();
+
+			if (collider2 instanceof AABB) {
+				Vector3f min2 = ((AABB) collider2).getMinExtents();
+				Vector3f max2 = ((AABB) collider2).getMaxExtents();
+				ColliderKernels.sweepAabbAabb(min.x + offsetX, min.y + offsetY, min.z + offsetZ, max.x + offsetX, max.y + offsetY, max.z + offsetZ,
+						motionX, motionY, motionZ, min2.x, min2.y, min2.z, max2.x, max2.y, max2.z, impact);
+				return true;
+			} else if (collider2 instanceof Sphere) {
+				// The sphere is swept against this box the opposite way, which makes the same impact with the normal flipped.
+				Vector3f position2 = ((Sphere) collider2).getPosition();
+				ColliderKernels.sweepSphereAabb(position2.x, position2.y, position2.z, ((Sphere) collider2).getRadius(), -motionX, -motionY, -motionZ,
+						min.x + offsetX, min.y + offsetY, min.z + offsetZ, max.x + offsetX, max.y + offsetY, max.z + offsetZ, impact);
+				Vector3f normal = impact.getNormal();
+				normal.set(-normal.x, -normal.y, -normal.z);
+				return true;
+			}
+		} else if (collider1 instanceof Sphere) {
+			Vector3f position = ((Sphere) collider1).getPosition();
+			float radius = ((Sphere) collider1).getRadius();
+
+			if (collider2 instanceof AABB) {
+				Vector3f min2 = ((AABB) collider2).getMinExtents();
+				Vector3f max2 = ((AABB) collider2).getMaxExtents();
+				ColliderKernels.sweepSphereAabb(position.x + offsetX, position.y + offsetY, position.z + offsetZ, radius, motionX, motionY, motionZ,
+						min2.x, min2.y, min2.z, max2.x, max2.y, max2.z, impact);
+				return true;
+			} else if (collider2 instanceof Sphere) {
+				Vector3f position2 = ((Sphere) collider2).getPosition();
+				ColliderKernels.sweepSphereSphere(position.x + offsetX, position.y + offsetY, position.z + offsetZ, radius, motionX, motionY, motionZ,
+						position2.x, position2.y, position2.z, ((Sphere) collider2).getRadius(), impact);
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static QuickHull getHull(Entity entity) {
+		ComponentCollider componentCollider = entity.getComponent(ComponentCollider.class);
+
+		if (componentCollider == null || componentCollider.getQuickHull() == null || !componentCollider.getQuickHull().isLoaded()) {
+			return null;
+		}
+
+		return componentCollider.getQuickHull();
+	}
+
+	/**
+	 * Gets if the entity is swept along its moves.
+	 *
+	 * @return If the entity is continuous.
+	 */
+	public boolean isContinuous() {
+		return continuous;
+	}
+
+	/**
+	 * Sets if the entity is swept along its moves, for entities that move far enough in one update to pass through thin colliders.
+	 *
+	 * @param continuous If the entity is continuous.
+	 */
+	public void setContinuous(boolean continuous) {
+		this.continuous = continuous;
 	}
 
 	@Override
 	public void verifyMove(Entity entity, Vector3f moveAmount, Vector3f rotateAmount) {
-		moveAmount.set(resolveCollisions(moveAmount));
+		resolveCollisions(moveAmount, moveAmount);
 		// rotateAmount = rotateAmount; // TODO: Stop some rotations?
 	}
 
@@ -121,11 +332,12 @@ public class ComponentCollision extends IComponentEntity implements IComponentMo
 	public Pair<String[], String[]> getSaveValues(String entityName) {
 		return new Pair<>(
 				new String[]{}, // Static variables
-				new String[]{} // Class constructor
+				new String[]{continuous + ""} // Class constructor
 		);
 	}
 
 	@Override
 	public void dispose() {
+		FlounderBroadphase.get().removeEntity(getEntity());
 	}
 }
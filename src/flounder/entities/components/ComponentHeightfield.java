@@ -0,0 +1,83 @@
+package flounder.entities.components;
+
+import flounder.entities.*;
+import flounder.helpers.*;
+import flounder.physics.*;
+
+import javax.swing.*;
+
+/**
+ * Component that gives a entity a heightfield collider, moved to the entities position and scale.
+ */
+public class ComponentHeightfield extends IComponentEntity implements IComponentCollider, IComponentEditor {
+	private Heightfield heightfield;
+	private Heightfield collider;
+
+	private int transformVersion;
+	private float transformScale;
+
+	/**
+	 * Creates a new ComponentHeightfield.
+	 *
+	 * @param entity The entity this component is attached to.
+	 * @param heightfield The heightfield in the space of the entity.
+	 */
+	public ComponentHeightfield(Entity entity, Heightfield heightfield) {
+		super(entity);
+
+		this.heightfield = heightfield;
+		this.collider = new Heightfield();
+
+		// The collider is built straight away, so new entities do not go without it until their first update.
+		updateCollider();
+	}
+
+	@Override
+	public void update() {
+		Transform transform = getEntity().getTransform();
+
+		// Only moves the collider when the world transform or scale has actually changed.
+		if (transform.getVersion() != transformVersion || getEntity().getScale() != transformScale) {
+			updateCollider();
+		}
+	}
+
+	private void updateCollider() {
+		Transform transform = getEntity().getTransform();
+		heightfield.update(transform.getWorldPosition(), transform.getWorldRotation(), getEntity().getScale(), collider);
+		transformVersion = transform.getVersion();
+		transformScale = getEntity().getScale();
+	}
+
+	public Heightfield getHeightfield() {
+		return heightfield;
+	}
+
+	public void setHeightfield(Heightfield heightfield) {
+		this.heightfield = heightfield;
+		updateCollider();
+		getEntity().setMoved();
+	}
+
+	@Override
+	public Collider getCollider() {
+		return collider;
+	}
+
+	@Override
+	public void addToPanel(JPanel panel) {
+	}
+
+	@Override
+	public void editorUpdate() {
+	}
+
+	@Override
+	public Pair<String[], String[]> getSaveValues(String entityName) {
+		return null; // The heights are generated, so they are not saved with the entity.
+	}
+
+	@Override
+	public void dispose() {
+	}
+}
@@ -67,6 +67,11 @@ public class ComponentLight extends IComponentEntity implements IComponentEditor
 		}
 
 		light.update();
+
+		// Lights are only collected when something renders them, entity only processes such as servers do not load the module.
+		if (FlounderLights.get() != null) {
+			FlounderLights.get().addLight(light);
+		}
 		//	}
 	}
 
@@ -40,6 +40,10 @@ public class ComponentModel extends IComponentEntity implements IComponentCollid
 
 	private boolean wasLoaded;
 
+	private int transformVersion;
+	private float transformScale;
+	private ModelObject transformModel;
+
 	/**
 	 * Creates a new ComponentModel.
 	 *
@@ -79,6 +83,8 @@ public class ComponentModel extends IComponentEntity implements IComponentCollid
 
 		this.colourOffset = new Colour();
 
+		this.transformVersion = -1;
+
 		this.wasLoaded = false;
 	}
 
@@ -87,18 +93,27 @@ public class ComponentModel extends IComponentEntity implements IComponentCollid
 		if (model != null && model.isLoaded() != wasLoaded) {
 			getEntity().setMoved();
 			wasLoaded = model.isLoaded();
+			transformVersion = -1;
 		}
 
-		if (getEntity().hasMoved()) {
-			Matrix4f.transformationMatrix(super.getEntity().getPosition(), super.getEntity().getRotation(), scale, modelMatrix);
+		Transform transform = getEntity().getTransform();
+		int version = transform.getVersion();
+
+		// Only rebuilds the model matrix and collider when the world transform, scale or model has actually changed.
+		if (version != transformVersion || scale != transformScale || model != transformModel) {
+			transform.getModelMatrix(scale, modelMatrix);
 
 			if (createCollider && model != null && model.getCollider() != null) {
 				if (collider == null || !model.getCollider().getClass().isInstance(collider)) {
 					collider = model.getCollider().clone();
 				}
 
-				model.getCollider().update(super.getEntity().getPosition(), super.getEntity().getRotation(), scale, collider);
+				model.getCollider().update(transform.getWorldPosition(), transform.getWorldRotation(), scale, collider);
 			}
+
+			transformVersion = version;
+			transformScale = scale;
+			transformModel = model;
 		}
 
 		if (!createCollider) {
@@ -184,7 +199,10 @@ public class ComponentModel extends IComponentEntity implements IComponentCollid
 	}
 
 	public void setCreateCollider(boolean createCollider) {
-		this.createCollider = createCollider;
+		if (this.createCollider != createCollider) {
+			this.createCollider = createCollider;
+			this.transformVersion = -1;
+		}
 	}
 
 	public boolean isRenderCollider() {
@@ -0,0 +1,159 @@
+package flounder.entities.components;
+
+import flounder.entities.*;
+import flounder.helpers.*;
+import flounder.maths.vectors.*;
+import flounder.models.*;
+import flounder.physics.*;
+import flounder.physics.dynamics.*;
+
+import javax.swing.*;
+
+/**
+ * Component that moves a entity with a rigid body in the physics world.
+ * <p>
+ * Note: the body is only simulated if the game loads the {@link FlounderPhysics} module. The entity should not have a parent, as the body moves the
+ * entities position.
+ */
+public class ComponentRigidBody extends IComponentEntity implements IComponentMove, IComponentEditor {
+	private final RigidBody body;
+	private final boolean modelShape;
+
+	/**
+	 * Creates a new ComponentRigidBody shaped by the collider of the entities model, once the model has loaded.
+	 *
+	 * @param entity The entity this component is attached to.
+	 * @param mass The mass of the body, 0 for a static body.
+	 */
+	public ComponentRigidBody(Entity entity, float mass) {
+		this(entity, null, mass);
+	}
+
+	/**
+	 * Creates a new ComponentRigidBody.
+	 *
+	 * @param entity The entity this component is attached to.
+	 * @param shape The collider shaping the body in the space of the entity, or null to use the collider of the entities model.
+	 * @param mass The mass of the body, 0 for a static body.
+	 */
+	public ComponentRigidBody(Entity entity, Collider shape, float mass) {
+		super(entity);
+
+		this.body = new RigidBody(entity, shape, entity.getPosition(), mass);
+		this.modelShape = shape == null;
+
+		if (FlounderPhysics.get() != null) {
+			FlounderPhysics.get().addBody(body);
+		}
+	}
+
+	@Override
+	public void update() {
+		if (modelShape) {
+			ComponentModel componentModel = getEntity().getComponent(ComponentModel.class);
+			ModelObject model = componentModel == null ? null : componentModel.getModel();
+			Collider shape = model == null || !model.isLoaded() ? null : model.getCollider();
+
+			if (shape != body.getShape()) {
+				body.setShape(shape);
+			}
+		}
+
+		body.setRotation(getEntity().getRotation());
+		body.setScale(getEntity().getScale());
+	}
+
+	/**
+	 * Adds a force to the body, it is applied over the next tick.
+	 *
+	 * @param force The force to add.
+	 */
+	public void applyForce(Vector3f force) {
+		body.applyForce(force.x, force.y, force.z);
+	}
+
+	/**
+	 * Changes the velocity of the body straight away by a impulse.
+	 *
+	 * @param impulse The impulse to apply.
+	 */
+	public void applyImpulse(Vector3f impulse) {
+		body.applyImpulse(impulse.x, impulse.y, impulse.z);
+	}
+
+	public Vector3f getVelocity() {
+		return body.getVelocity();
+	}
+
+	public void setVelocity(Vector3f velocity) {
+		body.setVelocity(velocity);
+	}
+
+	public float getMass() {
+		return body.getMass();
+	}
+
+	public void setMass(float mass) {
+		body.setMass(mass);
+	}
+
+	public float getRestitution() {
+		return body.getRestitution();
+	}
+
+	public void setRestitution(float restitution) {
+		body.setRestitution(restitution);
+	}
+
+	public float getFriction() {
+		return body.getFriction();
+	}
+
+	public void setFriction(float friction) {
+		body.setFriction(friction);
+	}
+
+	public boolean isSleeping() {
+		return body.isSleeping();
+	}
+
+	/**
+	 * Wakes the body if it is sleeping.
+	 */
+	public void wake() {
+		body.wake();
+	}
+
+	public RigidBody getBody() {
+		return body;
+	}
+
+	@Override
+	public void verifyMove(Entity entity, Vector3f moveAmount, Vector3f rotateAmount) {
+		// Entities moved by their own logic take the body with them, without it travelling through the space between.
+		body.translate(moveAmount.x, moveAmount.y, moveAmount.z);
+	}
+
+	@Override
+	public void addToPanel(JPanel panel) {
+	}
+
+	@Override
+	public void editorUpdate() {
+	}
+
+	@Override
+	public Pair<String[], String[]> getSaveValues(String entityName) {
+		return new Pair<>(
+				new String[]{}, // Static variables
+				new String[]{body.getMass() + "f"} // Class constructor
+		);
+	}
+
+	@Override
+	public void dispose() {
+		if (FlounderPhysics.get() != null) {
+			FlounderPhysics.get().removeBody(body);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package flounder.headless;
+
+import flounder.devices.*;
+import flounder.framework.*;
+
+import java.awt.image.*;
+import java.nio.*;
+
+/**
+ * A display module that never opens a window. It reports a fixed virtual size so modules that build projections from the display still get a sane
+ * aspect ratio, and swapping buffers does nothing.
+ */
+@Module.ModuleOverride
+public class HeadlessDisplay extends FlounderDisplay {
+	private static final int VIRTUAL_WIDTH = 1080;
+	private static final int VIRTUAL_HEIGHT = 720;
+
+	public HeadlessDisplay() {
+		super();
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_ALWAYS)
+	public void update() {
+	}
+
+	@Override
+	public void swapBuffers() {
+	}
+
+	@Override
+	public void screenshot() {
+	}
+
+	@Override
+	public BufferedImage getImage(BufferedImage destination, ByteBuffer buffer) {
+		return null;
+	}
+
+	@Override
+	public int getWidth() {
+		return VIRTUAL_WIDTH;
+	}
+
+	@Override
+	public int getWindowWidth() {
+		return VIRTUAL_WIDTH;
+	}
+
+	@Override
+	public int getHeight() {
+		return VIRTUAL_HEIGHT;
+	}
+
+	@Override
+	public int getWindowHeight() {
+		return VIRTUAL_HEIGHT;
+	}
+
+	@Override
+	public float getAspectRatio() {
+		return (float) VIRTUAL_WIDTH / (float) VIRTUAL_HEIGHT;
+	}
+
+	@Override
+	public String getTitle() {
+		return "Headless";
+	}
+
+	@Override
+	public boolean isClosed() {
+		return false;
+	}
+
+	@Override
+	public boolean isFocused() {
+		return false;
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+	}
+}
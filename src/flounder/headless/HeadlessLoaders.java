@@ -0,0 +1,94 @@
+package flounder.headless;
+
+import flounder.framework.*;
+import flounder.loaders.*;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * A loader that hands out placeholder VAO and VBO ids without touching OpenGL, so models finish loading on a headless server.
+ */
+@Module.ModuleOverride
+public class HeadlessLoaders extends FlounderLoader {
+	private AtomicInteger nextID;
+
+	public HeadlessLoaders() {
+		super();
+		this.nextID = new AtomicInteger(1);
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		super.init();
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+		super.update();
+	}
+
+	@Override
+	public int createVAO() {
+		return nextID.getAndIncrement();
+	}
+
+	@Override
+	public int createInterleavedVAO(float[] data, int... lengths) {
+		return nextID.getAndIncrement();
+	}
+
+	@Override
+	public int createInterleavedVAO(int vertexCount, float[]... data) {
+		return nextID.getAndIncrement();
+	}
+
+	@Override
+	public int createInterleavedVAO(float[] interleavedData, int[] indices, int... lengths) {
+		return nextID.getAndIncrement();
+	}
+
+	@Override
+	public int createVBO(int vaoID, int maxCount, int startingAttribute, boolean instanced, int... lengths) {
+		return nextID.getAndIncrement();
+	}
+
+	@Override
+	public int createEmptyVBO(int floatCount) {
+		return nextID.getAndIncrement();
+	}
+
+	@Override
+	public int createIndicesVBO(int vaoID, int[] indices) {
+		return nextID.getAndIncrement();
+	}
+
+	@Override
+	public int createInterleavedInstancedVBO(int vaoID, int maxVertexCount, int startingAttribute, int... lengths) {
+		return nextID.getAndIncrement();
+	}
+
+	@Override
+	public int createEmptyInterleavedVBO(int vaoID, int maxInstanceCount, int startingAttribute, int... lengths) {
+		return nextID.getAndIncrement();
+	}
+
+	@Override
+	public int storeDataInVBO(int vaoID, float[] data, int attributeNumber, int coordSize) {
+		return nextID.getAndIncrement();
+	}
+
+	@Override
+	public int storeDataInVBO(int vaoID, int[] data, int attributeNumber, int coordSize) {
+		return nextID.getAndIncrement();
+	}
+
+	@Override
+	public int createBufferTexture(int vbo, int glFormat) {
+		return nextID.getAndIncrement();
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		super.dispose();
+	}
+}
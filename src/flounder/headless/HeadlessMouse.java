@@ -0,0 +1,74 @@
+package flounder.headless;
+
+import flounder.devices.*;
+import flounder.framework.*;
+
+/**
+ * A mouse module with no device behind it, no buttons are ever down and the cursor never moves.
+ */
+@Module.ModuleOverride
+public class HeadlessMouse extends FlounderMouse {
+	public HeadlessMouse() {
+		super();
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+	}
+
+	@Override
+	public void setCursorHidden(boolean disabled) {
+	}
+
+	@Override
+	public boolean getMouse(int button) {
+		return false;
+	}
+
+	@Override
+	public float getPositionX() {
+		return 0.5f;
+	}
+
+	@Override
+	public float getPositionY() {
+		return 0.5f;
+	}
+
+	@Override
+	public void setPosition(float cursorX, float cursorY) {
+	}
+
+	@Override
+	public float getDeltaX() {
+		return 0.0f;
+	}
+
+	@Override
+	public float getDeltaY() {
+		return 0.0f;
+	}
+
+	@Override
+	public float getDeltaWheel() {
+		return 0.0f;
+	}
+
+	@Override
+	public boolean isDisplaySelected() {
+		return false;
+	}
+
+	@Override
+	public boolean isCursorDisabled() {
+		return false;
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+	}
+}
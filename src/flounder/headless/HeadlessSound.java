@@ -0,0 +1,41 @@
+package flounder.headless;
+
+import flounder.devices.*;
+import flounder.framework.*;
+import flounder.sounds.*;
+
+/**
+ * A sound module that never opens an audio device, sounds are not loaded and play requests are ignored.
+ */
+@Module.ModuleOverride
+public class HeadlessSound extends FlounderSound {
+	public HeadlessSound() {
+		super();
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+	}
+
+	@Override
+	public void doInitialSoundLoad(Sound sound) {
+	}
+
+	@Override
+	public AudioController play3DSound(PlayRequest playRequest) {
+		return null;
+	}
+
+	@Override
+	public AudioController playSystemSound(Sound sound) {
+		return null;
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+	}
+}
@@ -0,0 +1,52 @@
+package flounder.headless;
+
+import flounder.framework.*;
+import flounder.textures.*;
+
+import static flounder.platform.Constants.*;
+
+/**
+ * A texture module that marks textures as loaded without uploading them to the GPU.
+ */
+@Module.ModuleOverride
+public class HeadlessTextures extends FlounderTextures {
+	private int nextID;
+
+	public HeadlessTextures() {
+		super();
+		this.nextID = 1;
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		super.init();
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+		super.update();
+	}
+
+	@Override
+	public void loadTexture(TextureBuilder builder, TextureObject object) {
+		object.loadGL(nextID++, builder.getCubemap() != null ? GL_TEXTURE_CUBE_MAP : GL_TEXTURE_2D);
+	}
+
+	@Override
+	public void deleteTexture(int textureID) {
+	}
+
+	@Override
+	public float getAnisotropyLevel() {
+		return 0.0f;
+	}
+
+	@Override
+	public void setAnisotropyLevel(float anisotropyLevel) {
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		super.dispose();
+	}
+}
@@ -0,0 +1,159 @@
+package flounder.headless;
+
+import flounder.framework.*;
+import flounder.framework.updater.*;
+import flounder.logger.*;
+import flounder.platform.*;
+
+import java.nio.*;
+
+/**
+ * A platform that runs the engine without a display, OpenGL or OpenAL. Entities, physics, particle logic and networking run as normal, GPU factory create steps are stubbed out, and the framework is stepped at a fixed tick rate.
+ */
+@Module.ModuleOverride
+public class PlatformHeadless extends FlounderPlatform {
+	public static final int DEFAULT_TICK_RATE = 30;
+
+	private final int tickRate;
+	private final long tickNanos;
+	private final long startNanos;
+
+	private long tick;
+
+	/**
+	 * Creates a new headless platform stepping at the default tick rate.
+	 */
+	public PlatformHeadless() {
+		this(DEFAULT_TICK_RATE);
+	}
+
+	/**
+	 * Creates a new headless platform.
+	 *
+	 * @param tickRate The amount of simulation ticks to run per second.
+	 */
+	public PlatformHeadless(int tickRate) {
+		super();
+		this.tickRate = tickRate;
+		this.tickNanos = 1000000000L / tickRate;
+		this.startNanos = System.nanoTime();
+
+		this.tick = 0;
+
+		Framework.get().addOverrides(
+				new HeadlessDisplay(),
+				new HeadlessMouse(),
+				new HeadlessSound(),
+				new HeadlessLoaders(),
+				new HeadlessTextures()
+		);
+		Framework.get().getUpdater().setTiming(this::getTickTime);
+
+		// The frameworks loop sleeps between frames, so idle servers do not spin a core.
+		Framework.get().setFpsLimit(tickRate);
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		super.init();
+		FlounderLogger.get().log("Running headless at " + tickRate + " ticks per second.");
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_ALWAYS)
+	public void update() {
+		super.update();
+	}
+
+	/**
+	 * Gets the time of the last whole tick, the framework clock only ever advances in whole ticks so update deltas are always a multiple of the tick length.
+	 *
+	 * @return The time of the last whole tick in seconds.
+	 */
+	private double getTickTime() {
+		tick = (System.nanoTime() - startNanos) / tickNanos;
+		return tick / (double) tickRate;
+	}
+
+	/**
+	 * Gets the amount of simulation ticks run per second.
+	 *
+	 * @return The tick rate.
+	 */
+	public int getTickRate() {
+		return tickRate;
+	}
+
+	/**
+	 * Gets the index of the last tick the framework clock was read at.
+	 *
+	 * @return The current tick.
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	@Override
+	public Platform getPlatform() {
+		return Platform.getDesktopPlatform();
+	}
+
+	@Override
+	public boolean isHeadless() {
+		return true;
+	}
+
+	@Override
+	public TimingReference getTiming() {
+		return this::getTickTime;
+	}
+
+	@Override
+	public float getTime() {
+		return (float) (getTickTime() * 1000.0);
+	}
+
+	@Override
+	public ByteBuffer createByteBuffer(int capacity) {
+		return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+	}
+
+	@Override
+	public ShortBuffer createShortBuffer(int capacity) {
+		return createByteBuffer(capacity << 1).asShortBuffer();
+	}
+
+	@Override
+	public CharBuffer createCharBuffer(int capacity) {
+		return createByteBuffer(capacity << 1).asCharBuffer();
+	}
+
+	@Override
+	public IntBuffer createIntBuffer(int capacity) {
+		return createByteBuffer(capacity << 2).asIntBuffer();
+	}
+
+	@Override
+	public LongBuffer createLongBuffer(int capacity) {
+		return createByteBuffer(capacity << 3).asLongBuffer();
+	}
+
+	@Override
+	public FloatBuffer createFloatBuffer(int capacity) {
+		return createByteBuffer(capacity << 2).asFloatBuffer();
+	}
+
+	@Override
+	public DoubleBuffer createDoubleBuffer(int capacity) {
+		return createByteBuffer(capacity << 3).asDoubleBuffer();
+	}
+
+	@Override
+	public float getMaxAnisotropy() {
+		return 0.0f;
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		super.dispose();
+	}
+}
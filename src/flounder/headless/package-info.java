@@ -0,0 +1,4 @@
+/**
+ * Contains a platform for running the engine without a display, OpenGL or OpenAL, used for dedicated servers.
+ */
+package flounder.headless;
@@ -219,6 +219,18 @@ public class FlounderOpenGL extends Module {
 	public void renderInstanced(int glMode, int glLength, int glPrimCount) {
 	}
 
+	/**
+	 * Renders a bound model on a enabled shader using glDrawElementsInstanced.
+	 *
+	 * @param glMode The OpenGL mode to draw in.
+	 * @param glType The OpenGL type to draw in.
+	 * @param glLength The length of the model.
+	 * @param glPrimCount How many instances are rendered.
+	 */
+	@Module.MethodReplace
+	public void renderElementsInstanced(int glMode, int glType, int glLength, int glPrimCount) {
+	}
+
 	@Handler.Function(Handler.FLAG_DISPOSE)
 	public void dispose() {
 	}
@@ -0,0 +1,93 @@
+package flounder.lights;
+
+import flounder.devices.*;
+import flounder.framework.*;
+import flounder.loaders.*;
+import flounder.platform.*;
+
+import java.util.*;
+
+/**
+ * A manager for the lights in a scene, lights are added each frame and indexed into clusters over the camera frustum for deferred lighting.
+ */
+public class FlounderLights extends Module {
+	private static final int CLUSTERS_X = 16;
+	private static final int CLUSTERS_Y = 9;
+	private static final int CLUSTERS_Z = 24;
+
+	private List<Light> lights;
+	private LightClusters clusters;
+	private int lightCount;
+
+	/**
+	 * Creates a new light manager.
+	 */
+	public FlounderLights() {
+		super(FlounderDisplay.class, FlounderPlatform.class, FlounderLoader.class);
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		// The cluster buffers are OpenGL objects, so the display must have made its context first.
+		this.lights = new ArrayList<>();
+		this.clusters = new LightClusters(CLUSTERS_X, CLUSTERS_Y, CLUSTERS_Z, 256);
+		this.lightCount = 0;
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+		lightCount = lights.size();
+		lights.clear(); // Clears before the next batch of lights.
+	}
+
+	/**
+	 * Adds a light to the scene. (Run every frame). Can be called from entity systems running in parallel.
+	 *
+	 * @param light The light to add.
+	 */
+	public synchronized void addLight(Light light) {
+		if (light == null) {
+			return;
+		}
+
+		lights.add(light);
+	}
+
+	/**
+	 * Gets the lights added this frame.
+	 *
+	 * @return The lights.
+	 */
+	public List<Light> getLights() {
+		return lights;
+	}
+
+	/**
+	 * Gets the amount of lights added last frame.
+	 *
+	 * @return The amount of lights.
+	 */
+	public int getLightCount() {
+		return lightCount;
+	}
+
+	/**
+	 * Gets the cluster grid the lights are indexed into when rendering.
+	 *
+	 * @return The light clusters.
+	 */
+	public LightClusters getClusters() {
+		return clusters;
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		lights.clear();
+		clusters.dispose();
+	}
+
+	@Module.Instance
+	public static FlounderLights get() {
+		return (FlounderLights) Framework.get().getInstance(FlounderLights.class);
+	}
+}
@@ -44,6 +44,31 @@ public class Light {
 		FlounderBounding.get().addShapeRender(sphere);
 	}
 
+	/**
+	 * Gets the distance past which the light adds less than a cutoff to every colour channel, found by solving the attenuation factor for the brightest
+	 * channel divided by the cutoff.
+	 *
+	 * @param cutoff The smallest amount of light that is still seen, such as {@code 1 / 256}.
+	 *
+	 * @return The range of the light, zero if it is never brighter than the cutoff, or infinity if it never falls below the cutoff.
+	 */
+	public float getRange(float cutoff) {
+		float factor = Math.max(colour.r, Math.max(colour.g, colour.b)) / cutoff;
+
+		if (factor <= attenuation.constant) {
+			return 0.0f;
+		}
+
+		if (attenuation.exponent > 0.0f) {
+			float discriminant = (attenuation.linear * attenuation.linear) + (4.0f * attenuation.exponent * (factor - attenuation.constant));
+			return (-attenuation.linear + (float) Math.sqrt(discriminant)) / (2.0f * attenuation.exponent);
+		} else if (attenuation.linear > 0.0f) {
+			return (factor - attenuation.constant) / attenuation.linear;
+		}
+
+		return Float.POSITIVE_INFINITY;
+	}
+
 	/**
 	 * Gets the lights colour.
 	 *
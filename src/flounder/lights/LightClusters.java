@@ -0,0 +1,322 @@
+package flounder.lights;
+
+import flounder.camera.*;
+import flounder.helpers.*;
+import flounder.loaders.*;
+import flounder.maths.matrices.*;
+import flounder.maths.vectors.*;
+import flounder.platform.*;
+
+import java.nio.*;
+import java.util.*;
+
+import static flounder.platform.Constants.*;
+
+/**
+ * A grid of clusters over the camera frustum, split into screen tiles along the x and y and into slices along the depth that grow exponentially. Each frame
+ * the lights in view are assigned to every cluster their range touches, so a deferred pass only shades the lights listed for the cluster of a pixel.
+ * <p>
+ * Three texture buffers are uploaded: the lights as three {@code RGBA32F} texels each (position, colour, attenuation), the clusters as one {@code RG32F}
+ * texel each (the offset and count of its light indices), and the light indices as {@code R32F} texels. Clusters are indexed by
+ * {@code x + countX * (y + countY * z)}, and the depth slice of a view depth is {@code floor(log(depth / near) * scale)}.
+ */
+public class LightClusters {
+	private static final int LIGHT_SIZE = 12;
+	private static final int CLUSTER_SIZE = 2;
+	private static final int BOUNDS_SIZE = 6;
+
+	/**
+	 * The smallest amount of light in a channel that is still seen, lights are not listed in clusters further than where they fall below this.
+	 */
+	public static final float CUTOFF = 1.0f / 256.0f;
+
+	private final int countX;
+	private final int countY;
+	private final int countZ;
+	private final int clusterCount;
+
+	private float[] lightData;
+	private FloatBuffer lightBuffer;
+	private final int lightVBO;
+	private final int lightTexture;
+
+	private final float[] clusterData;
+	private final FloatBuffer clusterBuffer;
+	private final int clusterVBO;
+	private final int clusterTexture;
+
+	private float[] indexData;
+	private FloatBuffer indexBuffer;
+	private final int indexVBO;
+	private final int indexTexture;
+
+	private int[] bounds;
+	private final int[] counts;
+
+	private int lightCount;
+	private int indexCount;
+	private float near;
+	private float scale;
+
+	/**
+	 * Creates a new cluster grid.
+	 *
+	 * @param countX The number of tiles across the screen.
+	 * @param countY The number of tiles up the screen.
+	 * @param countZ The number of depth slices.
+	 * @param capacity The amount of lights the buffers start with room for, they grow as needed.
+	 */
+	public LightClusters(int countX, int countY, int countZ, int capacity) {
+		this.countX = countX;
+		this.countY = countY;
+		this.countZ = countZ;
+		this.clusterCount = countX * countY * countZ;
+
+		this.lightData = new float[capacity * LIGHT_SIZE];
+		this.lightBuffer = FlounderPlatform.get().createFloatBuffer(lightData.length);
+		this.lightVBO = FlounderLoader.get().createEmptyVBO(lightData.length);
+		this.lightTexture = FlounderLoader.get().createBufferTexture(lightVBO, GL_RGBA32F);
+
+		this.clusterData = new float[clusterCount * CLUSTER_SIZE];
+		this.clusterBuffer = FlounderPlatform.get().createFloatBuffer(clusterData.length);
+		this.clusterVBO = FlounderLoader.get().createEmptyVBO(clusterData.length);
+		this.clusterTexture = FlounderLoader.get().createBufferTexture(clusterVBO, GL_RG32F);
+
+		this.indexData = new float[capacity * 8];
+		this.indexBuffer = FlounderPlatform.get().createFloatBuffer(indexData.length);
+		this.indexVBO = FlounderLoader.get().createEmptyVBO(indexData.length);
+		this.indexTexture = FlounderLoader.get().createBufferTexture(indexVBO, GL_R32F);
+
+		this.bounds = new int[capacity * BOUNDS_SIZE];
+		this.counts = new int[clusterCount];
+
+		this.lightCount = 0;
+		this.indexCount = 0;
+		this.near = 0.1f;
+		this.scale = 1.0f;
+	}
+
+	/**
+	 * Assigns lights to the clusters of a camera and uploads the buffers. Lights outside of the frustum are left out.
+	 *
+	 * @param camera The camera the grid is fitted to.
+	 * @param lights The lights to assign.
+	 */
+	public void update(Camera camera, List<Light> lights) {
+		Matrix4f view = camera.getViewMatrix();
+		Matrix4f projection = camera.getProjectionMatrix();
+		float far = camera.getFarPlane();
+		near = camera.getNearPlane();
+		scale = countZ / (float) Math.log(far / near);
+
+		Arrays.fill(counts, 0);
+		lightCount = 0;
+
+		for (Light light : lights) {
+			float range = light.getRange(CUTOFF);
+
+			if (range <= 0.0f) {
+				continue;
+			}
+
+			int minX = 0;
+			int minY = 0;
+			int minZ = 0;
+			int maxX = countX - 1;
+			int maxY = countY - 1;
+			int maxZ = countZ - 1;
+
+			// Lights that never fade are listed in every cluster.
+			if (!Float.isInfinite(range)) {
+				Vector3f position = light.getPosition();
+				float viewX = view.m00 * position.x + view.m10 * position.y + view.m20 * position.z + view.m30;
+				float viewY = view.m01 * position.x + view.m11 * position.y + view.m21 * position.z + view.m31;
+				float depth = -(view.m02 * position.x + view.m12 * position.y + view.m22 * position.z + view.m32);
+
+				float minDepth = Math.max(depth - range, near);
+				float maxDepth = Math.min(depth + range, far);
+
+				if (minDepth > maxDepth) {
+					continue;
+				}
+
+				// The box around the light sphere is projected at its nearest and furthest depths, whichever makes the screen bounds widest.
+				float left = projection.m00 * (viewX - range) / (viewX - range < 0.0f ? minDepth : maxDepth);
+				float right = projection.m00 * (viewX + range) / (viewX + range > 0.0f ? minDepth : maxDepth);
+				float bottom = projection.m11 * (viewY - range) / (viewY - range < 0.0f ? minDepth : maxDepth);
+				float top = projection.m11 * (viewY + range) / (viewY + range > 0.0f ? minDepth : maxDepth);
+
+				if (right < -1.0f || left > 1.0f || top < -1.0f || bottom > 1.0f) {
+					continue;
+				}
+
+				minX = getTile(left, countX);
+				maxX = getTile(right, countX);
+				minY = getTile(bottom, countY);
+				maxY = getTile(top, countY);
+				minZ = getSlice(minDepth);
+				maxZ = getSlice(maxDepth);
+			}
+
+			if ((lightCount + 1) * LIGHT_SIZE > lightData.length) {
+				lightData = Arrays.copyOf(lightData, lightData.length * 2);
+				lightBuffer = FlounderPlatform.get().createFloatBuffer(lightData.length);
+				bounds = Arrays.copyOf(bounds, bounds.length * 2);
+			}
+
+			int i = lightCount * LIGHT_SIZE;
+			lightData[i] = light.getPosition().x;
+			lightData[i + 1] = light.getPosition().y;
+			lightData[i + 2] = light.getPosition().z;
+			lightData[i + 3] = range;
+			lightData[i + 4] = light.getColour().r;
+			lightData[i + 5] = light.getColour().g;
+			lightData[i + 6] = light.getColour().b;
+			lightData[i + 7] = 0.0f;
+			lightData[i + 8] = light.getAttenuation().constant;
+			lightData[i + 9] = light.getAttenuation().linear;
+			lightData[i + 10] = light.getAttenuation().exponent;
+			lightData[i + 11] = 0.0f;
+
+			int b = lightCount * BOUNDS_SIZE;
+			bounds[b] = minX;
+			bounds[b + 1] = maxX;
+			bounds[b + 2] = minY;
+			bounds[b + 3] = maxY;
+			bounds[b + 4] = minZ;
+			bounds[b + 5] = maxZ;
+
+			for (int z = minZ; z <= maxZ; z++) {
+				for (int y = minY; y <= maxY; y++) {
+					for (int x = minX; x <= maxX; x++) {
+						counts[x + countX * (y + countY * z)]++;
+					}
+				}
+			}
+
+			lightCount++;
+		}
+
+		// The counts become offsets into the index list, then are reused as the write position of each cluster.
+		indexCount = 0;
+
+		for (int c = 0; c < clusterCount; c++) {
+			clusterData[c * CLUSTER_SIZE] = indexCount;
+			clusterData[c * CLUSTER_SIZE + 1] = counts[c];
+			int count = counts[c];
+			counts[c] = indexCount;
+			indexCount += count;
+		}
+
+		if (indexCount > indexData.length) {
+			int capacity = indexData.length;
+
+			while (capacity < indexCount) {
+				capacity *= 2;
+			}
+
+			indexData = new float[capacity];
+			indexBuffer = FlounderPlatform.get().createFloatBuffer(indexData.length);
+		}
+
+		for (int l = 0; l < lightCount; l++) {
+			int b = l * BOUNDS_SIZE;
+
+			for (int z = bounds[b + 4]; z <= bounds[b + 5]; z++) {
+				for (int y = bounds[b + 2]; y <= bounds[b + 3]; y++) {
+					for (int x = bounds[b]; x <= bounds[b + 1]; x++) {
+						indexData[counts[x + countX * (y + countY * z)]++] = l;
+					}
+				}
+			}
+		}
+
+		FlounderLoader.get().updateVBO(lightVBO, lightData, lightCount * LIGHT_SIZE, lightBuffer);
+		FlounderLoader.get().updateVBO(clusterVBO, clusterData, clusterData.length, clusterBuffer);
+		FlounderLoader.get().updateVBO(indexVBO, indexData, indexCount, indexBuffer);
+	}
+
+	/**
+	 * Gets the tile a normalised device coordinate falls in.
+	 */
+	private static int getTile(float ndc, int count) {
+		return Math.min(Math.max((int) Math.floor((ndc * 0.5f + 0.5f) * count), 0), count - 1);
+	}
+
+	/**
+	 * Gets the depth slice a view depth falls in.
+	 */
+	private int getSlice(float depth) {
+		return Math.min(Math.max((int) Math.floor(Math.log(depth / near) * scale), 0), countZ - 1);
+	}
+
+	/**
+	 * Binds the light, cluster and index textures.
+	 *
+	 * @param lightBank The shaders bank ID for the lights.
+	 * @param clusterBank The shaders bank ID for the clusters.
+	 * @param indexBank The shaders bank ID for the light indices.
+	 */
+	public void bind(int lightBank, int clusterBank, int indexBank) {
+		FlounderOpenGL.get().bindTexture(lightTexture, GL_TEXTURE_BUFFER, lightBank);
+		FlounderOpenGL.get().bindTexture(clusterTexture, GL_TEXTURE_BUFFER, clusterBank);
+		FlounderOpenGL.get().bindTexture(indexTexture, GL_TEXTURE_BUFFER, indexBank);
+	}
+
+	public int getCountX() {
+		return countX;
+	}
+
+	public int getCountY() {
+		return countY;
+	}
+
+	public int getCountZ() {
+		return countZ;
+	}
+
+	/**
+	 * Gets the near plane the depth slices start from.
+	 *
+	 * @return The near plane.
+	 */
+	public float getNear() {
+		return near;
+	}
+
+	/**
+	 * Gets the number of slices per unit of the log of depth over the near plane.
+	 *
+	 * @return The slice scale.
+	 */
+	public float getScale() {
+		return scale;
+	}
+
+	/**
+	 * Gets the amount of lights in view on the last update.
+	 *
+	 * @return The amount of lights.
+	 */
+	public int getLightCount() {
+		return lightCount;
+	}
+
+	/**
+	 * Gets the total length of the cluster light lists on the last update.
+	 *
+	 * @return The amount of light indices.
+	 */
+	public int getIndexCount() {
+		return indexCount;
+	}
+
+	/**
+	 * Deletes the textures and buffers.
+	 */
+	public void dispose() {
+		FlounderLoader.get().deleteBufferTexture(lightTexture, lightVBO);
+		FlounderLoader.get().deleteBufferTexture(clusterTexture, clusterVBO);
+		FlounderLoader.get().deleteBufferTexture(indexTexture, indexVBO);
+	}
+}
@@ -1,4 +1,4 @@
 /**
- * Contains classes for creating engine light components used for lighting scenes.
+ * Contains classes for creating engine light components used for lighting scenes, and for indexing lights into clusters for deferred lighting.
  */
-package flounder.lights;
\ No newline at end of file
+package flounder.lights;
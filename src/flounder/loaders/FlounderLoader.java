@@ -231,6 +231,41 @@ public class FlounderLoader extends Module {
 	public void updateVBO(int vbo, float[] data, FloatBuffer buffer) {
 	}
 
+	/**
+	 * Updates a VBO with the start of a float array, the VBO is reallocated to the capacity of the buffer so the array can grow between updates.
+	 *
+	 * @param vbo The VBO to update.
+	 * @param data The data to add into the VBO.
+	 * @param length The number of floats from the start of the data to upload.
+	 * @param buffer A buffer to use to store the data in, must be at least {@code length} floats.
+	 */
+	@Module.MethodReplace
+	public void updateVBO(int vbo, float[] data, int length, FloatBuffer buffer) {
+	}
+
+	/**
+	 * Creates a buffer texture ({@code GL_TEXTURE_BUFFER}) that reads its texels from a VBO, so shaders can fetch large arrays such as joint matrices with {@code texelFetch}.
+	 *
+	 * @param vbo The VBO holding the texel data.
+	 * @param glFormat The internal format of the texels, for example {@code GL_RGBA32F}.
+	 *
+	 * @return The ID of the new texture.
+	 */
+	@Module.MethodReplace
+	public int createBufferTexture(int vbo, int glFormat) {
+		return -1;
+	}
+
+	/**
+	 * Deletes a buffer texture and the VBO it reads from.
+	 *
+	 * @param textureID The ID of the buffer texture.
+	 * @param vbo The ID of the VBO.
+	 */
+	@Module.MethodReplace
+	public void deleteBufferTexture(int textureID, int vbo) {
+	}
+
 	/**
 	 * Refills an entire VBO with new data.
 	 *
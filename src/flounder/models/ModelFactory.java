@@ -42,7 +42,7 @@ public class ModelFactory extends Factory {
 
 		if (((ModelBuilder) builder).getManual() != null) {
 			ModelLoadManual m = b.getManual();
-			o.loadData(m.getVertices(), m.getTextures(), m.getNormals(), m.getTangents(), m.getIndices(), m.isSmoothShading(), m.getAABB(), name, b.getFile());
+			o.loadData(m.getVertices(), m.getTextures(), m.getNormals(), m.getTangents(), m.getIndices(), m.isSmoothShading(), m.getAABB(), QuickHullBuilder.getModelVoxelSize(m.getAABB()), name, b.getFile());
 		} else if (((ModelBuilder) builder).getFile() != null) {
 			loadOBJ(o, b.getFile(), name);
 		}
@@ -112,7 +112,7 @@ public class ModelFactory extends Factory {
 						// The split length of 3 faced + 1 for the f prefix.
 						if (currentLineF.length != 4 || line.contains("//")) {
 							FlounderLogger.get().error("Error reading the OBJ " + file + ", it does not appear to be UV mapped! The model will not be loaded.");
-							object.loadData(null, null, null, null, null, false, null, name, file);
+							object.loadData(null, null, null, null, null, false, null, 0.0f, name, file);
 							return;
 						}
 
@@ -204,7 +204,8 @@ public class ModelFactory extends Factory {
 		aabb.getMaxExtents().z = Math.abs(aabb.getMaxExtents().z);
 		float r = Math.max(Maths.max(aabb.getMinExtents()), Maths.max(aabb.getMaxExtents()));
 		object.loadData(verticesArray, texturesArray, normalsArray, tangentsArray, indicesArray, smoothShading, new Sphere(r), name, file);*/
-		object.loadData(verticesArray, texturesArray, normalsArray, tangentsArray, indicesArray, smoothShading, createAABB(vertices), name, file);
+		AABB aabb = createAABB(vertices);
+		object.loadData(verticesArray, texturesArray, normalsArray, tangentsArray, indicesArray, smoothShading, aabb, QuickHullBuilder.getModelVoxelSize(aabb), name, file);
 	}
 
 	private VertexData processDataVertex(String[] vertex, List<VertexData> vertices, List<Integer> indices) {
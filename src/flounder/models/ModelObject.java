@@ -21,6 +21,7 @@ public class ModelObject extends FactoryObject {
 
 	private Collider collider;
 	private QuickHull quickHull;
+	private volatile TriangleBVH triangleTree;
 
 	private int vaoID;
 	private int vaoLength;
@@ -42,12 +43,13 @@ public class ModelObject extends FactoryObject {
 
 		this.collider = null;
 		this.quickHull = new QuickHull();
+		this.triangleTree = null;
 
 		this.vaoID = -1;
 		this.vaoLength = -1;
 	}
 
-	protected void loadData(float[] vertices, float[] textureCoords, float[] normals, float[] tangents, int[] indices, boolean smoothShading, Collider collider, String name, MyFile file) {
+	protected void loadData(float[] vertices, float[] textureCoords, float[] normals, float[] tangents, int[] indices, boolean smoothShading, Collider collider, float hullVoxelSize, String name, MyFile file) {
 		this.vertices = vertices;
 		this.textures = textureCoords;
 		this.normals = normals;
@@ -61,7 +63,7 @@ public class ModelObject extends FactoryObject {
 		this.collider = collider;
 
 		if (vertices != null) {
-			this.quickHull.loadData(vertices);
+			this.quickHull.loadData(vertices, hullVoxelSize);
 		}
 
 		setDataLoaded(true);
@@ -124,6 +126,30 @@ public class ModelObject extends FactoryObject {
 		return quickHull;
 	}
 
+	/**
+	 * Gets the triangle hierarchy used to find where rays hit this model, it is built from the vertices and indices the first time it is used.
+	 *
+	 * @return The triangle hierarchy, or null if the model data has not loaded.
+	 */
+	public TriangleBVH getTriangleTree() {
+		TriangleBVH tree = triangleTree;
+
+		if (tree == null) {
+			synchronized (this) {
+				tree = triangleTree;
+				float[] vertices = this.vertices;
+				int[] indices = this.indices;
+
+				if (tree == null && vertices != null && indices != null) {
+					tree = new TriangleBVH(vertices, indices);
+					triangleTree = tree;
+				}
+			}
+		}
+
+		return tree;
+	}
+
 	public int getVaoID() {
 		return vaoID;
 	}
@@ -150,6 +176,7 @@ public class ModelObject extends FactoryObject {
 			this.normals = null;
 			this.tangents = null;
 			this.indices = null;
+			this.triangleTree = null;
 		}
 	}
 }
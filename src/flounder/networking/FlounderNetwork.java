@@ -29,7 +29,7 @@ public class FlounderNetwork extends Module {
 	}
 
 	/**
-	 * Starts the server.
+	 * Starts the server. Dedicated servers should be run on a {@link flounder.headless.PlatformHeadless} so no display or audio device is opened.
 	 *
 	 * @param port The port to start the server on.
 	 */
@@ -8,49 +8,12 @@ public class ClassicNoise {
 			{1, 0, 1}, {-1, 0, 1}, {1, 0, -1}, {-1, 0, -1},
 			{0, 1, 1}, {0, -1, 1}, {0, 1, -1}, {0, -1, -1}};
 
-	private static final int P[] = {151, 160, 137, 91, 90, 15,
-			131, 13, 201, 95, 96, 53, 194, 233, 7, 225, 140, 36, 103, 30, 69, 142, 8, 99, 37, 240, 21, 10, 23,
-			190, 6, 148, 247, 120, 234, 75, 0, 26, 197, 62, 94, 252, 219, 203, 117, 35, 11, 32, 57, 177, 33,
-			88, 237, 149, 56, 87, 174, 20, 125, 136, 171, 168, 68, 175, 74, 165, 71, 134, 139, 48, 27, 166,
-			77, 146, 158, 231, 83, 111, 229, 122, 60, 211, 133, 230, 220, 105, 92, 41, 55, 46, 245, 40, 244,
-			102, 143, 54, 65, 25, 63, 161, 1, 216, 80, 73, 209, 76, 132, 187, 208, 89, 18, 169, 200, 196,
-			135, 130, 116, 188, 159, 86, 164, 100, 109, 198, 173, 186, 3, 64, 52, 217, 226, 250, 124, 123,
-			5, 202, 38, 147, 118, 126, 255, 82, 85, 212, 207, 206, 59, 227, 47, 16, 58, 17, 182, 189, 28, 42,
-			223, 183, 170, 213, 119, 248, 152, 2, 44, 154, 163, 70, 221, 153, 101, 155, 167, 43, 172, 9,
-			129, 22, 39, 253, 19, 98, 108, 110, 79, 113, 224, 232, 178, 185, 112, 104, 218, 246, 97, 228,
-			251, 34, 242, 193, 238, 210, 144, 12, 191, 179, 162, 241, 81, 51, 145, 235, 249, 14, 239, 107,
-			49, 192, 214, 31, 181, 199, 106, 157, 184, 84, 204, 176, 115, 121, 50, 45, 127, 4, 150, 254,
-			138, 236, 205, 93, 222, 114, 67, 29, 24, 72, 243, 141, 128, 195, 78, 66, 215, 61, 156, 180};
-
-	// To remove the need for index wrapping, float the permutation table length.
-	private static final int PERM[] = {151, 160, 137, 91, 90, 15, 131, 13, 201, 95, 96, 53, 194, 233, 7, 225, 140,
-			36, 103, 30, 69, 142, 8, 99, 37, 240, 21, 10, 23, 190, 6, 148, 247, 120, 234, 75, 0, 26, 197, 62, 94,
-			252, 219, 203, 117, 35, 11, 32, 57, 177, 33, 88, 237, 149, 56, 87, 174, 20, 125, 136, 171, 168, 68,
-			175, 74, 165, 71, 134, 139, 48, 27, 166, 77, 146, 158, 231, 83, 111, 229, 122, 60, 211, 133, 230, 220,
-			105, 92, 41, 55, 46, 245, 40, 244, 102, 143, 54, 65, 25, 63, 161, 1, 216, 80, 73, 209, 76, 132, 187,
-			208, 89, 18, 169, 200, 196, 135, 130, 116, 188, 159, 86, 164, 100, 109, 198, 173, 186, 3, 64, 52, 217,
-			226, 250, 124, 123, 5, 202, 38, 147, 118, 126, 255, 82, 85, 212, 207, 206, 59, 227, 47, 16, 58, 17,
-			182, 189, 28, 42, 223, 183, 170, 213, 119, 248, 152, 2, 44, 154, 163, 70, 221, 153, 101, 155, 167, 43,
-			172, 9, 129, 22, 39, 253, 19, 98, 108, 110, 79, 113, 224, 232, 178, 185, 112, 104, 218, 246, 97, 228,
-			251, 34, 242, 193, 238, 210, 144, 12, 191, 179, 162, 241, 81, 51, 145, 235, 249, 14, 239, 107, 49, 192,
-			214, 31, 181, 199, 106, 157, 184, 84, 204, 176, 115, 121, 50, 45, 127, 4, 150, 254, 138, 236, 205, 93,
-			222, 114, 67, 29, 24, 72, 243, 141, 128, 195, 78, 66, 215, 61, 156, 180, 151, 160, 137, 91, 90, 15, 131,
-			13, 201, 95, 96, 53, 194, 233, 7, 225, 140, 36, 103, 30, 69, 142, 8, 99, 37, 240, 21, 10, 23, 190, 6,
-			148, 247, 120, 234, 75, 0, 26, 197, 62, 94, 252, 219, 203, 117, 35, 11, 32, 57, 177, 33, 88, 237, 149,
-			56, 87, 174, 20, 125, 136, 171, 168, 68, 175, 74, 165, 71, 134, 139, 48, 27, 166, 77, 146, 158, 231, 83,
-			111, 229, 122, 60, 211, 133, 230, 220, 105, 92, 41, 55, 46, 245, 40, 244, 102, 143, 54, 65, 25, 63, 161,
-			1, 216, 80, 73, 209, 76, 132, 187, 208, 89, 18, 169, 200, 196, 135, 130, 116, 188, 159, 86, 164, 100,
-			109, 198, 173, 186, 3, 64, 52, 217, 226, 250, 124, 123, 5, 202, 38, 147, 118, 126, 255, 82, 85, 212, 207,
-			206, 59, 227, 47, 16, 58, 17, 182, 189, 28, 42, 223, 183, 170, 213, 119, 248, 152, 2, 44, 154, 163, 70,
-			221, 153, 101, 155, 167, 43, 172, 9, 129, 22, 39, 253, 19, 98, 108, 110, 79, 113, 224, 232, 178, 185, 112,
-			104, 218, 246, 97, 228, 251, 34, 242, 193, 238, 210, 144, 12, 191, 179, 162, 241, 81, 51, 145, 235, 249,
-			14, 239, 107, 49, 192, 214, 31, 181, 199, 106, 157, 184, 84, 204, 176, 115, 121, 50, 45, 127, 4, 150, 254,
-			138, 236, 205, 93, 222, 114, 67, 29, 24, 72, 243, 141, 128, 195, 78, 66, 215, 61, 156, 180};
-
 	private int seed;
+	private int[] perm;
+	private int[] permMod12; // The permutation with the gradient index already taken, so lookups do not need a remainder.
 
 	public ClassicNoise(int seed) {
-		this.seed = seed;
+		setSeed(seed);
 	}
 
 	public float noise(float x) {
@@ -79,14 +42,14 @@ public class ClassicNoise {
 		Z = Z & 255;
 
 		// Calculate a set of eight hashed gradient indices.
-		int gi000 = PERM[X + PERM[Y + PERM[Z]]] % 12;
-		int gi001 = PERM[X + PERM[Y + PERM[Z + 1]]] % 12;
-		int gi010 = PERM[X + PERM[Y + 1 + PERM[Z]]] % 12;
-		int gi011 = PERM[X + PERM[Y + 1 + PERM[Z + 1]]] % 12;
-		int gi100 = PERM[X + 1 + PERM[Y + PERM[Z]]] % 12;
-		int gi101 = PERM[X + 1 + PERM[Y + PERM[Z + 1]]] % 12;
-		int gi110 = PERM[X + 1 + PERM[Y + 1 + PERM[Z]]] % 12;
-		int gi111 = PERM[X + 1 + PERM[Y + 1 + PERM[Z + 1]]] % 12;
+		int gi000 = permMod12[X + perm[Y + perm[Z]]];
+		int gi001 = permMod12[X + perm[Y + perm[Z + 1]]];
+		int gi010 = permMod12[X + perm[Y + 1 + perm[Z]]];
+		int gi011 = permMod12[X + perm[Y + 1 + perm[Z + 1]]];
+		int gi100 = permMod12[X + 1 + perm[Y + perm[Z]]];
+		int gi101 = permMod12[X + 1 + perm[Y + perm[Z + 1]]];
+		int gi110 = permMod12[X + 1 + perm[Y + 1 + perm[Z]]];
+		int gi111 = permMod12[X + 1 + perm[Y + 1 + perm[Z + 1]]];
 
 		// The gradients of each corner are now:
 		// g000 = GRAD_3[gi000];
@@ -131,8 +94,19 @@ public class ClassicNoise {
 		return seed;
 	}
 
+	/**
+	 * Changes the seed of this generator, it switches to the shared permutation tables of the new seed.
+	 *
+	 * @param seed The new seed.
+	 *
+	 * @deprecated Generators from {@link FlounderNoise#getClassic(int)} are shared, changing the seed of one changes the noise of every user. Get a generator for
+	 * the seed instead.
+	 */
+	@Deprecated
 	public void setSeed(int seed) {
 		this.seed = seed;
+		this.perm = NoiseTables.getPermutation(seed);
+		this.permMod12 = NoiseTables.getPermutationMod12(seed);
 	}
 
 	// This method is a *lot* faster than using (int)Math.floor(x)
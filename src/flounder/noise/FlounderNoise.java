@@ -0,0 +1,261 @@
+package flounder.noise;
+
+import flounder.framework.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A module that shares noise generators by seed, and keeps the most recently used tiles of noise fields so regions sampled again are read from memory.
+ * The generators given out are shared, so their seeds should not be changed.
+ */
+public class FlounderNoise extends Module {
+	private static final int DEFAULT_TILE_CAPACITY = 256;
+
+	private Map<Integer, SimplexNoise> simplex;
+	private Map<Integer, PerlinNoise> perlin;
+	private Map<Integer, ClassicNoise> classic;
+	private Map<Integer, WorleyNoise> worley;
+
+	private LinkedHashMap<TileKey, float[]> tiles;
+	private int tileCapacity;
+	private long tileHits;
+	private long tileMisses;
+
+	/**
+	 * Creates a new noise manager.
+	 */
+	public FlounderNoise() {
+		super();
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		this.simplex = new ConcurrentHashMap<>();
+		this.perlin = new ConcurrentHashMap<>();
+		this.classic = new ConcurrentHashMap<>();
+		this.worley = new ConcurrentHashMap<>();
+
+		this.tileCapacity = DEFAULT_TILE_CAPACITY;
+		this.tiles = new LinkedHashMap<TileKey, float[]>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<TileKey, float[]> eldest) {
+				return size() > tileCapacity;
+			}
+		};
+		this.tileHits = 0L;
+		this.tileMisses = 0L;
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+	}
+
+	/**
+	 * Gets the shared simplex noise for a seed.
+	 *
+	 * @param seed The seed.
+	 *
+	 * @return The simplex noise.
+	 */
+	public SimplexNoise getSimplex(int seed) {
+		return simplex.computeIfAbsent(seed, SimplexNoise::new);
+	}
+
+	/**
+	 * Gets the shared perlin noise for a seed.
+	 *
+	 * @param seed The seed.
+	 *
+	 * @return The perlin noise.
+	 */
+	public PerlinNoise getPerlin(int seed) {
+		return perlin.computeIfAbsent(seed, PerlinNoise::new);
+	}
+
+	/**
+	 * Gets the shared classic noise for a seed.
+	 *
+	 * @param seed The seed.
+	 *
+	 * @return The classic noise.
+	 */
+	public ClassicNoise getClassic(int seed) {
+		return classic.computeIfAbsent(seed, ClassicNoise::new);
+	}
+
+	/**
+	 * Gets the shared cellular noise for a seed.
+	 *
+	 * @param seed The seed.
+	 *
+	 * @return The cellular noise.
+	 */
+	public WorleyNoise getWorley(int seed) {
+		return worley.computeIfAbsent(seed, WorleyNoise::new);
+	}
+
+	/**
+	 * Gets a square tile of a noise field, from the cache if it has been made recently. Tile (0, 0) starts at the origin, and each tile starts where the
+	 * tile before it ends. Can be called from many threads at once.
+	 *
+	 * @param field The field to sample.
+	 * @param tileX The tile index along the x.
+	 * @param tileY The tile index along the y.
+	 * @param tileSize The number of points along each side of the tile.
+	 * @param step The distance between points.
+	 *
+	 * @return The tile, in rows along the x for each y. The array is shared by the cache and must not be changed.
+	 */
+	public float[] getTile(NoiseField field, int tileX, int tileY, int tileSize, float step) {
+		TileKey key = new TileKey(field, tileX, tileY, tileSize, step);
+
+		synchronized (tiles) {
+			float[] tile = tiles.get(key);
+
+			if (tile != null) {
+				tileHits++;
+				return tile;
+			}
+
+			tileMisses++;
+		}
+
+		// Filled outside the lock so other tiles can be read meanwhile, two threads asking for the same new tile may both fill it.
+		float[] tile = field.fill(null, tileX * tileSize * step, tileY * tileSize * step, step, tileSize, tileSize);
+
+		synchronized (tiles) {
+			float[] existing = tiles.get(key);
+
+			if (existing != null) {
+				return existing;
+			}
+
+			tiles.put(key, tile);
+		}
+
+		return tile;
+	}
+
+	/**
+	 * Removes every tile from the cache.
+	 */
+	public void clearTiles() {
+		synchronized (tiles) {
+			tiles.clear();
+		}
+	}
+
+	public int getTileCapacity() {
+		return tileCapacity;
+	}
+
+	/**
+	 * Sets the number of tiles kept in the cache, the least recently used tiles are removed past this.
+	 *
+	 * @param tileCapacity The new capacity.
+	 */
+	public void setTileCapacity(int tileCapacity) {
+		synchronized (tiles) {
+			this.tileCapacity = tileCapacity;
+			Iterator<TileKey> iterator = tiles.keySet().iterator();
+
+			while (tiles.size() > tileCapacity && iterator.hasNext()) {
+				iterator.next();
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Gets how many tiles were read from the cache.
+	 *
+	 * @return The number of cache hits.
+	 */
+	public long getTileHits() {
+		return tileHits;
+	}
+
+	/**
+	 * Gets how many tiles had to be filled.
+	 *
+	 * @return The number of cache misses.
+	 */
+	public long getTileMisses() {
+		return tileMisses;
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		simplex.clear();
+		perlin.clear();
+		classic.clear();
+		worley.clear();
+		clearTiles();
+	}
+
+	@Module.Instance
+	public static FlounderNoise get() {
+		return (FlounderNoise) Framework.get().getInstance(FlounderNoise.class);
+	}
+
+	/**
+	 * Identifies a tile by the seed and octave settings of its field, and where the tile is.
+	 */
+	private static class TileKey {
+		private final int seed;
+		private final NoiseField.Type type;
+		private final int octaves;
+		private final float frequency;
+		private final float lacunarity;
+		private final float gain;
+		private final int tileX;
+		private final int tileY;
+		private final int tileSize;
+		private final float step;
+
+		private TileKey(NoiseField field, int tileX, int tileY, int tileSize, float step) {
+			this.seed = field.getNoise().getSeed();
+			this.type = field.getType();
+			this.octaves = field.getOctaves();
+			this.frequency = field.getFrequency();
+			this.lacunarity = field.getLacunarity();
+			this.gain = field.getGain();
+			this.tileX = tileX;
+			this.tileY = tileY;
+			this.tileSize = tileSize;
+			this.step = step;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = seed;
+			result = 31 * result + type.hashCode();
+			result = 31 * result + octaves;
+			result = 31 * result + Float.floatToIntBits(frequency);
+			result = 31 * result + Float.floatToIntBits(lacunarity);
+			result = 31 * result + Float.floatToIntBits(gain);
+			result = 31 * result + tileX;
+			result = 31 * result + tileY;
+			result = 31 * result + tileSize;
+			result = 31 * result + Float.floatToIntBits(step);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object) {
+				return true;
+			}
+
+			if (object == null || getClass() != object.getClass()) {
+				return false;
+			}
+
+			TileKey other = (TileKey) object;
+			return seed == other.seed && type == other.type && octaves == other.octaves && Float.compare(frequency, other.frequency) == 0 &&
+					Float.compare(lacunarity, other.lacunarity) == 0 && Float.compare(gain, other.gain) == 0 && tileX == other.tileX &&
+					tileY == other.tileY && tileSize == other.tileSize && Float.compare(step, other.step) == 0;
+		}
+	}
+}
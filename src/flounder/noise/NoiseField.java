@@ -0,0 +1,396 @@
+package flounder.noise;
+
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Adds octaves of simplex noise over grids of points. Each octave is sampled at a higher frequency and lower amplitude than the last, the octaves are
+ * added as they are (fractal brownian motion), folded into sharp ridges, or as their absolute values (turbulence).
+ * <p>
+ * Grids are filled a row at a time: each octave samples the row into a scratch array, then a plain loop adds the scratch row into the results, which the
+ * JIT can unroll and vectorise. Large grids split their rows across the common fork-join pool. Grids give the same values as sampling each point alone.
+ */
+public class NoiseField {
+	private static final int PARALLEL_THRESHOLD = 16384;
+
+	/**
+	 * How the octaves are added together.
+	 */
+	public enum Type {
+		/**
+		 * The octaves are added as they are, from -1 to 1 each.
+		 */
+		FBM,
+		/**
+		 * Each octave is folded to one minus its absolute value and squared, from 0 to 1 each, so zero crossings become sharp ridges.
+		 */
+		RIDGED,
+		/**
+		 * The absolute values of the octaves are added, from 0 to 1 each.
+		 */
+		TURBULENCE
+	}
+
+	private final SimplexNoise noise;
+	private final Type type;
+	private final int octaves;
+	private final float frequency;
+	private final float lacunarity;
+	private final float gain;
+
+	/**
+	 * Creates a new noise field.
+	 *
+	 * @param noise The noise sampled by the octaves.
+	 * @param type How the octaves are added together.
+	 * @param octaves The number of octaves.
+	 * @param frequency The frequency of the first octave.
+	 * @param lacunarity How much the frequency is multiplied by each octave, usually 2.
+	 * @param gain How much the amplitude is multiplied by each octave, usually 0.5. The first octave has a amplitude of 1.
+	 */
+	public NoiseField(SimplexNoise noise, Type type, int octaves, float frequency, float lacunarity, float gain) {
+		this.noise = noise;
+		this.type = type;
+		this.octaves = octaves;
+		this.frequency = frequency;
+		this.lacunarity = lacunarity;
+		this.gain = gain;
+	}
+
+	/**
+	 * Samples the field at a 2D point.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 *
+	 * @return The sum of the octaves.
+	 */
+	public float sample(float x, float y) {
+		int[] perm = noise.getPerm();
+		int[] permMod12 = noise.getPermMod12();
+		float result = 0.0f;
+		float octaveFrequency = frequency;
+		float amplitude = 1.0f;
+
+		for (int octave = 0; octave < octaves; octave++) {
+			result += combine(SimplexNoise.noise(perm, permMod12, x * octaveFrequency, y * octaveFrequency), amplitude);
+			octaveFrequency *= lacunarity;
+			amplitude *= gain;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Samples the field at a 3D point.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param z The z coordinate.
+	 *
+	 * @return The sum of the octaves.
+	 */
+	public float sample(float x, float y, float z) {
+		int[] perm = noise.getPerm();
+		int[] permMod12 = noise.getPermMod12();
+		float result = 0.0f;
+		float octaveFrequency = frequency;
+		float amplitude = 1.0f;
+
+		for (int octave = 0; octave < octaves; octave++) {
+			result += combine(SimplexNoise.noise(perm, permMod12, x * octaveFrequency, y * octaveFrequency, z * octaveFrequency), amplitude);
+			octaveFrequency *= lacunarity;
+			amplitude *= gain;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Samples the field at a 2D point moved by another field, which bends the shapes of the noise into swirls.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param warp The field that moves the point, sampled at offset points for each axis so the axes move differently.
+	 * @param strength How far the point is moved by each unit of the warp field.
+	 *
+	 * @return The sum of the octaves at the moved point.
+	 */
+	public float sampleWarped(float x, float y, NoiseField warp, float strength) {
+		float warpX = warp.sample(x, y);
+		float warpY = warp.sample(x + 5.2f, y + 1.3f);
+		return sample(x + warpX * strength, y + warpY * strength);
+	}
+
+	/**
+	 * Samples the field at a 3D point moved by another field, which bends the shapes of the noise into swirls.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param z The z coordinate.
+	 * @param warp The field that moves the point, sampled at offset points for each axis so the axes move differently.
+	 * @param strength How far the point is moved by each unit of the warp field.
+	 *
+	 * @return The sum of the octaves at the moved point.
+	 */
+	public float sampleWarped(float x, float y, float z, NoiseField warp, float strength) {
+		float warpX = warp.sample(x, y, z);
+		float warpY = warp.sample(x + 5.2f, y + 1.3f, z + 2.8f);
+		float warpZ = warp.sample(x + 9.7f, y + 3.1f, z + 6.4f);
+		return sample(x + warpX * strength, y + warpY * strength, z + warpZ * strength);
+	}
+
+	private float combine(float value, float amplitude) {
+		switch (type) {
+			case RIDGED:
+				float ridge = 1.0f - Math.abs(value);
+				return ridge * ridge * amplitude;
+			case TURBULENCE:
+				return Math.abs(value) * amplitude;
+			default:
+				return value * amplitude;
+		}
+	}
+
+	/**
+	 * Fills a 2D grid with the field, in rows along the x for each y.
+	 *
+	 * @param destination The destination array, or null if a new array is to be created.
+	 * @param startX The x of the first point.
+	 * @param startY The y of the first point.
+	 * @param step The distance between points.
+	 * @param width The number of points along the x.
+	 * @param height The number of points along the y.
+	 *
+	 * @return The filled array.
+	 */
+	public float[] fill(float[] destination, float startX, float startY, float step, int width, int height) {
+		return fill(destination, startX, startY, 0.0f, step, width, height, 1, false);
+	}
+
+	/**
+	 * Fills a 3D grid with the field, in rows along the x for each y, in layers for each z.
+	 *
+	 * @param destination The destination array, or null if a new array is to be created.
+	 * @param startX The x of the first point.
+	 * @param startY The y of the first point.
+	 * @param startZ The z of the first point.
+	 * @param step The distance between points.
+	 * @param width The number of points along the x.
+	 * @param height The number of points along the y.
+	 * @param depth The number of points along the z.
+	 *
+	 * @return The filled array.
+	 */
+	public float[] fill(float[] destination, float startX, float startY, float startZ, float step, int width, int height, int depth) {
+		return fill(destination, startX, startY, startZ, step, width, height, depth, true);
+	}
+
+	/**
+	 * Puts a 2D grid of the field into a buffer from its position, in rows along the x for each y. The position is moved past the grid.
+	 *
+	 * @param destination The destination buffer.
+	 * @param startX The x of the first point.
+	 * @param startY The y of the first point.
+	 * @param step The distance between points.
+	 * @param width The number of points along the x.
+	 * @param height The number of points along the y.
+	 *
+	 * @return The destination buffer.
+	 */
+	public FloatBuffer store(FloatBuffer destination, float startX, float startY, float step, int width, int height) {
+		return store(destination, startX, startY, 0.0f, step, width, height, 1, false);
+	}
+
+	/**
+	 * Puts a 3D grid of the field into a buffer from its position, in rows along the x for each y, in layers for each z. The position is moved past the
+	 * grid.
+	 *
+	 * @param destination The destination buffer.
+	 * @param startX The x of the first point.
+	 * @param startY The y of the first point.
+	 * @param startZ The z of the first point.
+	 * @param step The distance between points.
+	 * @param width The number of points along the x.
+	 * @param height The number of points along the y.
+	 * @param depth The number of points along the z.
+	 *
+	 * @return The destination buffer.
+	 */
+	public FloatBuffer store(FloatBuffer destination, float startX, float startY, float startZ, float step, int width, int height, int depth) {
+		return store(destination, startX, startY, startZ, step, width, height, depth, true);
+	}
+
+	private float[] fill(float[] destination, float startX, float startY, float startZ, float step, int width, int height, int depth, boolean volume) {
+		if (destination == null) {
+			destination = new float[width * height * depth];
+		}
+
+		fillRows(new RowTask(this, destination, null, 0, startX, startY, startZ, step, width, height, volume, 0, height * depth));
+		return destination;
+	}
+
+	private FloatBuffer store(FloatBuffer destination, float startX, float startY, float startZ, float step, int width, int height, int depth, boolean volume) {
+		int offset = destination.position();
+		fillRows(new RowTask(this, null, destination, offset, startX, startY, startZ, step, width, height, volume, 0, height * depth));
+		destination.position(offset + width * height * depth);
+		return destination;
+	}
+
+	private static void fillRows(RowTask task) {
+		if ((long) (task.end - task.start) * task.width < PARALLEL_THRESHOLD) {
+			task.compute();
+		} else {
+			ForkJoinPool.commonPool().invoke(task);
+		}
+	}
+
+	/**
+	 * Fills one row of the grid.
+	 *
+	 * @param row The destination row.
+	 * @param offset Where the row starts in the destination.
+	 * @param scratch A array the size of a row, for the samples of each octave.
+	 */
+	private void fillRow(float[] row, int offset, float[] scratch, float startX, float y, float z, float step, boolean volume) {
+		int[] perm = noise.getPerm();
+		int[] permMod12 = noise.getPermMod12();
+		int width = scratch.length;
+		float octaveFrequency = frequency;
+		float amplitude = 1.0f;
+
+		Arrays.fill(row, offset, offset + width, 0.0f);
+
+		for (int octave = 0; octave < octaves; octave++) {
+			float octaveY = y * octaveFrequency;
+
+			if (volume) {
+				float octaveZ = z * octaveFrequency;
+
+				for (int i = 0; i < width; i++) {
+					scratch[i] = SimplexNoise.noise(perm, permMod12, (startX + i * step) * octaveFrequency, octaveY, octaveZ);
+				}
+			} else {
+				for (int i = 0; i < width; i++) {
+					scratch[i] = SimplexNoise.noise(perm, permMod12, (startX + i * step) * octaveFrequency, octaveY);
+				}
+			}
+
+			// Kept apart from the sampling, these loops have no calls or lookups so they can be vectorised.
+			switch (type) {
+				case RIDGED:
+					for (int i = 0; i < width; i++) {
+						float ridge = 1.0f - Math.abs(scratch[i]);
+						row[offset + i] += ridge * ridge * amplitude;
+					}
+					break;
+				case TURBULENCE:
+					for (int i = 0; i < width; i++) {
+						row[offset + i] += Math.abs(scratch[i]) * amplitude;
+					}
+					break;
+				default:
+					for (int i = 0; i < width; i++) {
+						row[offset + i] += scratch[i] * amplitude;
+					}
+					break;
+			}
+
+			octaveFrequency *= lacunarity;
+			amplitude *= gain;
+		}
+	}
+
+	public SimplexNoise getNoise() {
+		return noise;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public int getOctaves() {
+		return octaves;
+	}
+
+	public float getFrequency() {
+		return frequency;
+	}
+
+	public float getLacunarity() {
+		return lacunarity;
+	}
+
+	public float getGain() {
+		return gain;
+	}
+
+	/**
+	 * Fills a range of rows, split in halves across the pool while the range is large.
+	 */
+	private static class RowTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final NoiseField field;
+		private final float[] array;
+		private final FloatBuffer buffer;
+		private final int offset;
+		private final float startX;
+		private final float startY;
+		private final float startZ;
+		private final float step;
+		private final int width;
+		private final int height;
+		private final boolean volume;
+		private final int start;
+		private final int end;
+
+		private RowTask(NoiseField field, float[] array, FloatBuffer buffer, int offset, float startX, float startY, float startZ, float step,
+		                int width, int height, boolean volume, int start, int end) {
+			this.field = field;
+			this.array = array;
+			this.buffer = buffer;
+			this.offset = offset;
+			this.startX = startX;
+			this.startY = startY;
+			this.startZ = startZ;
+			this.step = step;
+			this.width = width;
+			this.height = height;
+			this.volume = volume;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > 1 && (long) (end - start) * width >= PARALLEL_THRESHOLD) {
+				int middle = (start + end) >>> 1;
+				invokeAll(
+						new RowTask(field, array, buffer, offset, startX, startY, startZ, step, width, height, volume, start, middle),
+						new RowTask(field, array, buffer, offset, startX, startY, startZ, step, width, height, volume, middle, end)
+				);
+				return;
+			}
+
+			float[] scratch = new float[width];
+			float[] row = array == null ? new float[width] : null;
+			FloatBuffer view = buffer == null ? null : buffer.duplicate();
+
+			for (int r = start; r < end; r++) {
+				float y = startY + (r % height) * step;
+				float z = startZ + (r / height) * step;
+
+				if (array != null) {
+					field.fillRow(array, r * width, scratch, startX, y, z, step, volume);
+				} else {
+					// Each task puts through its own view of the buffer, so the tasks do not share a position.
+					field.fillRow(row, 0, scratch, startX, y, z, step, volume);
+					view.position(offset + r * width);
+					view.put(row);
+				}
+			}
+		}
+	}
+}
@@ -3,6 +3,7 @@ package flounder.noise;
 import flounder.maths.*;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Computes Perlin Noise for three dimensions.
@@ -20,6 +21,9 @@ public class PerlinNoise {
 	// Default sample size to work with.
 	private static final int DEFAULT_SAMPLE_SIZE = 256;
 
+	// Tables made for each seed, shared by every generator with that seed.
+	private static final Map<Integer, Tables> TABLES = new ConcurrentHashMap<>();
+
 	// Permutation array for the improved noise function.
 	private int[] p_imp;
 
@@ -31,7 +35,6 @@ public class PerlinNoise {
 
 	// Not too random randomness.
 	private int seed;
-	private Random random;
 
 	/**
 	 * Create a new noise creator with the given seed value for the randomness.
@@ -52,81 +55,19 @@ public class PerlinNoise {
 	}
 
 	/**
-	 * Sets the seed to the noise generator. Also initializes the perlin noise.
+	 * Sets the seed to the noise generator. The perlin noise tables are only initialized the first time a seed is used.
 	 *
 	 * @param seed The generators seed.
 	 */
 	private void setSeed(int seed) {
-		this.p_imp = new int[DEFAULT_SAMPLE_SIZE << 1];
+		Tables tables = TABLES.computeIfAbsent(seed, Tables::new);
 
 		this.seed = seed;
-		this.random = new Random(seed);
-
-		// Local variables for setting the noise.
-		int i, j, k;
-
-		// Calculate the table of psuedo-random coefficients
-		for (i = 0; i < DEFAULT_SAMPLE_SIZE; i++) {
-			p_imp[i] = i;
-		}
-
-		// Generate the psuedo-random permutation table
-		while (--i > 0) {
-			k = p_imp[i];
-			j = (int) (random.nextLong() & DEFAULT_SAMPLE_SIZE);
-			p_imp[i] = p_imp[j];
-			p_imp[j] = k;
-		}
-
-		p = new int[B + B + 2];
-		g3 = new float[B + B + 2][3];
-		g2 = new float[B + B + 2][2];
-		g1 = new float[B + B + 2];
-
-		for (i = 0; i < B; i++) {
-			p[i] = i;
-
-			g1[i] = (float) (random.nextInt(B + B + 2) % (B + B) - B) / B;
-
-			for (j = 0; j < 2; j++) {
-				g2[i][j] = (float) (random.nextInt(B + B + 2) % (B + B) - B) / B;
-			}
-
-			// Normalize 2.
-			float s2 = (float) (1 / Math.sqrt(g2[i][0] * g2[i][0] + g2[i][1] * g2[i][1]));
-			g2[i][0] *= s2;
-			g2[i][1] *= s2;
-
-			for (j = 0; j < 3; j++) {
-				g3[i][j] = (float) (random.nextInt(B + B + 2) % (B + B) - B) / B;
-			}
-
-			// Normalize 3.
-			float s3 = (float) (1 / Math.sqrt(g3[i][0] * g3[i][0] + g3[i][1] * g3[i][1] + g3[i][2] * g3[i][2]));
-			g3[i][0] *= s3;
-			g3[i][1] *= s3;
-			g3[i][2] *= s3;
-		}
-
-		while (--i > 0) {
-			k = p[i];
-			j = random.nextInt(B + B + 2) % B;
-			p[i] = p[j];
-			p[j] = k;
-		}
-
-		for (i = 0; i < B + 2; i++) {
-			p[B + i] = p[i];
-			g1[B + i] = g1[i];
-
-			for (j = 0; j < 2; j++) {
-				g2[B + i][j] = g2[i][j];
-			}
-
-			for (j = 0; j < 3; j++) {
-				g3[B + i][j] = g3[i][j];
-			}
-		}
+		this.p_imp = tables.p_imp;
+		this.p = tables.p;
+		this.g3 = tables.g3;
+		this.g2 = tables.g2;
+		this.g1 = tables.g1;
 	}
 
 	/**
@@ -280,14 +221,17 @@ public class PerlinNoise {
 	 */
 	public float improvedNoise(float x, float y, float z) {
 		// Constraint the point to a unit cube
-		int uc_x = (int) Math.floor(x) & 255;
-		int uc_y = (int) Math.floor(y) & 255;
-		int uc_z = (int) Math.floor(z) & 255;
+		int floor_x = floor(x);
+		int floor_y = floor(y);
+		int floor_z = floor(z);
+		int uc_x = floor_x & 255;
+		int uc_y = floor_y & 255;
+		int uc_z = floor_z & 255;
 
 		// Relative location of the point in the unit cube
-		float xo = x - (float) Math.floor(x);
-		float yo = y - (float) Math.floor(y);
-		float zo = z - (float) Math.floor(z);
+		float xo = x - floor_x;
+		float yo = y - floor_y;
+		float zo = z - floor_z;
 
 		// Fade curves for x, y and z
 		float u = fade(xo);
@@ -495,6 +439,14 @@ public class PerlinNoise {
 		return t;
 	}
 
+	/**
+	 * Rounds down without going through doubles like {@link Math#floor(double)}, this is called three times for every sample.
+	 */
+	private static int floor(float x) {
+		int i = (int) x;
+		return x < i ? i - 1 : i;
+	}
+
 	/**
 	 * Fade curve calculation which is 6t^5 - 15t^4 + 10t^3. This is the new algorithm, where the old one used to be 3t^2 - 2t^3.
 	 *
@@ -557,4 +509,87 @@ public class PerlinNoise {
 			return 1 - (float) (Math.pow(2.0f * (1.0f - a), p) / 2.0f);
 		}
 	}
+
+	/**
+	 * The permutation and gradient tables for one seed, they are never changed once made.
+	 */
+	private static class Tables {
+		private final int[] p_imp;
+		private final int[] p;
+		private final float[][] g3;
+		private final float[][] g2;
+		private final float[] g1;
+
+		private Tables(int seed) {
+			this.p_imp = new int[DEFAULT_SAMPLE_SIZE << 1];
+
+			Random random = new Random(seed);
+
+			// Local variables for setting the noise.
+			int i, j, k;
+
+			// Calculate the table of psuedo-random coefficients
+			for (i = 0; i < DEFAULT_SAMPLE_SIZE; i++) {
+				p_imp[i] = i;
+			}
+
+			// Generate the psuedo-random permutation table
+			while (--i > 0) {
+				k = p_imp[i];
+				j = (int) (random.nextLong() & DEFAULT_SAMPLE_SIZE);
+				p_imp[i] = p_imp[j];
+				p_imp[j] = k;
+			}
+
+			p = new int[B + B + 2];
+			g3 = new float[B + B + 2][3];
+			g2 = new float[B + B + 2][2];
+			g1 = new float[B + B + 2];
+
+			for (i = 0; i < B; i++) {
+				p[i] = i;
+
+				g1[i] = (float) (random.nextInt(B + B + 2) % (B + B) - B) / B;
+
+				for (j = 0; j < 2; j++) {
+					g2[i][j] = (float) (random.nextInt(B + B + 2) % (B + B) - B) / B;
+				}
+
+				// Normalize 2.
+				float s2 = (float) (1 / Math.sqrt(g2[i][0] * g2[i][0] + g2[i][1] * g2[i][1]));
+				g2[i][0] *= s2;
+				g2[i][1] *= s2;
+
+				for (j = 0; j < 3; j++) {
+					g3[i][j] = (float) (random.nextInt(B + B + 2) % (B + B) - B) / B;
+				}
+
+				// Normalize 3.
+				float s3 = (float) (1 / Math.sqrt(g3[i][0] * g3[i][0] + g3[i][1] * g3[i][1] + g3[i][2] * g3[i][2]));
+				g3[i][0] *= s3;
+				g3[i][1] *= s3;
+				g3[i][2] *= s3;
+			}
+
+			while (--i > 0) {
+				k = p[i];
+				j = random.nextInt(B + B + 2) % B;
+				p[i] = p[j];
+				p[j] = k;
+			}
+
+			for (i = 0; i < B + 2; i++) {
+				p[B + i] = p[i];
+				g1[B + i] = g1[i];
+
+				for (j = 0; j < 2; j++) {
+					g2[B + i][j] = g2[i][j];
+				}
+
+				for (j = 0; j < 3; j++) {
+					g3[B + i][j] = g3[i][j];
+				}
+			}
+		}
+	}
 }
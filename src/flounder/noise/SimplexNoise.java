@@ -17,46 +17,6 @@ public class SimplexNoise {
 			{1, 1, 1, 0}, {1, 1, -1, 0}, {1, -1, 1, 0}, {1, -1, -1, 0},
 			{-1, 1, 1, 0}, {-1, 1, -1, 0}, {-1, -1, 1, 0}, {-1, -1, -1, 0}};
 
-	// The data used to create the permutations below, for(int i=0; i<512; i++) PERM[i]=P[i & 255];
-	private static final int P[] = {151, 160, 137, 91, 90, 15,
-			131, 13, 201, 95, 96, 53, 194, 233, 7, 225, 140, 36, 103, 30, 69, 142, 8, 99, 37, 240, 21, 10, 23,
-			190, 6, 148, 247, 120, 234, 75, 0, 26, 197, 62, 94, 252, 219, 203, 117, 35, 11, 32, 57, 177, 33,
-			88, 237, 149, 56, 87, 174, 20, 125, 136, 171, 168, 68, 175, 74, 165, 71, 134, 139, 48, 27, 166,
-			77, 146, 158, 231, 83, 111, 229, 122, 60, 211, 133, 230, 220, 105, 92, 41, 55, 46, 245, 40, 244,
-			102, 143, 54, 65, 25, 63, 161, 1, 216, 80, 73, 209, 76, 132, 187, 208, 89, 18, 169, 200, 196,
-			135, 130, 116, 188, 159, 86, 164, 100, 109, 198, 173, 186, 3, 64, 52, 217, 226, 250, 124, 123,
-			5, 202, 38, 147, 118, 126, 255, 82, 85, 212, 207, 206, 59, 227, 47, 16, 58, 17, 182, 189, 28, 42,
-			223, 183, 170, 213, 119, 248, 152, 2, 44, 154, 163, 70, 221, 153, 101, 155, 167, 43, 172, 9,
-			129, 22, 39, 253, 19, 98, 108, 110, 79, 113, 224, 232, 178, 185, 112, 104, 218, 246, 97, 228,
-			251, 34, 242, 193, 238, 210, 144, 12, 191, 179, 162, 241, 81, 51, 145, 235, 249, 14, 239, 107,
-			49, 192, 214, 31, 181, 199, 106, 157, 184, 84, 204, 176, 115, 121, 50, 45, 127, 4, 150, 254,
-			138, 236, 205, 93, 222, 114, 67, 29, 24, 72, 243, 141, 128, 195, 78, 66, 215, 61, 156, 180};
-
-	// To remove the need for index wrapping, float the permutation table length.
-	private static final int PERM[] = {151, 160, 137, 91, 90, 15, 131, 13, 201, 95, 96, 53, 194, 233, 7, 225, 140,
-			36, 103, 30, 69, 142, 8, 99, 37, 240, 21, 10, 23, 190, 6, 148, 247, 120, 234, 75, 0, 26, 197, 62, 94,
-			252, 219, 203, 117, 35, 11, 32, 57, 177, 33, 88, 237, 149, 56, 87, 174, 20, 125, 136, 171, 168, 68,
-			175, 74, 165, 71, 134, 139, 48, 27, 166, 77, 146, 158, 231, 83, 111, 229, 122, 60, 211, 133, 230, 220,
-			105, 92, 41, 55, 46, 245, 40, 244, 102, 143, 54, 65, 25, 63, 161, 1, 216, 80, 73, 209, 76, 132, 187,
-			208, 89, 18, 169, 200, 196, 135, 130, 116, 188, 159, 86, 164, 100, 109, 198, 173, 186, 3, 64, 52, 217,
-			226, 250, 124, 123, 5, 202, 38, 147, 118, 126, 255, 82, 85, 212, 207, 206, 59, 227, 47, 16, 58, 17,
-			182, 189, 28, 42, 223, 183, 170, 213, 119, 248, 152, 2, 44, 154, 163, 70, 221, 153, 101, 155, 167, 43,
-			172, 9, 129, 22, 39, 253, 19, 98, 108, 110, 79, 113, 224, 232, 178, 185, 112, 104, 218, 246, 97, 228,
-			251, 34, 242, 193, 238, 210, 144, 12, 191, 179, 162, 241, 81, 51, 145, 235, 249, 14, 239, 107, 49, 192,
-			214, 31, 181, 199, 106, 157, 184, 84, 204, 176, 115, 121, 50, 45, 127, 4, 150, 254, 138, 236, 205, 93,
-			222, 114, 67, 29, 24, 72, 243, 141, 128, 195, 78, 66, 215, 61, 156, 180, 151, 160, 137, 91, 90, 15, 131,
-			13, 201, 95, 96, 53, 194, 233, 7, 225, 140, 36, 103, 30, 69, 142, 8, 99, 37, 240, 21, 10, 23, 190, 6,
-			148, 247, 120, 234, 75, 0, 26, 197, 62, 94, 252, 219, 203, 117, 35, 11, 32, 57, 177, 33, 88, 237, 149,
-			56, 87, 174, 20, 125, 136, 171, 168, 68, 175, 74, 165, 71, 134, 139, 48, 27, 166, 77, 146, 158, 231, 83,
-			111, 229, 122, 60, 211, 133, 230, 220, 105, 92, 41, 55, 46, 245, 40, 244, 102, 143, 54, 65, 25, 63, 161,
-			1, 216, 80, 73, 209, 76, 132, 187, 208, 89, 18, 169, 200, 196, 135, 130, 116, 188, 159, 86, 164, 100,
-			109, 198, 173, 186, 3, 64, 52, 217, 226, 250, 124, 123, 5, 202, 38, 147, 118, 126, 255, 82, 85, 212, 207,
-			206, 59, 227, 47, 16, 58, 17, 182, 189, 28, 42, 223, 183, 170, 213, 119, 248, 152, 2, 44, 154, 163, 70,
-			221, 153, 101, 155, 167, 43, 172, 9, 129, 22, 39, 253, 19, 98, 108, 110, 79, 113, 224, 232, 178, 185, 112,
-			104, 218, 246, 97, 228, 251, 34, 242, 193, 238, 210, 144, 12, 191, 179, 162, 241, 81, 51, 145, 235, 249,
-			14, 239, 107, 49, 192, 214, 31, 181, 199, 106, 157, 184, 84, 204, 176, 115, 121, 50, 45, 127, 4, 150, 254,
-			138, 236, 205, 93, 222, 114, 67, 29, 24, 72, 243, 141, 128, 195, 78, 66, 215, 61, 156, 180};
-
 	// A lookup table to traverse the simplex around a given point in 4D. Details can be found where this table is used, in the 4D noise method.
 	private static final int SIMPLEX[][] = {
 			{0, 1, 2, 3}, {0, 1, 3, 2}, {0, 0, 0, 0}, {0, 2, 3, 1}, {0, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}, {1, 2, 3, 0},
@@ -68,21 +28,39 @@ public class SimplexNoise {
 			{2, 0, 1, 3}, {0, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}, {3, 0, 1, 2}, {3, 0, 2, 1}, {0, 0, 0, 0}, {3, 1, 2, 0},
 			{2, 1, 0, 3}, {0, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}, {3, 1, 0, 2}, {0, 0, 0, 0}, {3, 2, 0, 1}, {3, 2, 1, 0}};
 
+	// Skewing and unskewing factors for 2D and 3D.
+	private static final float F2 = 0.5f * ((float) Math.sqrt(3.0f) - 1.0f);
+	private static final float G2 = (3.0f - (float) Math.sqrt(3.0f)) / 6.0f;
+	private static final float F3 = 1.0f / 3.0f;
+	private static final float G3 = 1.0f / 6.0f;
+
 	private int seed;
+	private int[] perm;
+	private int[] permMod12; // The permutation with the gradient index already taken, so lookups do not need a remainder.
 
 	public SimplexNoise(int seed) {
-		this.seed = seed;
+		setSeed(seed);
 	}
 
 	// 2D SIMPLEX noise
 	public float noise(float xin, float yin) {
+		return noise(perm, permMod12, xin, yin);
+	}
+
+	// 3D SIMPLEX noise
+	public float noise(float xin, float yin, float zin) {
+		return noise(perm, permMod12, xin, yin, zin);
+	}
+
+	/**
+	 * 2D simplex noise from a permutation table, used by the batch generators so the tables are read without going through a instance.
+	 */
+	static float noise(int[] perm, int[] permMod12, float xin, float yin) {
 		float n0, n1, n2; // Noise contributions from the three corners.
 		// Skew the input space to determine which SIMPLEX cell we're in.
-		final float F2 = 0.5f * ((float) Math.sqrt(3.0f) - 1.0f);
 		float s = (xin + yin) * F2; // Hairy factor for 2D.
 		int i = fastfloor(xin + s);
 		int j = fastfloor(yin + s);
-		final float G2 = (3.0f - (float) Math.sqrt(3.0f)) / 6.0f;
 		float t = (i + j) * G2;
 		float X0 = i - t; // Unskew the cell origin back to (x,y) space.
 		float Y0 = j - t;
@@ -111,9 +89,9 @@ public class SimplexNoise {
 		// Work out the hashed gradient indices of the three SIMPLEX corners.
 		int ii = i & 255;
 		int jj = j & 255;
-		int gi0 = PERM[ii + PERM[jj]] % 12;
-		int gi1 = PERM[ii + i1 + PERM[jj + j1]] % 12;
-		int gi2 = PERM[ii + 1 + PERM[jj + 1]] % 12;
+		int gi0 = permMod12[ii + perm[jj]];
+		int gi1 = permMod12[ii + i1 + perm[jj + j1]];
+		int gi2 = permMod12[ii + 1 + perm[jj + 1]];
 		// Calculate the contribution from the three corners.
 		float t0 = 0.5f - x0 * x0 - y0 * y0;
 
@@ -147,16 +125,16 @@ public class SimplexNoise {
 		return (float) (70.0 * (n0 + n1 + n2));
 	}
 
-	// 3D SIMPLEX noise
-	public float noise(float xin, float yin, float zin) {
+	/**
+	 * 3D simplex noise from a permutation table, used by the batch generators so the tables are read without going through a instance.
+	 */
+	static float noise(int[] perm, int[] permMod12, float xin, float yin, float zin) {
 		float n0, n1, n2, n3; // Noise contributions from the four corners.
 		// Skew the input space to determine which SIMPLEX cell we're in.
-		final float F3 = 1.0f / 3.0f;
 		float s = (xin + yin + zin) * F3; // Very nice and simple skew factor for 3D.
 		int i = fastfloor(xin + s);
 		int j = fastfloor(yin + s);
 		int k = fastfloor(zin + s);
-		final float G3 = 1.0f / 6.0f; // Very nice and simple unskew factor, too.
 		float t = (i + j + k) * G3;
 		float X0 = i - t; // Unskew the cell origin back to (x,y,z) space.
 		float Y0 = j - t;
@@ -236,10 +214,10 @@ public class SimplexNoise {
 		int ii = i & 255;
 		int jj = j & 255;
 		int kk = k & 255;
-		int gi0 = PERM[ii + PERM[jj + PERM[kk]]] % 12;
-		int gi1 = PERM[ii + i1 + PERM[jj + j1 + PERM[kk + k1]]] % 12;
-		int gi2 = PERM[ii + i2 + PERM[jj + j2 + PERM[kk + k2]]] % 12;
-		int gi3 = PERM[ii + 1 + PERM[jj + 1 + PERM[kk + 1]]] % 12;
+		int gi0 = permMod12[ii + perm[jj + perm[kk]]];
+		int gi1 = permMod12[ii + i1 + perm[jj + j1 + perm[kk + k1]]];
+		int gi2 = permMod12[ii + i2 + perm[jj + j2 + perm[kk + k2]]];
+		int gi3 = permMod12[ii + 1 + perm[jj + 1 + perm[kk + 1]]];
 
 		// Calculate the contribution from the four corners.
 		float t0 = 0.5f - x0 * x0 - y0 * y0 - z0 * z0;
@@ -368,11 +346,11 @@ public class SimplexNoise {
 		int jj = j & 255;
 		int kk = k & 255;
 		int ll = l & 255;
-		int gi0 = PERM[ii + PERM[jj + PERM[kk + PERM[ll]]]] % 32;
-		int gi1 = PERM[ii + i1 + PERM[jj + j1 + PERM[kk + k1 + PERM[ll + l1]]]] % 32;
-		int gi2 = PERM[ii + i2 + PERM[jj + j2 + PERM[kk + k2 + PERM[ll + l2]]]] % 32;
-		int gi3 = PERM[ii + i3 + PERM[jj + j3 + PERM[kk + k3 + PERM[ll + l3]]]] % 32;
-		int gi4 = PERM[ii + 1 + PERM[jj + 1 + PERM[kk + 1 + PERM[ll + 1]]]] % 32;
+		int gi0 = perm[ii + perm[jj + perm[kk + perm[ll]]]] % 32;
+		int gi1 = perm[ii + i1 + perm[jj + j1 + perm[kk + k1 + perm[ll + l1]]]] % 32;
+		int gi2 = perm[ii + i2 + perm[jj + j2 + perm[kk + k2 + perm[ll + l2]]]] % 32;
+		int gi3 = perm[ii + i3 + perm[jj + j3 + perm[kk + k3 + perm[ll + l3]]]] % 32;
+		int gi4 = perm[ii + 1 + perm[jj + 1 + perm[kk + 1 + perm[ll + 1]]]] % 32;
 
 		// Calculate the contribution from the five corners.
 		float t0 = 0.6f - x0 * x0 - y0 * y0 - z0 * z0 - w0 * w0;
@@ -441,11 +419,30 @@ public class SimplexNoise {
 		return g[0] * x + g[1] * y + g[2] * z + g[3] * w;
 	}
 
+	int[] getPerm() {
+		return perm;
+	}
+
+	int[] getPermMod12() {
+		return permMod12;
+	}
+
 	public int getSeed() {
 		return seed;
 	}
 
+	/**
+	 * Changes the seed of this generator, it switches to the shared permutation tables of the new seed.
+	 *
+	 * @param seed The new seed.
+	 *
+	 * @deprecated Generators from {@link FlounderNoise#getSimplex(int)} are shared, changing the seed of one changes the noise of every user. Get a generator for
+	 * the seed instead.
+	 */
+	@Deprecated
 	public void setSeed(int seed) {
 		this.seed = seed;
+		this.perm = NoiseTables.getPermutation(seed);
+		this.permMod12 = NoiseTables.getPermutationMod12(seed);
 	}
 }
@@ -0,0 +1,304 @@
+package flounder.noise;
+
+/**
+ * Cellular (Worley) noise in 2D and 3D. Space is split into unit cells with one feature point placed in each by a hash of the seed and cell, the noise is
+ * the distance to the nearest feature point. The distance to the second nearest point is also available, the difference of the two gives cell edges.
+ */
+public class WorleyNoise {
+	private static final float INVERSE_HASH = 1.0f / (1 << 24);
+
+	// One point per cell puts the nearest two points within two cells of the sample, and cells three away are further than either. The cells around the
+	// sample are always searched, the ring of cells two away only when a point there could be nearer than those found.
+	private static final int[] OUTER_2D = getOuterOffsets(2);
+	private static final int[] OUTER_3D = getOuterOffsets(3);
+
+	private final int seed;
+
+	/**
+	 * Creates a new cellular noise generator.
+	 *
+	 * @param seed The seed that places the feature points.
+	 */
+	public WorleyNoise(int seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Gets the distance to the nearest feature point in 2D.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 *
+	 * @return The distance, about 0 to 1.
+	 */
+	public float noise(float x, float y) {
+		int cellX = fastfloor(x);
+		int cellY = fastfloor(y);
+		float nearest = Float.POSITIVE_INFINITY;
+
+		for (int j = cellY - 1; j <= cellY + 1; j++) {
+			for (int i = cellX - 1; i <= cellX + 1; i++) {
+				nearest = Math.min(nearest, distance(i, j, x, y));
+			}
+		}
+
+		if (nearest > getOuterDistance(x - cellX, y - cellY)) {
+			for (int o = 0; o < OUTER_2D.length; o += 2) {
+				int i = cellX + OUTER_2D[o];
+				int j = cellY + OUTER_2D[o + 1];
+
+				if (gap(x, i) + gap(y, j) < nearest) {
+					nearest = Math.min(nearest, distance(i, j, x, y));
+				}
+			}
+		}
+
+		return (float) Math.sqrt(nearest);
+	}
+
+	/**
+	 * Gets the distance to the nearest feature point in 3D.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param z The z coordinate.
+	 *
+	 * @return The distance, about 0 to 1.
+	 */
+	public float noise(float x, float y, float z) {
+		int cellX = fastfloor(x);
+		int cellY = fastfloor(y);
+		int cellZ = fastfloor(z);
+		float nearest = Float.POSITIVE_INFINITY;
+
+		for (int k = cellZ - 1; k <= cellZ + 1; k++) {
+			for (int j = cellY - 1; j <= cellY + 1; j++) {
+				for (int i = cellX - 1; i <= cellX + 1; i++) {
+					nearest = Math.min(nearest, distance(i, j, k, x, y, z));
+				}
+			}
+		}
+
+		if (nearest > getOuterDistance(x - cellX, y - cellY, z - cellZ)) {
+			for (int o = 0; o < OUTER_3D.length; o += 3) {
+				int i = cellX + OUTER_3D[o];
+				int j = cellY + OUTER_3D[o + 1];
+				int k = cellZ + OUTER_3D[o + 2];
+
+				if (gap(x, i) + gap(y, j) + gap(z, k) < nearest) {
+					nearest = Math.min(nearest, distance(i, j, k, x, y, z));
+				}
+			}
+		}
+
+		return (float) Math.sqrt(nearest);
+	}
+
+	/**
+	 * Gets the distances to the nearest and second nearest feature points in 2D.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param destination The destination array of two distances, or null if a new array is to be created.
+	 *
+	 * @return The nearest distance, then the second nearest distance.
+	 */
+	public float[] getDistances(float x, float y, float[] destination) {
+		if (destination == null) {
+			destination = new float[2];
+		}
+
+		int cellX = fastfloor(x);
+		int cellY = fastfloor(y);
+		float nearest = Float.POSITIVE_INFINITY;
+		float second = Float.POSITIVE_INFINITY;
+
+		for (int j = cellY - 1; j <= cellY + 1; j++) {
+			for (int i = cellX - 1; i <= cellX + 1; i++) {
+				float distance = distance(i, j, x, y);
+
+				if (distance < nearest) {
+					second = nearest;
+					nearest = distance;
+				} else if (distance < second) {
+					second = distance;
+				}
+			}
+		}
+
+		if (second > getOuterDistance(x - cellX, y - cellY)) {
+			for (int o = 0; o < OUTER_2D.length; o += 2) {
+				int i = cellX + OUTER_2D[o];
+				int j = cellY + OUTER_2D[o + 1];
+
+				if (gap(x, i) + gap(y, j) >= second) {
+					continue;
+				}
+
+				float distance = distance(i, j, x, y);
+
+				if (distance < nearest) {
+					second = nearest;
+					nearest = distance;
+				} else if (distance < second) {
+					second = distance;
+				}
+			}
+		}
+
+		destination[0] = (float) Math.sqrt(nearest);
+		destination[1] = (float) Math.sqrt(second);
+		return destination;
+	}
+
+	/**
+	 * Gets the distances to the nearest and second nearest feature points in 3D.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param z The z coordinate.
+	 * @param destination The destination array of two distances, or null if a new array is to be created.
+	 *
+	 * @return The nearest distance, then the second nearest distance.
+	 */
+	public float[] getDistances(float x, float y, float z, float[] destination) {
+		if (destination == null) {
+			destination = new float[2];
+		}
+
+		int cellX = fastfloor(x);
+		int cellY = fastfloor(y);
+		int cellZ = fastfloor(z);
+		float nearest = Float.POSITIVE_INFINITY;
+		float second = Float.POSITIVE_INFINITY;
+
+		for (int k = cellZ - 1; k <= cellZ + 1; k++) {
+			for (int j = cellY - 1; j <= cellY + 1; j++) {
+				for (int i = cellX - 1; i <= cellX + 1; i++) {
+					float distance = distance(i, j, k, x, y, z);
+
+					if (distance < nearest) {
+						second = nearest;
+						nearest = distance;
+					} else if (distance < second) {
+						second = distance;
+					}
+				}
+			}
+		}
+
+		if (second > getOuterDistance(x - cellX, y - cellY, z - cellZ)) {
+			for (int o = 0; o < OUTER_3D.length; o += 3) {
+				int i = cellX + OUTER_3D[o];
+				int j = cellY + OUTER_3D[o + 1];
+				int k = cellZ + OUTER_3D[o + 2];
+
+				if (gap(x, i) + gap(y, j) + gap(z, k) >= second) {
+					continue;
+				}
+
+				float distance = distance(i, j, k, x, y, z);
+
+				if (distance < nearest) {
+					second = nearest;
+					nearest = distance;
+				} else if (distance < second) {
+					second = distance;
+				}
+			}
+		}
+
+		destination[0] = (float) Math.sqrt(nearest);
+		destination[1] = (float) Math.sqrt(second);
+		return destination;
+	}
+
+	/**
+	 * Gets the squared distance from a sample to the feature point of a 2D cell.
+	 */
+	private float distance(int i, int j, float x, float y) {
+		int hash = hash(seed, i, j, 0);
+		float dx = i + (hash & 0xffffff) * INVERSE_HASH - x;
+		float dy = j + (hash(hash, i, j, 1) & 0xffffff) * INVERSE_HASH - y;
+		return dx * dx + dy * dy;
+	}
+
+	/**
+	 * Gets the squared distance from a sample to the feature point of a 3D cell.
+	 */
+	private float distance(int i, int j, int k, float x, float y, float z) {
+		int hash = hash(seed, i, j, k);
+		float dx = i + (hash & 0xffffff) * INVERSE_HASH - x;
+		float dy = j + (hash(hash, i, j, k + 1) & 0xffffff) * INVERSE_HASH - y;
+		float dz = k + (hash(hash, k, i, j + 1) & 0xffffff) * INVERSE_HASH - z;
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	/**
+	 * Gets the least squared distance from a sample to any cell in the outer ring, one more than the distance to the nearest side of its own cell.
+	 */
+	private static float getOuterDistance(float fx, float fy) {
+		float side = 1.0f + Math.min(Math.min(fx, 1.0f - fx), Math.min(fy, 1.0f - fy));
+		return side * side;
+	}
+
+	private static float getOuterDistance(float fx, float fy, float fz) {
+		float side = 1.0f + Math.min(Math.min(Math.min(fx, 1.0f - fx), Math.min(fy, 1.0f - fy)), Math.min(fz, 1.0f - fz));
+		return side * side;
+	}
+
+	/**
+	 * Gets the squared distance along one axis from a sample to a cell, the least any point in the cell can add to the distance.
+	 */
+	private static float gap(float p, int cell) {
+		float gap = p < cell ? cell - p : p > cell + 1 ? p - (cell + 1) : 0.0f;
+		return gap * gap;
+	}
+
+	/**
+	 * Gets the offsets of the cells two away from the centre of a 5 wide block in some dimensions.
+	 */
+	private static int[] getOuterOffsets(int dimensions) {
+		int cells = dimensions == 2 ? 25 : 125;
+		int[] offsets = new int[(cells - (dimensions == 2 ? 9 : 27)) * dimensions];
+		int o = 0;
+
+		for (int c = 0; c < cells; c++) {
+			int i = c % 5 - 2;
+			int j = c / 5 % 5 - 2;
+			int k = dimensions == 2 ? 0 : c / 25 - 2;
+
+			if (Math.abs(i) == 2 || Math.abs(j) == 2 || Math.abs(k) == 2) {
+				offsets[o++] = i;
+				offsets[o++] = j;
+
+				if (dimensions == 3) {
+					offsets[o++] = k;
+				}
+			}
+		}
+
+		return offsets;
+	}
+
+	/**
+	 * Mixes a seed and three integers into a well spread hash.
+	 */
+	private static int hash(int seed, int x, int y, int z) {
+		int hash = seed ^ x * 0x27d4eb2d ^ y * 0x165667b1 ^ z * 0x1b873593;
+		hash ^= hash >>> 15;
+		hash *= 0x85ebca6b;
+		hash ^= hash >>> 13;
+		hash *= 0xc2b2ae35;
+		return hash ^ hash >>> 16;
+	}
+
+	private static int fastfloor(float x) {
+		int i = (int) x;
+		return x < i ? i - 1 : i;
+	}
+
+	public int getSeed() {
+		return seed;
+	}
+}
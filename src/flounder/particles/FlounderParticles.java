@@ -6,6 +6,7 @@ import flounder.guis.*;
 import flounder.helpers.*;
 import flounder.loaders.*;
 import flounder.maths.vectors.*;
+import flounder.noise.*;
 import flounder.resources.*;
 import flounder.space.*;
 import flounder.textures.*;
@@ -30,7 +31,7 @@ public class FlounderParticles extends Module {
 	 * Creates a new particle systems manager.
 	 */
 	public FlounderParticles() {
-		super(FlounderDisplay.class, FlounderLoader.class, FlounderTextures.class);
+		super(FlounderDisplay.class, FlounderLoader.class, FlounderNoise.class, FlounderTextures.class);
 	}
 
 	@Handler.Function(Handler.FLAG_INIT)
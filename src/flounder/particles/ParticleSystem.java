@@ -53,7 +53,7 @@ public class ParticleSystem {
 		this.systemCentre = new Vector3f();
 		this.velocityCentre = new Vector3f();
 
-		this.noise = new PerlinNoise(21);
+		this.noise = FlounderNoise.get().getPerlin(21);
 
 		this.paused = false;
 
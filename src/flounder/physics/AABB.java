@@ -13,6 +13,7 @@ import java.util.*;
 public class AABB extends Collider {
 	private static final MyFile MODEL_FILE = new MyFile(MyFile.RES_FOLDER, "models", "aabb.obj");
 	private static final ModelObject MODEL_OBJECT = ModelFactory.newBuilder().setFile(MODEL_FILE).create();
+	private static final ThreadLocal<Vector3f> ROTATED_CORNER = ThreadLocal.withInitial(Vector3f::new);
 
 	private Vector3f minExtents;
 	private Vector3f maxExtents;
@@ -63,34 +64,34 @@ public class AABB extends Collider {
 			aabb.setMaxExtents(aabb.maxExtents.x * scale, aabb.maxExtents.y * scale, aabb.maxExtents.z * scale);
 		}
 
-		// Creates the 8 AABB corners and rotates them.
+		// Rotates the 8 AABB corners, keeping the extents that bound them all.
 		if (!rotation.isZero()) {
-			Vector3f fll = new Vector3f(aabb.minExtents.x, aabb.minExtents.y, aabb.minExtents.z);
-			Vector3f.rotate(fll, rotation, fll);
-
-			Vector3f flr = new Vector3f(aabb.maxExtents.x, aabb.minExtents.y, aabb.minExtents.z);
-			Vector3f.rotate(flr, rotation, flr);
-
-			Vector3f ful = new Vector3f(aabb.minExtents.x, aabb.maxExtents.y, aabb.minExtents.z);
-			Vector3f.rotate(ful, rotation, ful);
-
-			Vector3f fur = new Vector3f(aabb.maxExtents.x, aabb.maxExtents.y, aabb.minExtents.z);
-			Vector3f.rotate(fur, rotation, fur);
-
-			Vector3f bur = new Vector3f(aabb.maxExtents.x, aabb.maxExtents.y, aabb.maxExtents.z);
-			Vector3f.rotate(bur, rotation, bur);
-
-			Vector3f bul = new Vector3f(aabb.minExtents.x, aabb.maxExtents.y, aabb.maxExtents.z);
-			Vector3f.rotate(bul, rotation, bul);
-
-			Vector3f blr = new Vector3f(aabb.maxExtents.x, aabb.minExtents.y, aabb.maxExtents.z);
-			Vector3f.rotate(blr, rotation, blr);
-
-			Vector3f bll = new Vector3f(aabb.minExtents.x, aabb.minExtents.y, aabb.maxExtents.z);
-			Vector3f.rotate(bll, rotation, bll);
+			float minX = Float.POSITIVE_INFINITY;
+			float minY = Float.POSITIVE_INFINITY;
+			float minZ = Float.POSITIVE_INFINITY;
+			float maxX = Float.NEGATIVE_INFINITY;
+			float maxY = Float.NEGATIVE_INFINITY;
+			float maxZ = Float.NEGATIVE_INFINITY;
+
+			Vector3f corner = ROTATED_CORNER.get();
+
+			for (int i = 0; i < 8; i++) {
+				corner.set(
+						(i & 1) == 0 ? aabb.minExtents.x : aabb.maxExtents.x,
+						(i & 2) == 0 ? aabb.minExtents.y : aabb.maxExtents.y,
+						(i & 4) == 0 ? aabb.minExtents.z : aabb.maxExtents.z
+				);
+				Vector3f.rotate(corner, rotation, corner);
+				minX = Math.min(minX, corner.x);
+				minY = Math.min(minY, corner.y);
+				minZ = Math.min(minZ, corner.z);
+				maxX = Math.max(maxX, corner.x);
+				maxY = Math.max(maxY, corner.y);
+				maxZ = Math.max(maxZ, corner.z);
+			}
 
-			aabb.minExtents = Maths.min(fll, Maths.min(flr, Maths.min(ful, Maths.min(fur, Maths.min(bur, Maths.min(bul, Maths.min(blr, bll)))))));
-			aabb.maxExtents = Maths.max(fll, Maths.max(flr, Maths.max(ful, Maths.max(fur, Maths.max(bur, Maths.max(bul, Maths.max(blr, bll)))))));
+			aabb.setMinExtents(minX, minY, minZ);
+			aabb.setMaxExtents(maxX, maxY, maxZ);
 		}
 
 		// Transforms the AABB.
@@ -161,6 +162,10 @@ public class AABB extends Collider {
 					destination.z = newAmountZ;
 				}
 			}
+		} else if (other instanceof Heightfield) {
+			// Stands the box on the terrain under where it is moving to.
+			destination.y = ((Heightfield) other).resolveMoveY(minExtents.x + positionDelta.x, minExtents.z + positionDelta.z,
+					maxExtents.x + positionDelta.x, maxExtents.z + positionDelta.z, minExtents.y, positionDelta.y);
 		}
 
 		return destination;
@@ -172,93 +177,45 @@ public class AABB extends Collider {
 	}
 
 	@Override
-	public IntersectData intersects(Collider other) throws IllegalArgumentException {
+	public IntersectData intersects(Collider other, IntersectData destination) throws IllegalArgumentException {
+		if (destination == null) {
+			destination = new IntersectData();
+		}
+
 		if (other == null || this.equals(other)) {
-			return new IntersectData(true, 0.0f);
+			return destination.set(true, 0.0f);
 		}
 
 		if (other instanceof AABB) {
 			AABB aabb = (AABB) other;
-
-			Vector3f distance1 = Vector3f.subtract(getMinExtents(), aabb.getMaxExtents(), null);
-			Vector3f distance2 = Vector3f.subtract(aabb.getMinExtents(), getMaxExtents(), null);
-			float maxDist = Maths.max(Maths.max(distance1, distance2));
-			return new IntersectData(maxDist < 0.0f, maxDist);
+			return ColliderKernels.aabbAabb(
+					minExtents.x, minExtents.y, minExtents.z, maxExtents.x, maxExtents.y, maxExtents.z,
+					aabb.minExtents.x, aabb.minExtents.y, aabb.minExtents.z, aabb.maxExtents.x, aabb.maxExtents.y, aabb.maxExtents.z, destination
+			);
 		} else if (other instanceof Sphere) {
 			Sphere sphere = (Sphere) other;
-
-			float distanceSquared = sphere.getRadius() * sphere.getRadius();
-
-			if (sphere.getPosition().x < minExtents.x) {
-				distanceSquared -= Math.pow(sphere.getPosition().x - minExtents.x, 2);
-			} else if (sphere.getPosition().x > maxExtents.x) {
-				distanceSquared -= Math.pow(sphere.getPosition().x - maxExtents.x, 2);
-			}
-
-			if (sphere.getPosition().y < minExtents.x) {
-				distanceSquared -= Math.pow(sphere.getPosition().y - minExtents.y, 2);
-			} else if (sphere.getPosition().x > maxExtents.x) {
-				distanceSquared -= Math.pow(sphere.getPosition().y - maxExtents.y, 2);
-			}
-
-			if (sphere.getPosition().z < minExtents.x) {
-				distanceSquared -= Math.pow(sphere.getPosition().z - minExtents.z, 2);
-			} else if (sphere.getPosition().z > maxExtents.x) {
-				distanceSquared -= Math.pow(sphere.getPosition().z - maxExtents.z, 2);
-			}
-
-			return new IntersectData(distanceSquared > 0.0f, (float) Math.sqrt(distanceSquared));
+			Vector3f position = sphere.getPosition();
+			return ColliderKernels.aabbSphere(
+					minExtents.x, minExtents.y, minExtents.z, maxExtents.x, maxExtents.y, maxExtents.z,
+					position.x, position.y, position.z, sphere.getRadius(), destination
+			);
 		}
 
-		return new IntersectData(false, 0.0f);
+		return destination.set(false, 0.0f);
 	}
 
 	@Override
-	public IntersectData intersects(Ray ray) throws IllegalArgumentException {
-		double tmin = (minExtents.x - ray.getOrigin().x) / ray.getCurrentRay().x;
-		double tmax = (maxExtents.x - ray.getOrigin().x) / ray.getCurrentRay().x;
-
-		if (tmin > tmax) {
-			double temp = tmax;
-			tmax = tmin;
-			tmin = temp;
-		}
-
-		float tymin = (minExtents.y - ray.getOrigin().y) / ray.getCurrentRay().y;
-		float tymax = (maxExtents.y - ray.getOrigin().y) / ray.getCurrentRay().y;
-
-		if (tymin > tymax) {
-			float temp = tymax;
-			tymax = tymin;
-			tymin = temp;
-		}
-
-		if ((tmin > tymax) || (tymin > tmax)) {
-			return new IntersectData(false, 0.0f);
-		}
-
-		if (tymin > tmin) {
-			tmin = tymin;
-		}
-
-		if (tymax < tmax) {
-			tmax = tymax;
-		}
-
-		float tzmin = (minExtents.z - ray.getOrigin().z) / ray.getCurrentRay().z;
-		float tzmax = (maxExtents.z - ray.getOrigin().z) / ray.getCurrentRay().z;
-
-		if (tzmin > tzmax) {
-			float temp = tzmax;
-			tzmax = tzmin;
-			tzmin = temp;
-		}
-
-		if ((tmin > tzmax) || (tzmin > tmax)) {
-			return new IntersectData(false, 0.0f);
+	public IntersectData intersects(Ray ray, IntersectData destination) throws IllegalArgumentException {
+		if (destination == null) {
+			destination = new IntersectData();
 		}
 
-		return new IntersectData(true, 0.0f);
+		Vector3f origin = ray.getOrigin();
+		Vector3f direction = ray.getCurrentRay();
+		return ColliderKernels.rayAabb(
+				origin.x, origin.y, origin.z, direction.x, direction.y, direction.z,
+				minExtents.x, minExtents.y, minExtents.z, maxExtents.x, maxExtents.y, maxExtents.z, destination
+		);
 	}
 
 	@Override
@@ -274,13 +231,10 @@ public class AABB extends Collider {
 
 		if (other instanceof AABB) {
 			AABB aabb2 = (AABB) other;
-
-			return minExtents.getX() <= aabb2.minExtents.getX() &&
-					aabb2.maxExtents.getX() <= maxExtents.getX() &&
-					minExtents.getY() <= aabb2.minExtents.getY() &&
-					aabb2.maxExtents.getY() <= maxExtents.getY() &&
-					minExtents.getZ() <= aabb2.minExtents.getZ() &&
-					aabb2.maxExtents.getZ() <= maxExtents.getZ();
+			return ColliderKernels.aabbContainsAabb(
+					minExtents.x, minExtents.y, minExtents.z, maxExtents.x, maxExtents.y, maxExtents.z,
+					aabb2.minExtents.x, aabb2.minExtents.y, aabb2.minExtents.z, aabb2.maxExtents.x, aabb2.maxExtents.y, aabb2.maxExtents.z
+			);
 		}
 
 		return false;
@@ -288,21 +242,7 @@ public class AABB extends Collider {
 
 	@Override
 	public boolean contains(Vector3f point) {
-		if (point.x > maxExtents.x) {
-			return false;
-		} else if (point.x < minExtents.x) {
-			return false;
-		} else if (point.y > maxExtents.y) {
-			return false;
-		} else if (point.y < minExtents.y) {
-			return false;
-		} else if (point.z > maxExtents.z) {
-			return false;
-		} else if (point.z < minExtents.z) {
-			return false;
-		}
-
-		return true;
+		return ColliderKernels.aabbContainsPoint(minExtents.x, minExtents.y, minExtents.z, maxExtents.x, maxExtents.y, maxExtents.z, point.x, point.y, point.z);
 	}
 
 	/**
@@ -48,16 +48,40 @@ public abstract class Collider {
 	 *
 	 * @return Data about the calculated shape intersection.
 	 */
-	public abstract IntersectData intersects(Collider other) throws IllegalArgumentException;
+	public IntersectData intersects(Collider other) throws IllegalArgumentException {
+		return intersects(other, null);
+	}
+
+	/**
+	 * Tests whether a shape is intersecting this shape.
+	 *
+	 * @param other The other shape being tested for intersection
+	 * @param destination The intersect data to store the result in, or null if a new one is to be created.
+	 *
+	 * @return Data about the calculated shape intersection.
+	 */
+	public abstract IntersectData intersects(Collider other, IntersectData destination) throws IllegalArgumentException;
+
+	/**
+	 * Tests whether a ray is intersecting this shape.
+	 *
+	 * @param other The other ray being tested for intersection
+	 *
+	 * @return Data about the calculated ray intersection.
+	 */
+	public IntersectData intersects(Ray other) throws IllegalArgumentException {
+		return intersects(other, null);
+	}
 
 	/**
 	 * Tests whether a ray is intersecting this shape.
 	 *
 	 * @param other The other ray being tested for intersection
+	 * @param destination The intersect data to store the result in, or null if a new one is to be created.
 	 *
 	 * @return Data about the calculated ray intersection.
 	 */
-	public abstract IntersectData intersects(Ray other) throws IllegalArgumentException;
+	public abstract IntersectData intersects(Ray other, IntersectData destination) throws IllegalArgumentException;
 
 	/**
 	 * Gets if the shape is partially in the view frustum.
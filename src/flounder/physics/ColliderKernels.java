@@ -0,0 +1,438 @@
+package flounder.physics;
+
+/**
+ * Collision tests between primitive shapes, taking every shape as plain floats and writing results into a caller owned {@link IntersectData}, so a test
+ * never allocates. The {@link Collider} classes delegate to these, and code that tests many shapes (like spatial structure queries) can call them
+ * directly with one reused result.
+ * <p>
+ * Distances are signed gaps between the shapes, negative when they overlap. Ray distances are how far along the ray the shape is first hit. Sweeps
+ * write a {@link ImpactData} with the fraction of the move where a moving shape first touches another.
+ */
+public class ColliderKernels {
+	private static final int MAX_ADVANCEMENTS = 16;
+	private static final float SWEEP_TOLERANCE = 1.0e-4f;
+
+	private ColliderKernels() {
+	}
+
+	/**
+	 * Gets if two AABBs overlap, touching boxes overlap. Every axis is tested without branching between them.
+	 *
+	 * @return If the boxes overlap.
+	 */
+	public static boolean aabbOverlapsAabb(float minX1, float minY1, float minZ1, float maxX1, float maxY1, float maxZ1,
+	                                       float minX2, float minY2, float minZ2, float maxX2, float maxY2, float maxZ2) {
+		return (minX1 <= maxX2) & (minX2 <= maxX1) & (minY1 <= maxY2) & (minY2 <= maxY1) & (minZ1 <= maxZ2) & (minZ2 <= maxZ1);
+	}
+
+	/**
+	 * Tests two AABBs with the separating axis test, the distance is the largest separation along any axis.
+	 *
+	 * @param destination The result to set.
+	 *
+	 * @return The destination.
+	 */
+	public static IntersectData aabbAabb(float minX1, float minY1, float minZ1, float maxX1, float maxY1, float maxZ1,
+	                                     float minX2, float minY2, float minZ2, float maxX2, float maxY2, float maxZ2, IntersectData destination) {
+		float gapX = Math.max(minX1 - maxX2, minX2 - maxX1);
+		float gapY = Math.max(minY1 - maxY2, minY2 - maxY1);
+		float gapZ = Math.max(minZ1 - maxZ2, minZ2 - maxZ1);
+		float gap = Math.max(gapX, Math.max(gapY, gapZ));
+		return destination.set(gap < 0.0f, gap);
+	}
+
+	/**
+	 * Gets if the first AABB completely contains the second.
+	 *
+	 * @return If the second box is inside the first.
+	 */
+	public static boolean aabbContainsAabb(float minX1, float minY1, float minZ1, float maxX1, float maxY1, float maxZ1,
+	                                       float minX2, float minY2, float minZ2, float maxX2, float maxY2, float maxZ2) {
+		return (minX1 <= minX2) & (maxX2 <= maxX1) & (minY1 <= minY2) & (maxY2 <= maxY1) & (minZ1 <= minZ2) & (maxZ2 <= maxZ1);
+	}
+
+	/**
+	 * Gets if a AABB contains a point.
+	 *
+	 * @return If the point is inside the box.
+	 */
+	public static boolean aabbContainsPoint(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float x, float y, float z) {
+		return (minX <= x) & (x <= maxX) & (minY <= y) & (y <= maxY) & (minZ <= z) & (z <= maxZ);
+	}
+
+	/**
+	 * Gets the squared distance from a point to the closest point in a AABB, zero if the point is inside.
+	 *
+	 * @return The squared distance.
+	 */
+	public static float aabbPointDistanceSquared(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float x, float y, float z) {
+		float dx = Math.max(Math.max(minX - x, x - maxX), 0.0f);
+		float dy = Math.max(Math.max(minY - y, y - maxY), 0.0f);
+		float dz = Math.max(Math.max(minZ - z, z - maxZ), 0.0f);
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	/**
+	 * Tests a AABB against a sphere, the distance is from the sphere surface to the closest point in the box.
+	 *
+	 * @param destination The result to set.
+	 *
+	 * @return The destination.
+	 */
+	public static IntersectData aabbSphere(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+	                                       float x, float y, float z, float radius, IntersectData destination) {
+		float distanceSquared = aabbPointDistanceSquared(minX, minY, minZ, maxX, maxY, maxZ, x, y, z);
+		return destination.set(distanceSquared < radius * radius, (float) Math.sqrt(distanceSquared) - radius);
+	}
+
+	/**
+	 * Tests two spheres, the distance is between the sphere surfaces.
+	 *
+	 * @param destination The result to set.
+	 *
+	 * @return The destination.
+	 */
+	public static IntersectData sphereSphere(float x1, float y1, float z1, float radius1, float x2, float y2, float z2, float radius2, IntersectData destination) {
+		float dx = x1 - x2;
+		float dy = y1 - y2;
+		float dz = z1 - z2;
+		float distanceSquared = dx * dx + dy * dy + dz * dz;
+		float radii = radius1 + radius2;
+		return destination.set(distanceSquared < radii * radii, (float) Math.sqrt(distanceSquared) - radii);
+	}
+
+	/**
+	 * Gets if the first sphere completely contains the second.
+	 *
+	 * @return If the second sphere is inside the first.
+	 */
+	public static boolean sphereContainsSphere(float x1, float y1, float z1, float radius1, float x2, float y2, float z2, float radius2) {
+		float space = radius1 - radius2;
+
+		if (space < 0.0f) {
+			return false;
+		}
+
+		float dx = x1 - x2;
+		float dy = y1 - y2;
+		float dz = z1 - z2;
+		return dx * dx + dy * dy + dz * dz <= space * space;
+	}
+
+	/**
+	 * Gets if a sphere contains a point.
+	 *
+	 * @return If the point is inside the sphere.
+	 */
+	public static boolean sphereContainsPoint(float x, float y, float z, float radius, float pointX, float pointY, float pointZ) {
+		float dx = x - pointX;
+		float dy = y - pointY;
+		float dz = z - pointZ;
+		return dx * dx + dy * dy + dz * dz <= radius * radius;
+	}
+
+	/**
+	 * Tests a ray against a AABB with the slab test. Rays starting inside the box hit it at a distance of zero, boxes behind the ray are missed.
+	 *
+	 * @param originX The ray origin on the x.
+	 * @param originY The ray origin on the y.
+	 * @param originZ The ray origin on the z.
+	 * @param directionX The ray direction on the x.
+	 * @param directionY The ray direction on the y.
+	 * @param directionZ The ray direction on the z.
+	 * @param destination The result to set.
+	 *
+	 * @return The destination.
+	 */
+	public static IntersectData rayAabb(float originX, float originY, float originZ, float directionX, float directionY, float directionZ,
+	                                    float minX, float minY, float minZ, float maxX, float maxY, float maxZ, IntersectData destination) {
+		float near = slabs(originX, originY, originZ, directionX, directionY, directionZ, minX, minY, minZ, maxX, maxY, maxZ);
+		return near < 0.0f ? destination.set(false, -1.0f) : destination.set(true, near);
+	}
+
+	/**
+	 * Tests a ray against a sphere. Rays starting inside the sphere hit it where they leave it, spheres behind the ray are missed.
+	 *
+	 * @param originX The ray origin on the x.
+	 * @param originY The ray origin on the y.
+	 * @param originZ The ray origin on the z.
+	 * @param directionX The ray direction on the x.
+	 * @param directionY The ray direction on the y.
+	 * @param directionZ The ray direction on the z.
+	 * @param destination The result to set.
+	 *
+	 * @return The destination.
+	 */
+	public static IntersectData raySphere(float originX, float originY, float originZ, float directionX, float directionY, float directionZ,
+	                                      float x, float y, float z, float radius, IntersectData destination) {
+		float lx = originX - x;
+		float ly = originY - y;
+		float lz = originZ - z;
+		float a = directionX * directionX + directionY * directionY + directionZ * directionZ;
+		float b = 2.0f * (directionX * lx + directionY * ly + directionZ * lz);
+		float c = lx * lx + ly * ly + lz * lz - radius * radius;
+		float discriminant = b * b - 4.0f * a * c;
+
+		if (a == 0.0f || discriminant < 0.0f) {
+			return destination.set(false, -1.0f);
+		}
+
+		// The numerically stable form of the quadratic roots.
+		float root = (float) Math.sqrt(discriminant);
+		float q = b < 0.0f ? (-b - root) * 0.5f : (-b + root) * 0.5f;
+		float t0 = q / a;
+		float t1 = q == 0.0f ? t0 : c / q;
+
+		if (t0 > t1) {
+			float temp = t0;
+			t0 = t1;
+			t1 = temp;
+		}
+
+		if (t1 < 0.0f) {
+			return destination.set(false, -1.0f);
+		}
+
+		return destination.set(true, t0 < 0.0f ? t1 : t0);
+	}
+
+	/**
+	 * Finds when a moving AABB first touches another. Each axis gives the range of the move where the boxes overlap on it, the boxes touch where all the
+	 * ranges first overlap.
+	 *
+	 * @param motionX The move of the first box on the x.
+	 * @param motionY The move of the first box on the y.
+	 * @param motionZ The move of the first box on the z.
+	 * @param destination The result to set.
+	 *
+	 * @return The destination.
+	 */
+	public static ImpactData sweepAabbAabb(float minX1, float minY1, float minZ1, float maxX1, float maxY1, float maxZ1, float motionX, float motionY, float motionZ,
+	                                       float minX2, float minY2, float minZ2, float maxX2, float maxY2, float maxZ2, ImpactData destination) {
+		float enter = Float.NEGATIVE_INFINITY;
+		float exit = Float.POSITIVE_INFINITY;
+		int axis = -1;
+
+		for (int i = 0; i < 3; i++) {
+			float motion = i == 0 ? motionX : i == 1 ? motionY : motionZ;
+			float min1 = i == 0 ? minX1 : i == 1 ? minY1 : minZ1;
+			float max1 = i == 0 ? maxX1 : i == 1 ? maxY1 : maxZ1;
+			float min2 = i == 0 ? minX2 : i == 1 ? minY2 : minZ2;
+			float max2 = i == 0 ? maxX2 : i == 1 ? maxY2 : maxZ2;
+
+			if (motion == 0.0f) {
+				if (max1 < min2 || min1 > max2) {
+					return destination.set(false, 1.0f, 0.0f, 0.0f, 0.0f);
+				}
+
+				continue;
+			}
+
+			float inverse = 1.0f / motion;
+			float t1 = (min2 - max1) * inverse;
+			float t2 = (max2 - min1) * inverse;
+
+			if (Math.min(t1, t2) > enter) {
+				enter = Math.min(t1, t2);
+				axis = i;
+			}
+
+			exit = Math.min(exit, Math.max(t1, t2));
+		}
+
+		if (enter > exit || exit < 0.0f || enter > 1.0f) {
+			return destination.set(false, 1.0f, 0.0f, 0.0f, 0.0f);
+		}
+
+		if (enter < 0.0f || axis == -1) {
+			// The boxes already overlap, they are pushed apart along the axis they overlap least on.
+			float overlapX = Math.min(maxX1 - minX2, maxX2 - minX1);
+			float overlapY = Math.min(maxY1 - minY2, maxY2 - minY1);
+			float overlapZ = Math.min(maxZ1 - minZ2, maxZ2 - minZ1);
+			axis = overlapX <= overlapY && overlapX <= overlapZ ? 0 : overlapY <= overlapZ ? 1 : 2;
+			float centre1 = axis == 0 ? minX1 + maxX1 : axis == 1 ? minY1 + maxY1 : minZ1 + maxZ1;
+			float centre2 = axis == 0 ? minX2 + maxX2 : axis == 1 ? minY2 + maxY2 : minZ2 + maxZ2;
+			float sign = centre1 < centre2 ? -1.0f : 1.0f;
+			return destination.set(true, 0.0f, axis == 0 ? sign : 0.0f, axis == 1 ? sign : 0.0f, axis == 2 ? sign : 0.0f);
+		}
+
+		float motion = axis == 0 ? motionX : axis == 1 ? motionY : motionZ;
+		float sign = motion > 0.0f ? -1.0f : 1.0f;
+		return destination.set(true, enter, axis == 0 ? sign : 0.0f, axis == 1 ? sign : 0.0f, axis == 2 ? sign : 0.0f);
+	}
+
+	/**
+	 * Finds when a moving sphere first touches a AABB. The box grown by the radius is entered no later than the rounded box the sphere centre really
+	 * touches, so the sweep starts there and is refined by conservative advancement: the sphere is moved by its distance to the box over how fast it
+	 * closes that distance, which can never pass the first contact.
+	 *
+	 * @param motionX The move of the sphere on the x.
+	 * @param motionY The move of the sphere on the y.
+	 * @param motionZ The move of the sphere on the z.
+	 * @param destination The result to set.
+	 *
+	 * @return The destination.
+	 */
+	public static ImpactData sweepSphereAabb(float x, float y, float z, float radius, float motionX, float motionY, float motionZ,
+	                                         float minX, float minY, float minZ, float maxX, float maxY, float maxZ, ImpactData destination) {
+		if (aabbPointDistanceSquared(minX, minY, minZ, maxX, maxY, maxZ, x, y, z) <= radius * radius) {
+			return sphereAabbNormal(x, y, z, minX, minY, minZ, maxX, maxY, maxZ, 0.0f, destination);
+		}
+
+		float time = slabs(x, y, z, motionX, motionY, motionZ, minX - radius, minY - radius, minZ - radius, maxX + radius, maxY + radius, maxZ + radius);
+
+		if (time < 0.0f || time > 1.0f) {
+			return destination.set(false, 1.0f, 0.0f, 0.0f, 0.0f);
+		}
+
+		for (int i = 0; i < MAX_ADVANCEMENTS; i++) {
+			float centreX = x + motionX * time;
+			float centreY = y + motionY * time;
+			float centreZ = z + motionZ * time;
+			float toX = clamp(centreX, minX, maxX) - centreX;
+			float toY = clamp(centreY, minY, maxY) - centreY;
+			float toZ = clamp(centreZ, minZ, maxZ) - centreZ;
+			float length = (float) Math.sqrt(toX * toX + toY * toY + toZ * toZ);
+			float gap = length - radius;
+
+			if (gap <= SWEEP_TOLERANCE) {
+				break;
+			}
+
+			float closing = (motionX * toX + motionY * toY + motionZ * toZ) / length;
+
+			// Spheres passing a edge or corner of the box can stop closing on it before they touch.
+			if (closing <= 0.0f) {
+				return destination.set(false, 1.0f, 0.0f, 0.0f, 0.0f);
+			}
+
+			time += gap / closing;
+
+			if (time > 1.0f) {
+				return destination.set(false, 1.0f, 0.0f, 0.0f, 0.0f);
+			}
+		}
+
+		return sphereAabbNormal(x + motionX * time, y + motionY * time, z + motionZ * time, minX, minY, minZ, maxX, maxY, maxZ, time, destination);
+	}
+
+	/**
+	 * Sets a impact with the normal of the box surface closest to a sphere centre, the nearest face is used if the centre is inside the box.
+	 */
+	private static ImpactData sphereAabbNormal(float x, float y, float z, float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float time,
+	                                           ImpactData destination) {
+		float normalX = x - clamp(x, minX, maxX);
+		float normalY = y - clamp(y, minY, maxY);
+		float normalZ = z - clamp(z, minZ, maxZ);
+		float length = (float) Math.sqrt(normalX * normalX + normalY * normalY + normalZ * normalZ);
+
+		if (length > 0.0f) {
+			return destination.set(true, time, normalX / length, normalY / length, normalZ / length);
+		}
+
+		float faceX = Math.min(x - minX, maxX - x);
+		float faceY = Math.min(y - minY, maxY - y);
+		float faceZ = Math.min(z - minZ, maxZ - z);
+
+		if (faceX <= faceY && faceX <= faceZ) {
+			return destination.set(true, time, x - minX < maxX - x ? -1.0f : 1.0f, 0.0f, 0.0f);
+		} else if (faceY <= faceZ) {
+			return destination.set(true, time, 0.0f, y - minY < maxY - y ? -1.0f : 1.0f, 0.0f);
+		}
+
+		return destination.set(true, time, 0.0f, 0.0f, z - minZ < maxZ - z ? -1.0f : 1.0f);
+	}
+
+	/**
+	 * Finds when a moving sphere first touches another, where the distance between the centres first equals the sum of the radii.
+	 *
+	 * @param motionX The move of the first sphere on the x.
+	 * @param motionY The move of the first sphere on the y.
+	 * @param motionZ The move of the first sphere on the z.
+	 * @param destination The result to set.
+	 *
+	 * @return The destination.
+	 */
+	public static ImpactData sweepSphereSphere(float x1, float y1, float z1, float radius1, float motionX, float motionY, float motionZ,
+	                                           float x2, float y2, float z2, float radius2, ImpactData destination) {
+		float lx = x1 - x2;
+		float ly = y1 - y2;
+		float lz = z1 - z2;
+		float radii = radius1 + radius2;
+		float c = lx * lx + ly * ly + lz * lz - radii * radii;
+
+		if (c <= 0.0f) {
+			float length = (float) Math.sqrt(lx * lx + ly * ly + lz * lz);
+			return length == 0.0f ? destination.set(true, 0.0f, 0.0f, 1.0f, 0.0f) : destination.set(true, 0.0f, lx / length, ly / length, lz / length);
+		}
+
+		float a = motionX * motionX + motionY * motionY + motionZ * motionZ;
+		float b = motionX * lx + motionY * ly + motionZ * lz;
+		float discriminant = b * b - a * c;
+
+		// Spheres apart can only touch while moving towards each other.
+		if (a == 0.0f || b >= 0.0f || discriminant < 0.0f) {
+			return destination.set(false, 1.0f, 0.0f, 0.0f, 0.0f);
+		}
+
+		float time = c / (-b + (float) Math.sqrt(discriminant));
+
+		if (time > 1.0f) {
+			return destination.set(false, 1.0f, 0.0f, 0.0f, 0.0f);
+		}
+
+		return destination.set(true, time, (lx + motionX * time) / radii, (ly + motionY * time) / radii, (lz + motionZ * time) / radii);
+	}
+
+	private static float clamp(float value, float min, float max) {
+		return Math.max(min, Math.min(value, max));
+	}
+
+	/**
+	 * Finds where a ray enters a AABB with the slab test.
+	 *
+	 * @return The distance along the ray, zero if it starts inside, or -1 if it misses.
+	 */
+	private static float slabs(float originX, float originY, float originZ, float directionX, float directionY, float directionZ,
+	                           float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		float near = 0.0f;
+		float far = Float.POSITIVE_INFINITY;
+
+		// Each slab narrows the range the ray is inside the box, rays parallel to a slab must start inside it.
+		if (directionX != 0.0f) {
+			float inverse = 1.0f / directionX;
+			float t1 = (minX - originX) * inverse;
+			float t2 = (maxX - originX) * inverse;
+			near = Math.max(near, Math.min(t1, t2));
+			far = Math.min(far, Math.max(t1, t2));
+		} else if (originX < minX || originX > maxX) {
+			return -1.0f;
+		}
+
+		if (directionY != 0.0f) {
+			float inverse = 1.0f / directionY;
+			float t1 = (minY - originY) * inverse;
+			float t2 = (maxY - originY) * inverse;
+			near = Math.max(near, Math.min(t1, t2));
+			far = Math.min(far, Math.max(t1, t2));
+		} else if (originY < minY || originY > maxY) {
+			return -1.0f;
+		}
+
+		if (directionZ != 0.0f) {
+			float inverse = 1.0f / directionZ;
+			float t1 = (minZ - originZ) * inverse;
+			float t2 = (maxZ - originZ) * inverse;
+			near = Math.max(near, Math.min(t1, t2));
+			far = Math.min(far, Math.max(t1, t2));
+		} else if (originZ < minZ || originZ > maxZ) {
+			return -1.0f;
+		}
+
+		if (near > far) {
+			return -1.0f;
+		}
+
+		return near;
+	}
+}
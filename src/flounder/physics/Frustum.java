@@ -2,6 +2,8 @@ package flounder.physics;
 
 import flounder.maths.matrices.*;
 
+import java.util.*;
+
 /**
  * Represents the region of flounder.space in the modeled world that may appear on the screen.
  */
@@ -20,12 +22,18 @@ public class Frustum {
 	public static final int C = 2;
 	public static final int D = 3;
 
+	// The number of objects culled at a time in batches, a multiple of 64 so each block fills whole visibility words.
+	private static final int BLOCK_SIZE = 256;
+	private static final ThreadLocal<float[]> BLOCK_DISTANCES = ThreadLocal.withInitial(() -> new float[BLOCK_SIZE]);
+
+	private float[] planes;
 	private float[][] frustum;
 
 	/**
 	 * Creates a new frustum.
 	 */
 	public Frustum() {
+		planes = new float[24];
 		frustum = new float[6][4];
 	}
 
@@ -36,85 +44,55 @@ public class Frustum {
 	 * @param viewMatrix The view matrix.
 	 */
 	public void recalculateFrustum(Matrix4f projection, Matrix4f viewMatrix) {
-		float[] proj = Matrix4f.toArray(projection);
-		float[] view = Matrix4f.toArray(viewMatrix);
-		float[] clip = new float[16];
-
-		clip[0] = view[0] * proj[0] + view[1] * proj[4] + view[2] * proj[8] + view[3] * proj[12];
-		clip[1] = view[0] * proj[1] + view[1] * proj[5] + view[2] * proj[9] + view[3] * proj[13];
-		clip[2] = view[0] * proj[2] + view[1] * proj[6] + view[2] * proj[10] + view[3] * proj[14];
-		clip[3] = view[0] * proj[3] + view[1] * proj[7] + view[2] * proj[11] + view[3] * proj[15];
-
-		clip[4] = view[4] * proj[0] + view[5] * proj[4] + view[6] * proj[8] + view[7] * proj[12];
-		clip[5] = view[4] * proj[1] + view[5] * proj[5] + view[6] * proj[9] + view[7] * proj[13];
-		clip[6] = view[4] * proj[2] + view[5] * proj[6] + view[6] * proj[10] + view[7] * proj[14];
-		clip[7] = view[4] * proj[3] + view[5] * proj[7] + view[6] * proj[11] + view[7] * proj[15];
-
-		clip[8] = view[8] * proj[0] + view[9] * proj[4] + view[10] * proj[8] + view[11] * proj[12];
-		clip[9] = view[8] * proj[1] + view[9] * proj[5] + view[10] * proj[9] + view[11] * proj[13];
-		clip[10] = view[8] * proj[2] + view[9] * proj[6] + view[10] * proj[10] + view[11] * proj[14];
-		clip[11] = view[8] * proj[3] + view[9] * proj[7] + view[10] * proj[11] + view[11] * proj[15];
-
-		clip[12] = view[12] * proj[0] + view[13] * proj[4] + view[14] * proj[8] + view[15] * proj[12];
-		clip[13] = view[12] * proj[1] + view[13] * proj[5] + view[14] * proj[9] + view[15] * proj[13];
-		clip[14] = view[12] * proj[2] + view[13] * proj[6] + view[14] * proj[10] + view[15] * proj[14];
-		clip[15] = view[12] * proj[3] + view[13] * proj[7] + view[14] * proj[11] + view[15] * proj[15];
+		// The clip matrix is the view matrix multiplied by the projection, read straight from the matrix values.
+		float clip0 = viewMatrix.m00 * projection.m00 + viewMatrix.m01 * projection.m10 + viewMatrix.m02 * projection.m20 + viewMatrix.m03 * projection.m30;
+		float clip1 = viewMatrix.m00 * projection.m01 + viewMatrix.m01 * projection.m11 + viewMatrix.m02 * projection.m21 + viewMatrix.m03 * projection.m31;
+		float clip2 = viewMatrix.m00 * projection.m02 + viewMatrix.m01 * projection.m12 + viewMatrix.m02 * projection.m22 + viewMatrix.m03 * projection.m32;
+		float clip3 = viewMatrix.m00 * projection.m03 + viewMatrix.m01 * projection.m13 + viewMatrix.m02 * projection.m23 + viewMatrix.m03 * projection.m33;
 
-		// This will extract the LEFT side of the frustum
-		frustum[LEFT][A] = clip[3] - clip[0];
-		frustum[LEFT][B] = clip[7] - clip[4];
-		frustum[LEFT][C] = clip[11] - clip[8];
-		frustum[LEFT][D] = clip[15] - clip[12];
+		float clip4 = viewMatrix.m10 * projection.m00 + viewMatrix.m11 * projection.m10 + viewMatrix.m12 * projection.m20 + viewMatrix.m13 * projection.m30;
+		float clip5 = viewMatrix.m10 * projection.m01 + viewMatrix.m11 * projection.m11 + viewMatrix.m12 * projection.m21 + viewMatrix.m13 * projection.m31;
+		float clip6 = viewMatrix.m10 * projection.m02 + viewMatrix.m11 * projection.m12 + viewMatrix.m12 * projection.m22 + viewMatrix.m13 * projection.m32;
+		float clip7 = viewMatrix.m10 * projection.m03 + viewMatrix.m11 * projection.m13 + viewMatrix.m12 * projection.m23 + viewMatrix.m13 * projection.m33;
 
-		normalizePlane(frustum, LEFT);
+		float clip8 = viewMatrix.m20 * projection.m00 + viewMatrix.m21 * projection.m10 + viewMatrix.m22 * projection.m20 + viewMatrix.m23 * projection.m30;
+		float clip9 = viewMatrix.m20 * projection.m01 + viewMatrix.m21 * projection.m11 + viewMatrix.m22 * projection.m21 + viewMatrix.m23 * projection.m31;
+		float clip10 = viewMatrix.m20 * projection.m02 + viewMatrix.m21 * projection.m12 + viewMatrix.m22 * projection.m22 + viewMatrix.m23 * projection.m32;
+		float clip11 = viewMatrix.m20 * projection.m03 + viewMatrix.m21 * projection.m13 + viewMatrix.m22 * projection.m23 + viewMatrix.m23 * projection.m33;
 
-		// This will extract the RIGHT side of the frustum
-		frustum[RIGHT][A] = clip[3] + clip[0];
-		frustum[RIGHT][B] = clip[7] + clip[4];
-		frustum[RIGHT][C] = clip[11] + clip[8];
-		frustum[RIGHT][D] = clip[15] + clip[12];
+		float clip12 = viewMatrix.m30 * projection.m00 + viewMatrix.m31 * projection.m10 + viewMatrix.m32 * projection.m20 + viewMatrix.m33 * projection.m30;
+		float clip13 = viewMatrix.m30 * projection.m01 + viewMatrix.m31 * projection.m11 + viewMatrix.m32 * projection.m21 + viewMatrix.m33 * projection.m31;
+		float clip14 = viewMatrix.m30 * projection.m02 + viewMatrix.m31 * projection.m12 + viewMatrix.m32 * projection.m22 + viewMatrix.m33 * projection.m32;
+		float clip15 = viewMatrix.m30 * projection.m03 + viewMatrix.m31 * projection.m13 + viewMatrix.m32 * projection.m23 + viewMatrix.m33 * projection.m33;
 
-		normalizePlane(frustum, RIGHT);
+		// This will extract the LEFT side of the frustum
+		setPlane(LEFT, clip3 - clip0, clip7 - clip4, clip11 - clip8, clip15 - clip12);
 
-		// This will extract the BOTTOM side of the frustum
-		frustum[BOTTOM][A] = clip[3] + clip[1];
-		frustum[BOTTOM][B] = clip[7] + clip[5];
-		frustum[BOTTOM][C] = clip[11] + clip[9];
-		frustum[BOTTOM][D] = clip[15] + clip[13];
+		// This will extract the RIGHT side of the frustum
+		setPlane(RIGHT, clip3 + clip0, clip7 + clip4, clip11 + clip8, clip15 + clip12);
 
-		normalizePlane(frustum, BOTTOM);
+		// This will extract the BOTTOM side of the frustum
+		setPlane(BOTTOM, clip3 + clip1, clip7 + clip5, clip11 + clip9, clip15 + clip13);
 
 		// This will extract the TOP side of the frustum
-		frustum[TOP][A] = clip[3] - clip[1];
-		frustum[TOP][B] = clip[7] - clip[5];
-		frustum[TOP][C] = clip[11] - clip[9];
-		frustum[TOP][D] = clip[15] - clip[13];
-
-		normalizePlane(frustum, TOP);
+		setPlane(TOP, clip3 - clip1, clip7 - clip5, clip11 - clip9, clip15 - clip13);
 
 		// This will extract the FRONT side of the frustum
-		frustum[FRONT][A] = clip[3] - clip[2];
-		frustum[FRONT][B] = clip[7] - clip[6];
-		frustum[FRONT][C] = clip[11] - clip[10];
-		frustum[FRONT][D] = clip[15] - clip[14];
-
-		normalizePlane(frustum, FRONT);
+		setPlane(FRONT, clip3 - clip2, clip7 - clip6, clip11 - clip10, clip15 - clip14);
 
 		// This will extract the BACK side of the frustum
-		frustum[BACK][A] = clip[3] + clip[2];
-		frustum[BACK][B] = clip[7] + clip[6];
-		frustum[BACK][C] = clip[11] + clip[10];
-		frustum[BACK][D] = clip[15] + clip[14];
-
-		normalizePlane(frustum, BACK);
+		setPlane(BACK, clip3 + clip2, clip7 + clip6, clip11 + clip10, clip15 + clip14);
 	}
 
-	private void normalizePlane(float[][] frustum, int side) {
-		float magnitude = (float) Math.sqrt(frustum[side][A] * frustum[side][A] + frustum[side][B] * frustum[side][B] + frustum[side][C] * frustum[side][C]);
-		frustum[side][A] /= magnitude;
-		frustum[side][B] /= magnitude;
-		frustum[side][C] /= magnitude;
-		frustum[side][D] /= magnitude;
+	/**
+	 * Normalizes and stores a plane, both in the packed planes and the planes*value array.
+	 */
+	private void setPlane(int side, float a, float b, float c, float d) {
+		float magnitude = (float) Math.sqrt(a * a + b * b + c * c);
+		planes[side * 4 + A] = frustum[side][A] = a / magnitude;
+		planes[side * 4 + B] = frustum[side][B] = b / magnitude;
+		planes[side * 4 + C] = frustum[side][C] = c / magnitude;
+		planes[side * 4 + D] = frustum[side][D] = d / magnitude;
 	}
 
 	/**
@@ -124,6 +102,13 @@ public class Frustum {
 		return frustum;
 	}
 
+	/**
+	 * @return The planes packed one after another, each plane as its A, B, C and D values.
+	 */
+	public float[] getPlanes() {
+		return planes;
+	}
+
 	/**
 	 * Is the point contained in the frustum?
 	 *
@@ -134,8 +119,8 @@ public class Frustum {
 	 * @return True if contained, false if outside.
 	 */
 	public boolean pointInFrustum(float x, float y, float z) {
-		for (int i = 0; i < 6; i++) {
-			if (frustum[i][0] * x + frustum[i][1] * y + frustum[i][2] * z + frustum[i][3] <= 0.0f) {
+		for (int i = 0; i < 24; i += 4) {
+			if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3] <= 0.0f) {
 				return false;
 			}
 		}
@@ -154,8 +139,8 @@ public class Frustum {
 	 * @return True if contained, false if outside.
 	 */
 	public boolean sphereInFrustum(float x, float y, float z, float radius) {
-		for (int i = 0; i < 6; i++) {
-			if (frustum[i][0] * x + frustum[i][1] * y + frustum[i][2] * z + frustum[i][3] <= -radius) {
+		for (int i = 0; i < 24; i += 4) {
+			if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3] <= -radius) {
 				return false;
 			}
 		}
@@ -176,19 +161,104 @@ public class Frustum {
 	 * @return True if partially contained, false if outside.
 	 */
 	public boolean cubeInFrustum(float x1, float y1, float z1, float x2, float y2, float z2) {
-		for (int i = 0; i < 6; i++) {
-			if (frustum[i][0] * x1 + frustum[i][1] * y1 + frustum[i][2] * z1 + frustum[i][3] <= 0.0f &&
-					frustum[i][0] * x2 + frustum[i][1] * y1 + frustum[i][2] * z1 + frustum[i][3] <= 0.0f &&
-					frustum[i][0] * x1 + frustum[i][1] * y2 + frustum[i][2] * z1 + frustum[i][3] <= 0.0f &&
-					frustum[i][0] * x2 + frustum[i][1] * y2 + frustum[i][2] * z1 + frustum[i][3] <= 0.0f &&
-					frustum[i][0] * x1 + frustum[i][1] * y1 + frustum[i][2] * z2 + frustum[i][3] <= 0.0f &&
-					frustum[i][0] * x2 + frustum[i][1] * y1 + frustum[i][2] * z2 + frustum[i][3] <= 0.0f &&
-					frustum[i][0] * x1 + frustum[i][1] * y2 + frustum[i][2] * z2 + frustum[i][3] <= 0.0f &&
-					frustum[i][0] * x2 + frustum[i][1] * y2 + frustum[i][2] * z2 + frustum[i][3] <= 0.0f) {
+		// The cube is outside a plane when its corner furthest along the plane normal is behind it.
+		for (int i = 0; i < 24; i += 4) {
+			float a = planes[i];
+			float b = planes[i + 1];
+			float c = planes[i + 2];
+
+			if (Math.max(a * x1, a * x2) + Math.max(b * y1, b * y2) + Math.max(c * z1, c * z2) + planes[i + 3] <= 0.0f) {
 				return false;
 			}
 		}
 
 		return true;
 	}
+
+	/**
+	 * Tests many cubes against the frustum at once, the cubes are given as packed arrays of their extents. Cube {@code i} is visible when bit
+	 * {@code i % 64} of {@code visible[i / 64]} is set, the same result as {@link #cubeInFrustum(float, float, float, float, float, float)}.
+	 *
+	 * @param minX The cubes minimum X coords.
+	 * @param minY The cubes minimum Y coords.
+	 * @param minZ The cubes minimum Z coords.
+	 * @param maxX The cubes maximum X coords.
+	 * @param maxY The cubes maximum Y coords.
+	 * @param maxZ The cubes maximum Z coords.
+	 * @param count The number of cubes to test.
+	 * @param visible The visibility bits to set, with at least {@code (count + 63) / 64} values. The values covering the cubes are overwritten.
+	 */
+	public void cubesInFrustum(float[] minX, float[] minY, float[] minZ, float[] maxX, float[] maxY, float[] maxZ, int count, long[] visible) {
+		float[] distances = BLOCK_DISTANCES.get();
+		Arrays.fill(visible, 0, (count + 63) >>> 6, 0L);
+
+		for (int start = 0; start < count; start += BLOCK_SIZE) {
+			int length = Math.min(BLOCK_SIZE, count - start);
+			Arrays.fill(distances, 0, length, Float.POSITIVE_INFINITY);
+
+			// One plane at a time over the block keeps the inner loop free of branches, so the JIT can vectorise it.
+			for (int i = 0; i < 24; i += 4) {
+				float a = planes[i];
+				float b = planes[i + 1];
+				float c = planes[i + 2];
+				float d = planes[i + 3];
+
+				// The extents furthest along the plane normal.
+				float[] x = a >= 0.0f ? maxX : minX;
+				float[] y = b >= 0.0f ? maxY : minY;
+				float[] z = c >= 0.0f ? maxZ : minZ;
+
+				for (int j = 0; j < length; j++) {
+					distances[j] = Math.min(distances[j], a * x[start + j] + b * y[start + j] + c * z[start + j] + d);
+				}
+			}
+
+			setVisible(distances, start, length, visible);
+		}
+	}
+
+	/**
+	 * Tests many spheres against the frustum at once, the spheres are given as packed arrays. Sphere {@code i} is visible when bit {@code i % 64} of
+	 * {@code visible[i / 64]} is set, the same result as {@link #sphereInFrustum(float, float, float, float)}.
+	 *
+	 * @param x The spheres X coords.
+	 * @param y The spheres Y coords.
+	 * @param z The spheres Z coords.
+	 * @param radius The spheres radii.
+	 * @param count The number of spheres to test.
+	 * @param visible The visibility bits to set, with at least {@code (count + 63) / 64} values. The values covering the spheres are overwritten.
+	 */
+	public void spheresInFrustum(float[] x, float[] y, float[] z, float[] radius, int count, long[] visible) {
+		float[] distances = BLOCK_DISTANCES.get();
+		Arrays.fill(visible, 0, (count + 63) >>> 6, 0L);
+
+		for (int start = 0; start < count; start += BLOCK_SIZE) {
+			int length = Math.min(BLOCK_SIZE, count - start);
+			Arrays.fill(distances, 0, length, Float.POSITIVE_INFINITY);
+
+			for (int i = 0; i < 24; i += 4) {
+				float a = planes[i];
+				float b = planes[i + 1];
+				float c = planes[i + 2];
+				float d = planes[i + 3];
+
+				for (int j = 0; j < length; j++) {
+					distances[j] = Math.min(distances[j], a * x[start + j] + b * y[start + j] + c * z[start + j] + d + radius[start + j]);
+				}
+			}
+
+			setVisible(distances, start, length, visible);
+		}
+	}
+
+	/**
+	 * Sets the visibility bits for a block, objects are visible when they are in front of every plane.
+	 */
+	private static void setVisible(float[] distances, int start, int length, long[] visible) {
+		for (int j = 0; j < length; j++) {
+			if (distances[j] > 0.0f) {
+				visible[(start + j) >>> 6] |= 1L << (start + j);
+			}
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,249 @@
+package flounder.physics;
+
+import flounder.maths.vectors.*;
+
+import java.util.*;
+
+/**
+ * Culls many colliders against a frustum at once. Colliders are packed by type into arrays of their bounds, AABBs and spheres are then tested in
+ * batches by the frustum and any other colliders are tested one at a time. The culler is reused between frames, so packing does not allocate once the
+ * arrays have grown to fit.
+ */
+public class FrustumCuller {
+	private float[] boxMinX, boxMinY, boxMinZ;
+	private float[] boxMaxX, boxMaxY, boxMaxZ;
+	private int[] boxItems;
+	private long[] boxVisible;
+	private int boxCount;
+
+	private float[] sphereX, sphereY, sphereZ, sphereRadius;
+	private int[] sphereItems;
+	private long[] sphereVisible;
+	private int sphereCount;
+
+	private List<Collider> others;
+	private int[] otherItems;
+
+	private int[] alwaysItems;
+	private int alwaysCount;
+
+	private long[] visible;
+	private int itemCount;
+
+	/**
+	 * Creates a new frustum culler.
+	 */
+	public FrustumCuller() {
+		this.boxMinX = new float[0];
+		this.boxMinY = new float[0];
+		this.boxMinZ = new float[0];
+		this.boxMaxX = new float[0];
+		this.boxMaxY = new float[0];
+		this.boxMaxZ = new float[0];
+		this.boxItems = new int[0];
+		this.boxVisible = new long[0];
+		this.boxCount = 0;
+
+		this.sphereX = new float[0];
+		this.sphereY = new float[0];
+		this.sphereZ = new float[0];
+		this.sphereRadius = new float[0];
+		this.sphereItems = new int[0];
+		this.sphereVisible = new long[0];
+		this.sphereCount = 0;
+
+		this.others = new ArrayList<>();
+		this.otherItems = new int[0];
+
+		this.alwaysItems = new int[0];
+		this.alwaysCount = 0;
+
+		this.visible = new long[0];
+		this.itemCount = 0;
+	}
+
+	/**
+	 * Removes all the packed colliders, ready to pack the next frame.
+	 */
+	public void clear() {
+		boxCount = 0;
+		sphereCount = 0;
+		others.clear();
+		alwaysCount = 0;
+		itemCount = 0;
+	}
+
+	/**
+	 * Packs a collider to be culled.
+	 *
+	 * @param item The index the visibility of the collider is found at, such as its index in a list of objects.
+	 * @param collider The collider, or null if the item is always visible.
+	 */
+	public void add(int item, Collider collider) {
+		itemCount = Math.max(itemCount, item + 1);
+
+		if (collider == null) {
+			if (alwaysCount == alwaysItems.length) {
+				alwaysItems = Arrays.copyOf(alwaysItems, Math.max(16, alwaysCount * 2));
+			}
+
+			alwaysItems[alwaysCount++] = item;
+		} else if (collider instanceof AABB) {
+			Vector3f min = ((AABB) collider).getMinExtents();
+			Vector3f max = ((AABB) collider).getMaxExtents();
+			addBox(item, min.x, min.y, min.z, max.x, max.y, max.z);
+		} else if (collider instanceof Sphere) {
+			Vector3f position = ((Sphere) collider).getPosition();
+			addSphere(item, position.x, position.y, position.z, ((Sphere) collider).getRadius());
+		} else {
+			if (others.size() == otherItems.length) {
+				otherItems = Arrays.copyOf(otherItems, Math.max(16, others.size() * 2));
+			}
+
+			otherItems[others.size()] = item;
+			others.add(collider);
+		}
+	}
+
+	/**
+	 * Packs a box to be culled.
+	 *
+	 * @param item The index the visibility of the box is found at.
+	 * @param minX The minimum X coord.
+	 * @param minY The minimum Y coord.
+	 * @param minZ The minimum Z coord.
+	 * @param maxX The maximum X coord.
+	 * @param maxY The maximum Y coord.
+	 * @param maxZ The maximum Z coord.
+	 */
+	public void addBox(int item, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		itemCount = Math.max(itemCount, item + 1);
+
+		if (boxCount == boxItems.length) {
+			int capacity = Math.max(64, boxCount * 2);
+			boxMinX = Arrays.copyOf(boxMinX, capacity);
+			boxMinY = Arrays.copyOf(boxMinY, capacity);
+			boxMinZ = Arrays.copyOf(boxMinZ, capacity);
+			boxMaxX = Arrays.copyOf(boxMaxX, capacity);
+			boxMaxY = Arrays.copyOf(boxMaxY, capacity);
+			boxMaxZ = Arrays.copyOf(boxMaxZ, capacity);
+			boxItems = Arrays.copyOf(boxItems, capacity);
+			boxVisible = new long[(capacity + 63) >>> 6];
+		}
+
+		boxMinX[boxCount] = minX;
+		boxMinY[boxCount] = minY;
+		boxMinZ[boxCount] = minZ;
+		boxMaxX[boxCount] = maxX;
+		boxMaxY[boxCount] = maxY;
+		boxMaxZ[boxCount] = maxZ;
+		boxItems[boxCount++] = item;
+	}
+
+	/**
+	 * Packs a sphere to be culled.
+	 *
+	 * @param item The index the visibility of the sphere is found at.
+	 * @param x The sphere X coord.
+	 * @param y The sphere Y coord.
+	 * @param z The sphere Z coord.
+	 * @param radius The spheres radius.
+	 */
+	public void addSphere(int item, float x, float y, float z, float radius) {
+		itemCount = Math.max(itemCount, item + 1);
+
+		if (sphereCount == sphereItems.length) {
+			int capacity = Math.max(64, sphereCount * 2);
+			sphereX = Arrays.copyOf(sphereX, capacity);
+			sphereY = Arrays.copyOf(sphereY, capacity);
+			sphereZ = Arrays.copyOf(sphereZ, capacity);
+			sphereRadius = Arrays.copyOf(sphereRadius, capacity);
+			sphereItems = Arrays.copyOf(sphereItems, capacity);
+			sphereVisible = new long[(capacity + 63) >>> 6];
+		}
+
+		sphereX[sphereCount] = x;
+		sphereY[sphereCount] = y;
+		sphereZ[sphereCount] = z;
+		sphereRadius[sphereCount] = radius;
+		sphereItems[sphereCount++] = item;
+	}
+
+	/**
+	 * Culls every packed collider against a frustum, the results are found with {@link #isVisible(int)}.
+	 *
+	 * @param frustum The frustum to cull with.
+	 */
+	public void cull(Frustum frustum) {
+		int words = (itemCount + 63) >>> 6;
+
+		if (visible.length < words) {
+			visible = new long[words];
+		}
+
+		Arrays.fill(visible, 0, words, 0L);
+
+		frustum.cubesInFrustum(boxMinX, boxMinY, boxMinZ, boxMaxX, boxMaxY, boxMaxZ, boxCount, boxVisible);
+		scatter(boxVisible, boxItems, boxCount);
+
+		frustum.spheresInFrustum(sphereX, sphereY, sphereZ, sphereRadius, sphereCount, sphereVisible);
+		scatter(sphereVisible, sphereItems, sphereCount);
+
+		for (int i = 0; i < others.size(); i++) {
+			if (others.get(i).inFrustum(frustum)) {
+				setVisible(otherItems[i]);
+			}
+		}
+
+		for (int i = 0; i < alwaysCount; i++) {
+			setVisible(alwaysItems[i]);
+		}
+	}
+
+	/**
+	 * Moves the visibility bits of one type of collider to the bits of their items.
+	 */
+	private void scatter(long[] packedVisible, int[] items, int count) {
+		for (int word = 0; word < (count + 63) >>> 6; word++) {
+			long bits = packedVisible[word];
+
+			while (bits != 0L) {
+				setVisible(items[(word << 6) + Long.numberOfTrailingZeros(bits)]);
+				bits &= bits - 1L;
+			}
+		}
+	}
+
+	private void setVisible(int item) {
+		visible[item >>> 6] |= 1L << item;
+	}
+
+	/**
+	 * Gets if a item was visible in the last cull.
+	 *
+	 * @param item The index of the item.
+	 *
+	 * @return If the item is visible, false if it was not packed.
+	 */
+	public boolean isVisible(int item) {
+		return item < itemCount && (item >>> 6) < visible.length && (visible[item >>> 6] & (1L << item)) != 0L;
+	}
+
+	/**
+	 * Gets the visibility bits from the last cull, item {@code i} is visible when bit {@code i % 64} of value {@code i / 64} is set.
+	 *
+	 * @return The visibility bits.
+	 */
+	public long[] getVisible() {
+		return visible;
+	}
+
+	/**
+	 * Gets the number of items that have been packed, the highest item index plus one.
+	 *
+	 * @return The number of items.
+	 */
+	public int getItemCount() {
+		return itemCount;
+	}
+}
@@ -0,0 +1,716 @@
+package flounder.physics;
+
+import java.util.*;
+
+/**
+ * A narrow phase for convex hulls. GJK finds if two hulls intersect (or how far apart they are) by searching the Minkowski difference of the hulls for the
+ * origin, EPA then expands the final GJK simplex to find how deep intersecting hulls are and in what direction.
+ * <p>
+ * Each solver keeps the last simplex found against every other hull, as indices into the hull points, and starts the next query against that hull from it.
+ * Hulls that are resting against each other then usually only need a single support query to finish. A solver is not safe to share between threads, each
+ * hull owns its own solver.
+ */
+public class GjkEpa {
+	private static final int MAX_GJK_ITERATIONS = 64;
+	private static final int MAX_EPA_ITERATIONS = 64;
+	private static final int MAX_TOI_ITERATIONS = 32;
+	private static final int MAX_EPA_VERTICES = 128;
+	private static final int MAX_EPA_FACES = MAX_EPA_VERTICES * 2;
+	private static final double GJK_TOLERANCE = 1.0e-6;
+	private static final double EPA_TOLERANCE = 1.0e-4;
+	private static final int[][] TETRAHEDRON_FACES = {{0, 1, 2, 3}, {0, 1, 3, 2}, {0, 2, 3, 1}, {1, 2, 3, 0}};
+
+	private final Map<QuickHull, int[]> warmStarts;
+
+	// The simplex, as Minkowski difference points and the support indices in each hull that made them.
+	private final double[][] simplex;
+	private final int[] simplexA;
+	private final int[] simplexB;
+	private int simplexCount;
+
+	private final double[] closest;
+	private final double[] supportA;
+	private final double[] supportB;
+	private final double[] point;
+
+	// The EPA polytope.
+	private final double[][] vertices;
+	private int vertexCount;
+	private final int[] faces;
+	private final double[] faceNormals;
+	private final double[] faceDistances;
+	private int faceCount;
+	private final int[] edges;
+	private int edgeCount;
+
+	private boolean intersecting;
+	private double distance;
+	private final double[] normal;
+
+	/**
+	 * Creates a new GJK and EPA solver.
+	 */
+	public GjkEpa() {
+		this.warmStarts = new WeakHashMap<>();
+
+		this.simplex = new double[4][3];
+		this.simplexA = new int[4];
+		this.simplexB = new int[4];
+		this.simplexCount = 0;
+
+		this.closest = new double[3];
+		this.supportA = new double[3];
+		this.supportB = new double[3];
+		this.point = new double[3];
+
+		this.vertices = new double[MAX_EPA_VERTICES][3];
+		this.vertexCount = 0;
+		this.faces = new int[MAX_EPA_FACES * 3];
+		this.faceNormals = new double[MAX_EPA_FACES * 3];
+		this.faceDistances = new double[MAX_EPA_FACES];
+		this.faceCount = 0;
+		this.edges = new int[MAX_EPA_FACES * 3 * 2];
+		this.edgeCount = 0;
+
+		this.intersecting = false;
+		this.distance = 0.0;
+		this.normal = new double[3];
+	}
+
+	/**
+	 * Tests if two hulls intersect. If they do not, {@link #getDistance()} is the distance between them.
+	 *
+	 * @param hullA The first hull.
+	 * @param hullB The second hull.
+	 * @param offsetX A offset the first hull is moved by on the x.
+	 * @param offsetY A offset the first hull is moved by on the y.
+	 * @param offsetZ A offset the first hull is moved by on the z.
+	 *
+	 * @return If the hulls intersect.
+	 */
+	public boolean intersects(QuickHull hullA, QuickHull hullB, float offsetX, float offsetY, float offsetZ) {
+		intersecting = false;
+		distance = 0.0;
+		simplexCount = 0;
+
+		if (hullA.getSupportCount() == 0 || hullB.getSupportCount() == 0) {
+			return false;
+		}
+
+		loadWarmStart(hullA, hullB, offsetX, offsetY, offsetZ);
+
+		if (simplexCount == 0) {
+			addSupport(hullA, hullB, offsetX, offsetY, offsetZ, 1.0, 0.0, 0.0);
+		}
+
+		double lastDistance = Double.MAX_VALUE;
+
+		for (int i = 0; i < MAX_GJK_ITERATIONS; i++) {
+			if (findClosest()) {
+				intersecting = true;
+				break;
+			}
+
+			double lengthSquared = dot(closest, closest);
+
+			if (lengthSquared < GJK_TOLERANCE * GJK_TOLERANCE) {
+				// The origin is on the simplex, the hulls are touching.
+				intersecting = true;
+				break;
+			}
+
+			int added = addSupport(hullA, hullB, offsetX, offsetY, offsetZ, -closest[0], -closest[1], -closest[2]);
+			double progress = lengthSquared - dot(closest, simplex[added]);
+
+			// Stops once the new support point does not get meaningfully closer to the origin.
+			if (progress <= GJK_TOLERANCE * lengthSquared || lengthSquared >= lastDistance || isDuplicate(added)) {
+				simplexCount--;
+				distance = Math.sqrt(lengthSquared);
+				break;
+			}
+
+			lastDistance = lengthSquared;
+		}
+
+		storeWarmStart(hullB);
+		return intersecting;
+	}
+
+	/**
+	 * Finds how deep two hulls intersect. If they intersect, {@link #getDistance()} is the depth, and moving the first hull by the negative of
+	 * {@link #getNormal(int)} times the depth will separate them.
+	 *
+	 * @param hullA The first hull.
+	 * @param hullB The second hull.
+	 * @param offsetX A offset the first hull is moved by on the x.
+	 * @param offsetY A offset the first hull is moved by on the y.
+	 * @param offsetZ A offset the first hull is moved by on the z.
+	 *
+	 * @return If the hulls intersect.
+	 */
+	public boolean penetration(QuickHull hullA, QuickHull hullB, float offsetX, float offsetY, float offsetZ) {
+		normal[0] = normal[1] = normal[2] = 0.0;
+
+		if (!intersects(hullA, hullB, offsetX, offsetY, offsetZ)) {
+			return false;
+		}
+
+		// A touching simplex (the origin on a face, edge or point of it) has no depth.
+		distance = 0.0;
+
+		if (simplexCount == 4) {
+			expandPolytope(hullA, hullB, offsetX, offsetY, offsetZ);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Finds when a moving hull first touches another by conservative advancement. The hull is moved by the distance between the hulls over how fast it
+	 * closes that distance, which can never pass the first contact, until the hulls are within the tolerance. If they touch, {@link #getNormal(int)} is the
+	 * direction from the first hull into the second at the contact.
+	 *
+	 * @param hullA The moving hull.
+	 * @param hullB The hull moved towards.
+	 * @param offsetX A offset the first hull is moved by on the x before the move.
+	 * @param offsetY A offset the first hull is moved by on the y before the move.
+	 * @param offsetZ A offset the first hull is moved by on the z before the move.
+	 * @param motionX The move of the first hull on the x.
+	 * @param motionY The move of the first hull on the y.
+	 * @param motionZ The move of the first hull on the z.
+	 * @param tolerance How close the hulls are when they are taken to touch.
+	 *
+	 * @return The fraction of the move where the hulls touch, 0 if they already intersect, or -1 if they do not touch during the move.
+	 */
+	public float timeOfImpact(QuickHull hullA, QuickHull hullB, float offsetX, float offsetY, float offsetZ, float motionX, float motionY, float motionZ, float tolerance) {
+		if (penetration(hullA, hullB, offsetX, offsetY, offsetZ)) {
+			return 0.0f;
+		}
+
+		double time = 0.0;
+
+		for (int i = 0; i < MAX_TOI_ITERATIONS; i++) {
+			if (i > 0 && intersects(hullA, hullB, (float) (offsetX + motionX * time), (float) (offsetY + motionY * time), (float) (offsetZ + motionZ * time))) {
+				// Rounding moved the hulls into each other, the normal of the last separated step is kept.
+				return (float) time;
+			}
+
+			if (distance <= 0.0) {
+				return -1.0f;
+			}
+
+			// The closest point of the Minkowski difference points from the second hull to the first.
+			normal[0] = -closest[0] / distance;
+			normal[1] = -closest[1] / distance;
+			normal[2] = -closest[2] / distance;
+
+			if (distance <= tolerance) {
+				return (float) time;
+			}
+
+			double closing = motionX * normal[0] + motionY * normal[1] + motionZ * normal[2];
+
+			if (closing <= GJK_TOLERANCE) {
+				return -1.0f;
+			}
+
+			// Stops half the tolerance short, so the next step is within the tolerance instead of touching.
+			time += (distance - tolerance * 0.5) / closing;
+
+			if (time > 1.0) {
+				return -1.0f;
+			}
+		}
+
+		return (float) time;
+	}
+
+	/**
+	 * Gets if the hulls intersected in the last query.
+	 *
+	 * @return If the hulls intersected.
+	 */
+	public boolean isIntersecting() {
+		return intersecting;
+	}
+
+	/**
+	 * Gets the distance between the hulls from the last query, or the intersection depth if the last query was a penetration query.
+	 *
+	 * @return The distance or depth.
+	 */
+	public float getDistance() {
+		return (float) distance;
+	}
+
+	/**
+	 * Gets the intersection normal from the last penetration query, the direction the first hull moved into the second.
+	 *
+	 * @param axis The axis, 0 for x, 1 for y and 2 for z.
+	 *
+	 * @return The normal component.
+	 */
+	public float getNormal(int axis) {
+		return (float) normal[axis];
+	}
+
+	/**
+	 * Forgets the warm start simplex against a hull.
+	 *
+	 * @param other The other hull.
+	 */
+	public void clearWarmStart(QuickHull other) {
+		warmStarts.remove(other);
+	}
+
+	private void loadWarmStart(QuickHull hullA, QuickHull hullB, float offsetX, float offsetY, float offsetZ) {
+		int[] cached = warmStarts.get(hullB);
+
+		if (cached == null) {
+			return;
+		}
+
+		for (int i = 0; i < cached[0]; i++) {
+			int indexA = cached[1 + i * 2];
+			int indexB = cached[2 + i * 2];
+
+			// The hull points may have changed since the simplex was stored.
+			if (indexA >= hullA.getSupportCount() || indexB >= hullB.getSupportCount()) {
+				simplexCount = 0;
+				return;
+			}
+
+			hullA.getSupportPoint(indexA, supportA);
+			hullB.getSupportPoint(indexB, supportB);
+			setSimplex(simplexCount, indexA, indexB, offsetX, offsetY, offsetZ);
+
+			if (!isDuplicate(simplexCount)) {
+				simplexCount++;
+			}
+		}
+	}
+
+	private void storeWarmStart(QuickHull hullB) {
+		int[] cached = warmStarts.get(hullB);
+
+		if (cached == null) {
+			cached = new int[9];
+			warmStarts.put(hullB, cached);
+		}
+
+		cached[0] = simplexCount;
+
+		for (int i = 0; i < simplexCount; i++) {
+			cached[1 + i * 2] = simplexA[i];
+			cached[2 + i * 2] = simplexB[i];
+		}
+	}
+
+	/**
+	 * Adds the Minkowski difference support point in a direction to the simplex.
+	 *
+	 * @return The index of the new simplex point.
+	 */
+	private int addSupport(QuickHull hullA, QuickHull hullB, float offsetX, float offsetY, float offsetZ, double dx, double dy, double dz) {
+		int indexA = hullA.getSupport(dx, dy, dz, supportA);
+		int indexB = hullB.getSupport(-dx, -dy, -dz, supportB);
+		setSimplex(simplexCount, indexA, indexB, offsetX, offsetY, offsetZ);
+		return simplexCount++;
+	}
+
+	private void setSimplex(int index, int indexA, int indexB, float offsetX, float offsetY, float offsetZ) {
+		simplex[index][0] = supportA[0] + offsetX - supportB[0];
+		simplex[index][1] = supportA[1] + offsetY - supportB[1];
+		simplex[index][2] = supportA[2] + offsetZ - supportB[2];
+		simplexA[index] = indexA;
+		simplexB[index] = indexB;
+	}
+
+	private boolean isDuplicate(int index) {
+		for (int i = 0; i < index; i++) {
+			if (simplexA[i] == simplexA[index] && simplexB[i] == simplexB[index]) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Finds the point on the simplex closest to the origin, and reduces the simplex to the smallest part of it that contains that point.
+	 *
+	 * @return If the origin is inside a tetrahedron simplex.
+	 */
+	private boolean findClosest() {
+		switch (simplexCount) {
+			case 1:
+				copy(simplex[0], closest);
+				return false;
+			case 2:
+				keep(closestOnSegment(0, 1));
+				return false;
+			case 3:
+				keep(closestOnTriangle(0, 1, 2));
+				return false;
+			default:
+				return closestOnTetrahedron();
+		}
+	}
+
+	private int closestOnSegment(int a, int b) {
+		double[] pa = simplex[a];
+		double[] pb = simplex[b];
+		double abX = pb[0] - pa[0];
+		double abY = pb[1] - pa[1];
+		double abZ = pb[2] - pa[2];
+		double lengthSquared = abX * abX + abY * abY + abZ * abZ;
+		double t = lengthSquared == 0.0 ? 0.0 : -(pa[0] * abX + pa[1] * abY + pa[2] * abZ) / lengthSquared;
+
+		if (t <= 0.0) {
+			copy(pa, closest);
+			return 1 << a;
+		} else if (t >= 1.0) {
+			copy(pb, closest);
+			return 1 << b;
+		}
+
+		closest[0] = pa[0] + abX * t;
+		closest[1] = pa[1] + abY * t;
+		closest[2] = pa[2] + abZ * t;
+		return (1 << a) | (1 << b);
+	}
+
+	/**
+	 * Finds the closest point on a triangle to the origin, from Real-Time Collision Detection (Ericson) with the query point at the origin.
+	 *
+	 * @return A mask of the simplex points used.
+	 */
+	private int closestOnTriangle(int a, int b, int c) {
+		double[] pa = simplex[a];
+		double[] pb = simplex[b];
+		double[] pc = simplex[c];
+		double abX = pb[0] - pa[0], abY = pb[1] - pa[1], abZ = pb[2] - pa[2];
+		double acX = pc[0] - pa[0], acY = pc[1] - pa[1], acZ = pc[2] - pa[2];
+
+		double d1 = -(abX * pa[0] + abY * pa[1] + abZ * pa[2]);
+		double d2 = -(acX * pa[0] + acY * pa[1] + acZ * pa[2]);
+
+		if (d1 <= 0.0 && d2 <= 0.0) {
+			copy(pa, closest);
+			return 1 << a;
+		}
+
+		double d3 = -(abX * pb[0] + abY * pb[1] + abZ * pb[2]);
+		double d4 = -(acX * pb[0] + acY * pb[1] + acZ * pb[2]);
+
+		if (d3 >= 0.0 && d4 <= d3) {
+			copy(pb, closest);
+			return 1 << b;
+		}
+
+		double vc = d1 * d4 - d3 * d2;
+
+		if (vc <= 0.0 && d1 >= 0.0 && d3 <= 0.0) {
+			double v = d1 / (d1 - d3);
+			setClosest(pa, abX, abY, abZ, v, 0.0, 0.0, 0.0, 0.0);
+			return (1 << a) | (1 << b);
+		}
+
+		double d5 = -(abX * pc[0] + abY * pc[1] + abZ * pc[2]);
+		double d6 = -(acX * pc[0] + acY * pc[1] + acZ * pc[2]);
+
+		if (d6 >= 0.0 && d5 <= d6) {
+			copy(pc, closest);
+			return 1 << c;
+		}
+
+		double vb = d5 * d2 - d1 * d6;
+
+		if (vb <= 0.0 && d2 >= 0.0 && d6 <= 0.0) {
+			double w = d2 / (d2 - d6);
+			setClosest(pa, 0.0, 0.0, 0.0, 0.0, acX, acY, acZ, w);
+			return (1 << a) | (1 << c);
+		}
+
+		double va = d3 * d6 - d5 * d4;
+
+		if (va <= 0.0 && (d4 - d3) >= 0.0 && (d5 - d6) >= 0.0) {
+			double w = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+			closest[0] = pb[0] + (pc[0] - pb[0]) * w;
+			closest[1] = pb[1] + (pc[1] - pb[1]) * w;
+			closest[2] = pb[2] + (pc[2] - pb[2]) * w;
+			return (1 << b) | (1 << c);
+		}
+
+		double denominator = va + vb + vc;
+
+		if (denominator == 0.0) {
+			// A degenerate triangle, falls back to its longest edge.
+			return closestOnSegment(a, b);
+		}
+
+		double v = vb / denominator;
+		double w = vc / denominator;
+		setClosest(pa, abX, abY, abZ, v, acX, acY, acZ, w);
+		return (1 << a) | (1 << b) | (1 << c);
+	}
+
+	/**
+	 * Finds the closest point on the tetrahedron simplex to the origin, checking each face the origin is outside of.
+	 *
+	 * @return If the origin is inside the tetrahedron.
+	 */
+	private boolean closestOnTetrahedron() {
+		double bestDistance = Double.MAX_VALUE;
+		int bestMask = 0;
+		double bestX = 0.0, bestY = 0.0, bestZ = 0.0;
+		boolean outside = false;
+
+		for (int[] face : TETRAHEDRON_FACES) {
+			if (!isOriginOutside(face[0], face[1], face[2], face[3])) {
+				continue;
+			}
+
+			outside = true;
+			int mask = closestOnTriangle(face[0], face[1], face[2]);
+			double lengthSquared = dot(closest, closest);
+
+			if (lengthSquared < bestDistance) {
+				bestDistance = lengthSquared;
+				bestMask = mask;
+				bestX = closest[0];
+				bestY = closest[1];
+				bestZ = closest[2];
+			}
+		}
+
+		if (!outside) {
+			return true;
+		}
+
+		closest[0] = bestX;
+		closest[1] = bestY;
+		closest[2] = bestZ;
+		keep(bestMask);
+		return false;
+	}
+
+	/**
+	 * Gets if the origin is on the other side of the plane through a, b and c from d. Degenerate tetrahedrons treat every face as facing the origin.
+	 */
+	private boolean isOriginOutside(int a, int b, int c, int d) {
+		double[] pa = simplex[a];
+		double[] pb = simplex[b];
+		double[] pc = simplex[c];
+		double[] pd = simplex[d];
+		double abX = pb[0] - pa[0], abY = pb[1] - pa[1], abZ = pb[2] - pa[2];
+		double acX = pc[0] - pa[0], acY = pc[1] - pa[1], acZ = pc[2] - pa[2];
+		double nX = abY * acZ - abZ * acY;
+		double nY = abZ * acX - abX * acZ;
+		double nZ = abX * acY - abY * acX;
+		double signOrigin = -(pa[0] * nX + pa[1] * nY + pa[2] * nZ);
+		double signD = (pd[0] - pa[0]) * nX + (pd[1] - pa[1]) * nY + (pd[2] - pa[2]) * nZ;
+
+		if (signD * signD < 1.0e-18) {
+			return true;
+		}
+
+		return signOrigin * signD < 0.0;
+	}
+
+	/**
+	 * Removes the simplex points not in a mask, keeping the order of the rest.
+	 */
+	private void keep(int mask) {
+		int kept = 0;
+
+		for (int i = 0; i < simplexCount; i++) {
+			if ((mask & (1 << i)) != 0) {
+				if (kept != i) {
+					copy(simplex[i], simplex[kept]);
+					simplexA[kept] = simplexA[i];
+					simplexB[kept] = simplexB[i];
+				}
+
+				kept++;
+			}
+		}
+
+		simplexCount = kept;
+	}
+
+	/**
+	 * Expands the tetrahedron simplex that contains the origin until the face closest to the origin is on the surface of the Minkowski difference.
+	 */
+	private void expandPolytope(QuickHull hullA, QuickHull hullB, float offsetX, float offsetY, float offsetZ) {
+		vertexCount = 0;
+		faceCount = 0;
+
+		for (int i = 0; i < 4; i++) {
+			copy(simplex[i], vertices[vertexCount++]);
+		}
+
+		addFace(0, 1, 2, 3);
+		addFace(0, 1, 3, 2);
+		addFace(0, 2, 3, 1);
+		addFace(1, 2, 3, 0);
+
+		int best = 0;
+
+		for (int iteration = 0; iteration < MAX_EPA_ITERATIONS && faceCount > 0; iteration++) {
+			best = 0;
+
+			for (int f = 1; f < faceCount; f++) {
+				if (faceDistances[f] < faceDistances[best]) {
+					best = f;
+				}
+			}
+
+			double nX = faceNormals[best * 3];
+			double nY = faceNormals[best * 3 + 1];
+			double nZ = faceNormals[best * 3 + 2];
+			hullA.getSupport(nX, nY, nZ, supportA);
+			hullB.getSupport(-nX, -nY, -nZ, supportB);
+			point[0] = supportA[0] + offsetX - supportB[0];
+			point[1] = supportA[1] + offsetY - supportB[1];
+			point[2] = supportA[2] + offsetZ - supportB[2];
+
+			// The closest face can not be pushed out any further, so it is on the surface.
+			if (dot(point, faceNormals, best) - faceDistances[best] < EPA_TOLERANCE || vertexCount == MAX_EPA_VERTICES) {
+				break;
+			}
+
+			addVertex();
+		}
+
+		if (faceCount == 0) {
+			return;
+		}
+
+		distance = faceDistances[best];
+		normal[0] = faceNormals[best * 3];
+		normal[1] = faceNormals[best * 3 + 1];
+		normal[2] = faceNormals[best * 3 + 2];
+	}
+
+	/**
+	 * Adds the current support point to the polytope, replacing the faces it can see with faces joining it to their horizon.
+	 */
+	private void addVertex() {
+		edgeCount = 0;
+
+		for (int f = 0; f < faceCount; f++) {
+			int v0 = faces[f * 3];
+
+			if (faceNormals[f * 3] * (point[0] - vertices[v0][0]) + faceNormals[f * 3 + 1] * (point[1] - vertices[v0][1]) +
+					faceNormals[f * 3 + 2] * (point[2] - vertices[v0][2]) > 0.0) {
+				addEdge(faces[f * 3], faces[f * 3 + 1]);
+				addEdge(faces[f * 3 + 1], faces[f * 3 + 2]);
+				addEdge(faces[f * 3 + 2], faces[f * 3]);
+				removeFace(f);
+				f--;
+			}
+		}
+
+		int vertex = vertexCount++;
+		copy(point, vertices[vertex]);
+
+		for (int e = 0; e < edgeCount && faceCount < MAX_EPA_FACES; e++) {
+			addFace(edges[e * 2], edges[e * 2 + 1], vertex);
+		}
+	}
+
+	/**
+	 * Adds a edge of a removed face, edges shared by two removed faces are inside the removed area and cancel out, leaving the horizon.
+	 */
+	private void addEdge(int a, int b) {
+		for (int e = 0; e < edgeCount; e++) {
+			if (edges[e * 2] == b && edges[e * 2 + 1] == a) {
+				edgeCount--;
+				edges[e * 2] = edges[edgeCount * 2];
+				edges[e * 2 + 1] = edges[edgeCount * 2 + 1];
+				return;
+			}
+		}
+
+		edges[edgeCount * 2] = a;
+		edges[edgeCount * 2 + 1] = b;
+		edgeCount++;
+	}
+
+	/**
+	 * Adds a face of the initial tetrahedron, wound to face away from the fourth vertex.
+	 */
+	private void addFace(int a, int b, int c, int opposite) {
+		double[] pa = vertices[a];
+		double[] pb = vertices[b];
+		double[] pc = vertices[c];
+		double[] pd = vertices[opposite];
+		double nX = (pb[1] - pa[1]) * (pc[2] - pa[2]) - (pb[2] - pa[2]) * (pc[1] - pa[1]);
+		double nY = (pb[2] - pa[2]) * (pc[0] - pa[0]) - (pb[0] - pa[0]) * (pc[2] - pa[2]);
+		double nZ = (pb[0] - pa[0]) * (pc[1] - pa[1]) - (pb[1] - pa[1]) * (pc[0] - pa[0]);
+
+		if (nX * (pd[0] - pa[0]) + nY * (pd[1] - pa[1]) + nZ * (pd[2] - pa[2]) > 0.0) {
+			addFace(a, c, b);
+		} else {
+			addFace(a, b, c);
+		}
+	}
+
+	/**
+	 * Adds a face wound counter clockwise when seen from outside the polytope.
+	 */
+	private void addFace(int a, int b, int c) {
+		double[] pa = vertices[a];
+		double[] pb = vertices[b];
+		double[] pc = vertices[c];
+		double nX = (pb[1] - pa[1]) * (pc[2] - pa[2]) - (pb[2] - pa[2]) * (pc[1] - pa[1]);
+		double nY = (pb[2] - pa[2]) * (pc[0] - pa[0]) - (pb[0] - pa[0]) * (pc[2] - pa[2]);
+		double nZ = (pb[0] - pa[0]) * (pc[1] - pa[1]) - (pb[1] - pa[1]) * (pc[0] - pa[0]);
+		double length = Math.sqrt(nX * nX + nY * nY + nZ * nZ);
+
+		if (length < 1.0e-12) {
+			return;
+		}
+
+		int f = faceCount++;
+		faces[f * 3] = a;
+		faces[f * 3 + 1] = b;
+		faces[f * 3 + 2] = c;
+		faceNormals[f * 3] = nX / length;
+		faceNormals[f * 3 + 1] = nY / length;
+		faceNormals[f * 3 + 2] = nZ / length;
+		faceDistances[f] = Math.max(0.0, faceNormals[f * 3] * pa[0] + faceNormals[f * 3 + 1] * pa[1] + faceNormals[f * 3 + 2] * pa[2]);
+	}
+
+	private void removeFace(int f) {
+		faceCount--;
+		faces[f * 3] = faces[faceCount * 3];
+		faces[f * 3 + 1] = faces[faceCount * 3 + 1];
+		faces[f * 3 + 2] = faces[faceCount * 3 + 2];
+		faceNormals[f * 3] = faceNormals[faceCount * 3];
+		faceNormals[f * 3 + 1] = faceNormals[faceCount * 3 + 1];
+		faceNormals[f * 3 + 2] = faceNormals[faceCount * 3 + 2];
+		faceDistances[f] = faceDistances[faceCount];
+	}
+
+	private void setClosest(double[] origin, double uX, double uY, double uZ, double u, double vX, double vY, double vZ, double v) {
+		closest[0] = origin[0] + uX * u + vX * v;
+		closest[1] = origin[1] + uY * u + vY * v;
+		closest[2] = origin[2] + uZ * u + vZ * v;
+	}
+
+	private static double dot(double[] a, double[] b) {
+		return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+	}
+
+	private static double dot(double[] a, double[] normals, int face) {
+		return a[0] * normals[face * 3] + a[1] * normals[face * 3 + 1] + a[2] * normals[face * 3 + 2];
+	}
+
+	private static void copy(double[] source, double[] destination) {
+		destination[0] = source[0];
+		destination[1] = source[1];
+		destination[2] = source[2];
+	}
+}
@@ -0,0 +1,416 @@
+package flounder.physics;
+
+import flounder.maths.*;
+import flounder.maths.vectors.*;
+import flounder.models.*;
+
+/**
+ * A collider for terrain, made from a grid of heights. Each grid cell is split into two triangles along the diagonal from its x corner to its z corner, so
+ * the height and normal at any point are found from the three heights of one triangle without searching. The grid is moved by a position and scale,
+ * rotations are ignored so the grid stays aligned to the x and z axes.
+ * <p>
+ * Heightfields updated from one another share the heights, so the heights should not be changed after the heightfield is made.
+ */
+public class Heightfield extends Collider {
+	private float[] heights;
+	private int samplesX;
+	private int samplesZ;
+	private float spacing;
+	private float minHeight;
+	private float maxHeight;
+
+	private final Vector3f origin;
+	private float scale;
+
+	/**
+	 * Creates a new empty heightfield.
+	 */
+	public Heightfield() {
+		this(new float[0], 0, 0, 1.0f);
+	}
+
+	/**
+	 * Creates a new heightfield.
+	 *
+	 * @param heights The heights, in rows along the x for each z.
+	 * @param samplesX The number of heights along the x.
+	 * @param samplesZ The number of heights along the z.
+	 * @param spacing The distance between heights.
+	 */
+	public Heightfield(float[] heights, int samplesX, int samplesZ, float spacing) {
+		this.heights = heights;
+		this.samplesX = samplesX;
+		this.samplesZ = samplesZ;
+		this.spacing = spacing;
+		this.minHeight = 0.0f;
+		this.maxHeight = 0.0f;
+
+		this.origin = new Vector3f();
+		this.scale = 1.0f;
+
+		if (heights.length > 0) {
+			this.minHeight = Float.POSITIVE_INFINITY;
+			this.maxHeight = Float.NEGATIVE_INFINITY;
+
+			for (float height : heights) {
+				this.minHeight = Math.min(minHeight, height);
+				this.maxHeight = Math.max(maxHeight, height);
+			}
+		}
+	}
+
+	@Override
+	public Collider update(Vector3f position, Vector3f rotation, float scale, Collider destination) {
+		if (destination == null || !(destination instanceof Heightfield)) {
+			destination = new Heightfield();
+		}
+
+		Heightfield heightfield = (Heightfield) destination;
+
+		if (!this.equals(destination)) {
+			heightfield.heights = heights;
+			heightfield.samplesX = samplesX;
+			heightfield.samplesZ = samplesZ;
+			heightfield.spacing = spacing;
+			heightfield.minHeight = minHeight;
+			heightfield.maxHeight = maxHeight;
+		}
+
+		heightfield.origin.set(position);
+		heightfield.scale = scale;
+		return heightfield;
+	}
+
+	/**
+	 * Gets the world height of the terrain at a point.
+	 *
+	 * @param x The world x.
+	 * @param z The world z.
+	 *
+	 * @return The height, or NaN if the point is outside the heightfield.
+	 */
+	public float getHeight(float x, float z) {
+		float cell = spacing * scale;
+		float u = (x - origin.x) / cell;
+		float v = (z - origin.z) / cell;
+
+		if (samplesX < 2 || samplesZ < 2 || !(u >= 0.0f && v >= 0.0f && u <= samplesX - 1 && v <= samplesZ - 1)) {
+			return Float.NaN;
+		}
+
+		int i = Math.min((int) u, samplesX - 2);
+		int j = Math.min((int) v, samplesZ - 2);
+		float fu = u - i;
+		float fv = v - j;
+		int row = j * samplesX + i;
+		float h00 = heights[row];
+		float h10 = heights[row + 1];
+		float h01 = heights[row + samplesX];
+		float h11 = heights[row + samplesX + 1];
+		float height;
+
+		if (fu + fv <= 1.0f) {
+			height = h00 + (h10 - h00) * fu + (h01 - h00) * fv;
+		} else {
+			height = h11 + (h01 - h11) * (1.0f - fu) + (h10 - h11) * (1.0f - fv);
+		}
+
+		return origin.y + height * scale;
+	}
+
+	/**
+	 * Gets the world normal of the terrain at a point.
+	 *
+	 * @param x The world x.
+	 * @param z The world z.
+	 * @param destination The destination vector, or null if a new vector is to be created.
+	 *
+	 * @return The normal, straight up if the point is outside the heightfield.
+	 */
+	public Vector3f getNormal(float x, float z, Vector3f destination) {
+		if (destination == null) {
+			destination = new Vector3f();
+		}
+
+		float cell = spacing * scale;
+		float u = (x - origin.x) / cell;
+		float v = (z - origin.z) / cell;
+
+		if (samplesX < 2 || samplesZ < 2 || !(u >= 0.0f && v >= 0.0f && u <= samplesX - 1 && v <= samplesZ - 1)) {
+			return destination.set(0.0f, 1.0f, 0.0f);
+		}
+
+		int i = Math.min((int) u, samplesX - 2);
+		int j = Math.min((int) v, samplesZ - 2);
+		int row = j * samplesX + i;
+		float slopeX;
+		float slopeZ;
+
+		// The slopes are the same in world space, as the heights and spacing are scaled together.
+		if ((u - i) + (v - j) <= 1.0f) {
+			slopeX = (heights[row + 1] - heights[row]) / spacing;
+			slopeZ = (heights[row + samplesX] - heights[row]) / spacing;
+		} else {
+			slopeX = (heights[row + samplesX + 1] - heights[row + samplesX]) / spacing;
+			slopeZ = (heights[row + samplesX + 1] - heights[row + 1]) / spacing;
+		}
+
+		float length = (float) Math.sqrt(slopeX * slopeX + 1.0f + slopeZ * slopeZ);
+		return destination.set(-slopeX / length, 1.0f / length, -slopeZ / length);
+	}
+
+	/**
+	 * Gets the highest world height of the terrain over an area, from the heights of every cell the area covers.
+	 *
+	 * @param minX The smallest world x of the area.
+	 * @param minZ The smallest world z of the area.
+	 * @param maxX The largest world x of the area.
+	 * @param maxZ The largest world z of the area.
+	 *
+	 * @return The highest height, or NaN if the area is outside the heightfield.
+	 */
+	public float getMaxHeight(float minX, float minZ, float maxX, float maxZ) {
+		float cell = spacing * scale;
+		int i0 = Math.max((int) Math.floor((minX - origin.x) / cell), 0);
+		int j0 = Math.max((int) Math.floor((minZ - origin.z) / cell), 0);
+		int i1 = Math.min((int) Math.ceil((maxX - origin.x) / cell), samplesX - 1);
+		int j1 = Math.min((int) Math.ceil((maxZ - origin.z) / cell), samplesZ - 1);
+
+		if (samplesX < 2 || samplesZ < 2 || i0 > i1 || j0 > j1) {
+			return Float.NaN;
+		}
+
+		float highest = Float.NEGATIVE_INFINITY;
+
+		for (int j = j0; j <= j1; j++) {
+			for (int i = i0; i <= i1; i++) {
+				highest = Math.max(highest, heights[j * samplesX + i]);
+			}
+		}
+
+		return origin.y + highest * scale;
+	}
+
+	/**
+	 * Limits the vertical move of a shape standing on the terrain, so its bottom is not moved below the terrain under it.
+	 *
+	 * @param minX The smallest world x of the shape after the move.
+	 * @param minZ The smallest world z of the shape after the move.
+	 * @param maxX The largest world x of the shape after the move.
+	 * @param maxZ The largest world z of the shape after the move.
+	 * @param bottom The world height of the bottom of the shape before the move.
+	 * @param moveY The vertical move.
+	 *
+	 * @return The vertical move, lifted to stand on the terrain if needed.
+	 */
+	public float resolveMoveY(float minX, float minZ, float maxX, float maxZ, float bottom, float moveY) {
+		float ground = getMaxHeight(minX, minZ, maxX, maxZ);
+
+		if (Float.isNaN(ground)) {
+			return moveY;
+		}
+
+		return Math.max(moveY, ground - bottom);
+	}
+
+	/**
+	 * Gets the world bounds of the heightfield.
+	 *
+	 * @param destination The destination AABB, or null if a new AABB is to be created.
+	 *
+	 * @return The bounds.
+	 */
+	public AABB getBounds(AABB destination) {
+		if (destination == null) {
+			destination = new AABB();
+		}
+
+		float cell = spacing * scale;
+		destination.setMinExtents(origin.x, origin.y + minHeight * scale, origin.z);
+		destination.setMaxExtents(origin.x + Math.max(samplesX - 1, 0) * cell, origin.y + maxHeight * scale, origin.z + Math.max(samplesZ - 1, 0) * cell);
+		return destination;
+	}
+
+	@Override
+	public Vector3f resolveCollision(Collider other, Vector3f positionDelta, Vector3f destination) throws IllegalArgumentException {
+		if (destination == null) {
+			destination = new Vector3f();
+		}
+
+		// Terrain does not move, so its moves are never changed.
+		return destination.set(positionDelta);
+	}
+
+	@Override
+	public Collider clone() {
+		Heightfield heightfield = new Heightfield();
+		update(origin, null, scale, heightfield);
+		return heightfield;
+	}
+
+	@Override
+	public IntersectData intersects(Collider other, IntersectData destination) throws IllegalArgumentException {
+		if (destination == null) {
+			destination = new IntersectData();
+		}
+
+		if (other == null || this.equals(other)) {
+			return destination.set(true, 0.0f);
+		}
+
+		float ground;
+		float bottom;
+
+		if (other instanceof AABB) {
+			Vector3f min = ((AABB) other).getMinExtents();
+			Vector3f max = ((AABB) other).getMaxExtents();
+			ground = getMaxHeight(min.x, min.z, max.x, max.z);
+			bottom = min.y;
+		} else if (other instanceof Sphere) {
+			Vector3f position = ((Sphere) other).getPosition();
+			float radius = ((Sphere) other).getRadius();
+			ground = getMaxHeight(position.x - radius, position.z - radius, position.x + radius, position.z + radius);
+			bottom = position.y - radius;
+		} else {
+			return destination.set(false, 0.0f);
+		}
+
+		if (Float.isNaN(ground)) {
+			return destination.set(false, Float.POSITIVE_INFINITY);
+		}
+
+		return destination.set(bottom < ground, bottom - ground);
+	}
+
+	@Override
+	public IntersectData intersects(Ray ray, IntersectData destination) throws IllegalArgumentException {
+		if (destination == null) {
+			destination = new IntersectData();
+		}
+
+		Vector3f origin = ray.getOrigin();
+		Vector3f direction = ray.getCurrentRay();
+		AABB bounds = getBounds(null);
+
+		// Only the part of the ray inside the bounds is marched, in steps of half a cell, and the crossing is refined by halving.
+		if (!ColliderKernels.rayAabb(origin.x, origin.y, origin.z, direction.x, direction.y, direction.z,
+				bounds.getMinExtents().x, bounds.getMinExtents().y, bounds.getMinExtents().z,
+				bounds.getMaxExtents().x, bounds.getMaxExtents().y, bounds.getMaxExtents().z, destination).isIntersection()) {
+			return destination;
+		}
+
+		float length = (float) Math.sqrt(direction.x * direction.x + direction.y * direction.y + direction.z * direction.z);
+		float step = spacing * scale * 0.5f / length;
+		float near = destination.getDistance();
+		float far = near + (bounds.getWidth() + bounds.getHeight() + bounds.getDepth()) / length;
+		float previous = near;
+
+		for (float t = near; t <= far; t += step) {
+			float height = getHeight(origin.x + direction.x * t, origin.z + direction.z * t);
+
+			if (!Float.isNaN(height) && origin.y + direction.y * t <= height) {
+				float above = previous;
+				float below = t;
+
+				for (int i = 0; i < 8; i++) {
+					float middle = (above + below) * 0.5f;
+					float middleHeight = getHeight(origin.x + direction.x * middle, origin.z + direction.z * middle);
+
+					if (!Float.isNaN(middleHeight) && origin.y + direction.y * middle <= middleHeight) {
+						below = middle;
+					} else {
+						above = middle;
+					}
+				}
+
+				return destination.set(true, below);
+			}
+
+			previous = t;
+		}
+
+		return destination.set(false, -1.0f);
+	}
+
+	@Override
+	public boolean inFrustum(Frustum frustum) {
+		float cell = spacing * scale;
+		return frustum.cubeInFrustum(origin.x, origin.y + minHeight * scale, origin.z,
+				origin.x + Math.max(samplesX - 1, 0) * cell, origin.y + maxHeight * scale, origin.z + Math.max(samplesZ - 1, 0) * cell);
+	}
+
+	@Override
+	public boolean contains(Collider other) throws IllegalArgumentException {
+		if (other == null || this.equals(other)) {
+			return false;
+		}
+
+		if (other instanceof AABB) {
+			// The box is under the terrain if its top is below the lowest height it stands over.
+			Vector3f min = ((AABB) other).getMinExtents();
+			Vector3f max = ((AABB) other).getMaxExtents();
+			return contains(min.x, max.y, min.z) && contains(max.x, max.y, min.z) && contains(min.x, max.y, max.z) && contains(max.x, max.y, max.z);
+		} else if (other instanceof Sphere) {
+			Vector3f position = ((Sphere) other).getPosition();
+			return contains(position.x, position.y + ((Sphere) other).getRadius(), position.z);
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean contains(Vector3f point) {
+		return contains(point.x, point.y, point.z);
+	}
+
+	private boolean contains(float x, float y, float z) {
+		float height = getHeight(x, z);
+		return !Float.isNaN(height) && y <= height;
+	}
+
+	public float[] getHeights() {
+		return heights;
+	}
+
+	public int getSamplesX() {
+		return samplesX;
+	}
+
+	public int getSamplesZ() {
+		return samplesZ;
+	}
+
+	public float getSpacing() {
+		return spacing;
+	}
+
+	@Override
+	public ModelObject getRenderModel() {
+		return null; // Not implemented.
+	}
+
+	@Override
+	public Vector3f getRenderCentre(Vector3f destination) {
+		return destination; // Not implemented.
+	}
+
+	@Override
+	public Vector3f getRenderRotation(Vector3f destination) {
+		return destination; // Not implemented.
+	}
+
+	@Override
+	public Vector3f getRenderScale(Vector3f destination) {
+		return destination; // Not implemented.
+	}
+
+	@Override
+	public Colour getRenderColour(Colour destination) {
+		return destination; // Not implemented.
+	}
+
+	@Override
+	public String toString() {
+		return "Heightfield{" + "samplesX=" + samplesX + ", samplesZ=" + samplesZ + ", spacing=" + spacing + ", origin=" + origin + ", scale=" + scale + "}";
+	}
+}
@@ -0,0 +1,82 @@
+package flounder.physics;
+
+import flounder.maths.vectors.*;
+
+/**
+ * A class that represents when a moving shape first touches another. The data can be set again, so one object can be reused for many sweep tests.
+ */
+public class ImpactData {
+	private boolean impact;
+	private float time;
+	private final Vector3f normal;
+
+	/**
+	 * Creates a new impact data with no impact.
+	 */
+	public ImpactData() {
+		this.impact = false;
+		this.time = 1.0f;
+		this.normal = new Vector3f();
+	}
+
+	/**
+	 * Sets the impact data.
+	 *
+	 * @param impact If the shapes touch during the move.
+	 * @param time The fraction of the move where they first touch, from 0 to 1.
+	 * @param normalX The normal of the hit surface on the x, pointing from the shape hit towards the moving shape.
+	 * @param normalY The normal of the hit surface on the y.
+	 * @param normalZ The normal of the hit surface on the z.
+	 *
+	 * @return This.
+	 */
+	public ImpactData set(boolean impact, float time, float normalX, float normalY, float normalZ) {
+		this.impact = impact;
+		this.time = time;
+		this.normal.set(normalX, normalY, normalZ);
+		return this;
+	}
+
+	/**
+	 * Sets the impact data to another impact.
+	 *
+	 * @param source The impact to copy.
+	 *
+	 * @return This.
+	 */
+	public ImpactData set(ImpactData source) {
+		return set(source.impact, source.time, source.normal.x, source.normal.y, source.normal.z);
+	}
+
+	/**
+	 * Gets if the shapes touch during the move.
+	 *
+	 * @return If there is a impact.
+	 */
+	public boolean isImpact() {
+		return impact;
+	}
+
+	/**
+	 * Gets the fraction of the move where the shapes first touch, 0 if they already overlapped.
+	 *
+	 * @return The time of impact.
+	 */
+	public float getTime() {
+		return time;
+	}
+
+	/**
+	 * Gets the normal of the hit surface, pointing from the shape hit towards the moving shape.
+	 *
+	 * @return The impact normal.
+	 */
+	public Vector3f getNormal() {
+		return normal;
+	}
+
+	@Override
+	public String toString() {
+		return "ImpactData{" + "impact=" + impact + ", time=" + time + ", normal=" + normal + "}";
+	}
+}
@@ -1,12 +1,19 @@
 package flounder.physics;
 
 /**
- * A class that represents bounding collision data.
+ * A class that represents bounding collision data. The data can be set again, so one object can be reused for many collision tests.
  */
 public class IntersectData {
 	private boolean intersection;
 	private float distance;
 
+	/**
+	 * Creates a new bounding collision data with no collision.
+	 */
+	public IntersectData() {
+		this(false, 0.0f);
+	}
+
 	/**
 	 * Creates a new bounding collision data.
 	 *
@@ -18,6 +25,20 @@ public class IntersectData {
 		this.distance = distance;
 	}
 
+	/**
+	 * Sets the collision data.
+	 *
+	 * @param intersects If there is a collision.
+	 * @param distance What distance that collision is at.
+	 *
+	 * @return This.
+	 */
+	public IntersectData set(boolean intersects, float distance) {
+		this.intersection = intersects;
+		this.distance = distance;
+		return this;
+	}
+
 	/**
 	 * Gets if there is a collision.
 	 *
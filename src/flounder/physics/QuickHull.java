@@ -8,56 +8,32 @@ import flounder.models.*;
 import java.util.*;
 
 /**
- * This algorithm calculates the convex hull for a given set of points. This is a Java port of the algorithm written in PHP by Jakob Westhoff.
+ * A convex hull collider. The hull is built from a point cloud by a {@link QuickHullBuilder}, and only the hull vertices are kept, in model space. Hulls
+ * updated from one another share the vertices and are only moved by their model matrix.
  */
 public class QuickHull extends Collider {
-	private List<Vector3f> inputPoints;
+	private float[] points;
 	private List<Vector3f> hullPoints;
 	private Matrix4f modelMatrix;
-	private final boolean iterativeProceeding;
+	private GjkEpa solver;
 
 	/**
-	 * Initializes the QuickHull algorithm with no values.
+	 * Creates a new empty convex hull.
 	 */
 	public QuickHull() {
-		this.inputPoints = new ArrayList<>();
-		this.hullPoints = new ArrayList<>();
+		this.points = new float[0];
+		this.hullPoints = null;
 		this.modelMatrix = new Matrix4f();
-		this.iterativeProceeding = false;
 	}
 
 	/**
-	 * Initializes the QuickHull algorithm with a point cloud.
+	 * Creates a new convex hull around a point cloud.
 	 *
 	 * @param points The point cloud to put in.
 	 */
 	public QuickHull(List<Vector3f> points) {
-		this.inputPoints = points;
-		this.hullPoints = new ArrayList<>();
-		this.modelMatrix = new Matrix4f();
-		this.iterativeProceeding = false;
-	}
-
-	/**
-	 * Initializes the QuickHull algorithm with a point cloud.
-	 *
-	 * @param points The point cloud to put in.
-	 * @param iterativeProceeding Flag that indicates how the algorithm should work. Either imperative or recursive.
-	 * You should use an iterative approach if the point set is very large. This will avoid stack overflows at a certain number of points.
-	 * The number of stack overflow depends mainly on the structure of the points and the systems architecture (32/64 bit).
-	 */
-	public QuickHull(List<Vector3f> points, boolean iterativeProceeding) {
-		this.inputPoints = points;
-		this.hullPoints = new ArrayList<>();
-		this.modelMatrix = new Matrix4f();
-		this.iterativeProceeding = iterativeProceeding;
-	}
-
-	public QuickHull(List<Vector3f> inputPoints, List<Vector3f> hullPoints, boolean iterativeProceeding) {
-		this.inputPoints = inputPoints;
-		this.hullPoints = hullPoints;
-		this.modelMatrix = new Matrix4f();
-		this.iterativeProceeding = iterativeProceeding;
+		this();
+		loadData(points);
 	}
 
 	@Override
@@ -68,12 +44,10 @@ public class QuickHull extends Collider {
 
 		QuickHull hull = (QuickHull) destination;
 
+		// The points are shared, the hull is only moved by its model matrix.
 		if (!this.equals(destination)) {
-			hull.inputPoints.clear();
-			hull.inputPoints.addAll(inputPoints);
-
-			hull.hullPoints.clear();
-			hull.hullPoints.addAll(hullPoints);
+			hull.points = points;
+			hull.hullPoints = hullPoints;
 		}
 
 		Matrix4f.transformationMatrix(position, rotation, scale, hull.modelMatrix);
@@ -94,7 +68,20 @@ public class QuickHull extends Collider {
 
 		if (other instanceof QuickHull) {
 			QuickHull hull2 = (QuickHull) other;
-			// TODO
+			float deltaX = positionDelta.x;
+			float deltaY = positionDelta.y;
+			float deltaZ = positionDelta.z;
+			destination.set(deltaX, deltaY, deltaZ);
+
+			if (getSolver().penetration(this, hull2, deltaX, deltaY, deltaZ)) {
+				// Only the part of the move that went into the other hull is taken back, so hulls that already overlap can still move apart.
+				float normalX = solver.getNormal(0);
+				float normalY = solver.getNormal(1);
+				float normalZ = solver.getNormal(2);
+				float into = deltaX * normalX + deltaY * normalY + deltaZ * normalZ;
+				float correction = Math.min(solver.getDistance(), Math.max(0.0f, into));
+				destination.set(deltaX - normalX * correction, deltaY - normalY * correction, deltaZ - normalZ * correction);
+			}
 		}
 
 		return destination;
@@ -102,26 +89,37 @@ public class QuickHull extends Collider {
 
 	@Override
 	public Collider clone() {
-		return new QuickHull(this.inputPoints, this.hullPoints, this.iterativeProceeding);
+		QuickHull hull = new QuickHull();
+		hull.points = points;
+		hull.hullPoints = hullPoints;
+		return hull;
 	}
 
 	@Override
-	public IntersectData intersects(Collider other) throws IllegalArgumentException {
+	public IntersectData intersects(Collider other, IntersectData destination) throws IllegalArgumentException {
+		if (destination == null) {
+			destination = new IntersectData();
+		}
+
 		if (other == null || this.equals(other)) {
-			return new IntersectData(true, 0.0f);
+			return destination.set(true, 0.0f);
 		}
 
 		if (other instanceof QuickHull) {
 			QuickHull hull2 = (QuickHull) other;
-			// TODO
-			return new IntersectData(false, 0.0f);
+
+			if (getSolver().penetration(this, hull2, 0.0f, 0.0f, 0.0f)) {
+				return destination.set(true, -solver.getDistance());
+			}
+
+			return destination.set(false, solver.getDistance());
 		}
 
 		return null;
 	}
 
 	@Override
-	public IntersectData intersects(Ray other) throws IllegalArgumentException {
+	public IntersectData intersects(Ray other, IntersectData destination) throws IllegalArgumentException {
 		return null; // Done with AABB / Sphere.
 	}
 
@@ -149,255 +147,123 @@ public class QuickHull extends Collider {
 		return false; // Done with AABB / Sphere.
 	}
 
-	public void loadData(List<Vector3f> points) {
-		this.inputPoints.clear();
-		this.inputPoints.addAll(points);
-		this.hullPoints = getHullPoints();
-	}
-
-	public void loadData(float[] vertices) {
-		List<Vector3f> points = new ArrayList<>();
-		Vector3f v = new Vector3f();
-		int w = 0;
-
-		for (float vertice : vertices) {
-			if (w == 0) {
-				v.x = vertice;
-				w++;
-			} else if (w == 1) {
-				v.y = vertice;
-				w++;
-			} else if (w == 2) {
-				v.z = vertice;
-				points.add(new Vector3f(v));
-				v = new Vector3f();
-				w = 0;
-			}
-		}
-
-		loadData(points);
-
-		//	FlounderLogger.get().log("=====================================");
-		//	for (Vector3f hp : hullPoints) {
-		//		FlounderLogger.get().log(hp);
-		//	}
-	}
-
 	/**
-	 * Returns the most right/left aligned point.
-	 *
-	 * @param leftSide True if the most right aligned point is needed. False otherwise.
+	 * Builds the hull around a point cloud.
 	 *
-	 * @return The point which corresponds to the query.
+	 * @param points The point cloud to put in.
 	 */
-	private Vector3f getXPoint(boolean leftSide) {
-		Vector3f pivot = inputPoints.get(0);
-
-		for (Vector3f p : inputPoints) {
-			if ((leftSide && p.getX() < pivot.getX()) || (!leftSide && p.getX() > pivot.getX())) { // Min search or Max search.
-				pivot = p;
-			}
-		}
-
-		return pivot;
-	}
+	public void loadData(List<Vector3f> points) {
+		float[] vertices = new float[points.size() * 3];
 
-	/**
-	 * Starts the algorithm to get all the hull points.
-	 *
-	 * @return A vector containing all convex hull points.
-	 */
-	public final List<Vector3f> getHullPoints() {
-		if (hullPoints.size() == 0) {
-			// This is the first update with the maximum and minimum x value points. The points are definitive points of the convex hull.
-			Vector3f pointMaxX = getXPoint(false);
-			Vector3f pointMinX = getXPoint(true);
-
-			// We must process both sides of the line, so we *merge* it here.
-			hullPoints.addAll(quickHull(inputPoints, pointMinX, pointMaxX));
-			hullPoints.addAll(quickHull(inputPoints, pointMaxX, pointMinX));
+		for (int i = 0; i < points.size(); i++) {
+			vertices[i * 3] = points.get(i).x;
+			vertices[i * 3 + 1] = points.get(i).y;
+			vertices[i * 3 + 2] = points.get(i).z;
 		}
 
-		return hullPoints;
+		loadData(vertices, 0.0f);
 	}
 
 	/**
-	 * Calculates the distance between two points which span a line and a point.
-	 * <p>
-	 * The returned value is not the correct distance (for performance reasons) value,
-	 * but it's sufficient to determine the point with the maximum distance between the line and the point.
-	 * The result is a pseudo cross product of the line vector (first to second point).
-	 * <p>
-	 * Note: result < 0: point is right of the given vector (line)
-	 * result > 0: point is left of the given vector (line)
-	 * result = 0: point is on the line (colinear)
-	 *
-	 * @param pointToCalcDistanceTo The point to calculate the distance to.
-	 * @param firstLinePoint The first (start) point of the line.
-	 * @param secondLinePoint The second (end) point of the line.
+	 * Builds the hull around a point cloud, such as the vertices of a model.
 	 *
-	 * @return The distance between the line and the given point.
+	 * @param vertices The points, three values for each point.
+	 * @param voxelSize The size of the voxel grid points are welded on before building, or 0 to keep every point.
 	 */
-	private double calculateDistanceIndicator(Vector3f pointToCalcDistanceTo, Vector3f firstLinePoint, Vector3f secondLinePoint) {
-		double[] vLine = new double[2];
-		vLine[0] = secondLinePoint.getX() - firstLinePoint.getX();
-		vLine[1] = secondLinePoint.getY() - firstLinePoint.getY();
-
-		double[] vPoint = new double[2];
-		vPoint[0] = pointToCalcDistanceTo.getX() - firstLinePoint.getX();
-		vPoint[1] = pointToCalcDistanceTo.getY() - firstLinePoint.getY();
-
-		return ((vPoint[1] * vLine[0]) - (vPoint[0] * vLine[1]));
+	public void loadData(float[] vertices, float voxelSize) {
+		// The built hull is never changed, so it can be shared with hulls updated from this one.
+		this.points = QuickHullBuilder.getHull(vertices, voxelSize);
+		this.hullPoints = null;
 	}
 
 	/**
-	 * Calculates the distance between the line (spanned by the first and second point) and *all* the given points.
-	 * <p>
-	 * Note: Only the points left of the line will be returned.
-	 * Every point right of the line or colinear to the line will be deleted.
-	 *
-	 * @param points The points to calculate the distance to.
-	 * @param first The first point of the line.
-	 * @param second The second point of the line.
+	 * Gets the number of points support queries are run over.
 	 *
-	 * @return A vector containing all point distances.
+	 * @return The number of support points.
 	 */
-	private List<PointDistance> getPointDistances(List<Vector3f> points, Vector3f first, Vector3f second) {
-		List<PointDistance> ptDistanceSet = new ArrayList<>();
-
-		for (Vector3f p : points) {
-			double distanceToPoint = calculateDistanceIndicator(p, first, second);
-
-			if (distanceToPoint > 0) {
-				ptDistanceSet.add(new PointDistance(p, distanceToPoint));
-			}
-		}
-
-		return ptDistanceSet;
+	public int getSupportCount() {
+		return points.length / 3;
 	}
 
 	/**
-	 * Searches for the point which has the maximum distance.
+	 * Finds the point furthest in a direction, in world space. The direction is moved into model space instead of moving every point out of it.
 	 *
-	 * @param pointDistanceSet The point distance set to search in.
+	 * @param dx The direction on the x.
+	 * @param dy The direction on the y.
+	 * @param dz The direction on the z.
+	 * @param destination The world space point to set.
 	 *
-	 * @return The point with the maximum distance to the given line.
+	 * @return The index of the point.
 	 */
-	private Vector3f getPointWithMaximumDistanceFromLine(List<PointDistance> pointDistanceSet) {
-		double maxDistance = 0;
-		Vector3f maxPoint = null;
-
-		for (PointDistance pd : pointDistanceSet) {
-			if (pd.distance > maxDistance) {
-				maxDistance = pd.distance;
-				maxPoint = pd.p;
+	public int getSupport(double dx, double dy, double dz, double[] destination) {
+		double localX = modelMatrix.m00 * dx + modelMatrix.m01 * dy + modelMatrix.m02 * dz;
+		double localY = modelMatrix.m10 * dx + modelMatrix.m11 * dy + modelMatrix.m12 * dz;
+		double localZ = modelMatrix.m20 * dx + modelMatrix.m21 * dy + modelMatrix.m22 * dz;
+		double bestDot = -Double.MAX_VALUE;
+		int best = 0;
+
+		for (int i = 0; i < points.length / 3; i++) {
+			double dot = points[i * 3] * localX + points[i * 3 + 1] * localY + points[i * 3 + 2] * localZ;
+
+			if (dot > bestDot) {
+				bestDot = dot;
+				best = i;
 			}
 		}
 
-		return maxPoint;
+		getSupportPoint(best, destination);
+		return best;
 	}
 
 	/**
-	 * Runs the QuickHull algorithm on the given points.
-	 * The other two points given are used to delimit the search space in left and right side parts.
-	 * <p>
-	 * Only the points left of the line will be inspected.
+	 * Gets a support point in world space.
 	 *
-	 * @param points The set of points to analyze.
-	 * @param first The first point of the line which is left of the right one.
-	 * @param second The second point of the line which is right of the first
-	 * one.
-	 *
-	 * @return A list containing all the convex hull points on one side.
+	 * @param index The index of the point.
+	 * @param destination The world space point to set.
 	 */
-	private List<Vector3f> quickHull(List<Vector3f> points, Vector3f first, Vector3f second) {
-		if (iterativeProceeding) {
-			return quickHullIterative(points, first, second);
-		} else {
-			return quickHullRecursive(points, first, second);
-		}
+	public void getSupportPoint(int index, double[] destination) {
+		float x = points[index * 3];
+		float y = points[index * 3 + 1];
+		float z = points[index * 3 + 2];
+		destination[0] = modelMatrix.m00 * x + modelMatrix.m10 * y + modelMatrix.m20 * z + modelMatrix.m30;
+		destination[1] = modelMatrix.m01 * x + modelMatrix.m11 * y + modelMatrix.m21 * z + modelMatrix.m31;
+		destination[2] = modelMatrix.m02 * x + modelMatrix.m12 * y + modelMatrix.m22 * z + modelMatrix.m32;
 	}
 
 	/**
-	 * Rund the algorithm as a recursive variant.
+	 * Gets the GJK and EPA solver for queries from this hull, it keeps a warm start simplex against each hull queried.
 	 *
-	 * @param points The set of points to analyze.
-	 * @param first The first point of the line which is left of the right one.
-	 * @param second The second point of the line which is right of the first
-	 * one.
-	 *
-	 * @return A list containing all the convex hull points on one side.
+	 * @return The solver.
 	 */
-	private List<Vector3f> quickHullRecursive(List<Vector3f> points, Vector3f first, Vector3f second) {
-		List<PointDistance> pointsLeftOfLine = getPointDistances(points, first, second);
-		Vector3f newMaxPoint = getPointWithMaximumDistanceFromLine(pointsLeftOfLine);
-		List<Vector3f> pointsToReturn = new ArrayList<>();
-
-		if (newMaxPoint == null) {
-			pointsToReturn.add(second);
-		} else {
-			List<Vector3f> newPoints = new ArrayList<>();
-
-			for (PointDistance pd : pointsLeftOfLine) {
-				newPoints.add(pd.p);
-			}
-
-			pointsToReturn.addAll(quickHull(newPoints, first, newMaxPoint));
-			pointsToReturn.addAll(quickHull(newPoints, newMaxPoint, second));
+	public GjkEpa getSolver() {
+		if (solver == null) {
+			solver = new GjkEpa();
 		}
 
-		return pointsToReturn;
+		return solver;
 	}
 
 	/**
-	 * Rund the algorithm as a iterative variant.
+	 * Gets the hull vertices, in model space.
 	 *
-	 * @param points The set of points to analyze.
-	 * @param first The first point of the line which is left of the right one.
-	 * @param second The second point of the line which is right of the first
-	 * one.
-	 *
-	 * @return A list containing all the convex hull points on one side.
+	 * @return The hull points.
 	 */
-	private ArrayList<Vector3f> quickHullIterative(List<Vector3f> points, Vector3f first, Vector3f second) {
-		Stack<QuickHullStackCapsule> stack = new Stack<>();
-		stack.push(new QuickHullStackCapsule(points, first, second));
-
-		QuickHullStackCapsule currentStackEntry;
-
-		ArrayList<Vector3f> pointsToReturn = new ArrayList<>();
-
-		while (!stack.empty()) {
-			currentStackEntry = stack.pop();
-
-			List<Vector3f> stackPoints = currentStackEntry.pointList;
-			Vector3f stackFirstPoint = currentStackEntry.firstPoint;
-			Vector3f stackSecondPoint = currentStackEntry.secondPoint;
-
-			List<PointDistance> pointsLeftOfLine = getPointDistances(stackPoints, stackFirstPoint, stackSecondPoint);
-
-			Vector3f newPoint = getPointWithMaximumDistanceFromLine(pointsLeftOfLine);
-
-			if (newPoint == null) {
-				pointsToReturn.add(stackSecondPoint);
-			} else {
-				List<Vector3f> newPoints = new ArrayList<>();
-
-				for (PointDistance pd : pointsLeftOfLine) {
-					newPoints.add(pd.p);
-				}
+	public final List<Vector3f> getHullPoints() {
+		if (hullPoints == null) {
+			List<Vector3f> list = new ArrayList<>(points.length / 3);
 
-				// Instead of calling the function recursive push the current points to the stack.
-				stack.push(new QuickHullStackCapsule(newPoints, stackFirstPoint, newPoint));
-				stack.push(new QuickHullStackCapsule(newPoints, newPoint, stackSecondPoint));
+			for (int i = 0; i < points.length / 3; i++) {
+				list.add(new Vector3f(points[i * 3], points[i * 3 + 1], points[i * 3 + 2]));
 			}
+
+			hullPoints = list;
 		}
 
-		return pointsToReturn;
+		return hullPoints;
 	}
 
 	public boolean isLoaded() {
-		return !inputPoints.isEmpty() || !hullPoints.isEmpty();
+		return points.length != 0;
 	}
 
 	@Override
@@ -424,45 +290,4 @@ public class QuickHull extends Collider {
 	public Colour getRenderColour(Colour destination) {
 		return destination; // Not implemented.
 	}
-
-	/**
-	 * Anonymous inner class which encapsulates a point and a distance.
-	 */
-	private class PointDistance {
-		private Vector3f p;
-		private double distance;
-
-		/**
-		 * Creates a new PointDistance.
-		 *
-		 * @param point The point.
-		 * @param distance The distance to the given point.
-		 */
-		PointDistance(Vector3f point, double distance) {
-			this.p = point;
-			this.distance = distance;
-		}
-	}
-
-	/**
-	 * Anonymous inner class which holds a point list specifying the fist and second point.
-	 */
-	private class QuickHullStackCapsule {
-		private List<Vector3f> pointList;
-		private Vector3f firstPoint;
-		private Vector3f secondPoint;
-
-		/**
-		 * Creates a new QuickHullStackCapsule.
-		 *
-		 * @param points The points to hold.
-		 * @param first The first point.
-		 * @param second The second point.
-		 */
-		QuickHullStackCapsule(List<Vector3f> points, Vector3f first, Vector3f second) {
-			pointList = points;
-			firstPoint = first;
-			secondPoint = second;
-		}
-	}
 }
@@ -0,0 +1,829 @@
+package flounder.physics;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Builds the convex hull of a point cloud with 3D quickhull. The hull starts as a tetrahedron of extreme points, every other point is kept in the conflict
+ * list of one face it is in front of, and the point furthest in front of a face is added by replacing the faces it can see with a fan of faces to it. Only
+ * the points in the replaced faces conflict lists are tested again, so each point is tested against few faces.
+ * <p>
+ * Before building, points inside the polytope of the cloud's extreme points along 26 directions are dropped, as they can not be on the hull, and points
+ * can be welded together on a voxel grid to trade accuracy for speed. Large clouds are split in parts whose hulls are built in parallel, the hull of the
+ * union of their vertices is the hull of the whole cloud.
+ * <p>
+ * A builder keeps its working arrays between builds, so it should only be used from one thread at a time.
+ */
+public class QuickHullBuilder {
+	private static final int PARALLEL_THRESHOLD = 16384;
+	private static final int MODEL_VOXELS = 64;
+
+	private float voxelSize;
+
+	private double[] points;
+	private int pointCount;
+	private double epsilon;
+
+	private int[] faceVertices;
+	private int[] faceNeighbours;
+	private double[] facePlanes;
+	private boolean[] faceAlive;
+	private int[] faceConflicts;
+	private int[] faceFurthest;
+	private double[] faceFurthestDistance;
+	private int[] faceMarks;
+	private int faceCount;
+	private int mark;
+
+	private int[] pointNext;
+	private int[] orphans;
+	private int[] visible;
+	private int[] horizon;
+	private int[] stack;
+
+	private float[] hullVertices;
+	private int[] hullFaces;
+
+	/**
+	 * Creates a new quickhull builder.
+	 */
+	public QuickHullBuilder() {
+		this.voxelSize = 0.0f;
+
+		this.points = new double[0];
+		this.faceVertices = new int[0];
+		this.faceNeighbours = new int[0];
+		this.facePlanes = new double[0];
+		this.faceAlive = new boolean[0];
+		this.faceConflicts = new int[0];
+		this.faceFurthest = new int[0];
+		this.faceFurthestDistance = new double[0];
+		this.faceMarks = new int[0];
+
+		this.pointNext = new int[0];
+		this.orphans = new int[0];
+		this.visible = new int[16];
+		this.horizon = new int[32];
+		this.stack = new int[48];
+
+		this.hullVertices = new float[0];
+		this.hullFaces = new int[0];
+	}
+
+	/**
+	 * Gets the convex hull vertices of a point cloud, such as the vertices of a model. The hull should be kept by the object that owns the cloud, so it is
+	 * only built once.
+	 *
+	 * @param vertices The points, three values for each point.
+	 * @param voxelSize The size of the voxel grid points are welded on first, or 0 to keep every point.
+	 *
+	 * @return The hull vertices, three values for each vertex.
+	 */
+	public static float[] getHull(float[] vertices, float voxelSize) {
+		QuickHullBuilder builder = new QuickHullBuilder().setVoxelSize(voxelSize);
+		builder.build(vertices);
+		return builder.getVertices();
+	}
+
+	/**
+	 * Gets the voxel size a models hull is welded on, a fraction of the largest extent of its bounds so the hull stays accurate to a small part of the model
+	 * whatever its scale.
+	 *
+	 * @param bounds The bounds of the model, may be null.
+	 *
+	 * @return The voxel size, or 0 if the model has no bounds.
+	 */
+	public static float getModelVoxelSize(AABB bounds) {
+		if (bounds == null) {
+			return 0.0f;
+		}
+
+		float sizeX = bounds.getMaxExtents().x - bounds.getMinExtents().x;
+		float sizeY = bounds.getMaxExtents().y - bounds.getMinExtents().y;
+		float sizeZ = bounds.getMaxExtents().z - bounds.getMinExtents().z;
+		return Math.max(sizeX, Math.max(sizeY, sizeZ)) / MODEL_VOXELS;
+	}
+
+	/**
+	 * Sets the size of the voxel grid points are welded on before building, the point furthest from the centre of the cloud is kept in each voxel.
+	 *
+	 * @param voxelSize The voxel size, or 0 to keep every point.
+	 *
+	 * @return This.
+	 */
+	public QuickHullBuilder setVoxelSize(float voxelSize) {
+		this.voxelSize = voxelSize;
+		return this;
+	}
+
+	/**
+	 * Builds the convex hull of a point cloud.
+	 *
+	 * @param vertices The points, three values for each point.
+	 *
+	 * @return If the hull has volume, if not the vertices are the unique points and there are no faces.
+	 */
+	public boolean build(float[] vertices) {
+		double[] cloud = new double[vertices.length / 3 * 3];
+
+		for (int i = 0; i < cloud.length; i++) {
+			cloud[i] = vertices[i];
+		}
+
+		if (voxelSize > 0.0f) {
+			cloud = weld(cloud, voxelSize);
+		}
+
+		if (cloud.length / 3 >= PARALLEL_THRESHOLD) {
+			cloud = ForkJoinPool.commonPool().invoke(new PartTask(cloud, 0, cloud.length / 3));
+		} else {
+			cloud = cull(cloud);
+		}
+
+		return buildHull(cloud, cloud.length / 3);
+	}
+
+	/**
+	 * Gets the hull vertices from the last build.
+	 *
+	 * @return The vertices, three values for each vertex.
+	 */
+	public float[] getVertices() {
+		return hullVertices;
+	}
+
+	/**
+	 * Gets the hull triangles from the last build, wound counter clockwise when seen from outside.
+	 *
+	 * @return The vertex indices, three for each triangle.
+	 */
+	public int[] getFaces() {
+		return hullFaces;
+	}
+
+	/**
+	 * Keeps the point furthest from the centre of the cloud in each voxel.
+	 */
+	private static double[] weld(double[] cloud, float voxelSize) {
+		int count = cloud.length / 3;
+		double centreX = 0.0;
+		double centreY = 0.0;
+		double centreZ = 0.0;
+
+		for (int i = 0; i < count; i++) {
+			centreX += cloud[i * 3];
+			centreY += cloud[i * 3 + 1];
+			centreZ += cloud[i * 3 + 2];
+		}
+
+		centreX /= count;
+		centreY /= count;
+		centreZ /= count;
+
+		Map<Long, Integer> voxels = new HashMap<>();
+
+		for (int i = 0; i < count; i++) {
+			long key = ((long) Math.floor(cloud[i * 3] / voxelSize) & 0x1FFFFF) << 42 |
+					((long) Math.floor(cloud[i * 3 + 1] / voxelSize) & 0x1FFFFF) << 21 |
+					((long) Math.floor(cloud[i * 3 + 2] / voxelSize) & 0x1FFFFF);
+			Integer kept = voxels.get(key);
+
+			if (kept == null || distanceSquared(cloud, i, centreX, centreY, centreZ) > distanceSquared(cloud, kept, centreX, centreY, centreZ)) {
+				voxels.put(key, i);
+			}
+		}
+
+		double[] welded = new double[voxels.size() * 3];
+		int index = 0;
+
+		for (int i : voxels.values()) {
+			System.arraycopy(cloud, i * 3, welded, index * 3, 3);
+			index++;
+		}
+
+		return welded;
+	}
+
+	/**
+	 * Drops the points inside the hull of the extreme points along 26 directions, they can not be on the hull of the cloud.
+	 */
+	private static double[] cull(double[] cloud) {
+		int count = cloud.length / 3;
+
+		if (count <= 26) {
+			return cloud;
+		}
+
+		int[] extremes = new int[26];
+		int extremeCount = 0;
+
+		for (int dx = -1; dx <= 1; dx++) {
+			for (int dy = -1; dy <= 1; dy++) {
+				for (int dz = -1; dz <= 1; dz++) {
+					if (dx == 0 && dy == 0 && dz == 0) {
+						continue;
+					}
+
+					int best = 0;
+					double bestDot = -Double.MAX_VALUE;
+
+					for (int i = 0; i < count; i++) {
+						double dot = cloud[i * 3] * dx + cloud[i * 3 + 1] * dy + cloud[i * 3 + 2] * dz;
+
+						if (dot > bestDot) {
+							bestDot = dot;
+							best = i;
+						}
+					}
+
+					boolean found = false;
+
+					for (int j = 0; j < extremeCount; j++) {
+						found |= extremes[j] == best;
+					}
+
+					if (!found) {
+						extremes[extremeCount++] = best;
+					}
+				}
+			}
+		}
+
+		double[] extremePoints = new double[extremeCount * 3];
+
+		for (int j = 0; j < extremeCount; j++) {
+			System.arraycopy(cloud, extremes[j] * 3, extremePoints, j * 3, 3);
+		}
+
+		QuickHullBuilder polytope = new QuickHullBuilder();
+
+		if (!polytope.buildHull(extremePoints, extremeCount)) {
+			return cloud;
+		}
+
+		// Points on or near the polytope are kept, only points clearly inside every face are dropped.
+		double[] kept = new double[cloud.length];
+		int keptCount = 0;
+
+		for (int i = 0; i < count; i++) {
+			if (!polytope.isInside(cloud[i * 3], cloud[i * 3 + 1], cloud[i * 3 + 2])) {
+				System.arraycopy(cloud, i * 3, kept, keptCount * 3, 3);
+				keptCount++;
+			}
+		}
+
+		return Arrays.copyOf(kept, keptCount * 3);
+	}
+
+	private boolean isInside(double x, double y, double z) {
+		for (int f = 0; f < faceCount; f++) {
+			if (faceAlive[f] && distance(f, x, y, z) > -epsilon) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Builds the hull of points already reduced.
+	 *
+	 * @return If the hull has volume.
+	 */
+	private boolean buildHull(double[] cloud, int count) {
+		this.points = cloud;
+		this.pointCount = count;
+		this.faceCount = 0;
+
+		if (pointNext.length < count) {
+			pointNext = new int[count];
+			orphans = new int[count];
+		}
+
+		// The tolerance grows with the size of the coordinates, as float inputs lose precision further from the origin.
+		double maxX = 0.0;
+		double maxY = 0.0;
+		double maxZ = 0.0;
+
+		for (int i = 0; i < count; i++) {
+			maxX = Math.max(maxX, Math.abs(cloud[i * 3]));
+			maxY = Math.max(maxY, Math.abs(cloud[i * 3 + 1]));
+			maxZ = Math.max(maxZ, Math.abs(cloud[i * 3 + 2]));
+		}
+
+		epsilon = 3.0 * Math.ulp(1.0f) * (maxX + maxY + maxZ);
+
+		if (!createSimplex()) {
+			storeDegenerate();
+			return false;
+		}
+
+		// New faces are only ever added after the faces they replace, so one pass reaches every face with conflicts.
+		for (int f = 0; f < faceCount; f++) {
+			while (faceAlive[f] && faceConflicts[f] != -1) {
+				addPoint(f);
+			}
+		}
+
+		storeHull();
+		return true;
+	}
+
+	/**
+	 * Creates the starting tetrahedron from the points furthest apart, and puts every other point in the conflict list of a face.
+	 *
+	 * @return If the points have volume.
+	 */
+	private boolean createSimplex() {
+		if (pointCount < 4) {
+			return false;
+		}
+
+		// The pair furthest apart out of the points with the smallest and largest value on each axis.
+		int[] extremes = new int[6];
+
+		for (int i = 0; i < pointCount; i++) {
+			for (int axis = 0; axis < 3; axis++) {
+				if (points[i * 3 + axis] < points[extremes[axis * 2] * 3 + axis]) {
+					extremes[axis * 2] = i;
+				}
+
+				if (points[i * 3 + axis] > points[extremes[axis * 2 + 1] * 3 + axis]) {
+					extremes[axis * 2 + 1] = i;
+				}
+			}
+		}
+
+		int v0 = 0;
+		int v1 = 0;
+		double furthest = -1.0;
+
+		for (int a = 0; a < 6; a++) {
+			for (int b = a + 1; b < 6; b++) {
+				double distance = distanceSquared(points, extremes[a], points[extremes[b] * 3], points[extremes[b] * 3 + 1], points[extremes[b] * 3 + 2]);
+
+				if (distance > furthest) {
+					furthest = distance;
+					v0 = extremes[a];
+					v1 = extremes[b];
+				}
+			}
+		}
+
+		if (Math.sqrt(furthest) <= epsilon) {
+			return false;
+		}
+
+		// The point furthest from the line between them.
+		double lineX = points[v1 * 3] - points[v0 * 3];
+		double lineY = points[v1 * 3 + 1] - points[v0 * 3 + 1];
+		double lineZ = points[v1 * 3 + 2] - points[v0 * 3 + 2];
+		double lineLength = Math.sqrt(lineX * lineX + lineY * lineY + lineZ * lineZ);
+		int v2 = -1;
+		furthest = epsilon;
+
+		for (int i = 0; i < pointCount; i++) {
+			double toX = points[i * 3] - points[v0 * 3];
+			double toY = points[i * 3 + 1] - points[v0 * 3 + 1];
+			double toZ = points[i * 3 + 2] - points[v0 * 3 + 2];
+			double crossX = lineY * toZ - lineZ * toY;
+			double crossY = lineZ * toX - lineX * toZ;
+			double crossZ = lineX * toY - lineY * toX;
+			double distance = Math.sqrt(crossX * crossX + crossY * crossY + crossZ * crossZ) / lineLength;
+
+			if (distance > furthest) {
+				furthest = distance;
+				v2 = i;
+			}
+		}
+
+		if (v2 == -1) {
+			return false;
+		}
+
+		// The point furthest from the plane of the three.
+		ensureFaceCapacity(1);
+		int base = addFace(v0, v1, v2);
+		int v3 = -1;
+		furthest = epsilon;
+
+		for (int i = 0; i < pointCount; i++) {
+			double distance = Math.abs(distance(base, points[i * 3], points[i * 3 + 1], points[i * 3 + 2]));
+
+			if (distance > furthest) {
+				furthest = distance;
+				v3 = i;
+			}
+		}
+
+		if (v3 == -1) {
+			return false;
+		}
+
+		// Each face is wound so the fourth point of the tetrahedron is behind it.
+		faceCount = 0;
+		ensureFaceCapacity(4);
+		int[][] tetrahedron = {{v0, v1, v2, v3}, {v0, v1, v3, v2}, {v0, v2, v3, v1}, {v1, v2, v3, v0}};
+
+		for (int[] face : tetrahedron) {
+			int f = addFace(face[0], face[1], face[2]);
+
+			if (distance(f, points[face[3] * 3], points[face[3] * 3 + 1], points[face[3] * 3 + 2]) > 0.0) {
+				faceCount--;
+				addFace(face[0], face[2], face[1]);
+			}
+		}
+
+		for (int f = 0; f < 4; f++) {
+			for (int e = 0; e < 3; e++) {
+				int from = faceVertices[f * 3 + e];
+				int to = faceVertices[f * 3 + (e + 1) % 3];
+
+				for (int g = 0; g < 4; g++) {
+					if (g != f && findEdge(g, to, from) != -1) {
+						faceNeighbours[f * 3 + e] = g;
+					}
+				}
+			}
+		}
+
+		for (int i = 0; i < pointCount; i++) {
+			if (i != v0 && i != v1 && i != v2 && i != v3) {
+				assign(i, 0, 4);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Adds the furthest conflict point of a face to the hull.
+	 */
+	private void addPoint(int face) {
+		int eye = faceFurthest[face];
+		double eyeX = points[eye * 3];
+		double eyeY = points[eye * 3 + 1];
+		double eyeZ = points[eye * 3 + 2];
+
+		// Finds the faces the eye can see with a depth first walk, the edges to faces it can not see are found in order around the horizon.
+		mark++;
+		int visibleCount = 0;
+		int horizonCount = 0;
+		int depth = 0;
+
+		faceMarks[face] = mark;
+		visible = ensure(visible, visibleCount + 1);
+		visible[visibleCount++] = face;
+		stack[0] = face;
+		stack[1] = 0;
+		stack[2] = 0;
+		depth = 1;
+
+		while (depth > 0) {
+			int frame = (depth - 1) * 3;
+			int f = stack[frame];
+
+			if (stack[frame + 2] == 3) {
+				depth--;
+				continue;
+			}
+
+			int e = (stack[frame + 1] + stack[frame + 2]) % 3;
+			stack[frame + 2]++;
+			int neighbour = faceNeighbours[f * 3 + e];
+
+			if (faceMarks[neighbour] == mark) {
+				continue;
+			}
+
+			if (distance(neighbour, eyeX, eyeY, eyeZ) > epsilon) {
+				faceMarks[neighbour] = mark;
+				visible = ensure(visible, visibleCount + 1);
+				visible[visibleCount++] = neighbour;
+				stack = ensure(stack, depth * 3 + 3);
+				stack[depth * 3] = neighbour;
+				stack[depth * 3 + 1] = findNeighbour(neighbour, f) + 1;
+				stack[depth * 3 + 2] = 0;
+				depth++;
+			} else {
+				horizon = ensure(horizon, horizonCount * 2 + 2);
+				horizon[horizonCount * 2] = f;
+				horizon[horizonCount * 2 + 1] = e;
+				horizonCount++;
+			}
+		}
+
+		// Faces nearly flat with the eye can make a horizon that is not one loop, the point is then dropped rather than breaking the hull.
+		for (int h = 0; h < horizonCount; h++) {
+			int next = (h + 1) % horizonCount;
+			int end = faceVertices[horizon[h * 2] * 3 + (horizon[h * 2 + 1] + 1) % 3];
+			int start = faceVertices[horizon[next * 2] * 3 + horizon[next * 2 + 1]];
+
+			if (end != start) {
+				removeConflict(face, eye);
+				return;
+			}
+		}
+
+		// Replaces the visible faces with a fan of faces from the horizon to the eye.
+		ensureFaceCapacity(horizonCount);
+		int first = faceCount;
+
+		for (int h = 0; h < horizonCount; h++) {
+			int f = horizon[h * 2];
+			int e = horizon[h * 2 + 1];
+			int outside = faceNeighbours[f * 3 + e];
+			int created = addFace(faceVertices[f * 3 + e], faceVertices[f * 3 + (e + 1) % 3], eye);
+
+			faceNeighbours[created * 3] = outside;
+			faceNeighbours[created * 3 + 1] = first + (h + 1) % horizonCount;
+			faceNeighbours[created * 3 + 2] = first + (h + horizonCount - 1) % horizonCount;
+			faceNeighbours[outside * 3 + findNeighbour(outside, f)] = created;
+		}
+
+		// The conflict points of the visible faces are given to the new faces they are in front of, the rest are inside the hull.
+		int orphanCount = 0;
+
+		for (int v = 0; v < visibleCount; v++) {
+			int f = visible[v];
+			faceAlive[f] = false;
+
+			for (int p = faceConflicts[f]; p != -1; p = pointNext[p]) {
+				if (p != eye) {
+					orphans[orphanCount++] = p;
+				}
+			}
+
+			faceConflicts[f] = -1;
+		}
+
+		for (int o = 0; o < orphanCount; o++) {
+			assign(orphans[o], first, faceCount);
+		}
+	}
+
+	/**
+	 * Puts a point in the conflict list of the face in a range it is furthest in front of, if any.
+	 */
+	private void assign(int point, int fromFace, int toFace) {
+		double x = points[point * 3];
+		double y = points[point * 3 + 1];
+		double z = points[point * 3 + 2];
+		double best = epsilon;
+		int bestFace = -1;
+
+		for (int f = fromFace; f < toFace; f++) {
+			if (faceAlive[f]) {
+				double distance = distance(f, x, y, z);
+
+				if (distance > best) {
+					best = distance;
+					bestFace = f;
+				}
+			}
+		}
+
+		if (bestFace == -1) {
+			return;
+		}
+
+		pointNext[point] = faceConflicts[bestFace];
+		faceConflicts[bestFace] = point;
+
+		if (best > faceFurthestDistance[bestFace]) {
+			faceFurthestDistance[bestFace] = best;
+			faceFurthest[bestFace] = point;
+		}
+	}
+
+	/**
+	 * Removes a point from the conflict list of a face, and finds the furthest point left.
+	 */
+	private void removeConflict(int face, int point) {
+		int previous = -1;
+		faceFurthest[face] = -1;
+		faceFurthestDistance[face] = 0.0;
+
+		for (int p = faceConflicts[face]; p != -1; p = pointNext[p]) {
+			if (p == point) {
+				if (previous == -1) {
+					faceConflicts[face] = pointNext[p];
+				} else {
+					pointNext[previous] = pointNext[p];
+				}
+
+				continue;
+			}
+
+			double distance = distance(face, points[p * 3], points[p * 3 + 1], points[p * 3 + 2]);
+
+			if (distance > faceFurthestDistance[face]) {
+				faceFurthestDistance[face] = distance;
+				faceFurthest[face] = p;
+			}
+
+			previous = p;
+		}
+	}
+
+	private int addFace(int a, int b, int c) {
+		int f = faceCount++;
+		faceVertices[f * 3] = a;
+		faceVertices[f * 3 + 1] = b;
+		faceVertices[f * 3 + 2] = c;
+		faceNeighbours[f * 3] = faceNeighbours[f * 3 + 1] = faceNeighbours[f * 3 + 2] = -1;
+		faceAlive[f] = true;
+		faceConflicts[f] = -1;
+		faceFurthest[f] = -1;
+		faceFurthestDistance[f] = 0.0;
+		faceMarks[f] = 0;
+
+		double abX = points[b * 3] - points[a * 3];
+		double abY = points[b * 3 + 1] - points[a * 3 + 1];
+		double abZ = points[b * 3 + 2] - points[a * 3 + 2];
+		double acX = points[c * 3] - points[a * 3];
+		double acY = points[c * 3 + 1] - points[a * 3 + 1];
+		double acZ = points[c * 3 + 2] - points[a * 3 + 2];
+		double normalX = abY * acZ - abZ * acY;
+		double normalY = abZ * acX - abX * acZ;
+		double normalZ = abX * acY - abY * acX;
+		double length = Math.sqrt(normalX * normalX + normalY * normalY + normalZ * normalZ);
+
+		if (length > 0.0) {
+			normalX /= length;
+			normalY /= length;
+			normalZ /= length;
+		}
+
+		facePlanes[f * 4] = normalX;
+		facePlanes[f * 4 + 1] = normalY;
+		facePlanes[f * 4 + 2] = normalZ;
+		facePlanes[f * 4 + 3] = normalX * points[a * 3] + normalY * points[a * 3 + 1] + normalZ * points[a * 3 + 2];
+		return f;
+	}
+
+	private double distance(int face, double x, double y, double z) {
+		return facePlanes[face * 4] * x + facePlanes[face * 4 + 1] * y + facePlanes[face * 4 + 2] * z - facePlanes[face * 4 + 3];
+	}
+
+	private int findEdge(int face, int from, int to) {
+		for (int e = 0; e < 3; e++) {
+			if (faceVertices[face * 3 + e] == from && faceVertices[face * 3 + (e + 1) % 3] == to) {
+				return e;
+			}
+		}
+
+		return -1;
+	}
+
+	private int findNeighbour(int face, int neighbour) {
+		for (int e = 0; e < 3; e++) {
+			if (faceNeighbours[face * 3 + e] == neighbour) {
+				return e;
+			}
+		}
+
+		return -1;
+	}
+
+	private void ensureFaceCapacity(int added) {
+		int needed = faceCount + added;
+
+		if (faceAlive.length >= needed) {
+			return;
+		}
+
+		int capacity = Math.max(needed, Math.max(16, faceAlive.length * 2));
+		faceVertices = Arrays.copyOf(faceVertices, capacity * 3);
+		faceNeighbours = Arrays.copyOf(faceNeighbours, capacity * 3);
+		facePlanes = Arrays.copyOf(facePlanes, capacity * 4);
+		faceAlive = Arrays.copyOf(faceAlive, capacity);
+		faceConflicts = Arrays.copyOf(faceConflicts, capacity);
+		faceFurthest = Arrays.copyOf(faceFurthest, capacity);
+		faceFurthestDistance = Arrays.copyOf(faceFurthestDistance, capacity);
+		faceMarks = Arrays.copyOf(faceMarks, capacity);
+	}
+
+	private static int[] ensure(int[] array, int needed) {
+		return array.length >= needed ? array : Arrays.copyOf(array, Math.max(needed, array.length * 2));
+	}
+
+	/**
+	 * Stores the vertices and faces of the hull, with the vertices renumbered in the order they are first used.
+	 */
+	private void storeHull() {
+		int[] remap = new int[pointCount];
+		Arrays.fill(remap, -1);
+		int vertexCount = 0;
+		int aliveCount = 0;
+
+		for (int f = 0; f < faceCount; f++) {
+			if (faceAlive[f]) {
+				aliveCount++;
+
+				for (int e = 0; e < 3; e++) {
+					int v = faceVertices[f * 3 + e];
+
+					if (remap[v] == -1) {
+						remap[v] = vertexCount++;
+					}
+				}
+			}
+		}
+
+		hullVertices = new float[vertexCount * 3];
+		hullFaces = new int[aliveCount * 3];
+		int index = 0;
+
+		for (int v = 0; v < pointCount; v++) {
+			if (remap[v] != -1) {
+				hullVertices[remap[v] * 3] = (float) points[v * 3];
+				hullVertices[remap[v] * 3 + 1] = (float) points[v * 3 + 1];
+				hullVertices[remap[v] * 3 + 2] = (float) points[v * 3 + 2];
+			}
+		}
+
+		for (int f = 0; f < faceCount; f++) {
+			if (faceAlive[f]) {
+				hullFaces[index++] = remap[faceVertices[f * 3]];
+				hullFaces[index++] = remap[faceVertices[f * 3 + 1]];
+				hullFaces[index++] = remap[faceVertices[f * 3 + 2]];
+			}
+		}
+	}
+
+	/**
+	 * Stores the unique points of a cloud with no volume, support queries over them still find the furthest point.
+	 */
+	private void storeDegenerate() {
+		Set<List<Double>> unique = new HashSet<>();
+		float[] vertices = new float[pointCount * 3];
+		int vertexCount = 0;
+
+		for (int i = 0; i < pointCount; i++) {
+			if (unique.add(Arrays.asList(points[i * 3], points[i * 3 + 1], points[i * 3 + 2]))) {
+				vertices[vertexCount * 3] = (float) points[i * 3];
+				vertices[vertexCount * 3 + 1] = (float) points[i * 3 + 1];
+				vertices[vertexCount * 3 + 2] = (float) points[i * 3 + 2];
+				vertexCount++;
+			}
+		}
+
+		faceCount = 0;
+		hullVertices = Arrays.copyOf(vertices, vertexCount * 3);
+		hullFaces = new int[0];
+	}
+
+	private static double distanceSquared(double[] cloud, int index, double x, double y, double z) {
+		double dx = cloud[index * 3] - x;
+		double dy = cloud[index * 3 + 1] - y;
+		double dz = cloud[index * 3 + 2] - z;
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	/**
+	 * Builds the hull vertices of a range of the cloud, large ranges are split in two halves built at the same time and the hull of both hulls is built.
+	 */
+	private static class PartTask extends RecursiveTask<double[]> {
+		private static final long serialVersionUID = 1L;
+
+		private final double[] cloud;
+		private final int start;
+		private final int end;
+
+		private PartTask(double[] cloud, int start, int end) {
+			this.cloud = cloud;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected double[] compute() {
+			double[] part;
+
+			if (end - start < PARALLEL_THRESHOLD) {
+				part = Arrays.copyOfRange(cloud, start * 3, end * 3);
+			} else {
+				int middle = (start + end) >>> 1;
+				PartTask left = new PartTask(cloud, start, middle);
+				left.fork();
+				double[] right = new PartTask(cloud, middle, end).compute();
+				double[] joined = left.join();
+				part = Arrays.copyOf(joined, joined.length + right.length);
+				System.arraycopy(right, 0, part, joined.length, right.length);
+			}
+
+			QuickHullBuilder builder = new QuickHullBuilder();
+			double[] culled = cull(part);
+			builder.buildHull(culled, culled.length / 3);
+			float[] vertices = builder.getVertices();
+			double[] hull = new double[vertices.length];
+
+			for (int i = 0; i < hull.length; i++) {
+				hull[i] = vertices[i];
+			}
+
+			return hull;
+		}
+	}
+}
@@ -88,6 +88,10 @@ public class Sphere extends Collider {
 			float yDif = position.y - sphere2.position.y;
 			float zDif = position.z - sphere2.position.z;
 			float distance = xDif * xDif + yDif * yDif + zDif * zDif;
+		} else if (other instanceof Heightfield) {
+			// Stands the sphere on the terrain under where it is moving to.
+			destination.y = ((Heightfield) other).resolveMoveY(position.x + positionDelta.x - radius, position.z + positionDelta.z - radius,
+					position.x + positionDelta.x + radius, position.z + positionDelta.z + radius, position.y - radius, positionDelta.y);
 		}
 
 		return destination;
@@ -99,97 +103,43 @@ public class Sphere extends Collider {
 	}
 
 	@Override
-	public IntersectData intersects(Collider other) throws IllegalArgumentException {
+	public IntersectData intersects(Collider other, IntersectData destination) throws IllegalArgumentException {
+		if (destination == null) {
+			destination = new IntersectData();
+		}
+
 		if (other == null || this.equals(other)) {
-			return new IntersectData(true, 0.0f);
+			return destination.set(true, 0.0f);
 		}
 
 		if (other instanceof AABB) {
 			AABB aabb = (AABB) other;
-
-			float distanceSquared = radius * radius;
-
-			if (position.x < aabb.getMinExtents().x) {
-				distanceSquared -= Math.pow(position.x - aabb.getMinExtents().x, 2);
-			} else if (position.x > aabb.getMaxExtents().x) {
-				distanceSquared -= Math.pow(position.x - aabb.getMaxExtents().x, 2);
-			}
-
-			if (position.y < aabb.getMinExtents().x) {
-				distanceSquared -= Math.pow(position.y - aabb.getMinExtents().y, 2);
-			} else if (position.x > aabb.getMaxExtents().x) {
-				distanceSquared -= Math.pow(position.y - aabb.getMaxExtents().y, 2);
-			}
-
-			if (position.z < aabb.getMinExtents().x) {
-				distanceSquared -= Math.pow(position.z - aabb.getMinExtents().z, 2);
-			} else if (position.z > aabb.getMaxExtents().x) {
-				distanceSquared -= Math.pow(position.z - aabb.getMaxExtents().z, 2);
-			}
-
-			return new IntersectData(distanceSquared > 0.0f, (float) Math.sqrt(distanceSquared));
+			Vector3f min = aabb.getMinExtents();
+			Vector3f max = aabb.getMaxExtents();
+			return ColliderKernels.aabbSphere(min.x, min.y, min.z, max.x, max.y, max.z, position.x, position.y, position.z, radius, destination);
 		} else if (other instanceof Sphere) {
 			Sphere sphere = (Sphere) other;
-
-			float d = sphere.radius + radius;
-
-			float xDif = position.x - sphere.position.x;
-			float yDif = position.y - sphere.position.y;
-			float zDif = position.z - sphere.position.z;
-			float distance = xDif * xDif + yDif * yDif + zDif * zDif;
-
-			boolean intersects = d * d > distance;
-			return new IntersectData(intersects, (d * d) - distance);
+			return ColliderKernels.sphereSphere(
+					position.x, position.y, position.z, radius,
+					sphere.position.x, sphere.position.y, sphere.position.z, sphere.radius, destination
+			);
 		}
 
-		return new IntersectData(false, 0.0f);
+		return destination.set(false, 0.0f);
 	}
 
 	@Override
-	public IntersectData intersects(Ray ray) throws IllegalArgumentException {
-		float t;
-
-		Vector3f L = Vector3f.subtract(ray.getOrigin(), position, null);
-
-		float a = Vector3f.dot(ray.getCurrentRay(), ray.getCurrentRay());
-		float b = 2.0f * (Vector3f.dot(ray.getCurrentRay(), L));
-		float c = (Vector3f.dot(L, L)) - (radius * radius);
-
-		float disc = b * b - 4.0f * a * c;
-
-		if (disc < 0.0f) {
-			return new IntersectData(false, -1.0f);
-		}
-
-		float distSqrt = (float) Math.sqrt(disc);
-		float q;
-
-		if (b < 0.0f) {
-			q = (-b - distSqrt) / 2.0f;
-		} else {
-			q = (-b + distSqrt) / 2.0f;
-		}
-
-		float t0 = q / a;
-		float t1 = c / q;
-
-		if (t0 > t1) {
-			float temp = t0;
-			t0 = t1;
-			t1 = temp;
-		}
-
-		if (t1 < 0.0f) {
-			return new IntersectData(false, -1.0f);
-		}
-
-		if (t0 < 0.0f) {
-			t = t1;
-		} else {
-			t = t0;
+	public IntersectData intersects(Ray ray, IntersectData destination) throws IllegalArgumentException {
+		if (destination == null) {
+			destination = new IntersectData();
 		}
 
-		return new IntersectData(true, t);
+		Vector3f origin = ray.getOrigin();
+		Vector3f direction = ray.getCurrentRay();
+		return ColliderKernels.raySphere(
+				origin.x, origin.y, origin.z, direction.x, direction.y, direction.z,
+				position.x, position.y, position.z, radius, destination
+		);
 	}
 
 	@Override
@@ -205,13 +155,10 @@ public class Sphere extends Collider {
 
 		if (other instanceof Sphere) {
 			Sphere sphere = (Sphere) other;
-
-			return sphere.position.x + sphere.radius - 1.0f <= position.x + radius - 1.0f
-					&& sphere.position.x - sphere.radius + radius >= position.x - radius + 1.0f
-					&& sphere.position.y + sphere.radius - 1.0f <= position.y + radius - 1.0f
-					&& sphere.position.y - sphere.radius + 1.0f >= position.y - radius + 1.0f
-					&& sphere.position.z + sphere.radius - 1.0f <= position.z + radius - 1.0f
-					&& sphere.position.z - sphere.radius + 1.0f >= position.z - radius + 1.0f;
+			return ColliderKernels.sphereContainsSphere(
+					position.x, position.y, position.z, radius,
+					sphere.position.x, sphere.position.y, sphere.position.z, sphere.radius
+			);
 		}
 
 		return false;
@@ -219,7 +166,7 @@ public class Sphere extends Collider {
 
 	@Override
 	public boolean contains(Vector3f point) {
-		return Vector3f.getDistanceSquared(position, point) <= radius * radius;
+		return ColliderKernels.sphereContainsPoint(position.x, position.y, position.z, radius, point.x, point.y, point.z);
 	}
 
 	/**
@@ -308,7 +255,7 @@ public class Sphere extends Collider {
 
 		Sphere other = (Sphere) object;
 
-		if (!Objects.equals(radius, other.radius)) {
+		if (Float.compare(radius, other.radius) != 0) {
 			return false;
 		} else if (!Objects.equals(position, other.position)) {
 			return false;
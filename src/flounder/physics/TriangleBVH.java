@@ -0,0 +1,325 @@
+package flounder.physics;
+
+import java.util.*;
+
+/**
+ * A bounding volume hierarchy over the triangles of a mesh, used to find where rays hit the mesh without testing every triangle. Nodes are stored in
+ * flat arrays in depth first order, so the left child of a node is the node after it.
+ */
+public class TriangleBVH {
+	private static final int LEAF_SIZE = 4;
+	private static final int STACK_SIZE = 64;
+	private static final ThreadLocal<int[]> TRAVERSAL_STACK = ThreadLocal.withInitial(() -> new int[STACK_SIZE]);
+
+	private final float[] vertices;
+	private final int[] triangles;
+
+	private float[] bounds;
+	private int[] nodes;
+	private int nodeCount;
+
+	/**
+	 * Creates a new triangle hierarchy.
+	 *
+	 * @param vertices The mesh vertex positions, three values for each vertex.
+	 * @param indices The mesh indices, three vertices for each triangle.
+	 */
+	public TriangleBVH(float[] vertices, int[] indices) {
+		int triangleCount = indices.length / 3;
+
+		this.vertices = vertices;
+		this.triangles = new int[triangleCount * 3];
+
+		this.bounds = new float[Math.max(1, 2 * triangleCount) * 6];
+		this.nodes = new int[Math.max(1, 2 * triangleCount) * 2];
+		this.nodeCount = 0;
+
+		float[] centroids = new float[triangleCount * 3];
+		int[] order = new int[triangleCount];
+
+		for (int i = 0; i < triangleCount; i++) {
+			for (int axis = 0; axis < 3; axis++) {
+				centroids[i * 3 + axis] = (vertices[indices[i * 3] * 3 + axis] + vertices[indices[i * 3 + 1] * 3 + axis] + vertices[indices[i * 3 + 2] * 3 + axis]) / 3.0f;
+			}
+
+			order[i] = i;
+		}
+
+		build(indices, centroids, order, 0, triangleCount);
+
+		// The triangles are stored in the order the leaves reference them.
+		for (int i = 0; i < triangleCount; i++) {
+			System.arraycopy(indices, order[i] * 3, triangles, i * 3, 3);
+		}
+
+		this.bounds = Arrays.copyOf(bounds, nodeCount * 6);
+		this.nodes = Arrays.copyOf(nodes, nodeCount * 2);
+	}
+
+	/**
+	 * Builds the node for a range of triangles and its children, splitting the range at the median centroid along its longest axis.
+	 *
+	 * @return The index of the node.
+	 */
+	private int build(int[] indices, float[] centroids, int[] order, int start, int end) {
+		int node = nodeCount++;
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		float centreMinX = Float.POSITIVE_INFINITY, centreMinY = Float.POSITIVE_INFINITY, centreMinZ = Float.POSITIVE_INFINITY;
+		float centreMaxX = Float.NEGATIVE_INFINITY, centreMaxY = Float.NEGATIVE_INFINITY, centreMaxZ = Float.NEGATIVE_INFINITY;
+
+		for (int i = start; i < end; i++) {
+			int triangle = order[i];
+
+			for (int corner = 0; corner < 3; corner++) {
+				int vertex = indices[triangle * 3 + corner] * 3;
+				minX = Math.min(minX, vertices[vertex]);
+				minY = Math.min(minY, vertices[vertex + 1]);
+				minZ = Math.min(minZ, vertices[vertex + 2]);
+				maxX = Math.max(maxX, vertices[vertex]);
+				maxY = Math.max(maxY, vertices[vertex + 1]);
+				maxZ = Math.max(maxZ, vertices[vertex + 2]);
+			}
+
+			centreMinX = Math.min(centreMinX, centroids[triangle * 3]);
+			centreMinY = Math.min(centreMinY, centroids[triangle * 3 + 1]);
+			centreMinZ = Math.min(centreMinZ, centroids[triangle * 3 + 2]);
+			centreMaxX = Math.max(centreMaxX, centroids[triangle * 3]);
+			centreMaxY = Math.max(centreMaxY, centroids[triangle * 3 + 1]);
+			centreMaxZ = Math.max(centreMaxZ, centroids[triangle * 3 + 2]);
+		}
+
+		bounds[node * 6] = minX;
+		bounds[node * 6 + 1] = minY;
+		bounds[node * 6 + 2] = minZ;
+		bounds[node * 6 + 3] = maxX;
+		bounds[node * 6 + 4] = maxY;
+		bounds[node * 6 + 5] = maxZ;
+
+		float extentX = centreMaxX - centreMinX;
+		float extentY = centreMaxY - centreMinY;
+		float extentZ = centreMaxZ - centreMinZ;
+		int axis = extentX >= extentY && extentX >= extentZ ? 0 : extentY >= extentZ ? 1 : 2;
+
+		// Small ranges, or ranges with every centroid in one place, become leaves.
+		if (end - start <= LEAF_SIZE || Math.max(extentX, Math.max(extentY, extentZ)) <= 0.0f) {
+			nodes[node * 2] = start;
+			nodes[node * 2 + 1] = end - start;
+			return node;
+		}
+
+		int middle = (start + end) >>> 1;
+		select(centroids, order, start, end - 1, middle, axis);
+
+		build(indices, centroids, order, start, middle);
+		nodes[node * 2] = build(indices, centroids, order, middle, end);
+		nodes[node * 2 + 1] = 0;
+		return node;
+	}
+
+	/**
+	 * Partially sorts a range of triangles so the triangle at {@code k} has the median centroid, with smaller centroids before it.
+	 */
+	private static void select(float[] centroids, int[] order, int left, int right, int k, int axis) {
+		while (left < right) {
+			float pivot = centroids[order[(left + right) >>> 1] * 3 + axis];
+			int i = left;
+			int j = right;
+
+			while (i <= j) {
+				while (centroids[order[i] * 3 + axis] < pivot) {
+					i++;
+				}
+
+				while (centroids[order[j] * 3 + axis] > pivot) {
+					j--;
+				}
+
+				if (i <= j) {
+					int temp = order[i];
+					order[i] = order[j];
+					order[j] = temp;
+					i++;
+					j--;
+				}
+			}
+
+			if (k <= j) {
+				right = j;
+			} else if (k >= i) {
+				left = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Finds where a ray first hits the mesh. The distance is measured in lengths of the direction, so a ray transformed into the space of the mesh keeps
+	 * the distances of the untransformed ray.
+	 *
+	 * @param originX The ray origin on the x.
+	 * @param originY The ray origin on the y.
+	 * @param originZ The ray origin on the z.
+	 * @param directionX The ray direction on the x.
+	 * @param directionY The ray direction on the y.
+	 * @param directionZ The ray direction on the z.
+	 * @param maxDistance The furthest distance a hit is found at.
+	 * @param anyHit If the first hit found is enough, rather than the closest, such as for line of sight tests.
+	 *
+	 * @return The distance of the hit, or -1 if the ray does not hit the mesh.
+	 */
+	public float raycast(float originX, float originY, float originZ, float directionX, float directionY, float directionZ, float maxDistance, boolean anyHit) {
+		if (nodeCount == 0) {
+			return -1.0f;
+		}
+
+		// Zero direction components are nudged so the slab tests never multiply zero by infinity.
+		float inverseX = 1.0f / (directionX == 0.0f ? 1.0e-20f : directionX);
+		float inverseY = 1.0f / (directionY == 0.0f ? 1.0e-20f : directionY);
+		float inverseZ = 1.0f / (directionZ == 0.0f ? 1.0e-20f : directionZ);
+
+		int[] stack = TRAVERSAL_STACK.get();
+		int stackSize = 0;
+		float closest = maxDistance;
+		boolean hit = false;
+
+		if (slab(0, originX, originY, originZ, inverseX, inverseY, inverseZ, closest) < 0.0f) {
+			return -1.0f;
+		}
+
+		stack[stackSize++] = 0;
+
+		while (stackSize > 0) {
+			int node = stack[--stackSize];
+			int count = nodes[node * 2 + 1];
+
+			if (count > 0) {
+				int first = nodes[node * 2];
+
+				for (int i = first; i < first + count; i++) {
+					float distance = triangle(i, originX, originY, originZ, directionX, directionY, directionZ);
+
+					if (distance >= 0.0f && distance <= closest) {
+						closest = distance;
+						hit = true;
+
+						if (anyHit) {
+							return closest;
+						}
+					}
+				}
+
+				continue;
+			}
+
+			// Visits the nearer child first, children further than the closest hit are skipped.
+			int left = node + 1;
+			int right = nodes[node * 2];
+			float leftDistance = slab(left, originX, originY, originZ, inverseX, inverseY, inverseZ, closest);
+			float rightDistance = slab(right, originX, originY, originZ, inverseX, inverseY, inverseZ, closest);
+
+			if (leftDistance >= 0.0f && rightDistance >= 0.0f) {
+				if (leftDistance <= rightDistance) {
+					stack[stackSize++] = right;
+					stack[stackSize++] = left;
+				} else {
+					stack[stackSize++] = left;
+					stack[stackSize++] = right;
+				}
+			} else if (leftDistance >= 0.0f) {
+				stack[stackSize++] = left;
+			} else if (rightDistance >= 0.0f) {
+				stack[stackSize++] = right;
+			}
+		}
+
+		return hit ? closest : -1.0f;
+	}
+
+	/**
+	 * Gets the distance a ray enters the bounds of a node.
+	 *
+	 * @return The entry distance, or -1 if the ray misses the node before the max distance.
+	 */
+	private float slab(int node, float originX, float originY, float originZ, float inverseX, float inverseY, float inverseZ, float maxDistance) {
+		int b = node * 6;
+		float x1 = (bounds[b] - originX) * inverseX;
+		float x2 = (bounds[b + 3] - originX) * inverseX;
+		float y1 = (bounds[b + 1] - originY) * inverseY;
+		float y2 = (bounds[b + 4] - originY) * inverseY;
+		float z1 = (bounds[b + 2] - originZ) * inverseZ;
+		float z2 = (bounds[b + 5] - originZ) * inverseZ;
+
+		float near = Math.max(Math.max(Math.min(x1, x2), Math.min(y1, y2)), Math.max(Math.min(z1, z2), 0.0f));
+		float far = Math.min(Math.min(Math.max(x1, x2), Math.max(y1, y2)), Math.min(Math.max(z1, z2), maxDistance));
+		return near <= far ? near : -1.0f;
+	}
+
+	/**
+	 * Gets the distance a ray hits a triangle, using the Moller-Trumbore test. Both sides of the triangle are hit.
+	 *
+	 * @return The hit distance, or -1 if the ray misses the triangle.
+	 */
+	private float triangle(int triangle, float originX, float originY, float originZ, float directionX, float directionY, float directionZ) {
+		int a = triangles[triangle * 3] * 3;
+		int b = triangles[triangle * 3 + 1] * 3;
+		int c = triangles[triangle * 3 + 2] * 3;
+
+		float edge1X = vertices[b] - vertices[a];
+		float edge1Y = vertices[b + 1] - vertices[a + 1];
+		float edge1Z = vertices[b + 2] - vertices[a + 2];
+		float edge2X = vertices[c] - vertices[a];
+		float edge2Y = vertices[c + 1] - vertices[a + 1];
+		float edge2Z = vertices[c + 2] - vertices[a + 2];
+
+		float pX = directionY * edge2Z - directionZ * edge2Y;
+		float pY = directionZ * edge2X - directionX * edge2Z;
+		float pZ = directionX * edge2Y - directionY * edge2X;
+		float determinant = edge1X * pX + edge1Y * pY + edge1Z * pZ;
+
+		if (Math.abs(determinant) < 1.0e-12f) {
+			return -1.0f;
+		}
+
+		float inverse = 1.0f / determinant;
+		float tX = originX - vertices[a];
+		float tY = originY - vertices[a + 1];
+		float tZ = originZ - vertices[a + 2];
+		float u = (tX * pX + tY * pY + tZ * pZ) * inverse;
+
+		if (u < 0.0f || u > 1.0f) {
+			return -1.0f;
+		}
+
+		float qX = tY * edge1Z - tZ * edge1Y;
+		float qY = tZ * edge1X - tX * edge1Z;
+		float qZ = tX * edge1Y - tY * edge1X;
+		float v = (directionX * qX + directionY * qY + directionZ * qZ) * inverse;
+
+		if (v < 0.0f || u + v > 1.0f) {
+			return -1.0f;
+		}
+
+		float distance = (edge2X * qX + edge2Y * qY + edge2Z * qZ) * inverse;
+		return distance >= 0.0f ? distance : -1.0f;
+	}
+
+	/**
+	 * Gets the number of nodes in the hierarchy.
+	 *
+	 * @return The number of nodes.
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Gets the number of triangles in the hierarchy.
+	 *
+	 * @return The number of triangles.
+	 */
+	public int getTriangleCount() {
+		return triangles.length / 3;
+	}
+}
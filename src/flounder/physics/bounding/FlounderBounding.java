@@ -36,11 +36,11 @@ public class FlounderBounding extends Module {
 	}
 
 	/**
-	 * Adds a shape to the render pool. (Run every frame).
+	 * Adds a shape to the render pool. (Run every frame). Can be called from entity systems running in parallel.
 	 *
 	 * @param shape The shape to add.
 	 */
-	public void addShapeRender(Collider shape) {
+	public synchronized void addShapeRender(Collider shape) {
 		if (!FlounderOpenGL.get().isInWireframe() || shape == null) {
 			return;
 		}
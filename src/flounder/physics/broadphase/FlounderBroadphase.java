@@ -0,0 +1,274 @@
+package flounder.physics.broadphase;
+
+import flounder.entities.*;
+import flounder.framework.*;
+import flounder.maths.vectors.*;
+import flounder.physics.*;
+
+import java.util.*;
+
+/**
+ * A module that finds the entities that may collide with each other once per update, using a {@link SweepAndPrune} over the bounds of every colliding
+ * entity. Each entity is given fat bounds (its collider stretched by a margin and how far it moved last update), they are only refit once the collider
+ * leaves them, so most updates only re-sort endpoints that have not moved. Candidates are found from the bounds at the start of the update.
+ */
+public class FlounderBroadphase extends Module {
+	private static final float DEFAULT_MARGIN = 0.1f;
+
+	private SweepAndPrune sweep;
+	private Map<Entity, Integer> proxies;
+	private Entity[] entities;
+	private float[] centres;
+
+	private List<Entity> added;
+	private List<Entity> removed;
+
+	private AABB bounds;
+	private float margin;
+
+	/**
+	 * Creates a new broadphase manager.
+	 */
+	public FlounderBroadphase() {
+		super();
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		this.sweep = new SweepAndPrune();
+		this.proxies = new IdentityHashMap<>();
+		this.entities = new Entity[0];
+		this.centres = new float[0];
+
+		this.added = new ArrayList<>();
+		this.removed = new ArrayList<>();
+
+		this.bounds = new AABB();
+		this.margin = DEFAULT_MARGIN;
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+		if (sweep == null) {
+			return;
+		}
+
+		applyChanges();
+
+		for (int proxy = 0; proxy < entities.length; proxy++) {
+			Entity entity = entities[proxy];
+
+			if (entity == null) {
+				continue;
+			}
+
+			if (entity.isRemoved()) {
+				removeProxy(entity);
+			} else {
+				refit(proxy, entity);
+			}
+		}
+
+		sweep.update();
+	}
+
+	/**
+	 * Adds a entity to the broadphase, it will be found as a candidate from the next update. Can be called from entity systems running in parallel.
+	 *
+	 * @param entity The entity to add.
+	 */
+	public synchronized void addEntity(Entity entity) {
+		removed.remove(entity);
+
+		if (!added.contains(entity)) {
+			added.add(entity);
+		}
+	}
+
+	/**
+	 * Removes a entity from the broadphase at the next update. Can be called from entity systems running in parallel.
+	 *
+	 * @param entity The entity to remove.
+	 */
+	public synchronized void removeEntity(Entity entity) {
+		added.remove(entity);
+
+		if (!removed.contains(entity)) {
+			removed.add(entity);
+		}
+	}
+
+	/**
+	 * Gets the entities that may collide with a entity within a range. The candidates come from the last update, so this can be called from entity
+	 * systems running in parallel.
+	 *
+	 * @param entity The entity to get candidates for.
+	 * @param range The range the entity will take up, such as its collider stretched by a move.
+	 * @param destination The list to add the candidates to.
+	 *
+	 * @return If the candidates were found, false if the entity is not in the broadphase yet or the range leaves its fat bounds, the caller should then
+	 * query the spatial structure instead.
+	 */
+	public boolean getCandidates(Entity entity, AABB range, List<Entity> destination) {
+		Integer proxy = proxies == null ? null : proxies.get(entity);
+
+		if (proxy == null || !contains(proxy, range)) {
+			return false;
+		}
+
+		for (int i = 0; i < sweep.getPartnerCount(proxy); i++) {
+			Entity other = entities[sweep.getPartner(proxy, i)];
+
+			if (other != null && !other.isRemoved()) {
+				destination.add(other);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets the bounds of a collider as a AABB.
+	 *
+	 * @param collider The collider.
+	 * @param destination The destination AABB.
+	 *
+	 * @return The destination, or null if the collider has no supported bounds.
+	 */
+	public static AABB getBounds(Collider collider, AABB destination) {
+		if (collider instanceof AABB) {
+			destination.getMinExtents().set(((AABB) collider).getMinExtents());
+			destination.getMaxExtents().set(((AABB) collider).getMaxExtents());
+			return destination;
+		} else if (collider instanceof Sphere) {
+			float radius = ((Sphere) collider).getRadius();
+			Vector3f position = ((Sphere) collider).getPosition();
+			destination.setMinExtents(position.x - radius, position.y - radius, position.z - radius);
+			destination.setMaxExtents(position.x + radius, position.y + radius, position.z + radius);
+			return destination;
+		} else if (collider instanceof Heightfield) {
+			return ((Heightfield) collider).getBounds(destination);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets the sweep and prune used to find pairs.
+	 *
+	 * @return The sweep and prune.
+	 */
+	public SweepAndPrune getSweep() {
+		return sweep;
+	}
+
+	/**
+	 * Gets the margin that fat bounds are stretched by.
+	 *
+	 * @return The margin.
+	 */
+	public float getMargin() {
+		return margin;
+	}
+
+	/**
+	 * Sets the margin that fat bounds are stretched by, larger margins refit less often but give more candidates.
+	 *
+	 * @param margin The new margin.
+	 */
+	public void setMargin(float margin) {
+		this.margin = margin;
+	}
+
+	private synchronized void applyChanges() {
+		for (Entity entity : removed) {
+			removeProxy(entity);
+		}
+
+		for (Entity entity : added) {
+			if (!proxies.containsKey(entity) && !entity.isRemoved()) {
+				int proxy = sweep.createProxy();
+
+				if (proxy >= entities.length) {
+					entities = Arrays.copyOf(entities, Math.max(16, proxy * 2));
+					centres = Arrays.copyOf(centres, entities.length * 3);
+				}
+
+				entities[proxy] = entity;
+				centres[proxy * 3] = Float.NaN;
+				proxies.put(entity, proxy);
+			}
+		}
+
+		added.clear();
+		removed.clear();
+	}
+
+	private void removeProxy(Entity entity) {
+		Integer proxy = proxies.remove(entity);
+
+		if (proxy != null) {
+			sweep.destroyProxy(proxy);
+			entities[proxy] = null;
+		}
+	}
+
+	/**
+	 * Refits the fat bounds of a proxy if the collider of its entity has left them.
+	 */
+	private void refit(int proxy, Entity entity) {
+		if (getBounds(entity.getCollider(), bounds) == null) {
+			sweep.clearBounds(proxy);
+			centres[proxy * 3] = Float.NaN;
+			return;
+		}
+
+		Vector3f min = bounds.getMinExtents();
+		Vector3f max = bounds.getMaxExtents();
+		float centreX = 0.5f * (min.x + max.x);
+		float centreY = 0.5f * (min.y + max.y);
+		float centreZ = 0.5f * (min.z + max.z);
+
+		// How far the entity moved last update, the fat bounds are stretched to cover it moving as far again.
+		boolean known = !Float.isNaN(centres[proxy * 3]);
+		float moveX = known ? Math.abs(centreX - centres[proxy * 3]) : 0.0f;
+		float moveY = known ? Math.abs(centreY - centres[proxy * 3 + 1]) : 0.0f;
+		float moveZ = known ? Math.abs(centreZ - centres[proxy * 3 + 2]) : 0.0f;
+		centres[proxy * 3] = centreX;
+		centres[proxy * 3 + 1] = centreY;
+		centres[proxy * 3 + 2] = centreZ;
+
+		if (contains(proxy, bounds)) {
+			return;
+		}
+
+		sweep.setBounds(proxy,
+				min.x - margin - moveX, min.y - margin - moveY, min.z - margin - moveZ,
+				max.x + margin + moveX, max.y + margin + moveY, max.z + margin + moveZ
+		);
+	}
+
+	private boolean contains(int proxy, AABB range) {
+		Vector3f min = range.getMinExtents();
+		Vector3f max = range.getMaxExtents();
+		return min.x >= sweep.getMin(proxy, 0) && min.y >= sweep.getMin(proxy, 1) && min.z >= sweep.getMin(proxy, 2) &&
+				max.x <= sweep.getMax(proxy, 0) && max.y <= sweep.getMax(proxy, 1) && max.z <= sweep.getMax(proxy, 2);
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		if (proxies != null) {
+			proxies.clear();
+			proxies = null;
+		}
+
+		sweep = null;
+		entities = null;
+		centres = null;
+	}
+
+	@Module.Instance
+	public static FlounderBroadphase get() {
+		return (FlounderBroadphase) Framework.get().getInstance(FlounderBroadphase.class);
+	}
+}
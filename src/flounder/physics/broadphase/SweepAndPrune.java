@@ -0,0 +1,476 @@
+package flounder.physics.broadphase;
+
+import java.util.*;
+
+/**
+ * A incremental sweep and prune broadphase. Proxies are boxes identified by a integer id, the min and max endpoints of every box along one axis are kept
+ * sorted between updates, so as boxes only move a little each update the endpoints are re-sorted by a insertion sort in close to linear time. Each update
+ * sweeps the sorted endpoints once and produces the list of proxy pairs whose boxes overlap on all three axes.
+ * <p>
+ * The sweep axis is the one the box centres are most spread out along, and is switched (with a full re-sort) when another axis becomes clearly better.
+ */
+public class SweepAndPrune {
+	private static final float AXIS_SWITCH_RATIO = 1.5f;
+
+	private float[] bounds;
+	private boolean[] used;
+	private int[] free;
+	private int freeCount;
+	private int capacity;
+	private int proxyCount;
+
+	private double[] axisSum;
+	private double[] axisSumSquared;
+
+	private int[] endpoints;
+	private int[] sortScratch;
+	private int endpointCount;
+	private int axis;
+
+	private int[] active;
+	private int[] activeIndex;
+	private int activeCount;
+
+	private int[] pairs;
+	private int pairCount;
+
+	private int[] partnerStart;
+	private int[] partnerCursor;
+	private int[] partners;
+
+	/**
+	 * Creates a new empty sweep and prune broadphase.
+	 */
+	public SweepAndPrune() {
+		this.capacity = 0;
+		this.bounds = new float[0];
+		this.used = new boolean[0];
+		this.free = new int[0];
+		this.freeCount = 0;
+		this.proxyCount = 0;
+
+		this.axisSum = new double[3];
+		this.axisSumSquared = new double[3];
+
+		this.endpoints = new int[0];
+		this.sortScratch = new int[0];
+		this.endpointCount = 0;
+		this.axis = 0;
+
+		this.active = new int[0];
+		this.activeIndex = new int[0];
+		this.activeCount = 0;
+
+		this.pairs = new int[64];
+		this.pairCount = 0;
+
+		this.partnerStart = new int[1];
+		this.partnerCursor = new int[0];
+		this.partners = new int[0];
+	}
+
+	/**
+	 * Creates a new proxy with empty bounds, it will not overlap anything until its bounds are set.
+	 *
+	 * @return The id of the new proxy.
+	 */
+	public int createProxy() {
+		int proxy;
+
+		if (freeCount > 0) {
+			proxy = free[--freeCount];
+		} else {
+			proxy = capacity;
+			grow(capacity == 0 ? 16 : capacity * 2);
+		}
+
+		used[proxy] = true;
+		clearBounds(proxy);
+		proxyCount++;
+
+		// The new endpoints are appended, the next update sorts them into place.
+		endpoints[endpointCount++] = proxy << 1;
+		endpoints[endpointCount++] = (proxy << 1) | 1;
+		return proxy;
+	}
+
+	/**
+	 * Destroys a proxy, its id may be reused by a later proxy.
+	 *
+	 * @param proxy The id of the proxy.
+	 */
+	public void destroyProxy(int proxy) {
+		if (proxy < 0 || proxy >= capacity || !used[proxy]) {
+			return;
+		}
+
+		int kept = 0;
+
+		for (int i = 0; i < endpointCount; i++) {
+			if (endpoints[i] >> 1 != proxy) {
+				endpoints[kept++] = endpoints[i];
+			}
+		}
+
+		endpointCount = kept;
+		used[proxy] = false;
+		free[freeCount++] = proxy;
+		proxyCount--;
+	}
+
+	/**
+	 * Sets the bounds of a proxy.
+	 *
+	 * @param proxy The id of the proxy.
+	 * @param minX The min x of the bounds.
+	 * @param minY The min y of the bounds.
+	 * @param minZ The min z of the bounds.
+	 * @param maxX The max x of the bounds.
+	 * @param maxY The max y of the bounds.
+	 * @param maxZ The max z of the bounds.
+	 */
+	public void setBounds(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int offset = proxy * 6;
+		bounds[offset] = minX;
+		bounds[offset + 1] = minY;
+		bounds[offset + 2] = minZ;
+		bounds[offset + 3] = maxX;
+		bounds[offset + 4] = maxY;
+		bounds[offset + 5] = maxZ;
+	}
+
+	/**
+	 * Empties the bounds of a proxy, so it does not overlap anything.
+	 *
+	 * @param proxy The id of the proxy.
+	 */
+	public void clearBounds(int proxy) {
+		setBounds(proxy, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY);
+	}
+
+	/**
+	 * Gets a min of the bounds of a proxy.
+	 *
+	 * @param proxy The id of the proxy.
+	 * @param axis The axis, 0 for x, 1 for y and 2 for z.
+	 *
+	 * @return The min on the axis.
+	 */
+	public float getMin(int proxy, int axis) {
+		return bounds[proxy * 6 + axis];
+	}
+
+	/**
+	 * Gets a max of the bounds of a proxy.
+	 *
+	 * @param proxy The id of the proxy.
+	 * @param axis The axis, 0 for x, 1 for y and 2 for z.
+	 *
+	 * @return The max on the axis.
+	 */
+	public float getMax(int proxy, int axis) {
+		return bounds[proxy * 6 + 3 + axis];
+	}
+
+	/**
+	 * Re-sorts the endpoints and sweeps them to find every overlapping pair of proxies.
+	 */
+	public void update() {
+		int bestAxis = findBestAxis();
+
+		if (bestAxis != axis) {
+			axis = bestAxis;
+			mergeSort();
+		} else {
+			insertionSort();
+		}
+
+		sweep();
+		buildPartners();
+	}
+
+	/**
+	 * Gets the number of overlapping pairs found by the last update.
+	 *
+	 * @return The number of pairs.
+	 */
+	public int getPairCount() {
+		return pairCount;
+	}
+
+	/**
+	 * Gets the first proxy of a pair.
+	 *
+	 * @param pair The index of the pair.
+	 *
+	 * @return The id of the first proxy.
+	 */
+	public int getPairA(int pair) {
+		return pairs[pair * 2];
+	}
+
+	/**
+	 * Gets the second proxy of a pair.
+	 *
+	 * @param pair The index of the pair.
+	 *
+	 * @return The id of the second proxy.
+	 */
+	public int getPairB(int pair) {
+		return pairs[pair * 2 + 1];
+	}
+
+	/**
+	 * Gets how many proxies overlapped a proxy in the last update.
+	 *
+	 * @param proxy The id of the proxy.
+	 *
+	 * @return The number of partners.
+	 */
+	public int getPartnerCount(int proxy) {
+		if (proxy + 1 >= partnerStart.length) {
+			return 0;
+		}
+
+		return partnerStart[proxy + 1] - partnerStart[proxy];
+	}
+
+	/**
+	 * Gets a proxy that overlapped a proxy in the last update.
+	 *
+	 * @param proxy The id of the proxy.
+	 * @param index The index of the partner, less than {@link #getPartnerCount(int)}.
+	 *
+	 * @return The id of the partner.
+	 */
+	public int getPartner(int proxy, int index) {
+		return partners[partnerStart[proxy] + index];
+	}
+
+	/**
+	 * Gets the number of proxies.
+	 *
+	 * @return The number of proxies.
+	 */
+	public int getProxyCount() {
+		return proxyCount;
+	}
+
+	/**
+	 * Gets the axis the endpoints are sorted along.
+	 *
+	 * @return The axis, 0 for x, 1 for y and 2 for z.
+	 */
+	public int getAxis() {
+		return axis;
+	}
+
+	private void grow(int newCapacity) {
+		bounds = Arrays.copyOf(bounds, newCapacity * 6);
+		used = Arrays.copyOf(used, newCapacity);
+		free = Arrays.copyOf(free, newCapacity);
+		endpoints = Arrays.copyOf(endpoints, newCapacity * 2);
+		sortScratch = new int[newCapacity * 2];
+		active = Arrays.copyOf(active, newCapacity);
+		activeIndex = Arrays.copyOf(activeIndex, newCapacity);
+		partnerCursor = new int[newCapacity];
+
+		// Ids above the old capacity go on the free list highest first, so they are handed out in order.
+		for (int i = newCapacity - 1; i > capacity; i--) {
+			free[freeCount++] = i;
+		}
+
+		capacity = newCapacity;
+	}
+
+	/**
+	 * Finds the axis with the largest variance of box centres, keeping the current axis unless another is clearly better.
+	 */
+	private int findBestAxis() {
+		if (proxyCount < 2) {
+			return axis;
+		}
+
+		Arrays.fill(axisSum, 0.0);
+		Arrays.fill(axisSumSquared, 0.0);
+		int count = 0;
+
+		for (int proxy = 0; proxy < capacity; proxy++) {
+			int offset = proxy * 6;
+
+			if (!used[proxy] || bounds[offset] > bounds[offset + 3]) {
+				continue;
+			}
+
+			for (int a = 0; a < 3; a++) {
+				double centre = 0.5 * (bounds[offset + a] + bounds[offset + 3 + a]);
+				axisSum[a] += centre;
+				axisSumSquared[a] += centre * centre;
+			}
+
+			count++;
+		}
+
+		if (count < 2) {
+			return axis;
+		}
+
+		int best = axis;
+		double bestVariance = (axisSumSquared[axis] - axisSum[axis] * axisSum[axis] / count) * AXIS_SWITCH_RATIO;
+
+		for (int a = 0; a < 3; a++) {
+			double variance = axisSumSquared[a] - axisSum[a] * axisSum[a] / count;
+
+			if (variance > bestVariance) {
+				best = a;
+				bestVariance = variance;
+			}
+		}
+
+		return best;
+	}
+
+	private float getValue(int endpoint) {
+		return bounds[(endpoint >> 1) * 6 + axis + (endpoint & 1) * 3];
+	}
+
+	/**
+	 * Gets if a endpoint sorts before another, min endpoints go before max endpoints of the same value so touching boxes overlap.
+	 */
+	private boolean isBefore(int a, int b) {
+		float valueA = getValue(a);
+		float valueB = getValue(b);
+		return valueA < valueB || (valueA == valueB && (a & 1) < (b & 1));
+	}
+
+	private void insertionSort() {
+		for (int i = 1; i < endpointCount; i++) {
+			int endpoint = endpoints[i];
+			int j = i - 1;
+
+			while (j >= 0 && isBefore(endpoint, endpoints[j])) {
+				endpoints[j + 1] = endpoints[j];
+				j--;
+			}
+
+			endpoints[j + 1] = endpoint;
+		}
+	}
+
+	/**
+	 * A full sort used when the sweep axis changes and the endpoints are no longer close to sorted.
+	 */
+	private void mergeSort() {
+		int[] from = endpoints;
+		int[] to = sortScratch;
+
+		for (int width = 1; width < endpointCount; width *= 2) {
+			for (int start = 0; start < endpointCount; start += width * 2) {
+				int middle = Math.min(start + width, endpointCount);
+				int end = Math.min(start + width * 2, endpointCount);
+				int left = start;
+				int right = middle;
+
+				for (int i = start; i < end; i++) {
+					if (left < middle && (right >= end || !isBefore(from[right], from[left]))) {
+						to[i] = from[left++];
+					} else {
+						to[i] = from[right++];
+					}
+				}
+			}
+
+			int[] swap = from;
+			from = to;
+			to = swap;
+		}
+
+		if (from != endpoints) {
+			System.arraycopy(from, 0, endpoints, 0, endpointCount);
+		}
+	}
+
+	private void sweep() {
+		pairCount = 0;
+		activeCount = 0;
+		Arrays.fill(activeIndex, -1);
+
+		int axisA = (axis + 1) % 3;
+		int axisB = (axis + 2) % 3;
+
+		for (int i = 0; i < endpointCount; i++) {
+			int endpoint = endpoints[i];
+			int proxy = endpoint >> 1;
+
+			if ((endpoint & 1) == 1) {
+				// Max endpoint, the proxy leaves the active set.
+				int index = activeIndex[proxy];
+
+				if (index != -1) {
+					int last = active[--activeCount];
+					active[index] = last;
+					activeIndex[last] = index;
+					activeIndex[proxy] = -1;
+				}
+
+				continue;
+			}
+
+			int offset = proxy * 6;
+
+			for (int j = 0; j < activeCount; j++) {
+				int other = active[j];
+				int otherOffset = other * 6;
+
+				if (bounds[offset + axisA] <= bounds[otherOffset + 3 + axisA] && bounds[otherOffset + axisA] <= bounds[offset + 3 + axisA] &&
+						bounds[offset + axisB] <= bounds[otherOffset + 3 + axisB] && bounds[otherOffset + axisB] <= bounds[offset + 3 + axisB]) {
+					addPair(other, proxy);
+				}
+			}
+
+			activeIndex[proxy] = activeCount;
+			active[activeCount++] = proxy;
+		}
+	}
+
+	private void addPair(int a, int b) {
+		if (pairCount * 2 == pairs.length) {
+			pairs = Arrays.copyOf(pairs, pairs.length * 2);
+		}
+
+		pairs[pairCount * 2] = a;
+		pairs[pairCount * 2 + 1] = b;
+		pairCount++;
+	}
+
+	/**
+	 * Groups the pairs by proxy, so the partners of one proxy can be looked up without searching the pair list.
+	 */
+	private void buildPartners() {
+		if (partnerStart.length != capacity + 1) {
+			partnerStart = new int[capacity + 1];
+		} else {
+			Arrays.fill(partnerStart, 0);
+		}
+
+		if (partners.length < pairCount * 2) {
+			partners = new int[pairCount * 4];
+		}
+
+		for (int i = 0; i < pairCount * 2; i++) {
+			partnerStart[pairs[i] + 1]++;
+		}
+
+		for (int proxy = 0; proxy < capacity; proxy++) {
+			partnerStart[proxy + 1] += partnerStart[proxy];
+			partnerCursor[proxy] = partnerStart[proxy];
+		}
+
+		for (int i = 0; i < pairCount; i++) {
+			int a = pairs[i * 2];
+			int b = pairs[i * 2 + 1];
+			partners[partnerCursor[a]++] = b;
+			partners[partnerCursor[b]++] = a;
+		}
+	}
+}
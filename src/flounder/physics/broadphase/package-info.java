@@ -0,0 +1,4 @@
+/**
+ * Contains classes for finding pairs of colliders that may collide.
+ */
+package flounder.physics.broadphase;
\ No newline at end of file
@@ -0,0 +1,162 @@
+package flounder.physics.dynamics;
+
+import flounder.entities.*;
+import flounder.framework.*;
+import flounder.maths.vectors.*;
+
+import java.util.*;
+
+/**
+ * A module that steps a {@link PhysicsWorld} at a fixed rate, after the entities have updated. The time of each frame is added up and whole ticks are
+ * stepped from it, so the simulation behaves the same at any frame rate. Entities of bodies are then placed between the last two ticks by how much time
+ * is left over, so motion looks smooth when frames and ticks do not line up.
+ */
+public class FlounderPhysics extends Module {
+	private static final float DEFAULT_TIMESTEP = 1.0f / 60.0f;
+	private static final int MAX_STEPS = 5;
+
+	private PhysicsWorld world;
+	private List<RigidBody> added;
+	private List<RigidBody> removed;
+
+	private float timestep;
+	private float accumulator;
+	private float alpha;
+	private Vector3f interpolated;
+
+	/**
+	 * Creates a new physics manager.
+	 */
+	public FlounderPhysics() {
+		super(FlounderEntities.class);
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		this.world = new PhysicsWorld();
+		this.added = new ArrayList<>();
+		this.removed = new ArrayList<>();
+
+		this.timestep = DEFAULT_TIMESTEP;
+		this.accumulator = 0.0f;
+		this.alpha = 0.0f;
+		this.interpolated = new Vector3f();
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+		if (world == null) {
+			return;
+		}
+
+		applyChanges();
+
+		// Steps are capped so a long frame does not make the next frames even longer.
+		accumulator = Math.min(accumulator + Framework.get().getDelta(), timestep * MAX_STEPS);
+
+		while (accumulator >= timestep) {
+			world.step(timestep);
+			accumulator -= timestep;
+		}
+
+		alpha = accumulator / timestep;
+
+		for (RigidBody body : world.getBodies()) {
+			Entity entity = body.getEntity();
+
+			if (entity == null || body.isStatic() || entity.isRemoved()) {
+				continue;
+			}
+
+			body.getInterpolatedPosition(alpha, interpolated);
+
+			if (!interpolated.equals(entity.getPosition())) {
+				entity.getPosition().set(interpolated);
+				entity.setMoved();
+			}
+		}
+	}
+
+	/**
+	 * Adds a body to the world at the next update. Can be called from entity systems running in parallel.
+	 *
+	 * @param body The body to add.
+	 */
+	public synchronized void addBody(RigidBody body) {
+		removed.remove(body);
+
+		if (!added.contains(body)) {
+			added.add(body);
+		}
+	}
+
+	/**
+	 * Removes a body from the world at the next update. Can be called from entity systems running in parallel.
+	 *
+	 * @param body The body to remove.
+	 */
+	public synchronized void removeBody(RigidBody body) {
+		added.remove(body);
+
+		if (!removed.contains(body)) {
+			removed.add(body);
+		}
+	}
+
+	private synchronized void applyChanges() {
+		for (RigidBody body : removed) {
+			world.removeBody(body);
+		}
+
+		for (RigidBody body : added) {
+			world.addBody(body);
+		}
+
+		added.clear();
+		removed.clear();
+	}
+
+	/**
+	 * Gets the world the bodies are stepped in.
+	 *
+	 * @return The physics world.
+	 */
+	public PhysicsWorld getWorld() {
+		return world;
+	}
+
+	/**
+	 * Gets how far the entities are placed from the previous tick to the last tick.
+	 *
+	 * @return The interpolation amount, from 0 to 1.
+	 */
+	public float getAlpha() {
+		return alpha;
+	}
+
+	public float getTimestep() {
+		return timestep;
+	}
+
+	/**
+	 * Sets the time of each tick.
+	 *
+	 * @param timestep The new tick time, in seconds.
+	 */
+	public void setTimestep(float timestep) {
+		this.timestep = timestep;
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		if (world != null) {
+			world.dispose();
+			world = null;
+		}
+	}
+
+	@Module.Instance
+	public static FlounderPhysics get() {
+		return (FlounderPhysics) Framework.get().getInstance(FlounderPhysics.class);
+	}
+}
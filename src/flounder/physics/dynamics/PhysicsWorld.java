@@ -0,0 +1,885 @@
+package flounder.physics.dynamics;
+
+import flounder.maths.vectors.*;
+import flounder.physics.*;
+import flounder.physics.broadphase.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Steps rigid bodies through time. Each step integrates the forces on the bodies, finds the pairs of bodies that may touch with a {@link SweepAndPrune},
+ * makes a contact for each pair that does, then solves the contacts with sequential impulses.
+ * <p>
+ * Bodies touching each other (through moving bodies, static bodies do not join them) form islands. Islands do not share any moving body, so they are
+ * solved at the same time on a fork-join pool, and a island where every body has rested for a while is put to sleep until something touches it. Contact
+ * impulses are kept between steps to warm start the solver, so stacks settle in few iterations.
+ */
+public class PhysicsWorld {
+	private static final float MARGIN = 0.05f;
+	private static final float BAUMGARTE = 0.2f;
+	private static final float PENETRATION_SLOP = 0.01f;
+	private static final float RESTITUTION_THRESHOLD = 1.0f;
+	private static final float SLEEP_VELOCITY = 0.05f;
+	private static final float TIME_TO_SLEEP = 0.5f;
+	private static final int PARALLEL_CONTACTS = 256;
+
+	private final List<RigidBody> bodies;
+	private final SweepAndPrune sweep;
+	private RigidBody[] proxyBodies;
+	private int nextID;
+
+	private final Vector3f gravity;
+	private int iterations;
+
+	// The contacts of the current step, packed by contact.
+	private int contactCount;
+	private int[] contactA;
+	private int[] contactB;
+	private long[] contactKeys;
+	private float[] contactNormals;
+	private float[] contactTangents;
+	private float[] contactDepths;
+	private float[] contactMass;
+	private float[] contactBias;
+	private float[] contactFriction;
+	private float[] normalImpulses;
+	private float[] tangentImpulses;
+
+	// The impulses of the last step by pair key, used to warm start the contacts of this step.
+	private long[] cacheKeys;
+	private float[] cacheImpulses;
+	private int cacheMask;
+
+	// The islands of the current step.
+	private int[] parents;
+	private int[] bodyIslands;
+	private int islandCount;
+	private int[] islandContactStart;
+	private int[] islandContacts;
+	private int[] islandBodyStart;
+	private int[] islandBodies;
+	private boolean[] islandAwake;
+
+	private final AABB bounds;
+	private final float[] normal;
+	private float depth;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a new empty physics world.
+	 */
+	public PhysicsWorld() {
+		this.bodies = new ArrayList<>();
+		this.sweep = new SweepAndPrune();
+		this.proxyBodies = new RigidBody[0];
+		this.nextID = 0;
+
+		this.gravity = new Vector3f(0.0f, -9.81f, 0.0f);
+		this.iterations = 10;
+
+		this.contactCount = 0;
+		growContacts(64);
+
+		this.cacheKeys = new long[0];
+		this.cacheImpulses = new float[0];
+		this.cacheMask = -1;
+
+		this.parents = new int[0];
+		this.bodyIslands = new int[0];
+		this.islandCount = 0;
+		this.islandContactStart = new int[1];
+		this.islandContacts = new int[0];
+		this.islandBodyStart = new int[1];
+		this.islandBodies = new int[0];
+		this.islandAwake = new boolean[0];
+
+		this.bounds = new AABB();
+		this.normal = new float[3];
+		this.depth = 0.0f;
+
+		this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Adds a body to the world.
+	 *
+	 * @param body The body to add.
+	 */
+	public void addBody(RigidBody body) {
+		if (body.index != -1) {
+			return;
+		}
+
+		body.index = bodies.size();
+		body.id = nextID++;
+		body.proxy = sweep.createProxy();
+		bodies.add(body);
+
+		if (body.proxy >= proxyBodies.length) {
+			proxyBodies = Arrays.copyOf(proxyBodies, Math.max(16, body.proxy * 2));
+		}
+
+		proxyBodies[body.proxy] = body;
+	}
+
+	/**
+	 * Removes a body from the world.
+	 *
+	 * @param body The body to remove.
+	 */
+	public void removeBody(RigidBody body) {
+		if (body.index == -1 || body.index >= bodies.size() || bodies.get(body.index) != body) {
+			return;
+		}
+
+		// Swaps the last body into the removed bodies place.
+		RigidBody last = bodies.remove(bodies.size() - 1);
+
+		if (last != body) {
+			bodies.set(body.index, last);
+			last.index = body.index;
+		}
+
+		sweep.destroyProxy(body.proxy);
+		proxyBodies[body.proxy] = null;
+		body.index = -1;
+		body.proxy = -1;
+	}
+
+	/**
+	 * Moves every body forward in time.
+	 *
+	 * @param delta The time to step, in seconds.
+	 */
+	public void step(float delta) {
+		if (delta <= 0.0f) {
+			return;
+		}
+
+		integrateVelocities(delta);
+		findContacts(delta);
+		buildIslands();
+		solveIslands(delta);
+		integratePositions(delta);
+		updateSleep(delta);
+		storeImpulses();
+	}
+
+	private void integrateVelocities(float delta) {
+		for (RigidBody body : bodies) {
+			Vector3f previous = body.getPreviousPosition();
+			previous.set(body.getPosition());
+
+			if (body.isStatic() || body.isSleeping()) {
+				continue;
+			}
+
+			Vector3f velocity = body.getVelocity();
+			Vector3f force = body.getForce();
+			float inverseMass = body.getInverseMass();
+			float gravityScale = body.getGravityScale();
+			float damping = 1.0f / (1.0f + delta * body.getLinearDamping());
+
+			velocity.set(
+					(velocity.x + (gravity.x * gravityScale + force.x * inverseMass) * delta) * damping,
+					(velocity.y + (gravity.y * gravityScale + force.y * inverseMass) * delta) * damping,
+					(velocity.z + (gravity.z * gravityScale + force.z * inverseMass) * delta) * damping
+			);
+			force.set(0.0f, 0.0f, 0.0f);
+		}
+	}
+
+	/**
+	 * Refits the broadphase bounds of each body, stretched by how far it may move this step, and makes contacts for the pairs that touch.
+	 */
+	private void findContacts(float delta) {
+		for (RigidBody body : bodies) {
+			Collider collider = body.updateCollider();
+
+			if (collider == null || FlounderBroadphase.getBounds(collider, bounds) == null) {
+				sweep.clearBounds(body.proxy);
+				continue;
+			}
+
+			Vector3f min = bounds.getMinExtents();
+			Vector3f max = bounds.getMaxExtents();
+			Vector3f velocity = body.getVelocity();
+			float moveX = velocity.x * delta;
+			float moveY = velocity.y * delta;
+			float moveZ = velocity.z * delta;
+
+			sweep.setBounds(body.proxy,
+					min.x + Math.min(moveX, 0.0f) - MARGIN, min.y + Math.min(moveY, 0.0f) - MARGIN, min.z + Math.min(moveZ, 0.0f) - MARGIN,
+					max.x + Math.max(moveX, 0.0f) + MARGIN, max.y + Math.max(moveY, 0.0f) + MARGIN, max.z + Math.max(moveZ, 0.0f) + MARGIN
+			);
+		}
+
+		sweep.update();
+		contactCount = 0;
+
+		for (int pair = 0; pair < sweep.getPairCount(); pair++) {
+			RigidBody a = proxyBodies[sweep.getPairA(pair)];
+			RigidBody b = proxyBodies[sweep.getPairB(pair)];
+
+			if (a == null || b == null) {
+				continue;
+			}
+
+			// Contacts always go from the body with the lower id, so a pair keeps the same normal and tangents between steps.
+			if (a.id > b.id) {
+				RigidBody swap = a;
+				a = b;
+				b = swap;
+			}
+
+			// Resting and static bodies do not need contacts between each other.
+			boolean activeA = !a.isStatic() && !a.isSleeping();
+			boolean activeB = !b.isStatic() && !b.isSleeping();
+
+			if ((!activeA && !activeB) || !collide(a.getCollider(), b.getCollider())) {
+				continue;
+			}
+
+			addContact(a, b);
+		}
+	}
+
+	/**
+	 * Finds the normal (from the first collider into the second) and depth the colliders overlap by.
+	 *
+	 * @return If the colliders overlap.
+	 */
+	private boolean collide(Collider a, Collider b) {
+		if (a instanceof Sphere && b instanceof Sphere) {
+			Vector3f pa = ((Sphere) a).getPosition();
+			Vector3f pb = ((Sphere) b).getPosition();
+			float radii = ((Sphere) a).getRadius() + ((Sphere) b).getRadius();
+			float dx = pb.x - pa.x;
+			float dy = pb.y - pa.y;
+			float dz = pb.z - pa.z;
+			float distanceSquared = dx * dx + dy * dy + dz * dz;
+
+			if (distanceSquared >= radii * radii) {
+				return false;
+			}
+
+			float distance = (float) Math.sqrt(distanceSquared);
+
+			if (distance > 0.0f) {
+				setNormal(dx / distance, dy / distance, dz / distance, radii - distance);
+			} else {
+				setNormal(0.0f, 1.0f, 0.0f, radii);
+			}
+
+			return true;
+		} else if (a instanceof AABB && b instanceof AABB) {
+			Vector3f minA = ((AABB) a).getMinExtents();
+			Vector3f maxA = ((AABB) a).getMaxExtents();
+			Vector3f minB = ((AABB) b).getMinExtents();
+			Vector3f maxB = ((AABB) b).getMaxExtents();
+			float overlapX = Math.min(maxA.x, maxB.x) - Math.max(minA.x, minB.x);
+			float overlapY = Math.min(maxA.y, maxB.y) - Math.max(minA.y, minB.y);
+			float overlapZ = Math.min(maxA.z, maxB.z) - Math.max(minA.z, minB.z);
+
+			if (overlapX <= 0.0f || overlapY <= 0.0f || overlapZ <= 0.0f) {
+				return false;
+			}
+
+			// Pushes apart along the axis with the least overlap.
+			if (overlapX <= overlapY && overlapX <= overlapZ) {
+				setNormal(minB.x + maxB.x >= minA.x + maxA.x ? 1.0f : -1.0f, 0.0f, 0.0f, overlapX);
+			} else if (overlapY <= overlapZ) {
+				setNormal(0.0f, minB.y + maxB.y >= minA.y + maxA.y ? 1.0f : -1.0f, 0.0f, overlapY);
+			} else {
+				setNormal(0.0f, 0.0f, minB.z + maxB.z >= minA.z + maxA.z ? 1.0f : -1.0f, overlapZ);
+			}
+
+			return true;
+		} else if (a instanceof AABB && b instanceof Sphere) {
+			return collide((AABB) a, (Sphere) b, 1.0f);
+		} else if (a instanceof Sphere && b instanceof AABB) {
+			return collide((AABB) b, (Sphere) a, -1.0f);
+		} else if (a instanceof Heightfield) {
+			return collide((Heightfield) a, b, 1.0f);
+		} else if (b instanceof Heightfield) {
+			return collide((Heightfield) b, a, -1.0f);
+		}
+
+		return false;
+	}
+
+	/**
+	 * Finds the normal from terrain into a box or sphere, flipped by the sign.
+	 */
+	private boolean collide(Heightfield heightfield, Collider other, float sign) {
+		if (other instanceof Sphere) {
+			Vector3f centre = ((Sphere) other).getPosition();
+			float radius = ((Sphere) other).getRadius();
+			float ground = heightfield.getHeight(centre.x, centre.z);
+
+			if (Float.isNaN(ground)) {
+				return false;
+			}
+
+			// The terrain under the centre is taken as a plane, the sphere is pushed out along its normal.
+			Vector3f up = heightfield.getNormal(centre.x, centre.z, null);
+			float distance = (centre.y - ground) * up.y;
+
+			if (distance >= radius) {
+				return false;
+			}
+
+			setNormal(sign * up.x, sign * up.y, sign * up.z, radius - distance);
+			return true;
+		} else if (other instanceof AABB) {
+			Vector3f min = ((AABB) other).getMinExtents();
+			Vector3f max = ((AABB) other).getMaxExtents();
+			float ground = heightfield.getMaxHeight(min.x, min.z, max.x, max.z);
+
+			if (Float.isNaN(ground) || min.y >= ground) {
+				return false;
+			}
+
+			setNormal(0.0f, sign, 0.0f, ground - min.y);
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Finds the normal from a box into a sphere, flipped by the sign.
+	 */
+	private boolean collide(AABB box, Sphere sphere, float sign) {
+		Vector3f min = box.getMinExtents();
+		Vector3f max = box.getMaxExtents();
+		Vector3f centre = sphere.getPosition();
+		float radius = sphere.getRadius();
+
+		float closestX = Math.max(min.x, Math.min(centre.x, max.x));
+		float closestY = Math.max(min.y, Math.min(centre.y, max.y));
+		float closestZ = Math.max(min.z, Math.min(centre.z, max.z));
+		float dx = centre.x - closestX;
+		float dy = centre.y - closestY;
+		float dz = centre.z - closestZ;
+		float distanceSquared = dx * dx + dy * dy + dz * dz;
+
+		if (distanceSquared >= radius * radius) {
+			return false;
+		}
+
+		if (distanceSquared > 0.0f) {
+			float distance = (float) Math.sqrt(distanceSquared);
+			setNormal(sign * dx / distance, sign * dy / distance, sign * dz / distance, radius - distance);
+			return true;
+		}
+
+		// The centre is inside the box, pushes out through the nearest face.
+		float[] faces = {centre.x - min.x, max.x - centre.x, centre.y - min.y, max.y - centre.y, centre.z - min.z, max.z - centre.z};
+		int nearest = 0;
+
+		for (int i = 1; i < faces.length; i++) {
+			if (faces[i] < faces[nearest]) {
+				nearest = i;
+			}
+		}
+
+		float direction = (nearest & 1) == 0 ? -sign : sign;
+		setNormal(nearest / 2 == 0 ? direction : 0.0f, nearest / 2 == 1 ? direction : 0.0f, nearest / 2 == 2 ? direction : 0.0f, faces[nearest] + radius);
+		return true;
+	}
+
+	private void setNormal(float x, float y, float z, float depth) {
+		normal[0] = x;
+		normal[1] = y;
+		normal[2] = z;
+		this.depth = depth;
+	}
+
+	private void addContact(RigidBody a, RigidBody b) {
+		if (contactCount == contactA.length) {
+			growContacts(contactCount * 2);
+		}
+
+		int c = contactCount++;
+		contactA[c] = a.index;
+		contactB[c] = b.index;
+		contactKeys[c] = ((long) a.id << 32) | b.id;
+		contactDepths[c] = depth;
+		contactNormals[c * 3] = normal[0];
+		contactNormals[c * 3 + 1] = normal[1];
+		contactNormals[c * 3 + 2] = normal[2];
+		contactFriction[c] = (float) Math.sqrt(a.getFriction() * b.getFriction());
+
+		// Two tangents across the normal for friction.
+		float tx, ty, tz;
+
+		if (Math.abs(normal[0]) >= 0.57735f) {
+			tx = normal[1];
+			ty = -normal[0];
+			tz = 0.0f;
+		} else {
+			tx = 0.0f;
+			ty = normal[2];
+			tz = -normal[1];
+		}
+
+		float length = (float) Math.sqrt(tx * tx + ty * ty + tz * tz);
+		tx /= length;
+		ty /= length;
+		tz /= length;
+		contactTangents[c * 6] = tx;
+		contactTangents[c * 6 + 1] = ty;
+		contactTangents[c * 6 + 2] = tz;
+		contactTangents[c * 6 + 3] = normal[1] * tz - normal[2] * ty;
+		contactTangents[c * 6 + 4] = normal[2] * tx - normal[0] * tz;
+		contactTangents[c * 6 + 5] = normal[0] * ty - normal[1] * tx;
+
+		// Warm starts from the impulses of the same pair last step, if it is still pushing the same way.
+		int cached = findCached(contactKeys[c]);
+		normalImpulses[c] = 0.0f;
+		tangentImpulses[c * 2] = 0.0f;
+		tangentImpulses[c * 2 + 1] = 0.0f;
+
+		if (cached != -1) {
+			float dot = cacheImpulses[cached * 6 + 3] * normal[0] + cacheImpulses[cached * 6 + 4] * normal[1] + cacheImpulses[cached * 6 + 5] * normal[2];
+
+			if (dot > 0.95f) {
+				normalImpulses[c] = cacheImpulses[cached * 6];
+				tangentImpulses[c * 2] = cacheImpulses[cached * 6 + 1];
+				tangentImpulses[c * 2 + 1] = cacheImpulses[cached * 6 + 2];
+			}
+		}
+	}
+
+	private void growContacts(int capacity) {
+		contactA = contactA == null ? new int[capacity] : Arrays.copyOf(contactA, capacity);
+		contactB = contactB == null ? new int[capacity] : Arrays.copyOf(contactB, capacity);
+		contactKeys = contactKeys == null ? new long[capacity] : Arrays.copyOf(contactKeys, capacity);
+		contactNormals = contactNormals == null ? new float[capacity * 3] : Arrays.copyOf(contactNormals, capacity * 3);
+		contactTangents = contactTangents == null ? new float[capacity * 6] : Arrays.copyOf(contactTangents, capacity * 6);
+		contactDepths = contactDepths == null ? new float[capacity] : Arrays.copyOf(contactDepths, capacity);
+		contactMass = contactMass == null ? new float[capacity] : Arrays.copyOf(contactMass, capacity);
+		contactBias = contactBias == null ? new float[capacity] : Arrays.copyOf(contactBias, capacity);
+		contactFriction = contactFriction == null ? new float[capacity] : Arrays.copyOf(contactFriction, capacity);
+		normalImpulses = normalImpulses == null ? new float[capacity] : Arrays.copyOf(normalImpulses, capacity);
+		tangentImpulses = tangentImpulses == null ? new float[capacity * 2] : Arrays.copyOf(tangentImpulses, capacity * 2);
+	}
+
+	/**
+	 * Joins the moving bodies touching each other into islands, and groups the bodies and contacts of each island.
+	 */
+	private void buildIslands() {
+		int bodyCount = bodies.size();
+
+		if (parents.length < bodyCount) {
+			parents = new int[Math.max(16, bodyCount * 2)];
+			bodyIslands = new int[parents.length];
+			islandBodies = new int[parents.length];
+			islandBodyStart = new int[parents.length + 1];
+			islandAwake = new boolean[parents.length];
+		}
+
+		for (int i = 0; i < bodyCount; i++) {
+			parents[i] = i;
+		}
+
+		for (int c = 0; c < contactCount; c++) {
+			if (!bodies.get(contactA[c]).isStatic() && !bodies.get(contactB[c]).isStatic()) {
+				union(contactA[c], contactB[c]);
+			}
+		}
+
+		// Numbers the islands and counts their bodies, static bodies are in no island.
+		islandCount = 0;
+
+		for (int i = 0; i < bodyCount; i++) {
+			bodyIslands[i] = -1;
+		}
+
+		for (int i = 0; i < bodyCount; i++) {
+			if (bodies.get(i).isStatic()) {
+				continue;
+			}
+
+			int root = find(i);
+
+			if (bodyIslands[root] == -1) {
+				bodyIslands[root] = islandCount++;
+			}
+
+			bodyIslands[i] = bodyIslands[root];
+		}
+
+		Arrays.fill(islandBodyStart, 0, islandCount + 1, 0);
+		Arrays.fill(islandAwake, 0, islandCount, false);
+
+		for (int i = 0; i < bodyCount; i++) {
+			if (bodyIslands[i] != -1) {
+				islandBodyStart[bodyIslands[i] + 1]++;
+				islandAwake[bodyIslands[i]] |= !bodies.get(i).isSleeping();
+			}
+		}
+
+		for (int island = 0; island < islandCount; island++) {
+			islandBodyStart[island + 1] += islandBodyStart[island];
+		}
+
+		int[] cursor = Arrays.copyOf(islandBodyStart, islandCount);
+
+		for (int i = 0; i < bodyCount; i++) {
+			if (bodyIslands[i] != -1) {
+				islandBodies[cursor[bodyIslands[i]]++] = i;
+			}
+		}
+
+		// Groups the contacts by the island of their moving body.
+		if (islandContactStart.length < islandCount + 1) {
+			islandContactStart = new int[Math.max(16, islandCount * 2 + 1)];
+		}
+
+		if (islandContacts.length < contactCount) {
+			islandContacts = new int[contactA.length];
+		}
+
+		Arrays.fill(islandContactStart, 0, islandCount + 1, 0);
+
+		for (int c = 0; c < contactCount; c++) {
+			islandContactStart[contactIsland(c) + 1]++;
+		}
+
+		for (int island = 0; island < islandCount; island++) {
+			islandContactStart[island + 1] += islandContactStart[island];
+		}
+
+		cursor = Arrays.copyOf(islandContactStart, islandCount);
+
+		for (int c = 0; c < contactCount; c++) {
+			islandContacts[cursor[contactIsland(c)]++] = c;
+		}
+
+		// A island touching anything awake is woken as a whole.
+		for (int island = 0; island < islandCount; island++) {
+			if (!islandAwake[island]) {
+				continue;
+			}
+
+			for (int i = islandBodyStart[island]; i < islandBodyStart[island + 1]; i++) {
+				RigidBody body = bodies.get(islandBodies[i]);
+
+				if (body.isSleeping()) {
+					body.wake();
+				}
+			}
+		}
+	}
+
+	private int contactIsland(int contact) {
+		int island = bodyIslands[contactA[contact]];
+		return island != -1 ? island : bodyIslands[contactB[contact]];
+	}
+
+	private int find(int i) {
+		while (parents[i] != i) {
+			parents[i] = parents[parents[i]];
+			i = parents[i];
+		}
+
+		return i;
+	}
+
+	private void union(int a, int b) {
+		int rootA = find(a);
+		int rootB = find(b);
+
+		if (rootA != rootB) {
+			parents[rootA] = rootB;
+		}
+	}
+
+	private void solveIslands(float delta) {
+		if (contactCount >= PARALLEL_CONTACTS && islandCount > 1) {
+			pool.invoke(new IslandTask(0, islandCount, delta));
+		} else {
+			for (int island = 0; island < islandCount; island++) {
+				solveIsland(island, delta);
+			}
+		}
+	}
+
+	/**
+	 * Solves the contacts of a island. Islands share no moving body, and static bodies are never written to, so islands can be solved at the same time.
+	 */
+	private void solveIsland(int island, float delta) {
+		int start = islandContactStart[island];
+		int end = islandContactStart[island + 1];
+
+		if (!islandAwake[island] || start == end) {
+			return;
+		}
+
+		// Works out the mass and target velocity of each contact, then applies the warm start impulses.
+		for (int i = start; i < end; i++) {
+			int c = islandContacts[i];
+			RigidBody a = bodies.get(contactA[c]);
+			RigidBody b = bodies.get(contactB[c]);
+			float inverseMassSum = a.getInverseMass() + b.getInverseMass();
+			contactMass[c] = inverseMassSum > 0.0f ? 1.0f / inverseMassSum : 0.0f;
+
+			float normalVelocity = relativeVelocity(a, b, contactNormals, c * 3);
+			float restitution = Math.max(a.getRestitution(), b.getRestitution());
+			float bias = BAUMGARTE / delta * Math.max(contactDepths[c] - PENETRATION_SLOP, 0.0f);
+
+			if (normalVelocity < -RESTITUTION_THRESHOLD) {
+				bias = Math.max(bias, -restitution * normalVelocity);
+			}
+
+			contactBias[c] = bias;
+
+			applyImpulse(a, b, contactNormals, c * 3, normalImpulses[c]);
+			applyImpulse(a, b, contactTangents, c * 6, tangentImpulses[c * 2]);
+			applyImpulse(a, b, contactTangents, c * 6 + 3, tangentImpulses[c * 2 + 1]);
+		}
+
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			for (int i = start; i < end; i++) {
+				int c = islandContacts[i];
+				RigidBody a = bodies.get(contactA[c]);
+				RigidBody b = bodies.get(contactB[c]);
+
+				// Friction, limited by how hard the contact is pushing.
+				float limit = contactFriction[c] * normalImpulses[c];
+
+				for (int t = 0; t < 2; t++) {
+					float tangentVelocity = relativeVelocity(a, b, contactTangents, c * 6 + t * 3);
+					float old = tangentImpulses[c * 2 + t];
+					float impulse = Math.max(-limit, Math.min(old - contactMass[c] * tangentVelocity, limit));
+					tangentImpulses[c * 2 + t] = impulse;
+					applyImpulse(a, b, contactTangents, c * 6 + t * 3, impulse - old);
+				}
+
+				// The normal impulse only ever pushes the bodies apart.
+				float normalVelocity = relativeVelocity(a, b, contactNormals, c * 3);
+				float old = normalImpulses[c];
+				float impulse = Math.max(old + contactMass[c] * (contactBias[c] - normalVelocity), 0.0f);
+				normalImpulses[c] = impulse;
+				applyImpulse(a, b, contactNormals, c * 3, impulse - old);
+			}
+		}
+	}
+
+	/**
+	 * Gets the velocity of the second body relative to the first along a direction.
+	 */
+	private static float relativeVelocity(RigidBody a, RigidBody b, float[] directions, int offset) {
+		Vector3f va = a.getVelocity();
+		Vector3f vb = b.getVelocity();
+		return (vb.x - va.x) * directions[offset] + (vb.y - va.y) * directions[offset + 1] + (vb.z - va.z) * directions[offset + 2];
+	}
+
+	/**
+	 * Applies a impulse along a direction, pushing the first body back and the second body forward.
+	 */
+	private static void applyImpulse(RigidBody a, RigidBody b, float[] directions, int offset, float impulse) {
+		if (impulse == 0.0f) {
+			return;
+		}
+
+		float x = directions[offset] * impulse;
+		float y = directions[offset + 1] * impulse;
+		float z = directions[offset + 2] * impulse;
+
+		if (!a.isStatic()) {
+			Vector3f velocity = a.getVelocity();
+			float inverseMass = a.getInverseMass();
+			velocity.set(velocity.x - x * inverseMass, velocity.y - y * inverseMass, velocity.z - z * inverseMass);
+		}
+
+		if (!b.isStatic()) {
+			Vector3f velocity = b.getVelocity();
+			float inverseMass = b.getInverseMass();
+			velocity.set(velocity.x + x * inverseMass, velocity.y + y * inverseMass, velocity.z + z * inverseMass);
+		}
+	}
+
+	private void integratePositions(float delta) {
+		for (RigidBody body : bodies) {
+			if (body.isStatic() || body.isSleeping()) {
+				continue;
+			}
+
+			Vector3f position = body.getPosition();
+			Vector3f velocity = body.getVelocity();
+			position.set(position.x + velocity.x * delta, position.y + velocity.y * delta, position.z + velocity.z * delta);
+		}
+	}
+
+	/**
+	 * Puts islands to sleep once every body in them has been slow for long enough.
+	 */
+	private void updateSleep(float delta) {
+		for (int island = 0; island < islandCount; island++) {
+			if (!islandAwake[island]) {
+				continue;
+			}
+
+			float minSleepTime = Float.POSITIVE_INFINITY;
+
+			for (int i = islandBodyStart[island]; i < islandBodyStart[island + 1]; i++) {
+				RigidBody body = bodies.get(islandBodies[i]);
+				Vector3f velocity = body.getVelocity();
+
+				if (!body.isAllowSleep() || velocity.lengthSquared() > SLEEP_VELOCITY * SLEEP_VELOCITY) {
+					body.setSleepTime(0.0f);
+				} else {
+					body.setSleepTime(body.getSleepTime() + delta);
+				}
+
+				minSleepTime = Math.min(minSleepTime, body.getSleepTime());
+			}
+
+			if (minSleepTime >= TIME_TO_SLEEP) {
+				for (int i = islandBodyStart[island]; i < islandBodyStart[island + 1]; i++) {
+					bodies.get(islandBodies[i]).sleep();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stores the impulses of this step by pair key in a open addressing table, for the next step to warm start from.
+	 */
+	private void storeImpulses() {
+		int capacity = Integer.highestOneBit(Math.max(16, contactCount * 2)) << 1;
+
+		if (cacheKeys.length != capacity) {
+			cacheKeys = new long[capacity];
+			cacheImpulses = new float[capacity * 6];
+		}
+
+		Arrays.fill(cacheKeys, -1L);
+		cacheMask = capacity - 1;
+
+		for (int c = 0; c < contactCount; c++) {
+			int slot = hash(contactKeys[c]) & cacheMask;
+
+			while (cacheKeys[slot] != -1L) {
+				slot = (slot + 1) & cacheMask;
+			}
+
+			cacheKeys[slot] = contactKeys[c];
+			cacheImpulses[slot * 6] = normalImpulses[c];
+			cacheImpulses[slot * 6 + 1] = tangentImpulses[c * 2];
+			cacheImpulses[slot * 6 + 2] = tangentImpulses[c * 2 + 1];
+			cacheImpulses[slot * 6 + 3] = contactNormals[c * 3];
+			cacheImpulses[slot * 6 + 4] = contactNormals[c * 3 + 1];
+			cacheImpulses[slot * 6 + 5] = contactNormals[c * 3 + 2];
+		}
+	}
+
+	private int findCached(long key) {
+		if (cacheMask == -1) {
+			return -1;
+		}
+
+		int slot = hash(key) & cacheMask;
+
+		while (cacheKeys[slot] != -1L) {
+			if (cacheKeys[slot] == key) {
+				return slot;
+			}
+
+			slot = (slot + 1) & cacheMask;
+		}
+
+		return -1;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Gets the bodies in the world.
+	 *
+	 * @return The bodies.
+	 */
+	public List<RigidBody> getBodies() {
+		return bodies;
+	}
+
+	/**
+	 * Gets the number of contacts found in the last step.
+	 *
+	 * @return The number of contacts.
+	 */
+	public int getContactCount() {
+		return contactCount;
+	}
+
+	/**
+	 * Gets the number of islands found in the last step.
+	 *
+	 * @return The number of islands.
+	 */
+	public int getIslandCount() {
+		return islandCount;
+	}
+
+	public Vector3f getGravity() {
+		return gravity;
+	}
+
+	public void setGravity(Vector3f gravity) {
+		this.gravity.set(gravity);
+	}
+
+	public int getIterations() {
+		return iterations;
+	}
+
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	/**
+	 * Stops the threads used to solve islands.
+	 */
+	public void dispose() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Solves a range of islands, splitting the range in half until it is one island.
+	 */
+	private class IslandTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int start;
+		private final int end;
+		private final float delta;
+
+		private IslandTask(int start, int end, float delta) {
+			this.start = start;
+			this.end = end;
+			this.delta = delta;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= 1) {
+				for (int island = start; island < end; island++) {
+					solveIsland(island, delta);
+				}
+
+				return;
+			}
+
+			int middle = (start + end) >>> 1;
+			invokeAll(new IslandTask(start, middle, delta), new IslandTask(middle, end, delta));
+		}
+	}
+}
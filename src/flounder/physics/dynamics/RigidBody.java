@@ -0,0 +1,337 @@
+package flounder.physics.dynamics;
+
+import flounder.entities.*;
+import flounder.maths.vectors.*;
+import flounder.physics.*;
+
+/**
+ * A body moved by the {@link PhysicsWorld}. The body is shaped by a collider in the space of its entity, which the world moves to the bodies position each
+ * tick. Bodies with no mass are static, they are never moved and only block other bodies.
+ * <p>
+ * Bodies only move, they do not spin, as the AABB and sphere colliders they collide with look the same at every rotation.
+ */
+public class RigidBody {
+	private final Entity entity;
+
+	private Collider shape;
+	private Collider collider;
+	private final Vector3f rotation;
+	private float scale;
+
+	private final Vector3f position;
+	private final Vector3f previousPosition;
+	private final Vector3f velocity;
+	private final Vector3f force;
+
+	private float mass;
+	private float inverseMass;
+	private float restitution;
+	private float friction;
+	private float linearDamping;
+	private float gravityScale;
+
+	private boolean sleeping;
+	private float sleepTime;
+	private boolean allowSleep;
+
+	int index;
+	int id;
+	int proxy;
+
+	/**
+	 * Creates a new rigid body.
+	 *
+	 * @param entity The entity moved by the body, or null.
+	 * @param shape The collider in the space of the entity, or null if it is not known yet.
+	 * @param position The starting position.
+	 * @param mass The mass of the body, 0 for a static body.
+	 */
+	public RigidBody(Entity entity, Collider shape, Vector3f position, float mass) {
+		this.entity = entity;
+
+		this.shape = shape;
+		this.collider = null;
+		this.rotation = new Vector3f();
+		this.scale = 1.0f;
+
+		this.position = new Vector3f(position);
+		this.previousPosition = new Vector3f(position);
+		this.velocity = new Vector3f();
+		this.force = new Vector3f();
+
+		this.restitution = 0.0f;
+		this.friction = 0.5f;
+		this.linearDamping = 0.05f;
+		this.gravityScale = 1.0f;
+		setMass(mass);
+
+		this.sleeping = false;
+		this.sleepTime = 0.0f;
+		this.allowSleep = true;
+
+		this.index = -1;
+		this.id = -1;
+		this.proxy = -1;
+	}
+
+	/**
+	 * Moves the collider of the body to its position.
+	 *
+	 * @return The world collider, or null if the body has no shape.
+	 */
+	Collider updateCollider() {
+		if (shape == null) {
+			collider = null;
+			return null;
+		}
+
+		if (collider == null || !shape.getClass().isInstance(collider)) {
+			collider = shape.clone();
+		}
+
+		return collider = shape.update(position, rotation, scale, collider);
+	}
+
+	/**
+	 * Adds a force to the body, it is applied over the next tick.
+	 *
+	 * @param x The force on the x.
+	 * @param y The force on the y.
+	 * @param z The force on the z.
+	 */
+	public void applyForce(float x, float y, float z) {
+		if (inverseMass == 0.0f) {
+			return;
+		}
+
+		force.set(force.x + x, force.y + y, force.z + z);
+		wake();
+	}
+
+	/**
+	 * Changes the velocity of the body straight away by a impulse.
+	 *
+	 * @param x The impulse on the x.
+	 * @param y The impulse on the y.
+	 * @param z The impulse on the z.
+	 */
+	public void applyImpulse(float x, float y, float z) {
+		if (inverseMass == 0.0f) {
+			return;
+		}
+
+		velocity.set(velocity.x + x * inverseMass, velocity.y + y * inverseMass, velocity.z + z * inverseMass);
+		wake();
+	}
+
+	/**
+	 * Moves the body without it travelling through the space between, such as when its entity is moved directly.
+	 *
+	 * @param x The amount to move on the x.
+	 * @param y The amount to move on the y.
+	 * @param z The amount to move on the z.
+	 */
+	public void translate(float x, float y, float z) {
+		position.set(position.x + x, position.y + y, position.z + z);
+		previousPosition.set(previousPosition.x + x, previousPosition.y + y, previousPosition.z + z);
+		wake();
+	}
+
+	/**
+	 * Wakes the body if it is sleeping.
+	 */
+	public void wake() {
+		sleeping = false;
+		sleepTime = 0.0f;
+	}
+
+	void sleep() {
+		sleeping = true;
+		velocity.set(0.0f, 0.0f, 0.0f);
+		force.set(0.0f, 0.0f, 0.0f);
+	}
+
+	/**
+	 * Gets the position of the body between the last two ticks.
+	 *
+	 * @param alpha How far from the previous tick to the last tick, from 0 to 1.
+	 * @param destination The destination vector, or null if a new vector is to be created.
+	 *
+	 * @return The destination.
+	 */
+	public Vector3f getInterpolatedPosition(float alpha, Vector3f destination) {
+		if (destination == null) {
+			destination = new Vector3f();
+		}
+
+		return destination.set(
+				previousPosition.x + (position.x - previousPosition.x) * alpha,
+				previousPosition.y + (position.y - previousPosition.y) * alpha,
+				previousPosition.z + (position.z - previousPosition.z) * alpha
+		);
+	}
+
+	public Entity getEntity() {
+		return entity;
+	}
+
+	public Collider getShape() {
+		return shape;
+	}
+
+	/**
+	 * Sets the collider shaping the body, in the space of its entity.
+	 *
+	 * @param shape The new shape.
+	 */
+	public void setShape(Collider shape) {
+		this.shape = shape;
+		wake();
+	}
+
+	/**
+	 * Gets the collider of the body where it was at the last tick.
+	 *
+	 * @return The world collider, or null if the body has no shape.
+	 */
+	public Collider getCollider() {
+		return collider;
+	}
+
+	public Vector3f getRotation() {
+		return rotation;
+	}
+
+	public void setRotation(Vector3f rotation) {
+		this.rotation.set(rotation);
+	}
+
+	public float getScale() {
+		return scale;
+	}
+
+	public void setScale(float scale) {
+		this.scale = scale;
+	}
+
+	/**
+	 * Gets the position of the body at the last tick.
+	 *
+	 * @return The position.
+	 */
+	public Vector3f getPosition() {
+		return position;
+	}
+
+	Vector3f getPreviousPosition() {
+		return previousPosition;
+	}
+
+	public Vector3f getVelocity() {
+		return velocity;
+	}
+
+	public void setVelocity(Vector3f velocity) {
+		if (inverseMass != 0.0f) {
+			this.velocity.set(velocity);
+			wake();
+		}
+	}
+
+	Vector3f getForce() {
+		return force;
+	}
+
+	public float getMass() {
+		return mass;
+	}
+
+	/**
+	 * Sets the mass of the body.
+	 *
+	 * @param mass The new mass, 0 or less for a static body.
+	 */
+	public void setMass(float mass) {
+		this.mass = Math.max(mass, 0.0f);
+		this.inverseMass = mass > 0.0f ? 1.0f / mass : 0.0f;
+
+		if (inverseMass == 0.0f) {
+			velocity.set(0.0f, 0.0f, 0.0f);
+			force.set(0.0f, 0.0f, 0.0f);
+		}
+	}
+
+	public float getInverseMass() {
+		return inverseMass;
+	}
+
+	/**
+	 * Gets if the body is static, static bodies have no mass and are never moved by the world.
+	 *
+	 * @return If the body is static.
+	 */
+	public boolean isStatic() {
+		return inverseMass == 0.0f;
+	}
+
+	public float getRestitution() {
+		return restitution;
+	}
+
+	public void setRestitution(float restitution) {
+		this.restitution = restitution;
+	}
+
+	public float getFriction() {
+		return friction;
+	}
+
+	public void setFriction(float friction) {
+		this.friction = friction;
+	}
+
+	public float getLinearDamping() {
+		return linearDamping;
+	}
+
+	public void setLinearDamping(float linearDamping) {
+		this.linearDamping = linearDamping;
+	}
+
+	public float getGravityScale() {
+		return gravityScale;
+	}
+
+	public void setGravityScale(float gravityScale) {
+		this.gravityScale = gravityScale;
+	}
+
+	public boolean isSleeping() {
+		return sleeping;
+	}
+
+	float getSleepTime() {
+		return sleepTime;
+	}
+
+	void setSleepTime(float sleepTime) {
+		this.sleepTime = sleepTime;
+	}
+
+	public boolean isAllowSleep() {
+		return allowSleep;
+	}
+
+	public void setAllowSleep(boolean allowSleep) {
+		this.allowSleep = allowSleep;
+
+		if (!allowSleep) {
+			wake();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "RigidBody{" + "position=" + position + ", velocity=" + velocity + ", mass=" + mass + ", sleeping=" + sleeping + "}";
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains classes for simulating rigid bodies.
+ */
+package flounder.physics.dynamics;
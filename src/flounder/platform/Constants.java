@@ -1390,6 +1390,14 @@ public class Constants {
 	public static final int GL_CLAMP_FRAGMENT_COLOR = 0x891B;
 	public static final int GL_ALPHA_INTEGER = 0x8D97;
 
+	// OpenGL 3.1 constants.
+	public static final int GL_TEXTURE_BUFFER = 0x8C2A;
+	public static final int GL_MAX_TEXTURE_BUFFER_SIZE = 0x8C2B;
+	public static final int GL_TEXTURE_BINDING_BUFFER = 0x8C2C;
+	public static final int GL_TEXTURE_BUFFER_DATA_STORE_BINDING = 0x8C2D;
+	public static final int GL_SAMPLER_BUFFER = 0x8DC2;
+	public static final int GL_UNIFORM_BUFFER = 0x8A11;
+
 	// Extension constants.
 	public static final int GL_TEXTURE_MAX_ANISOTROPY_EXT = 0x84FE;
 	public static final int GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT = 0x84FF;
@@ -31,6 +31,16 @@ public class FlounderPlatform extends Module {
 		return Platform.UNKNOWN;
 	}
 
+	/**
+	 * Gets if this platform runs without a display, graphics or audio backend.
+	 *
+	 * @return If the platform is headless.
+	 */
+	@Module.MethodReplace
+	public boolean isHeadless() {
+		return false;
+	}
+
 	/**
 	 * Gets the time manager for this platform.
 	 *
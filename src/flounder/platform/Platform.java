@@ -10,5 +10,36 @@ public enum Platform {
 	MACOS,
 	HTML5,
 	ANDROID,
-	UNKNOWN
+	UNKNOWN;
+
+	/**
+	 * Gets the desktop platform the JVM is running on from the operating system name and architecture.
+	 *
+	 * @return The desktop platform, or {@link #UNKNOWN} if the system is not a supported desktop.
+	 */
+	public static Platform getDesktopPlatform() {
+		final String OS = System.getProperty("os.name").toLowerCase();
+		final String ARCH = System.getProperty("os.arch").toLowerCase();
+
+		boolean isWindows = OS.contains("windows");
+		boolean isLinux = OS.contains("linux");
+		boolean isMac = OS.contains("mac");
+		boolean is64Bit = ARCH.equals("amd64") || ARCH.equals("x86_64");
+
+		Platform platform = Platform.UNKNOWN;
+
+		if (isWindows) {
+			platform = is64Bit ? Platform.WINDOWS_64 : Platform.WINDOWS_32;
+		}
+
+		if (isLinux) {
+			platform = is64Bit ? Platform.LINUX_64 : Platform.UNKNOWN;
+		}
+
+		if (isMac) {
+			platform = Platform.MACOS;
+		}
+
+		return platform;
+	}
 }
@@ -1,17 +1,14 @@
 package flounder.post.filters;
 
 import flounder.camera.*;
-import flounder.entities.*;
-import flounder.entities.components.*;
 import flounder.fbos.*;
+import flounder.lights.*;
 import flounder.post.*;
 import flounder.resources.*;
 import flounder.shadows.*;
 import flounder.skybox.*;
 
 public class FilterMRT extends PostFilter {
-	private static final int LIGHTS = 64;
-
 	public FilterMRT() {
 		super("filterMRT", new MyFile(PostFilter.POST_LOC, "mrtFragment.glsl"));
 	}
@@ -25,30 +22,15 @@ public class FilterMRT extends PostFilter {
 		shader.getUniformMat4("projectionMatrix").loadMat4(FlounderCamera.get().getCamera().getProjectionMatrix());
 		shader.getUniformMat4("viewMatrix").loadMat4(FlounderCamera.get().getCamera().getViewMatrix());
 
-		int lightsLoaded = 0;
-
-		if (FlounderEntities.get().getEntities() != null) {
-			for (Entity entity : FlounderEntities.get().getEntities().getAll(null)) {
-				ComponentLight componentLight = (ComponentLight) entity.getComponent(ComponentLight.class);
-
-				if (lightsLoaded < LIGHTS && componentLight != null) {
-					shader.getUniformBool("lightActive[" + lightsLoaded + "]").loadBoolean(true);
-					shader.getUniformVec3("lightColour[" + lightsLoaded + "]").loadVec3(componentLight.getLight().getColour());
-					shader.getUniformVec3("lightPosition[" + lightsLoaded + "]").loadVec3(componentLight.getLight().getPosition());
-					shader.getUniformVec3("lightAttenuation[" + lightsLoaded + "]").loadVec3(componentLight.getLight().getAttenuation());
-					lightsLoaded++;
-				}
-			}
-		}
-
-		if (lightsLoaded < LIGHTS) {
-			for (int i = lightsLoaded; i < LIGHTS; i++) {
-				shader.getUniformBool("lightActive[" + i + "]").loadBoolean(false);
-				shader.getUniformVec3("lightColour[" + i + "]").loadVec3(0.0f, 0.0f, 0.0f);
-				shader.getUniformVec3("lightPosition[" + i + "]").loadVec3(0.0f, 0.0f, 0.0f);
-				shader.getUniformVec3("lightAttenuation[" + i + "]").loadVec3(1.0f, 0.0f, 0.0f);
-			}
-		}
+		// Lights are indexed into clusters over the frustum, so each pixel only shades the lights near it.
+		LightClusters clusters = FlounderLights.get().getClusters();
+		clusters.update(FlounderCamera.get().getCamera(), FlounderLights.get().getLights());
+		clusters.bind(5, 6, 7);
+		shader.getUniformInt("clusterCountX").loadInt(clusters.getCountX());
+		shader.getUniformInt("clusterCountY").loadInt(clusters.getCountY());
+		shader.getUniformInt("clusterCountZ").loadInt(clusters.getCountZ());
+		shader.getUniformFloat("clusterNear").loadFloat(clusters.getNear());
+		shader.getUniformFloat("clusterScale").loadFloat(clusters.getScale());
 
 		shader.getUniformMat4("shadowSpaceMatrix").loadMat4(FlounderShadows.get().getToShadowMapSpaceMatrix());
 		shader.getUniformFloat("shadowDistance").loadFloat(FlounderShadows.get().getShadowBoxDistance());
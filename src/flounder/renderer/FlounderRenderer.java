@@ -3,6 +3,7 @@ package flounder.renderer;
 import flounder.camera.*;
 import flounder.devices.*;
 import flounder.framework.*;
+import flounder.lights.*;
 import flounder.shaders.*;
 
 /**
@@ -15,7 +16,7 @@ public class FlounderRenderer extends Module {
 	 * Creates a new OpenGL renderer manager.
 	 */
 	public FlounderRenderer() {
-		super(FlounderDisplay.class, FlounderCamera.class, FlounderShaders.class);
+		super(FlounderDisplay.class, FlounderCamera.class, FlounderShaders.class, FlounderLights.class);
 	}
 
 	@Handler.Function(Handler.FLAG_INIT)
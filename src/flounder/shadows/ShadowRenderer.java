@@ -1,6 +1,8 @@
 package flounder.shadows;
 
+import flounder.animation.*;
 import flounder.camera.*;
+import flounder.collada.*;
 import flounder.devices.*;
 import flounder.entities.*;
 import flounder.entities.components.*;
@@ -24,8 +26,13 @@ public class ShadowRenderer extends Renderer {
 	private FBO shadowFBO;
 	private ShaderObject shader;
 
+	private static final Comparator<ComponentAnimation> BATCH_ORDER = (a, b) -> Integer.compare(System.identityHashCode(a.getModel()), System.identityHashCode(b.getModel()));
+
 	private Matrix4f mvpReusableMatrix;
 	private List<Entity> objects;
+	private List<Entity> singles;
+	private List<ComponentAnimation> instances;
+	private int instancesOffset;
 
 	/**
 	 * Creates a new entity renderer.
@@ -36,6 +43,9 @@ public class ShadowRenderer extends Renderer {
 
 		this.mvpReusableMatrix = new Matrix4f();
 		this.objects = new ArrayList<>();
+		this.singles = new ArrayList<>();
+		this.instances = new ArrayList<>();
+		this.instancesOffset = 0;
 	}
 
 	@Override
@@ -48,7 +58,11 @@ public class ShadowRenderer extends Renderer {
 			prepareRendering(clipPlane, camera);
 
 			if (FlounderEntities.get().getEntities() != null) {
-				for (Entity entity : FlounderEntities.get().getEntities().queryInBounding(FlounderShadows.get().getShadowAABB(), objects)) {
+				FlounderEntities.get().getEntities().queryInBounding(FlounderShadows.get().getShadowAABB(), objects);
+				storeJoints();
+				renderInstances();
+
+				for (Entity entity : singles) {
 					renderEntity(entity);
 				}
 			}
@@ -71,6 +85,85 @@ public class ShadowRenderer extends Renderer {
 		FlounderOpenGL.get().enableDepthTesting();
 	}
 
+	/**
+	 * Packs the joints of every animated entity casting a shadow into the joint palette, and uploads and binds it once for the whole pass. Entities only
+	 * shaped by a skinned model are sorted so ones sharing a model are stored one after another, and drawn together by {@link #renderInstances()}.
+	 */
+	private void storeJoints() {
+		JointPalette palette = FlounderAnimation.get().getJointPalette();
+
+		for (Entity entity : objects) {
+			ComponentAnimation componentAnimation = entity.getComponent(ComponentAnimation.class);
+
+			if (componentAnimation != null && canInstance(entity, componentAnimation)) {
+				instances.add(componentAnimation);
+				continue;
+			}
+
+			if (componentAnimation != null) {
+				componentAnimation.storeJoints(palette);
+			}
+
+			singles.add(entity);
+		}
+
+		instances.sort(BATCH_ORDER);
+		instancesOffset = palette.getCount();
+
+		for (ComponentAnimation instance : instances) {
+			palette.addInstance(instance.getModelMatrix(), instance.getJointTransforms());
+		}
+
+		palette.upload();
+		palette.bind(2);
+	}
+
+	private static boolean canInstance(Entity entity, ComponentAnimation componentAnimation) {
+		ComponentSurface componentSurface = entity.getComponent(ComponentSurface.class);
+
+		return entity.getComponent(ComponentModel.class) == null && entity.getComponent(ComponentSway.class) == null &&
+				(componentSurface == null || componentSurface.isProjectsShadow()) && componentAnimation.getModel() != null &&
+				componentAnimation.getModel().isLoaded() && componentAnimation.getJointTransforms() != null && componentAnimation.getModelMatrix() != null;
+	}
+
+	/**
+	 * Draws the skinned entities stored by {@link #storeJoints()}, each run of entities with the same model is one instanced draw.
+	 */
+	private void renderInstances() {
+		int offset = instancesOffset;
+		int start = 0;
+
+		while (start < instances.size()) {
+			ComponentAnimation first = instances.get(start);
+			int end = start + 1;
+
+			while (end < instances.size() && instances.get(end).getModel() == first.getModel() &&
+					instances.get(end).getJointTransforms().length == first.getJointTransforms().length) {
+				end++;
+			}
+
+			int stride = first.getJointTransforms().length + 1;
+			ModelAnimated model = first.getModel();
+
+			FlounderOpenGL.get().bindVAO(model.getVaoID(), 0, 4, 5);
+			shader.getUniformBool("animated").loadBoolean(true);
+			shader.getUniformBool("instanced").loadBoolean(true);
+			shader.getUniformInt("jointOffset").loadInt(offset);
+			shader.getUniformInt("jointStride").loadInt(stride);
+			shader.getUniformMat4("mvpMatrix").loadMat4(FlounderShadows.get().getProjectionViewMatrix());
+			shader.getUniformBool("swaying").loadBoolean(false);
+			shader.getUniformFloat("swayHeight").loadFloat(0.0f);
+
+			FlounderOpenGL.get().renderElementsInstanced(GL_TRIANGLES, GL_UNSIGNED_INT, model.getVaoLength(), end - start);
+
+			shader.getUniformBool("instanced").loadBoolean(false);
+			FlounderOpenGL.get().unbindVAO(0, 4, 5);
+
+			offset += stride * (end - start);
+			start = end;
+		}
+	}
+
 	private void renderEntity(Entity entity) {
 		if (entity == null) {
 			return;
@@ -78,10 +171,10 @@ public class ShadowRenderer extends Renderer {
 
 		// TODO: Update this cancer.
 
-		ComponentModel componentModel = (ComponentModel) entity.getComponent(ComponentModel.class);
-		ComponentAnimation componentAnimation = (ComponentAnimation) entity.getComponent(ComponentAnimation.class);
-		ComponentSway componentSway = (ComponentSway) entity.getComponent(ComponentSway.class);
-		ComponentSurface componentSurface = (ComponentSurface) entity.getComponent(ComponentSurface.class);
+		ComponentModel componentModel = entity.getComponent(ComponentModel.class);
+		ComponentAnimation componentAnimation = entity.getComponent(ComponentAnimation.class);
+		ComponentSway componentSway = entity.getComponent(ComponentSway.class);
+		ComponentSurface componentSurface = entity.getComponent(ComponentSurface.class);
 
 		if (componentSurface != null && !componentSurface.isProjectsShadow()) {
 			return;
@@ -113,7 +206,9 @@ public class ShadowRenderer extends Renderer {
 			vaoLength = componentModel.getModel().getVaoLength();
 		} else if (componentAnimation != null && componentAnimation.getModel() != null && componentAnimation.getModel().isLoaded()) {
 			FlounderOpenGL.get().bindVAO(componentAnimation.getModel().getVaoID(), 0, 4, 5);
-			shader.getUniformBool("animated").loadBoolean(true);
+			int jointOffset = componentAnimation.storeJoints(FlounderAnimation.get().getJointPalette());
+			shader.getUniformBool("animated").loadBoolean(jointOffset != -1);
+			shader.getUniformInt("jointOffset").loadInt(Math.max(jointOffset, 0));
 
 			if (componentAnimation.getModelMatrix() != null) {
 				Matrix4f.multiply(FlounderShadows.get().getProjectionViewMatrix(), componentAnimation.getModelMatrix(), mvpReusableMatrix);
@@ -123,15 +218,6 @@ public class ShadowRenderer extends Renderer {
 			// Just stop if you are trying to apply a sway to a animated object, rethink life.
 			shader.getUniformFloat("swayHeight").loadFloat(0.0f);
 			vaoLength = componentAnimation.getModel().getVaoLength();
-
-			// Loads joint transforms.
-			Matrix4f[] jointMatrices = componentAnimation.getJointTransforms();
-
-			if (jointMatrices != null) {
-				for (int i = 0; i < jointMatrices.length; i++) {
-					shader.getUniformMat4("jointTransforms[" + i + "]").loadMat4(jointMatrices[i]);
-				}
-			}
 		} else {
 			// No model, so no render!
 			return;
@@ -159,6 +245,8 @@ public class ShadowRenderer extends Renderer {
 		shader.stop();
 		shadowFBO.unbindFrameBuffer();
 		objects.clear();
+		singles.clear();
+		instances.clear();
 	}
 
 	/**
@@ -11,7 +11,7 @@ import java.util.*;
  * Basically a 3D sphere of sound that can be added to the world to provide ambient sound effects to a certain area. The node has 2 radius's; within the
  * inner radius the ambient sound is played at full volume. Between the inner and outer radius's the volume decreases the further away from the node you get.
  */
-public class AmbientNode {
+public class AmbientNode implements IAudioNode {
 	private static final float RADIUS_CHANGE_AGIL = 0.5f;
 	private static final float RANGE_THRESHOLD = 1.2f;
 
@@ -48,6 +48,9 @@ public class AmbientNode {
 		this.pitch = 1.0f;
 
 		this.active = false;
+
+		// The node plays whenever the listener comes within its range, so it is in the audio scene until it is disposed.
+		refreshScene();
 	}
 
 	/**
@@ -55,6 +58,7 @@ public class AmbientNode {
 	 *
 	 * @param delta The time in seconds since the last frame.
 	 */
+	@Override
 	public void update(float delta) {
 		updateValues(delta);
 		float distance = getDistanceFromListener();
@@ -80,7 +84,11 @@ public class AmbientNode {
 	 * @return the distance between the {@link IAudioListener} and the node's centre.
 	 */
 	private float getDistanceFromListener() {
-		return Vector3f.subtract(FlounderSound.get().getCameraPosition(), position, null).length();
+		Vector3f listener = FlounderSound.get().getCameraPosition();
+		float dx = listener.x - position.x;
+		float dy = listener.y - position.y;
+		float dz = listener.z - position.z;
+		return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
 	}
 
 	/**
@@ -129,6 +137,65 @@ public class AmbientNode {
 		}
 	}
 
+	@Override
+	public Vector3f getPosition() {
+		return position;
+	}
+
+	/**
+	 * Sets the position of the centre of the node.
+	 *
+	 * @param x The x position.
+	 * @param y The y position.
+	 * @param z The z position.
+	 */
+	public void setPosition(float x, float y, float z) {
+		position.set(x, y, z);
+
+		if (controller != null) {
+			controller.setPosition(position);
+		}
+
+		refreshScene();
+	}
+
+	@Override
+	public float getAudibleRange() {
+		return Math.max(getRange(), innerRadius.getTarget() + fadeOutRadius.getTarget()) * RANGE_THRESHOLD;
+	}
+
+	@Override
+	public void sleep() {
+		if (active) {
+			controller.stop();
+			active = false;
+		}
+	}
+
+	/**
+	 * Adds this node to the sound modules {@link AudioScene}, or updates its cell if it is already in it.
+	 */
+	private void refreshScene() {
+		AudioScene scene = FlounderSound.get() == null ? null : FlounderSound.get().getAudioScene();
+
+		if (scene != null) {
+			scene.add(this);
+		}
+	}
+
+	/**
+	 * Stops the node and removes it from the sound modules {@link AudioScene}, the node is not played again unless its position or ranges are set.
+	 */
+	public void dispose() {
+		sleep();
+
+		AudioScene scene = FlounderSound.get() == null ? null : FlounderSound.get().getAudioScene();
+
+		if (scene != null) {
+			scene.remove(this);
+		}
+	}
+
 	/**
 	 * @return The distance from the centre of the node to the outer radius.
 	 */
@@ -145,6 +212,7 @@ public class AmbientNode {
 	public void setRanges(float innerRange, float fadeOutRange) {
 		innerRadius.set(innerRange);
 		fadeOutRadius.set(fadeOutRange);
+		refreshScene();
 	}
 
 	/**
@@ -200,6 +268,10 @@ public class AmbientNode {
 	 */
 	public void setVolume(float targetVolume) {
 		volume = targetVolume;
+
+		if (controller != null) {
+			controller.setVolume(volume);
+		}
 	}
 
 	/**
@@ -208,6 +280,10 @@ public class AmbientNode {
 	 * @param targetPitch The desired pitch.
 	 */
 	public void setPitch(float targetPitch) {
-		volume = targetPitch;
+		pitch = targetPitch;
+
+		if (controller != null) {
+			controller.setPitch(pitch);
+		}
 	}
 }
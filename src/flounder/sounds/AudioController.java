@@ -113,6 +113,28 @@ public class AudioController {
 		}
 	}
 
+	/**
+	 * Sets the volume of the source (as long as the source is still playing the sound that this controller was created for).
+	 *
+	 * @param volume The new volume.
+	 */
+	protected void setVolume(float volume) {
+		if (active) {
+			source.setVolume(volume);
+		}
+	}
+
+	/**
+	 * Sets the pitch of the source (as long as the source is still playing the sound that this controller was created for).
+	 *
+	 * @param pitch The new pitch.
+	 */
+	protected void setPitch(float pitch) {
+		if (active) {
+			source.setPitch(pitch);
+		}
+	}
+
 	/**
 	 * @return The volume that the sound is currently being played at.
 	 */
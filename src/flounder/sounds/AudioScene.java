@@ -0,0 +1,226 @@
+package flounder.sounds;
+
+import flounder.maths.vectors.*;
+
+import java.util.*;
+
+/**
+ * A spatial grid of {@link IAudioNode}s. Each frame only the nodes whose range can include the listener are woken and updated, nodes the listener has
+ * left are put to sleep, and every other node is skipped without being looked at. Nodes add themselves when they have something to play, and are
+ * removed once they are asleep or updated with nothing left to play.
+ */
+public class AudioScene {
+	public static final float CELL_SIZE = 32.0f;
+
+	private Map<Long, List<IAudioNode>> cells;
+	private Map<IAudioNode, Long> nodeCells;
+	private float maxRange;
+
+	private Set<IAudioNode> awake;
+	private Set<IAudioNode> lastAwake;
+	private List<IAudioNode> finished;
+
+	/**
+	 * Creates a new empty audio scene.
+	 */
+	public AudioScene() {
+		this.cells = new HashMap<>();
+		this.nodeCells = new HashMap<>();
+		this.maxRange = 0.0f;
+
+		this.awake = new HashSet<>();
+		this.lastAwake = new HashSet<>();
+		this.finished = new ArrayList<>();
+	}
+
+	/**
+	 * Adds a node to the scene.
+	 *
+	 * @param node The node to add.
+	 */
+	public void add(IAudioNode node) {
+		if (nodeCells.containsKey(node)) {
+			refresh(node);
+			return;
+		}
+
+		long key = getCellKey(node.getPosition());
+		cells.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+		nodeCells.put(node, key);
+		maxRange = Math.max(maxRange, node.getAudibleRange());
+	}
+
+	/**
+	 * Moves a node into the cell for its current position and range, this should be called whenever a node moves or its range grows.
+	 *
+	 * @param node The node to refresh, nodes not in this scene are ignored.
+	 */
+	public void refresh(IAudioNode node) {
+		Long oldKey = nodeCells.get(node);
+
+		if (oldKey == null) {
+			return;
+		}
+
+		maxRange = Math.max(maxRange, node.getAudibleRange());
+		long key = getCellKey(node.getPosition());
+
+		if (key != oldKey) {
+			removeFromCell(oldKey, node);
+			cells.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+			nodeCells.put(node, key);
+		}
+	}
+
+	/**
+	 * Removes a node from the scene, putting it to sleep if it was awake.
+	 *
+	 * @param node The node to remove.
+	 */
+	public void remove(IAudioNode node) {
+		Long key = nodeCells.remove(node);
+
+		if (key == null) {
+			return;
+		}
+
+		removeFromCell(key, node);
+
+		if (awake.remove(node)) {
+			node.sleep();
+		}
+
+		if (node.getAudibleRange() >= maxRange) {
+			maxRange = 0.0f;
+			nodeCells.keySet().forEach(n -> maxRange = Math.max(maxRange, n.getAudibleRange()));
+		}
+	}
+
+	private void removeFromCell(long key, IAudioNode node) {
+		List<IAudioNode> cell = cells.get(key);
+
+		if (cell != null) {
+			cell.remove(node);
+
+			if (cell.isEmpty()) {
+				cells.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Wakes and updates every node whose range includes the listener, and puts to sleep any nodes that were awake last frame but no longer are.
+	 *
+	 * @param delta The time in seconds since the last frame.
+	 * @param listener The position of the listener.
+	 */
+	public void update(float delta, Vector3f listener) {
+		Set<IAudioNode> swap = lastAwake;
+		lastAwake = awake;
+		awake = swap;
+		awake.clear();
+
+		int span = (int) Math.ceil(maxRange / CELL_SIZE);
+		long spanCells = (2L * span + 1) * (2L * span + 1) * (2L * span + 1);
+
+		if (spanCells > cells.size()) {
+			// The query covers more cells than are occupied, so just check the occupied ones.
+			for (List<IAudioNode> cell : cells.values()) {
+				wakeInRange(cell, listener);
+			}
+		} else {
+			int cx = getCell(listener.x);
+			int cy = getCell(listener.y);
+			int cz = getCell(listener.z);
+
+			for (int x = cx - span; x <= cx + span; x++) {
+				for (int y = cy - span; y <= cy + span; y++) {
+					for (int z = cz - span; z <= cz + span; z++) {
+						List<IAudioNode> cell = cells.get(getCellKey(x, y, z));
+
+						if (cell != null) {
+							wakeInRange(cell, listener);
+						}
+					}
+				}
+			}
+		}
+
+		for (IAudioNode node : awake) {
+			node.update(delta);
+
+			if (node.getAudibleRange() <= 0.0f) {
+				finished.add(node);
+			}
+		}
+
+		for (IAudioNode node : lastAwake) {
+			if (!awake.contains(node)) {
+				node.sleep();
+
+				if (node.getAudibleRange() <= 0.0f) {
+					finished.add(node);
+				}
+			}
+		}
+
+		// Removed after the updates, as removing nodes changes the awake set.
+		for (IAudioNode node : finished) {
+			remove(node);
+		}
+
+		finished.clear();
+	}
+
+	private void wakeInRange(List<IAudioNode> cell, Vector3f listener) {
+		for (IAudioNode node : cell) {
+			float range = node.getAudibleRange();
+			Vector3f position = node.getPosition();
+			float dx = position.x - listener.x;
+			float dy = position.y - listener.y;
+			float dz = position.z - listener.z;
+
+			if (dx * dx + dy * dy + dz * dz < range * range) {
+				awake.add(node);
+			}
+		}
+	}
+
+	private static int getCell(float value) {
+		return (int) Math.floor(value / CELL_SIZE);
+	}
+
+	private static long getCellKey(Vector3f position) {
+		return getCellKey(getCell(position.x), getCell(position.y), getCell(position.z));
+	}
+
+	private static long getCellKey(int x, int y, int z) {
+		return ((long) (x & 0x1FFFFF) << 42) | ((long) (y & 0x1FFFFF) << 21) | (long) (z & 0x1FFFFF);
+	}
+
+	/**
+	 * @return The amount of nodes in the scene.
+	 */
+	public int getNodeCount() {
+		return nodeCells.size();
+	}
+
+	/**
+	 * @return The amount of nodes woken on the last update.
+	 */
+	public int getAwakeCount() {
+		return awake.size();
+	}
+
+	/**
+	 * Puts every node to sleep and removes them from the scene.
+	 */
+	public void clear() {
+		awake.forEach(IAudioNode::sleep);
+		awake.clear();
+		lastAwake.clear();
+		cells.clear();
+		nodeCells.clear();
+		maxRange = 0.0f;
+	}
+}
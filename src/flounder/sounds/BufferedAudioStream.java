@@ -0,0 +1,148 @@
+package flounder.sounds;
+
+import flounder.platform.*;
+
+import java.nio.*;
+
+/**
+ * Wraps a decoding {@link IAudioStream} with a ring buffer of PCM chunks. The {@link StreamDecoder} thread decodes chunks ahead of time so the
+ * {@link StreamManager} only copies already decoded data when it refills OpenAL buffers.
+ */
+public class BufferedAudioStream implements IAudioStream {
+	public static final int RING_CHUNKS = 4;
+
+	private final IAudioStream stream;
+	private final Object decodeLock;
+
+	private final ByteBuffer[] chunks;
+	private int readIndex;
+	private int count;
+	private boolean closed;
+
+	/**
+	 * Creates a new buffered stream, the stream must be registered with the {@link StreamDecoder} to be decoded ahead.
+	 *
+	 * @param stream The stream to decode from.
+	 * @param chunkSize The maximum amount of bytes in each chunk.
+	 */
+	public BufferedAudioStream(IAudioStream stream, int chunkSize) {
+		this.stream = stream;
+		this.decodeLock = new Object();
+
+		this.chunks = new ByteBuffer[RING_CHUNKS];
+		this.readIndex = 0;
+		this.count = 0;
+		this.closed = false;
+
+		for (int i = 0; i < RING_CHUNKS; i++) {
+			chunks[i] = FlounderPlatform.get().createByteBuffer(chunkSize);
+		}
+	}
+
+	/**
+	 * Decodes one chunk into a free slot of the ring, called from the decoder thread.
+	 *
+	 * @return {@code true} if a chunk was decoded, {@code false} if the ring is full or the stream has ended.
+	 */
+	protected boolean decodeAhead() {
+		synchronized (decodeLock) {
+			int slot;
+
+			synchronized (this) {
+				// The last chunk handed out may still be being copied into an OpenAL buffer, so it is not reused until the next read.
+				if (closed || count >= RING_CHUNKS - 1 || stream.hasEnded()) {
+					return false;
+				}
+
+				slot = (readIndex + count) % RING_CHUNKS;
+			}
+
+			ByteBuffer data = stream.loadNextData();
+			ByteBuffer chunk = chunks[slot];
+			chunk.clear();
+			chunk.put(data);
+			chunk.flip();
+
+			synchronized (this) {
+				count++;
+			}
+
+			return true;
+		}
+	}
+
+	@Override
+	public ByteBuffer loadNextData() {
+		synchronized (this) {
+			if (count > 0) {
+				return takeChunk();
+			}
+		}
+
+		// The decoder has fallen behind, so decodes the chunk on this thread.
+		decodeAhead();
+
+		synchronized (this) {
+			if (count > 0) {
+				return takeChunk();
+			}
+		}
+
+		ByteBuffer empty = chunks[readIndex];
+		empty.clear();
+		empty.flip();
+		return empty;
+	}
+
+	private ByteBuffer takeChunk() {
+		ByteBuffer chunk = chunks[readIndex];
+		readIndex = (readIndex + 1) % RING_CHUNKS;
+		count--;
+		return chunk;
+	}
+
+	@Override
+	public void setStartPoint(int bytesRead) {
+		synchronized (decodeLock) {
+			synchronized (this) {
+				readIndex = 0;
+				count = 0;
+			}
+
+			stream.setStartPoint(bytesRead);
+		}
+	}
+
+	@Override
+	public synchronized boolean hasEnded() {
+		return count == 0 && stream.hasEnded();
+	}
+
+	@Override
+	public int getAlFormat() {
+		return stream.getAlFormat();
+	}
+
+	@Override
+	public int getSampleRate() {
+		return stream.getSampleRate();
+	}
+
+	@Override
+	public int getTotalBytes() {
+		return stream.getTotalBytes();
+	}
+
+	@Override
+	public int getBytesPerFrame() {
+		return stream.getBytesPerFrame();
+	}
+
+	@Override
+	public void close() {
+		synchronized (decodeLock) {
+			closed = true;
+			stream.close();
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package flounder.sounds;
+
+import flounder.maths.vectors.*;
+
+/**
+ * A source of sound in the 3D world that can be stored in an {@link AudioScene}, and is only updated while the {@link IAudioListener} is within its range.
+ */
+public interface IAudioNode {
+	/**
+	 * @return The 3D position of the node.
+	 */
+	Vector3f getPosition();
+
+	/**
+	 * @return The distance from the node that the listener needs to be within for the node to be updated, 0 if the node has nothing to update.
+	 */
+	float getAudibleRange();
+
+	/**
+	 * Updates the node while the listener is within its range.
+	 *
+	 * @param delta The time in seconds since the last frame.
+	 */
+	void update(float delta);
+
+	/**
+	 * Stops any sounds the node is playing, called when the listener leaves the nodes range.
+	 */
+	void sleep();
+}
@@ -0,0 +1,52 @@
+package flounder.sounds;
+
+import java.nio.*;
+
+/**
+ * A stream of decoded PCM audio data, read in chunks to be loaded into OpenAL buffers.
+ */
+public interface IAudioStream {
+	/**
+	 * Loads the next chunk of PCM data. The returned buffer is only valid until the next call.
+	 *
+	 * @return The loaded byte buffer.
+	 */
+	ByteBuffer loadNextData();
+
+	/**
+	 * Seeks the stream so the next chunk starts a number of bytes into the decoded audio. The point is rounded down to a whole frame.
+	 *
+	 * @param bytesRead The amount of decoded bytes to skip.
+	 */
+	void setStartPoint(int bytesRead);
+
+	/**
+	 * @return {@code true} if the stream has read all the audio data and reached the end of the data.
+	 */
+	boolean hasEnded();
+
+	/**
+	 * @return The OpenAL format of the decoded data.
+	 */
+	int getAlFormat();
+
+	/**
+	 * @return The sample rate of the decoded data.
+	 */
+	int getSampleRate();
+
+	/**
+	 * @return The total amount of decoded bytes in the stream.
+	 */
+	int getTotalBytes();
+
+	/**
+	 * @return The amount of bytes in one frame (one sample for every channel) of decoded data.
+	 */
+	int getBytesPerFrame();
+
+	/**
+	 * Closes the stream.
+	 */
+	void close();
+}
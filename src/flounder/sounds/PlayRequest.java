@@ -17,6 +17,7 @@ public class PlayRequest {
 	private Sound sound;
 	private float volume;
 	private float pitch;
+	private float priority;
 
 	/**
 	 * Creates a new sound play request.
@@ -36,6 +37,7 @@ public class PlayRequest {
 		this.sound = sound;
 		this.volume = volume * MusicPlayer.SOUND_VOLUME;
 		this.pitch = pitch;
+		this.priority = 1.0f;
 	}
 
 	/**
@@ -125,7 +127,23 @@ public class PlayRequest {
 	 * @return The pitch at which this sound should be played.
 	 */
 	public float getPitch() {
-		return volume;
+		return pitch;
+	}
+
+	/**
+	 * @return The priority of the sound, used to scale how audible the voice is when choosing which voices get a real source.
+	 */
+	public float getPriority() {
+		return priority;
+	}
+
+	/**
+	 * Sets the priority of the sound, higher priority sounds are kept on a real source ahead of quieter or further sounds.
+	 *
+	 * @param priority The new priority, 1 is the default.
+	 */
+	public void setPriority(float priority) {
+		this.priority = priority;
 	}
 
 	/**
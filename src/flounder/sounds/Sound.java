@@ -24,6 +24,7 @@ public class Sound {
 
 	private int totalBytes;
 	private int bytesRead;
+	private float duration;
 
 	/**
 	 * Creates a new sound. Note the sound hasn't been loaded at this stage.
@@ -40,6 +41,7 @@ public class Sound {
 
 		this.totalBytes = 0;
 		this.bytesRead = 0;
+		this.duration = 0.0f;
 	}
 
 	/**
@@ -179,6 +181,24 @@ public class Sound {
 		return bytesRead;
 	}
 
+	/**
+	 * Gets the length of the sound.
+	 *
+	 * @return The length of the sound in seconds, or 0 if it is not known.
+	 */
+	public float getDuration() {
+		return duration;
+	}
+
+	/**
+	 * Sets the length of the sound.
+	 *
+	 * @param duration The length of the sound in seconds.
+	 */
+	public void setDuration(float duration) {
+		this.duration = duration;
+	}
+
 	/**
 	 * Sets the total number of bytes of audio data in the sound's file.
 	 *
@@ -9,7 +9,7 @@ import java.util.Map.*;
 /**
  * An emitter of sound effects in the 3D world. The volume of sounds emitted from a SoundEmitter depends on how close the {@link IAudioListener} is to the emitter in the 3D world.
  */
-public class SoundEmitter {
+public class SoundEmitter implements IAudioNode {
 	private static final float RANGE_THRESHOLD = 1.2f;
 
 	private Vector3f position;
@@ -34,6 +34,7 @@ public class SoundEmitter {
 	 *
 	 * @param delta The time in seconds since the last frame.
 	 */
+	@Override
 	public void update(float delta) {
 		if (playingSounds.keySet().isEmpty()) {
 			return;
@@ -76,19 +77,38 @@ public class SoundEmitter {
 	 * @return {@code true} if the sound effect would be heard by the listener when played from this emitter.
 	 */
 	private boolean isInRange(SoundEffect soundEffect) {
-		float disSquared = Vector3f.subtract(FlounderSound.get().getCameraPosition(), position, null).lengthSquared();
+		Vector3f listener = FlounderSound.get().getCameraPosition();
+		float dx = listener.x - position.x;
+		float dy = listener.y - position.y;
+		float dz = listener.z - position.z;
 		float range = soundEffect.getRange() * RANGE_THRESHOLD;
-		float rangeSquared = range * range;
-		return disSquared < rangeSquared;
+		return dx * dx + dy * dy + dz * dz < range * range;
 	}
 
 	/**
 	 * @return The position of the emitter in the 3D world.
 	 */
+	@Override
 	public Vector3f getPosition() {
 		return position;
 	}
 
+	@Override
+	public float getAudibleRange() {
+		float range = 0.0f;
+
+		for (SoundEffect soundEffect : playingSounds.keySet()) {
+			range = Math.max(range, soundEffect.getRange() * RANGE_THRESHOLD);
+		}
+
+		return range;
+	}
+
+	@Override
+	public void sleep() {
+		silence();
+	}
+
 	/**
 	 * Sets the position of the emitter in the 3D world.
 	 *
@@ -99,6 +119,7 @@ public class SoundEmitter {
 	public void setPosition(float x, float y, float z) {
 		position.set(x, y, z);
 		playingSounds.values().forEach(audioController -> audioController.setPosition(position));
+		refreshScene();
 	}
 
 	/**
@@ -115,6 +136,7 @@ public class SoundEmitter {
 	 */
 	public void setVolume(float volume) {
 		this.volume = volume;
+		playingSounds.values().forEach(audioController -> audioController.setVolume(volume));
 	}
 
 	/**
@@ -131,6 +153,7 @@ public class SoundEmitter {
 	 */
 	public void setPitch(float pitch) {
 		this.pitch = pitch;
+		playingSounds.values().forEach(audioController -> audioController.setPitch(pitch));
 	}
 
 	/**
@@ -157,6 +180,24 @@ public class SoundEmitter {
 
 		if (controller != null) {
 			playingSounds.put(soundEffect, controller);
+
+			// Playing adds the emitter to the audio scene, which updates it until it has nothing left playing.
+			AudioScene scene = FlounderSound.get().getAudioScene();
+
+			if (scene != null) {
+				scene.add(this);
+			}
+		}
+	}
+
+	/**
+	 * Updates this emitters cell in the sound modules {@link AudioScene}, if it has been added to it.
+	 */
+	private void refreshScene() {
+		AudioScene scene = FlounderSound.get() == null ? null : FlounderSound.get().getAudioScene();
+
+		if (scene != null) {
+			scene.refresh(this);
 		}
 	}
 
@@ -177,5 +218,11 @@ public class SoundEmitter {
 	public void silence() {
 		playingSounds.values().forEach(AudioController::stop);
 		playingSounds.clear();
+
+		AudioScene scene = FlounderSound.get() == null ? null : FlounderSound.get().getAudioScene();
+
+		if (scene != null) {
+			scene.remove(this);
+		}
 	}
 }
@@ -65,6 +65,18 @@ public abstract class SoundSource {
 	 */
 	protected abstract void setPitch(float newPitch);
 
+	/**
+	 * @return The position in seconds the source has reached in the current sound.
+	 */
+	protected abstract float getPlaybackOffset();
+
+	/**
+	 * Seeks the source to a position in the current sound.
+	 *
+	 * @param seconds The position in seconds to play from.
+	 */
+	protected abstract void setPlaybackOffset(float seconds);
+
 	/**
 	 * @param position The 3D position of the source in the world.
 	 */
@@ -5,14 +5,15 @@ import flounder.devices.*;
 import java.util.*;
 
 /**
- * The source pool manager keeps track of all the current sound sources and deals with any requests to play a sound. When a sound needs to be played an
- * unused source is removed from the pool and used to play the sound. When a source finishes playing its current sound it gets added back into the pool.
+ * The source pool manager keeps track of all the current sound sources and deals with any requests to play a sound. Every play request becomes a logical
+ * {@link Voice} in the {@link VoiceManager}, which takes unused sources from the pool for the most audible voices and returns them when voices finish or are virtualised.
  */
 public class SourcePoolManager {
 	private static final int NUMBER_SOURCES = 20;
 
 	private List<SoundSource> sourcePool;
 	private List<SoundSource> usedSources;
+	private VoiceManager voiceManager;
 
 	private float systemVolume;
 
@@ -22,6 +23,7 @@ public class SourcePoolManager {
 	public SourcePoolManager() {
 		this.sourcePool = new ArrayList<>();
 		this.usedSources = new ArrayList<>();
+		this.voiceManager = new VoiceManager(this, NUMBER_SOURCES);
 
 		this.systemVolume = 1.0f;
 
@@ -31,49 +33,58 @@ public class SourcePoolManager {
 	}
 
 	/**
-	 * Updates all the sources that are currently in use playing sounds and returns any sources that have finished playing their sound to the pool.
+	 * Updates all the voices that are currently playing, rebinding sources to the most audible voices and returning sources from finished voices to the pool.
+	 *
+	 * @param delta The time in seconds since the last frame.
 	 */
-	public void update() {
-		Iterator<SoundSource> iterator = usedSources.iterator();
-
-		while (iterator.hasNext()) {
-			SoundSource source = iterator.next();
-
-			if (!source.isPlaying()) {
-				iterator.remove();
-				source.setInactive();
-				sourcePool.add(source);
-			}
-		}
+	public void update(float delta) {
+		voiceManager.update(delta, systemVolume);
 	}
 
 	/**
-	 * Plays a sound on an unused sound source, removing it from the pool.
+	 * Plays a sound on a new voice, the voice is given a source straight away if one is unused.
 	 *
 	 * @param playRequest The sound and information about how to play it.
 	 *
-	 * @return The sound source being used to play the requested sound. Returns {@code null} if there was no source available.
+	 * @return The voice being used to play the requested sound. Returns {@code null} if every voice is in use by a more audible sound.
 	 */
 	public AudioController play(PlayRequest playRequest) {
-		if (!sourcePool.isEmpty()) {
-			SoundSource source = sourcePool.remove(0);
-			usedSources.add(source);
-			source.setPosition(playRequest.getPosition());
-			source.loop(playRequest.isLooping());
-
-			if (!playRequest.isSystemSound()) {
-				source.setRanges(playRequest.getInnerRange(), playRequest.getOuterRange());
-			} else {
-				source.setUndiminishing();
-			}
-
-			Sound sound = playRequest.getSound();
-			source.setVolume(playRequest.getVolume() * sound.getVolume() * systemVolume);
-			source.setPitch(playRequest.getPitch() * sound.getPitch());
-			return source.playSound(sound);
+		if (playRequest.getSound() == null) {
+			return null;
 		}
 
-		return null;
+		return voiceManager.play(playRequest, systemVolume);
+	}
+
+	/**
+	 * Removes an unused source from the pool.
+	 *
+	 * @return The source, or {@code null} if every source is in use.
+	 */
+	protected SoundSource acquire() {
+		if (sourcePool.isEmpty()) {
+			return null;
+		}
+
+		SoundSource source = sourcePool.remove(sourcePool.size() - 1);
+		usedSources.add(source);
+		return source;
+	}
+
+	/**
+	 * Returns a source to the pool once its voice no longer needs it.
+	 *
+	 * @param source The source to return.
+	 */
+	protected void release(SoundSource source) {
+		if (usedSources.remove(source)) {
+			source.setInactive();
+			sourcePool.add(source);
+		}
+	}
+
+	public VoiceManager getVoiceManager() {
+		return voiceManager;
 	}
 
 	public float getSystemVolume() {
@@ -88,6 +99,7 @@ public class SourcePoolManager {
 	 * Deletes all of the sound sources when the game is closed.
 	 */
 	public void dispose() {
+		voiceManager.dispose();
 		sourcePool.forEach(SoundSource::delete);
 	}
 }
@@ -0,0 +1,73 @@
+package flounder.sounds;
+
+import flounder.logger.*;
+
+import java.util.*;
+
+/**
+ * This thread runs in the background and decodes audio ahead of time for every open {@link BufferedAudioStream}, keeping their rings of PCM chunks topped up.
+ */
+public class StreamDecoder extends Thread {
+	public static final long SLEEP_TIME = 20;
+
+	private final List<BufferedAudioStream> streams;
+	private boolean alive;
+
+	/**
+	 * Creates a new object that decodes audio streams in a separate thread.
+	 */
+	public StreamDecoder() {
+		super.setName("sound decoder");
+		super.setDaemon(true);
+		this.streams = new ArrayList<>();
+		this.alive = true;
+	}
+
+	@Override
+	public void run() {
+		while (alive) {
+			boolean decoded = false;
+
+			synchronized (this) {
+				for (BufferedAudioStream stream : streams) {
+					decoded |= stream.decodeAhead();
+				}
+			}
+
+			// Only sleeps once every ring is full, so starts decode as quickly as possible.
+			if (!decoded) {
+				try {
+					sleep(SLEEP_TIME);
+				} catch (InterruptedException e) {
+					FlounderLogger.get().error("Thread could not sleep!");
+					FlounderLogger.get().exception(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts decoding a stream ahead of time.
+	 *
+	 * @param stream The stream to decode.
+	 */
+	public synchronized void add(BufferedAudioStream stream) {
+		streams.add(stream);
+	}
+
+	/**
+	 * Stops decoding a stream.
+	 *
+	 * @param stream The stream to stop decoding.
+	 */
+	public synchronized void remove(BufferedAudioStream stream) {
+		streams.remove(stream);
+	}
+
+	/**
+	 * Stops the thread from running.
+	 */
+	public void kill() {
+		alive = false;
+	}
+}
@@ -41,7 +41,7 @@ public class StreamManager extends Thread {
 	public void run() {
 		while (alive) {
 			for (Streamer streamer : streamers) {
-				streamer.update();
+				updateStreamer(streamer);
 			}
 
 			removeFinishedStreamers();
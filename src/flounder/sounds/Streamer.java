@@ -16,7 +16,7 @@ public class Streamer {
 	private List<Integer> bufferQueue;
 	private SoundSource source;
 	private AudioController controller;
-	private WavDataStream stream;
+	private BufferedAudioStream stream;
 	private boolean initialBufferPlaying;
 
 	/**
@@ -34,8 +34,9 @@ public class Streamer {
 
 		this.source = source;
 		this.controller = controller;
-		stream = WavDataStream.openWavStream(sound.getSoundFile(), StreamManager.SOUND_CHUNK_MAX_SIZE);
+		stream = new BufferedAudioStream(FlounderSound.get().openStream(sound.getSoundFile(), StreamManager.SOUND_CHUNK_MAX_SIZE), StreamManager.SOUND_CHUNK_MAX_SIZE);
 		stream.setStartPoint(sound.getBytesRead());
+		FlounderSound.get().getStreamDecoder().add(stream);
 
 		initialBufferPlaying = true;
 
@@ -138,6 +139,7 @@ public class Streamer {
 	 * When the streaming of the sound has finished the buffers can be deleted.
 	 */
 	protected void delete() {
+		FlounderSound.get().getStreamDecoder().remove(stream);
 		stream.close();
 		bufferQueue.forEach(FlounderSound.get()::deleteBuffer);
 		unusedBuffers.forEach(FlounderSound.get()::deleteBuffer);
@@ -0,0 +1,346 @@
+package flounder.sounds;
+
+import flounder.maths.vectors.*;
+
+/**
+ * A logical playing of a sound. A voice keeps its own playback position and settings, and may or may not be bound to a real {@link SoundSource}.
+ * The {@link VoiceManager} binds the most audible voices to sources, and the rest continue playing virtually until a source is free for them.
+ */
+public class Voice extends AudioController {
+	private static final float FADE_TIME = 2.0f;
+	private static final float SWAP_TIME = 0.05f;
+
+	private Sound sound;
+	private Vector3f position;
+	private float innerRange;
+	private float outerRange;
+	private boolean systemSound;
+	private boolean looping;
+	private float volume;
+	private float pitch;
+	private float priority;
+
+	private SoundSource source;
+	private AudioController sourceController;
+	private float time;
+	private float swapGain;
+	private boolean swappingOut;
+
+	private boolean positionDirty;
+	private boolean pitchDirty;
+	private float appliedGain;
+
+	private boolean active;
+	private boolean fading;
+	private float fadeFactor;
+	private float audibility;
+
+	/**
+	 * Creates a new virtual voice from a play request.
+	 *
+	 * @param request The request containing the sound and the settings to play it with.
+	 */
+	protected Voice(PlayRequest request) {
+		super(null);
+		this.sound = request.getSound();
+		this.position = new Vector3f(request.getPosition());
+		this.innerRange = request.getInnerRange();
+		this.outerRange = request.getOuterRange();
+		this.systemSound = request.isSystemSound();
+		this.looping = request.isLooping();
+		this.volume = request.getVolume() * sound.getVolume();
+		this.pitch = request.getPitch() * sound.getPitch();
+		this.priority = request.getPriority();
+
+		this.source = null;
+		this.sourceController = null;
+		this.time = 0.0f;
+		this.swapGain = 0.0f;
+		this.swappingOut = false;
+
+		this.positionDirty = false;
+		this.pitchDirty = false;
+		this.appliedGain = -1.0f;
+
+		this.active = true;
+		this.fading = false;
+		this.fadeFactor = 1.0f;
+		this.audibility = 0.0f;
+	}
+
+	/**
+	 * Advances the playback position and fades of the voice, finishing the voice if it has reached the end of a non looping sound with a known duration.
+	 *
+	 * @param delta The time in seconds since the last frame.
+	 */
+	protected void advance(float delta) {
+		if (!active) {
+			return;
+		}
+
+		time += delta * pitch;
+
+		if (fading) {
+			fadeFactor -= delta / FADE_TIME;
+
+			if (fadeFactor <= 0.0f) {
+				stop();
+				return;
+			}
+		}
+
+		if (source != null) {
+			if (sourceController == null || !sourceController.isActive() || !source.isPlaying()) {
+				// The source has finished the sound on its own.
+				active = false;
+				return;
+			}
+
+			swapGain = swappingOut ? Math.max(swapGain - delta / SWAP_TIME, 0.0f) : Math.min(swapGain + delta / SWAP_TIME, 1.0f);
+		} else if (!looping && sound.getDuration() > 0.0f && time >= sound.getDuration()) {
+			// Sounds with an unknown duration, such as streams, are kept alive until they are bound and their source finishes.
+			active = false;
+		}
+
+		if (looping && sound.getDuration() > 0.0f) {
+			time %= sound.getDuration();
+		}
+	}
+
+	/**
+	 * Calculates how audible the voice is to the listener, using the same linear clamped distance model as the sources.
+	 *
+	 * @param listener The position of the listener.
+	 * @param bias The amount to scale the audibility by if the voice is already bound to a source, so voices near the cutoff do not thrash.
+	 */
+	protected void updateAudibility(Vector3f listener, float bias) {
+		float attenuation = 1.0f;
+
+		if (!systemSound) {
+			float dx = position.x - listener.x;
+			float dy = position.y - listener.y;
+			float dz = position.z - listener.z;
+			float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+			if (distance >= outerRange) {
+				attenuation = 0.0f;
+			} else if (distance > innerRange) {
+				attenuation = 1.0f - (distance - innerRange) / (outerRange - innerRange);
+			}
+		}
+
+		audibility = volume * fadeFactor * attenuation * priority;
+
+		if (source != null && !swappingOut) {
+			audibility *= bias;
+		}
+	}
+
+	/**
+	 * Starts playing the voice on a real source, from the voices current playback position.
+	 *
+	 * @param source The source to play on.
+	 * @param systemVolume The volume of the sound system.
+	 *
+	 * @return If the voice could be played on the source.
+	 */
+	protected boolean bind(SoundSource source, float systemVolume) {
+		source.setPosition(position);
+
+		if (systemSound) {
+			source.setUndiminishing();
+		} else {
+			source.setRanges(innerRange, outerRange);
+		}
+
+		source.setVolume(0.0f);
+		source.setPitch(pitch);
+		AudioController controller = source.playSound(sound);
+
+		if (controller == null) {
+			return false;
+		}
+
+		if (!sound.needsStreaming()) {
+			source.loop(looping);
+
+			if (time > 0.0f) {
+				source.setPlaybackOffset(time);
+			}
+		}
+
+		this.source = source;
+		this.sourceController = controller;
+		this.swapGain = 0.0f;
+		this.swappingOut = false;
+		this.positionDirty = false;
+		this.pitchDirty = false;
+		this.appliedGain = 0.0f;
+		applyParameters(systemVolume);
+		return true;
+	}
+
+	/**
+	 * Takes the voice off its source, keeping the playback position so it can continue virtually.
+	 *
+	 * @return The source the voice was bound to.
+	 */
+	protected SoundSource unbind() {
+		SoundSource unbound = source;
+
+		if (unbound != null) {
+			if (!sound.needsStreaming() && unbound.isPlaying()) {
+				time = unbound.getPlaybackOffset();
+			}
+
+			unbound.stop();
+		}
+
+		source = null;
+		sourceController = null;
+		swappingOut = false;
+		swapGain = 0.0f;
+		return unbound;
+	}
+
+	/**
+	 * Pushes any position, gain or pitch changes since the last call to the bound source. The gain combines the voices volume, user fade and swap fade.
+	 *
+	 * @param systemVolume The volume of the sound system.
+	 */
+	protected void applyParameters(float systemVolume) {
+		if (source == null) {
+			return;
+		}
+
+		if (positionDirty) {
+			source.setPosition(position);
+			positionDirty = false;
+		}
+
+		if (pitchDirty) {
+			source.setPitch(pitch);
+			pitchDirty = false;
+		}
+
+		float gain = volume * fadeFactor * swapGain * systemVolume;
+
+		if (gain != appliedGain) {
+			source.setVolume(gain);
+			appliedGain = gain;
+		}
+	}
+
+	/**
+	 * Starts fading the voice off its source, once silent the voice can be unbound without a click.
+	 */
+	protected void swapOut() {
+		swappingOut = true;
+	}
+
+	/**
+	 * Stops fading the voice off its source, used when the voice becomes audible enough again before it was unbound.
+	 */
+	protected void swapIn() {
+		swappingOut = false;
+	}
+
+	/**
+	 * @return If the voice has finished fading off its source.
+	 */
+	protected boolean isSwappedOut() {
+		return swappingOut && swapGain <= 0.0f;
+	}
+
+	/**
+	 * @return If the voice can be taken off its source. Streamed sounds stay on their source once bound, as their queued buffers can not be seeked.
+	 */
+	protected boolean canSwapOut() {
+		return !sound.needsStreaming();
+	}
+
+	/**
+	 * @return If the voice is currently playing on a real source.
+	 */
+	public boolean isBound() {
+		return source != null;
+	}
+
+	/**
+	 * @return How audible the voice was to the listener on the last update.
+	 */
+	public float getAudibility() {
+		return audibility;
+	}
+
+	/**
+	 * @return The position in seconds the voice has reached in its sound.
+	 */
+	public float getTime() {
+		return time;
+	}
+
+	/**
+	 * @return The sound being played.
+	 */
+	public Sound getSound() {
+		return sound;
+	}
+
+	@Override
+	protected boolean update(float delta) {
+		return active;
+	}
+
+	@Override
+	public void stop() {
+		active = false;
+	}
+
+	@Override
+	public boolean isActive() {
+		return active;
+	}
+
+	@Override
+	public void setInactive() {
+		active = false;
+	}
+
+	@Override
+	public void fadeOut() {
+		fading = true;
+	}
+
+	@Override
+	protected void setPosition(Vector3f position) {
+		this.position.set(position);
+		this.positionDirty = true;
+	}
+
+	/**
+	 * Sets the volume of the voice, the same as the volume of a {@link PlayRequest}.
+	 *
+	 * @param volume The new volume.
+	 */
+	@Override
+	protected void setVolume(float volume) {
+		this.volume = volume * MusicPlayer.SOUND_VOLUME * sound.getVolume();
+	}
+
+	/**
+	 * Sets the pitch of the voice, the same as the pitch of a {@link PlayRequest}.
+	 *
+	 * @param pitch The new pitch.
+	 */
+	@Override
+	protected void setPitch(float pitch) {
+		this.pitch = pitch * sound.getPitch();
+		this.pitchDirty = true;
+	}
+
+	@Override
+	protected float getVolume() {
+		return volume * fadeFactor;
+	}
+}
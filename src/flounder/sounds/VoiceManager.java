@@ -0,0 +1,162 @@
+package flounder.sounds;
+
+import flounder.devices.*;
+import flounder.maths.vectors.*;
+
+import java.util.*;
+
+/**
+ * The voice manager tracks every logical {@link Voice} being played, ranks them by how audible they are to the listener, and binds only the most audible
+ * voices to the real sources in the {@link SourcePoolManager}. Voices that lose their source fade out, keep their playback position, and are swapped back
+ * in when they become audible enough again.
+ */
+public class VoiceManager {
+	public static final int MAX_VOICES = 256;
+	private static final float BOUND_BIAS = 1.1f;
+
+	private static final Comparator<Voice> AUDIBILITY_ORDER = (a, b) -> Float.compare(b.getAudibility(), a.getAudibility());
+
+	private final SourcePoolManager sourcePool;
+	private final int maxBound;
+	private final List<Voice> voices;
+
+	/**
+	 * Creates a new voice manager.
+	 *
+	 * @param sourcePool The pool of real sources voices are bound to.
+	 * @param maxBound The maximum amount of voices to bind at once.
+	 */
+	public VoiceManager(SourcePoolManager sourcePool, int maxBound) {
+		this.sourcePool = sourcePool;
+		this.maxBound = maxBound;
+		this.voices = new ArrayList<>();
+	}
+
+	/**
+	 * Updates every voice, then binds the most audible voices to sources and fades the rest off their sources.
+	 *
+	 * @param delta The time in seconds since the last frame.
+	 * @param systemVolume The volume of the sound system.
+	 */
+	public void update(float delta, float systemVolume) {
+		Vector3f listener = FlounderSound.get().getCameraPosition();
+
+		for (int i = voices.size() - 1; i >= 0; i--) {
+			Voice voice = voices.get(i);
+			voice.advance(delta);
+
+			if (!voice.isActive()) {
+				release(voice);
+				voices.remove(i);
+				continue;
+			}
+
+			voice.updateAudibility(listener, BOUND_BIAS);
+		}
+
+		voices.sort(AUDIBILITY_ORDER);
+
+		// Fades out voices that have fallen out of the top, freeing their sources first so the top voices can take them.
+		for (int i = 0; i < voices.size(); i++) {
+			Voice voice = voices.get(i);
+
+			if (voice.isBound() && (i >= maxBound || voice.getAudibility() <= 0.0f) && voice.canSwapOut()) {
+				voice.swapOut();
+
+				if (voice.isSwappedOut()) {
+					release(voice);
+				}
+			}
+		}
+
+		for (int i = 0; i < voices.size() && i < maxBound; i++) {
+			Voice voice = voices.get(i);
+
+			if (voice.isBound()) {
+				// Silent voices stay fading out, otherwise they would be swapped straight back in and never free their source.
+				if (voice.getAudibility() > 0.0f) {
+					voice.swapIn();
+				}
+			} else if (voice.getAudibility() > 0.0f) {
+				bind(voice, systemVolume);
+			}
+		}
+
+		// Pushes all source parameter changes for the frame in a single pass.
+		for (Voice voice : voices) {
+			voice.applyParameters(systemVolume);
+		}
+	}
+
+	/**
+	 * Starts a new voice for a play request. The voice is bound straight away if a source is free, otherwise it plays virtually until it ranks high enough.
+	 *
+	 * @param playRequest The sound and information about how to play it.
+	 * @param systemVolume The volume of the sound system.
+	 *
+	 * @return The voice playing the sound, or {@code null} if all voices are in use by more audible sounds.
+	 */
+	public Voice play(PlayRequest playRequest, float systemVolume) {
+		Voice voice = new Voice(playRequest);
+		voice.updateAudibility(FlounderSound.get().getCameraPosition(), BOUND_BIAS);
+
+		if (voices.size() >= MAX_VOICES) {
+			int quietest = 0;
+
+			for (int i = 1; i < voices.size(); i++) {
+				if (voices.get(i).getAudibility() < voices.get(quietest).getAudibility()) {
+					quietest = i;
+				}
+			}
+
+			if (voices.get(quietest).getAudibility() >= voice.getAudibility()) {
+				return null;
+			}
+
+			voices.get(quietest).stop();
+			release(voices.remove(quietest));
+		}
+
+		if (voice.getAudibility() > 0.0f) {
+			bind(voice, systemVolume);
+		}
+
+		voices.add(voice);
+		return voice;
+	}
+
+	private void bind(Voice voice, float systemVolume) {
+		SoundSource source = sourcePool.acquire();
+
+		if (source != null && !voice.bind(source, systemVolume)) {
+			sourcePool.release(source);
+		}
+	}
+
+	private void release(Voice voice) {
+		SoundSource source = voice.unbind();
+
+		if (source != null) {
+			sourcePool.release(source);
+		}
+	}
+
+	/**
+	 * @return The amount of logical voices currently playing.
+	 */
+	public int getVoiceCount() {
+		return voices.size();
+	}
+
+	/**
+	 * Stops every voice and returns their sources to the pool.
+	 */
+	public void dispose() {
+		for (Voice voice : voices) {
+			voice.stop();
+			release(voice);
+		}
+
+		voices.clear();
+	}
+}
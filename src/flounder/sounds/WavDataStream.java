@@ -12,7 +12,7 @@ import java.nio.*;
 /**
  * Class that enables streaming wav data.
  */
-public class WavDataStream {
+public class WavDataStream implements IAudioStream {
 	private int alFormat;
 	private int sampleRate;
 	private int totalBytes;
@@ -66,20 +66,27 @@ public class WavDataStream {
 		return wavStream;
 	}
 
-	/**
-	 * Sets the point to start at.
-	 *
-	 * @param bytesRead Total bytes read.
-	 */
-	protected void setStartPoint(int bytesRead) {
-		totalBytesRead = bytesRead;
+	@Override
+	public void setStartPoint(int bytesRead) {
+		int start = bytesRead - (bytesRead % bytesPerFrame);
+		int skipped = 0;
 
 		try {
-			audioStream.read(data, 0, bytesRead);
+			while (skipped < start) {
+				long skip = audioStream.skip(start - skipped);
+
+				if (skip <= 0) {
+					break;
+				}
+
+				skipped += skip;
+			}
 		} catch (IOException e) {
 			FlounderLogger.get().error("Could not set Wav Data Stream start point!");
 			FlounderLogger.get().exception(e);
 		}
+
+		totalBytesRead = skipped;
 	}
 
 	/**
@@ -89,9 +96,10 @@ public class WavDataStream {
 	 *
 	 * @return The loaded byte buffer.
 	 */
+	@Override
 	public ByteBuffer loadNextData() {
 		try {
-			int bytesRead = audioStream.read(data, 0, chunkSize);
+			int bytesRead = Math.max(audioStream.read(data, 0, chunkSize), 0);
 			totalBytesRead += bytesRead;
 			buffer.clear();
 			buffer.put(data, 0, bytesRead);
@@ -103,32 +111,32 @@ public class WavDataStream {
 		return buffer;
 	}
 
-	/**
-	 * @return {@code true} if the stream has read all the audio data and reached the end of the data.
-	 */
-	protected boolean hasEnded() {
+	@Override
+	public boolean hasEnded() {
 		return totalBytesRead >= totalBytes;
 	}
 
+	@Override
 	public int getAlFormat() {
 		return alFormat;
 	}
 
+	@Override
 	public int getSampleRate() {
 		return sampleRate;
 	}
 
+	@Override
 	public int getTotalBytes() {
 		return totalBytes;
 	}
 
+	@Override
 	public int getBytesPerFrame() {
 		return bytesPerFrame;
 	}
 
-	/**
-	 * Closes the stream.
-	 */
+	@Override
 	public void close() {
 		try {
 			audioStream.close();
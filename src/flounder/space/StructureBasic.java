@@ -11,6 +11,7 @@ import java.util.function.*;
 public class StructureBasic<T extends ISpatialObject> implements ISpatialStructure<T> {
 	private List<T> objects;
 	private List<T> clones;
+	private FrustumCuller culler;
 
 	/**
 	 * Initializes a new Basic 3D Structure.
@@ -18,6 +19,7 @@ public class StructureBasic<T extends ISpatialObject> implements ISpatialStructu
 	public StructureBasic() {
 		this.objects = new ArrayList<>();
 		this.clones = new ArrayList<>();
+		this.culler = new FrustumCuller();
 	}
 
 	@Override
@@ -77,9 +79,22 @@ public class StructureBasic<T extends ISpatialObject> implements ISpatialStructu
 		clones.clear();
 		clones.addAll(objects);
 
-		for (T current : clones) {
-			if (current != null && (current.getCollider() == null || current.getCollider().inFrustum(range))) {
-				result.add(current);
+		// Packs the colliders so they are culled in batches, then keeps the visible objects in order.
+		culler.clear();
+
+		for (int i = 0; i < clones.size(); i++) {
+			T current = clones.get(i);
+
+			if (current != null) {
+				culler.add(i, current.getCollider());
+			}
+		}
+
+		culler.cull(range);
+
+		for (int i = 0; i < clones.size(); i++) {
+			if (culler.isVisible(i)) {
+				result.add(clones.get(i));
 			}
 		}
 
@@ -99,8 +114,11 @@ public class StructureBasic<T extends ISpatialObject> implements ISpatialStructu
 		clones.clear();
 		clones.addAll(objects);
 
+		// One intersect data is reused for every object tested in this query.
+		IntersectData intersect = new IntersectData();
+
 		for (T current : clones) {
-			if (current.getCollider() == null || (range.intersects(current.getCollider()).isIntersection() || range.contains(current.getCollider()))) {
+			if (current.getCollider() == null || (range.intersects(current.getCollider(), intersect).isIntersection() || range.contains(current.getCollider()))) {
 				result.add(current);
 			}
 		}
@@ -0,0 +1,468 @@
+package flounder.terrain;
+
+import flounder.camera.*;
+import flounder.entities.*;
+import flounder.entities.components.*;
+import flounder.framework.*;
+import flounder.logger.*;
+import flounder.maths.vectors.*;
+import flounder.models.*;
+import flounder.physics.*;
+import flounder.resources.*;
+import flounder.textures.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A module that streams chunks of heightfield terrain in and out around the camera. Chunks are requested ring by ring out from the camera, so the nearest
+ * are made first, and their heights and meshes are generated on worker threads. Only a few finished chunks are turned into entities each frame so loading
+ * does not stall a frame. Chunks further from the camera use meshes with fewer heights, and the furthest rings are dropped while the chunks use more memory
+ * than the budget.
+ */
+public class FlounderTerrain extends Module {
+	private static final float DEFAULT_CHUNK_SIZE = 64.0f;
+	private static final int DEFAULT_RESOLUTION = 64;
+	private static final int DEFAULT_VIEW_RADIUS = 6;
+	private static final long DEFAULT_MEMORY_BUDGET = 64L * 1024L * 1024L;
+	private static final int MAX_LOD = 4;
+	private static final int MAX_APPLIED = 4;
+
+	private TerrainGenerator generator;
+	private TextureObject texture;
+	private float chunkSize;
+	private int resolution;
+	private int viewRadius;
+	private long memoryBudget;
+
+	private Map<Long, TerrainChunk> chunks;
+	private Queue<Generated> generated;
+	private List<ModelObject> retired;
+	private ForkJoinPool pool;
+	private int inFlight;
+	private int budgetRadius;
+	private long usedBytes;
+	private int modelCount;
+
+	/**
+	 * Creates a new terrain manager.
+	 */
+	public FlounderTerrain() {
+		super(FlounderEntities.class, FlounderCamera.class, FlounderModels.class, FlounderTextures.class);
+	}
+
+	@Handler.Function(Handler.FLAG_INIT)
+	public void init() {
+		this.generator = null;
+		this.texture = TextureFactory.newBuilder().setFile(new MyFile(MyFile.RES_FOLDER, "undefined.png")).create();
+		this.chunkSize = DEFAULT_CHUNK_SIZE;
+		this.resolution = DEFAULT_RESOLUTION;
+		this.viewRadius = DEFAULT_VIEW_RADIUS;
+		this.memoryBudget = DEFAULT_MEMORY_BUDGET;
+
+		this.chunks = new HashMap<>();
+		this.generated = new ConcurrentLinkedQueue<>();
+		this.retired = new ArrayList<>();
+		this.pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+		this.inFlight = 0;
+		this.budgetRadius = DEFAULT_VIEW_RADIUS;
+		this.usedBytes = 0L;
+		this.modelCount = 0;
+	}
+
+	@Handler.Function(Handler.FLAG_UPDATE_PRE)
+	public void update() {
+		if (chunks == null) {
+			return;
+		}
+
+		applyGenerated();
+		deleteRetired();
+
+		Camera camera = FlounderCamera.get().getCamera();
+
+		if (generator == null || camera == null) {
+			return;
+		}
+
+		int centreX = (int) Math.floor(camera.getPosition().x / chunkSize);
+		int centreZ = (int) Math.floor(camera.getPosition().z / chunkSize);
+		int radius = Math.min(viewRadius, budgetRadius);
+
+		// Chunks are kept one ring past the view, so chunks on the edge are not loaded and unloaded as the camera moves back and forth.
+		unloadBeyond(centreX, centreZ, radius + 1);
+
+		// Requests chunks out from the camera, only a few are queued at once so the nearest chunks are always generated next.
+		int maxInFlight = 2 * pool.getParallelism();
+
+		for (int ring = 0; ring <= radius && inFlight < maxInFlight; ring++) {
+			int lod = getLod(ring);
+
+			for (int dz = -ring; dz <= ring && inFlight < maxInFlight; dz++) {
+				for (int dx = -ring; dx <= ring && inFlight < maxInFlight; dx++) {
+					if (Math.abs(dx) != ring && Math.abs(dz) != ring) {
+						continue;
+					}
+
+					long key = getKey(centreX + dx, centreZ + dz);
+					TerrainChunk chunk = chunks.get(key);
+
+					if (chunk == null) {
+						chunk = new TerrainChunk(centreX + dx, centreZ + dz);
+						chunks.put(key, chunk);
+					}
+
+					if (!chunk.isPending() && chunk.getLod() != lod && chunk.getFailedLod() != lod) {
+						request(chunk, lod);
+					}
+				}
+			}
+		}
+
+		updateBudget(centreX, centreZ);
+	}
+
+	/**
+	 * Gets the level of detail for chunks in a ring, each level is used for twice as many rings as the last.
+	 */
+	private int getLod(int ring) {
+		int maxLod = Math.min(MAX_LOD, Integer.numberOfTrailingZeros(resolution));
+		return Math.min(maxLod, 31 - Integer.numberOfLeadingZeros(Math.max(ring, 1)));
+	}
+
+	private void request(TerrainChunk chunk, int lod) {
+		TerrainGenerator generator = this.generator;
+		Heightfield heightfield = chunk.getLocalHeightfield();
+		int samples = resolution + 1;
+		float spacing = chunkSize / resolution;
+		float originX = chunk.getChunkX() * chunkSize;
+		float originZ = chunk.getChunkZ() * chunkSize;
+		String name = "terrain_" + chunk.getChunkX() + "_" + chunk.getChunkZ() + "_" + lod + "_" + modelCount++;
+
+		chunk.setPending(true);
+		inFlight++;
+
+		pool.execute(() -> {
+			Heightfield chunkHeightfield = heightfield;
+			TerrainMesh mesh = null;
+
+			try {
+				if (chunkHeightfield == null) {
+					float[] heights = new float[samples * samples];
+					generator.getHeights(heights, originX, originZ, spacing, samples, samples);
+					chunkHeightfield = new Heightfield(heights, samples, samples, spacing);
+				}
+
+				mesh = new TerrainMesh(name, generator, chunkHeightfield.getHeights(), samples, spacing, originX, originZ, lod);
+			} catch (Exception e) {
+				FlounderLogger.get().exception(e);
+			} finally {
+				generated.add(new Generated(chunk, chunkHeightfield, mesh, lod));
+			}
+		});
+	}
+
+	private void applyGenerated() {
+		Generated result;
+		int applied = 0;
+
+		while (applied < MAX_APPLIED && (result = generated.poll()) != null) {
+			inFlight--;
+			TerrainChunk chunk = result.chunk;
+
+			// Chunks unloaded while they were generating are dropped.
+			if (chunks.get(getKey(chunk.getChunkX(), chunk.getChunkZ())) != chunk) {
+				continue;
+			}
+
+			chunk.setPending(false);
+
+			if (result.mesh == null) {
+				// The exception has already been logged, the chunk is left as it was until it is wanted at another level of detail.
+				chunk.setFailedLod(result.lod);
+				continue;
+			}
+
+			chunk.setFailedLod(-1);
+
+			Vector3f origin = new Vector3f(chunk.getChunkX() * chunkSize, 0.0f, chunk.getChunkZ() * chunkSize);
+			ModelObject model = ModelFactory.newBuilder().setManual(result.mesh).create();
+
+			if (chunk.getLocalHeightfield() == null) {
+				chunk.setHeightfield(result.heightfield, (Heightfield) result.heightfield.update(origin, null, 1.0f, null));
+			}
+
+			if (chunk.getEntity() == null) {
+				Entity entity = new Entity(FlounderEntities.get().getEntities(), origin, new Vector3f());
+				// The heightfield is added first, as the entity collides with the first collider its components give.
+				new ComponentHeightfield(entity, chunk.getLocalHeightfield());
+				new ComponentModel(entity, 1.0f, false, model, texture, 0);
+				new ComponentCollision(entity);
+				chunk.setEntity(entity);
+			} else {
+				ComponentModel componentModel = chunk.getEntity().getComponent(ComponentModel.class);
+				componentModel.setModel(model);
+				retire(chunk.getModel());
+			}
+
+			long byteSize = 4L * result.heightfield.getHeights().length + result.mesh.getByteSize();
+			usedBytes += byteSize - chunk.getByteSize();
+			chunk.setModel(model);
+			chunk.setLod(result.lod);
+			chunk.setByteSize(byteSize);
+			applied++;
+		}
+	}
+
+	/**
+	 * Drops the furthest rings while the chunks use more memory than the budget, and lets them back once there is room for another ring.
+	 */
+	private void updateBudget(int centreX, int centreZ) {
+		while (usedBytes > memoryBudget && budgetRadius > 1) {
+			int furthest = 0;
+
+			for (TerrainChunk chunk : chunks.values()) {
+				furthest = Math.max(furthest, getRing(chunk, centreX, centreZ));
+			}
+
+			budgetRadius = Math.max(1, Math.min(budgetRadius, furthest) - 1);
+			unloadBeyond(centreX, centreZ, budgetRadius);
+		}
+
+		int loaded = 0;
+
+		for (TerrainChunk chunk : chunks.values()) {
+			if (chunk.getByteSize() > 0L) {
+				loaded++;
+			}
+		}
+
+		// The next ring has 8 more chunks than the ring before it, each costing about as much as a loaded chunk does.
+		if (budgetRadius < viewRadius && loaded > 0 && usedBytes + (usedBytes / loaded) * 8L * (budgetRadius + 1) <= memoryBudget) {
+			budgetRadius++;
+		}
+	}
+
+	private void unloadBeyond(int centreX, int centreZ, int radius) {
+		Iterator<TerrainChunk> iterator = chunks.values().iterator();
+
+		while (iterator.hasNext()) {
+			TerrainChunk chunk = iterator.next();
+
+			if (getRing(chunk, centreX, centreZ) > radius) {
+				unload(chunk);
+				iterator.remove();
+			}
+		}
+	}
+
+	private void unload(TerrainChunk chunk) {
+		if (chunk.getEntity() != null) {
+			chunk.getEntity().forceRemove();
+			chunk.setEntity(null);
+		}
+
+		retire(chunk.getModel());
+		chunk.setModel(null);
+		usedBytes -= chunk.getByteSize();
+		chunk.setByteSize(0L);
+	}
+
+	/**
+	 * Queues a model to be deleted, models still loading are deleted once they have loaded.
+	 */
+	private void retire(ModelObject model) {
+		if (model != null) {
+			retired.add(model);
+		}
+	}
+
+	private void deleteRetired() {
+		Iterator<ModelObject> iterator = retired.iterator();
+
+		while (iterator.hasNext()) {
+			ModelObject model = iterator.next();
+
+			if (model.isLoaded()) {
+				model.delete();
+				iterator.remove();
+			}
+		}
+	}
+
+	private static int getRing(TerrainChunk chunk, int centreX, int centreZ) {
+		return Math.max(Math.abs(chunk.getChunkX() - centreX), Math.abs(chunk.getChunkZ() - centreZ));
+	}
+
+	private static long getKey(int chunkX, int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xffffffffL);
+	}
+
+	/**
+	 * Unloads every chunk, they are generated again around the camera at the next update.
+	 */
+	public void reload() {
+		if (chunks == null) {
+			return;
+		}
+
+		for (TerrainChunk chunk : chunks.values()) {
+			unload(chunk);
+		}
+
+		chunks.clear();
+		budgetRadius = viewRadius;
+	}
+
+	/**
+	 * Gets the height of the loaded terrain at a point.
+	 *
+	 * @param x The world x.
+	 * @param z The world z.
+	 *
+	 * @return The height, or NaN if the chunk at the point has not been loaded.
+	 */
+	public float getHeight(float x, float z) {
+		TerrainChunk chunk = chunks.get(getKey((int) Math.floor(x / chunkSize), (int) Math.floor(z / chunkSize)));
+
+		if (chunk == null || chunk.getHeightfield() == null) {
+			return Float.NaN;
+		}
+
+		return chunk.getHeightfield().getHeight(x, z);
+	}
+
+	/**
+	 * Gets the chunk at a point.
+	 *
+	 * @param x The world x.
+	 * @param z The world z.
+	 *
+	 * @return The chunk, or null if the chunk is not loaded.
+	 */
+	public TerrainChunk getChunk(float x, float z) {
+		return chunks.get(getKey((int) Math.floor(x / chunkSize), (int) Math.floor(z / chunkSize)));
+	}
+
+	public Collection<TerrainChunk> getChunks() {
+		return chunks.values();
+	}
+
+	public TerrainGenerator getGenerator() {
+		return generator;
+	}
+
+	/**
+	 * Sets the generator of the terrain heights, and reloads the terrain.
+	 *
+	 * @param generator The new generator, or null to stop streaming terrain.
+	 */
+	public void setGenerator(TerrainGenerator generator) {
+		this.generator = generator;
+		reload();
+	}
+
+	public TextureObject getTexture() {
+		return texture;
+	}
+
+	public void setTexture(TextureObject texture) {
+		this.texture = texture;
+	}
+
+	public float getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Sets the world size of each chunk, and reloads the terrain.
+	 *
+	 * @param chunkSize The new chunk size.
+	 */
+	public void setChunkSize(float chunkSize) {
+		this.chunkSize = chunkSize;
+		reload();
+	}
+
+	public int getResolution() {
+		return resolution;
+	}
+
+	/**
+	 * Sets the number of cells along each side of a chunk, and reloads the terrain.
+	 *
+	 * @param resolution The new resolution, a power of two.
+	 */
+	public void setResolution(int resolution) {
+		this.resolution = resolution;
+		reload();
+	}
+
+	public int getViewRadius() {
+		return viewRadius;
+	}
+
+	/**
+	 * Sets how many rings of chunks are loaded around the camera.
+	 *
+	 * @param viewRadius The new view radius, in chunks.
+	 */
+	public void setViewRadius(int viewRadius) {
+		this.viewRadius = viewRadius;
+		this.budgetRadius = viewRadius;
+	}
+
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/**
+	 * Sets the memory the loaded chunks should stay under.
+	 *
+	 * @param memoryBudget The new budget, in bytes.
+	 */
+	public void setMemoryBudget(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Gets a estimate of the memory used by the loaded chunks.
+	 *
+	 * @return The used memory, in bytes.
+	 */
+	public long getUsedBytes() {
+		return usedBytes;
+	}
+
+	@Handler.Function(Handler.FLAG_DISPOSE)
+	public void dispose() {
+		if (chunks != null) {
+			pool.shutdownNow();
+			reload();
+			deleteRetired();
+			chunks = null;
+		}
+	}
+
+	@Module.Instance
+	public static FlounderTerrain get() {
+		return (FlounderTerrain) Framework.get().getInstance(FlounderTerrain.class);
+	}
+
+	/**
+	 * The heights and mesh of a chunk made by a worker.
+	 */
+	private static class Generated {
+		private final TerrainChunk chunk;
+		private final Heightfield heightfield;
+		private final TerrainMesh mesh;
+		private final int lod;
+
+		private Generated(TerrainChunk chunk, Heightfield heightfield, TerrainMesh mesh, int lod) {
+			this.chunk = chunk;
+			this.heightfield = heightfield;
+			this.mesh = mesh;
+			this.lod = lod;
+		}
+	}
+}
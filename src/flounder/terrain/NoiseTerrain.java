@@ -0,0 +1,56 @@
+package flounder.terrain;
+
+import flounder.noise.*;
+
+/**
+ * A terrain generator that adds octaves of simplex noise, each at twice the frequency and half the amplitude of the last.
+ */
+public class NoiseTerrain implements TerrainGenerator {
+	private final NoiseField field;
+	private final float amplitude;
+
+	/**
+	 * Creates a new noise terrain.
+	 *
+	 * @param seed The seed of the noise.
+	 * @param octaves The number of octaves added.
+	 * @param frequency The frequency of the first octave, in waves per world unit.
+	 * @param amplitude The amplitude of the first octave.
+	 */
+	public NoiseTerrain(int seed, int octaves, float frequency, float amplitude) {
+		this(new NoiseField(new SimplexNoise(seed), NoiseField.Type.FBM, octaves, frequency, 2.0f, 0.5f), amplitude);
+	}
+
+	/**
+	 * Creates a new noise terrain from a noise field.
+	 *
+	 * @param field The noise field.
+	 * @param amplitude The height the field is multiplied by.
+	 */
+	public NoiseTerrain(NoiseField field, float amplitude) {
+		this.field = field;
+		this.amplitude = amplitude;
+	}
+
+	@Override
+	public float getHeight(float x, float z) {
+		return field.sample(x, z) * amplitude;
+	}
+
+	@Override
+	public void getHeights(float[] destination, float startX, float startZ, float spacing, int samplesX, int samplesZ) {
+		field.fill(destination, startX, startZ, spacing, samplesX, samplesZ);
+
+		for (int i = 0; i < samplesX * samplesZ; i++) {
+			destination[i] *= amplitude;
+		}
+	}
+
+	public NoiseField getField() {
+		return field;
+	}
+
+	public float getAmplitude() {
+		return amplitude;
+	}
+}
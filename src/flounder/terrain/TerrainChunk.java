@@ -0,0 +1,143 @@
+package flounder.terrain;
+
+import flounder.entities.*;
+import flounder.models.*;
+import flounder.physics.*;
+
+/**
+ * A square of terrain streamed in by {@link FlounderTerrain}. The heights are generated once, the mesh is rebuilt from them when the level of detail
+ * changes.
+ */
+public class TerrainChunk {
+	private final int chunkX;
+	private final int chunkZ;
+
+	private Heightfield heightfield;
+	private Heightfield worldHeightfield;
+	private Entity entity;
+	private ModelObject model;
+	private int lod;
+	private int failedLod;
+	private boolean pending;
+	private long byteSize;
+
+	/**
+	 * Creates a new terrain chunk that has not been generated yet.
+	 *
+	 * @param chunkX The chunk index along the x.
+	 * @param chunkZ The chunk index along the z.
+	 */
+	protected TerrainChunk(int chunkX, int chunkZ) {
+		this.chunkX = chunkX;
+		this.chunkZ = chunkZ;
+
+		this.heightfield = null;
+		this.worldHeightfield = null;
+		this.entity = null;
+		this.model = null;
+		this.lod = -1;
+		this.failedLod = -1;
+		this.pending = false;
+		this.byteSize = 0L;
+	}
+
+	public int getChunkX() {
+		return chunkX;
+	}
+
+	public int getChunkZ() {
+		return chunkZ;
+	}
+
+	/**
+	 * Gets the heightfield of the chunk in world space.
+	 *
+	 * @return The heightfield, or null if the heights have not been generated.
+	 */
+	public Heightfield getHeightfield() {
+		return worldHeightfield;
+	}
+
+	protected Heightfield getLocalHeightfield() {
+		return heightfield;
+	}
+
+	protected void setHeightfield(Heightfield heightfield, Heightfield worldHeightfield) {
+		this.heightfield = heightfield;
+		this.worldHeightfield = worldHeightfield;
+	}
+
+	public Entity getEntity() {
+		return entity;
+	}
+
+	protected void setEntity(Entity entity) {
+		this.entity = entity;
+	}
+
+	public ModelObject getModel() {
+		return model;
+	}
+
+	protected void setModel(ModelObject model) {
+		this.model = model;
+	}
+
+	/**
+	 * Gets the level of detail of the mesh.
+	 *
+	 * @return The level of detail, or -1 if no mesh has been built.
+	 */
+	public int getLod() {
+		return lod;
+	}
+
+	protected void setLod(int lod) {
+		this.lod = lod;
+	}
+
+	/**
+	 * Gets the level of detail the chunk last failed to generate at, it is not requested at that level again so a failing generator is not retried
+	 * every frame.
+	 *
+	 * @return The failed level of detail, or -1 if the last generation succeeded.
+	 */
+	public int getFailedLod() {
+		return failedLod;
+	}
+
+	protected void setFailedLod(int failedLod) {
+		this.failedLod = failedLod;
+	}
+
+	/**
+	 * Gets if the chunk is waiting on a worker to generate it.
+	 *
+	 * @return If the chunk is being generated.
+	 */
+	public boolean isPending() {
+		return pending;
+	}
+
+	protected void setPending(boolean pending) {
+		this.pending = pending;
+	}
+
+	/**
+	 * Gets a estimate of the memory used by the heights and mesh of the chunk.
+	 *
+	 * @return The size, in bytes.
+	 */
+	public long getByteSize() {
+		return byteSize;
+	}
+
+	protected void setByteSize(long byteSize) {
+		this.byteSize = byteSize;
+	}
+
+	@Override
+	public String toString() {
+		return "TerrainChunk{" + "chunkX=" + chunkX + ", chunkZ=" + chunkZ + ", lod=" + lod + ", pending=" + pending + ", byteSize=" + byteSize + "}";
+	}
+}
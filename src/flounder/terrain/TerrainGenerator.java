@@ -0,0 +1,28 @@
+package flounder.terrain;
+
+/**
+ * A source of terrain heights. Heights are generated on worker threads, so implementations must be safe to call from many threads at once.
+ */
+public interface TerrainGenerator {
+	/**
+	 * Gets the height of the terrain at a point.
+	 *
+	 * @param x The world x.
+	 * @param z The world z.
+	 *
+	 * @return The height.
+	 */
+	float getHeight(float x, float z);
+
+	/**
+	 * Gets the heights of the terrain over a grid of points, generators that can sample many points at once faster than one at a time should do so here.
+	 *
+	 * @param destination The destination array, in rows along the x for each z.
+	 * @param startX The world x of the first point.
+	 * @param startZ The world z of the first point.
+	 * @param spacing The distance between points.
+	 * @param samplesX The number of points along the x.
+	 * @param samplesZ The number of points along the z.
+	 */
+	void getHeights(float[] destination, float startX, float startZ, float spacing, int samplesX, int samplesZ);
+}
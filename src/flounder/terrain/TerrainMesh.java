@@ -0,0 +1,208 @@
+package flounder.terrain;
+
+import flounder.maths.vectors.*;
+import flounder.models.*;
+import flounder.physics.*;
+
+/**
+ * A model of a square chunk of terrain, built from every few heights of the chunk by its level of detail. Chunks next to each other may use different
+ * levels of detail, so a skirt is hung down from the edges to cover the cracks between them. All arrays are made in the constructor, so meshes can be
+ * built on worker threads.
+ */
+public class TerrainMesh extends ModelLoadManual {
+	private static final float SKIRT_CELLS = 2.0f;
+
+	private final float[] vertices;
+	private final float[] textures;
+	private final float[] normals;
+	private final float[] tangents;
+	private final int[] indices;
+	private final AABB aabb;
+
+	private final TerrainGenerator generator;
+	private final float[] heights;
+	private final int samples;
+	private final float spacing;
+	private final float originX;
+	private final float originZ;
+
+	/**
+	 * Creates a new terrain mesh.
+	 *
+	 * @param name The name of the model.
+	 * @param generator The generator, used for the heights just outside the chunk so normals match the chunks next to it.
+	 * @param heights The heights of the chunk, in rows along the x for each z.
+	 * @param samples The number of heights along each side, one more than a power of two.
+	 * @param spacing The distance between heights.
+	 * @param originX The world x of the first height.
+	 * @param originZ The world z of the first height.
+	 * @param lod The level of detail, the mesh uses every 2 to the power of this heights.
+	 */
+	public TerrainMesh(String name, TerrainGenerator generator, float[] heights, int samples, float spacing, float originX, float originZ, int lod) {
+		super(name);
+
+		this.generator = generator;
+		this.heights = heights;
+		this.samples = samples;
+		this.spacing = spacing;
+		this.originX = originX;
+		this.originZ = originZ;
+
+		int step = Math.max(1, Math.min(1 << lod, samples - 1));
+		int grid = (samples - 1) / step + 1;
+		int perimeter = 4 * (grid - 1);
+		int count = grid * grid + perimeter;
+		float skirtDepth = spacing * step * SKIRT_CELLS;
+
+		this.vertices = new float[count * 3];
+		this.textures = new float[count * 2];
+		this.normals = new float[count * 3];
+		this.tangents = new float[count * 3];
+		this.indices = new int[((grid - 1) * (grid - 1) + perimeter) * 6];
+
+		float minHeight = Float.POSITIVE_INFINITY;
+		float maxHeight = Float.NEGATIVE_INFINITY;
+
+		for (int j = 0; j < grid; j++) {
+			for (int i = 0; i < grid; i++) {
+				int vertex = j * grid + i;
+				int x = i * step;
+				int z = j * step;
+				float height = heights[z * samples + x];
+				minHeight = Math.min(minHeight, height);
+				maxHeight = Math.max(maxHeight, height);
+
+				vertices[vertex * 3] = x * spacing;
+				vertices[vertex * 3 + 1] = height;
+				vertices[vertex * 3 + 2] = z * spacing;
+
+				textures[vertex * 2] = (float) i / (grid - 1);
+				textures[vertex * 2 + 1] = (float) j / (grid - 1);
+
+				// Normals and tangents come from the full heights, so they do not change with the level of detail.
+				float slopeX = getSample(x + 1, z) - getSample(x - 1, z);
+				float slopeZ = getSample(x, z + 1) - getSample(x, z - 1);
+				float normalLength = (float) Math.sqrt(slopeX * slopeX + 4.0f * spacing * spacing + slopeZ * slopeZ);
+				normals[vertex * 3] = -slopeX / normalLength;
+				normals[vertex * 3 + 1] = 2.0f * spacing / normalLength;
+				normals[vertex * 3 + 2] = -slopeZ / normalLength;
+
+				float tangentLength = (float) Math.sqrt(4.0f * spacing * spacing + slopeX * slopeX);
+				tangents[vertex * 3] = 2.0f * spacing / tangentLength;
+				tangents[vertex * 3 + 1] = slopeX / tangentLength;
+				tangents[vertex * 3 + 2] = 0.0f;
+			}
+		}
+
+		int index = 0;
+
+		for (int j = 0; j < grid - 1; j++) {
+			for (int i = 0; i < grid - 1; i++) {
+				int corner = j * grid + i;
+
+				// Split the same way as the heightfield collider, so the ground looks where it collides.
+				indices[index++] = corner;
+				indices[index++] = corner + grid;
+				indices[index++] = corner + 1;
+				indices[index++] = corner + 1;
+				indices[index++] = corner + grid;
+				indices[index++] = corner + grid + 1;
+			}
+		}
+
+		// Walks the edge around the chunk in one direction, so every skirt triangle faces out of the chunk.
+		int skirt = grid * grid;
+
+		for (int k = 0; k < perimeter; k++) {
+			int edge = getPerimeter(k, grid);
+			int vertex = skirt + k;
+
+			vertices[vertex * 3] = vertices[edge * 3];
+			vertices[vertex * 3 + 1] = vertices[edge * 3 + 1] - skirtDepth;
+			vertices[vertex * 3 + 2] = vertices[edge * 3 + 2];
+			System.arraycopy(textures, edge * 2, textures, vertex * 2, 2);
+			System.arraycopy(normals, edge * 3, normals, vertex * 3, 3);
+			System.arraycopy(tangents, edge * 3, tangents, vertex * 3, 3);
+
+			int next = (k + 1) % perimeter;
+			indices[index++] = edge;
+			indices[index++] = getPerimeter(next, grid);
+			indices[index++] = vertex;
+			indices[index++] = getPerimeter(next, grid);
+			indices[index++] = skirt + next;
+			indices[index++] = vertex;
+		}
+
+		float size = (samples - 1) * spacing;
+		this.aabb = new AABB(new Vector3f(0.0f, minHeight - skirtDepth, 0.0f), new Vector3f(size, maxHeight, size));
+	}
+
+	/**
+	 * Gets the grid vertex at a place along the edge, going along the near x edge, the far z edge, the far x edge, then the near z edge.
+	 */
+	private static int getPerimeter(int k, int grid) {
+		int side = grid - 1;
+
+		if (k < side) {
+			return k;
+		} else if (k < 2 * side) {
+			return (k - side) * grid + side;
+		} else if (k < 3 * side) {
+			return side * grid + (3 * side - k);
+		}
+
+		return (4 * side - k) * grid;
+	}
+
+	private float getSample(int x, int z) {
+		if (x >= 0 && z >= 0 && x < samples && z < samples) {
+			return heights[z * samples + x];
+		}
+
+		return generator.getHeight(originX + x * spacing, originZ + z * spacing);
+	}
+
+	/**
+	 * Gets a estimate of the memory used by the mesh arrays.
+	 *
+	 * @return The size, in bytes.
+	 */
+	public long getByteSize() {
+		return 4L * (vertices.length + textures.length + normals.length + tangents.length + indices.length);
+	}
+
+	@Override
+	public float[] getVertices() {
+		return vertices;
+	}
+
+	@Override
+	public float[] getTextures() {
+		return textures;
+	}
+
+	@Override
+	public float[] getNormals() {
+		return normals;
+	}
+
+	@Override
+	public float[] getTangents() {
+		return tangents;
+	}
+
+	@Override
+	public int[] getIndices() {
+		return indices;
+	}
+
+	@Override
+	public boolean isSmoothShading() {
+		return true;
+	}
+
+	@Override
+	public AABB getAABB() {
+		return aabb;
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains classes for generating and streaming heightfield terrain.
+ */
+package flounder.terrain;